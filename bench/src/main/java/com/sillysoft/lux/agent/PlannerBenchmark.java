@@ -0,0 +1,100 @@
+package com.sillysoft.lux.agent;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+//
+//  PlannerBenchmark.java
+//
+//  Micro-benchmarks for the graph searches at the heart of Viking's planner, each measured on its own
+//  against the same mid-game position (see PlannerFixture) on synthetic maps of increasing size.
+//  Run with the gc profiler to get allocation rates as well as times:
+//    java -jar bench/target/benchmarks.jar PlannerBenchmark -prof gc
+//  and pick other map layouts (see MapGenerator) to chart how each search scales with topology:
+//    java -jar bench/target/benchmarks.jar PlannerBenchmark -p layout=grid,chain,hub,random,giant -rf csv
+//
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlannerBenchmark
+{
+    @Param({"40", "200", "1000", "5000"})
+    public int countries;
+
+    @Param({"grid"})
+    public String layout;
+
+    @Param({"1"})
+    public long seed;
+
+    protected PlannerFixture fixture;
+    protected Viking viking;
+
+    // a country of ours in the target area for findAreaPaths() to start from (or the area's first country)
+    protected int[] startHistory;
+    protected int[] targetBorders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = PlannerFixture.create(layout, countries, seed, 3);
+        viking = fixture.viking;
+        // measure the searches themselves, not how soon a turn's search time runs out
+        viking.takeoverSearchMillis = 0;
+
+        int start = fixture.targetArea[0];
+        for (int country : fixture.targetArea) {
+            if (fixture.board.getCountries()[country].getOwner() == 0) {
+                start = country;
+                break;
+            }
+        }
+        startHistory = new int[]{start};
+        targetBorders = viking.getAreaBorders(fixture.targetArea);
+    }
+
+    // (findAreaPaths() gives each search a path budget of its own, so there's nothing to reset)
+    @Benchmark
+    public Object findAreaPaths() {
+        return viking.findAreaPaths(startHistory, fixture.targetArea);
+    }
+
+    @Benchmark
+    public Object getAreaTakeoverPaths() {
+        return viking.getAreaTakeoverPaths(fixture.targetArea);
+    }
+
+    @Benchmark
+    public int[] getCheapestRouteToArea() {
+        return viking.getCheapestRouteToArea(fixture.remoteArea, true);
+    }
+
+    // calculateIdealBorderStrength() (and so findNeighborsThreat()) for every border of the target area
+    @Benchmark
+    public int calculateIdealBorderStrength() {
+        int total = 0;
+        for (int border : targetBorders) {
+            total += viking.calculateIdealBorderStrength(border, fixture.targetArea);
+        }
+        return total;
+    }
+
+    // with nobody blacklisted, this mostly hands back the smart areas the map analysis already has (see VikingMapAnalysis)
+    @Benchmark
+    public Object calculateSmartAreas() {
+        return viking.calculateSmartAreas();
+    }
+
+    // the work calculateSmartAreas() saves: getSmartBordersArea() itself, for every continent
+    @Benchmark
+    public int getSmartBordersArea() {
+        int total = 0;
+        for (int continent=0; continent<viking.numConts; continent++) {
+            total += viking.getSmartBordersArea(viking.getCountriesInContinent(continent)).length;
+        }
+        return total;
+    }
+}
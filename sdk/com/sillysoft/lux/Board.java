@@ -0,0 +1,695 @@
+package com.sillysoft.lux;
+
+import com.sillysoft.lux.agent.LuxAgent;
+import java.io.PrintStream;
+import java.util.*;
+
+//
+//  Board.java
+//
+//  Headless stand-in for the Lux SDK's Board.
+//  It owns the live Country[] that agents keep a reference to, answers the same queries
+//  the Lux app does, and resolves placeArmies(), attack() and fortifyArmies() with the usual rules:
+//    - an attack rolls up to 3 dice against up to 2, highest dice compared pairwise, ties go to the defender
+//    - a conquering attacker asks its agent how many armies to moveArmiesIn() (at least the dice it attacked with)
+//    - eliminating a player hands over their cards, and 6 or more cards must be cashed on the spot
+//    - fortified armies can only move once per turn
+//  HeadlessGame drives the phases; agents only ever see the public query and action methods.
+//
+
+public class Board
+{
+    // the phases the board can be in; actions are only legal in their own phase
+    static final int PHASE_SETUP = 0;
+    static final int PHASE_CARDS = 1;
+    static final int PHASE_PLACE = 2;
+    static final int PHASE_ATTACK = 3;
+    static final int PHASE_FORTIFY = 4;
+
+    private LuxMap map;
+    private Country[] countries;
+    private int[][] continentMembers;
+
+    private LuxAgent[] agents;
+    private String[] playerNames;
+
+    // the dice (and every other random choice the board makes)
+    private Random random;
+
+    // cards: the draw pile, the discard pile and every player's hand
+    private ArrayList<Card> deck;
+    private ArrayList<Card> discards;
+    private ArrayList<ArrayList<Card>> hands;
+    private int cardSetsCashed;
+
+    private int turnCount;
+    private int currentPlayer;
+    private int phase;
+    private int armiesToPlace;
+    private boolean conqueredThisTurn;
+    private boolean gameOver;
+
+    // income is asked for constantly, so we cache it until ownership changes
+    private int[] incomeCache;
+    private boolean incomeValid;
+
+    // where chat goes; null means chat is dropped
+    private PrintStream chatLog;
+
+    Board(LuxMap map, LuxAgent[] agents, String[] playerNames, Random random)
+    {
+        this.map = map;
+        this.agents = agents;
+        this.playerNames = playerNames;
+        this.random = random;
+
+        int size = map.getNumberOfCountries();
+        countries = new Country[size];
+        for (int code=0; code<size; code++) {
+            countries[code] = new Country(code, map.getCountryName(code), map.getCountryContinent(code));
+        }
+        int[][] adjoining = map.buildAdjoiningLists();
+        for (int code=0; code<size; code++) {
+            countries[code].setConnections(map.getGotoList(code), adjoining[code], countries);
+        }
+
+        int numConts = map.getNumberOfContinents();
+        int[] contSizes = new int[numConts];
+        for (int code=0; code<size; code++) {
+            contSizes[map.getCountryContinent(code)]++;
+        }
+        continentMembers = new int[numConts][];
+        for (int cont=0; cont<numConts; cont++) {
+            continentMembers[cont] = new int[contSizes[cont]];
+            contSizes[cont] = 0;
+        }
+        for (int code=0; code<size; code++) {
+            int cont = map.getCountryContinent(code);
+            continentMembers[cont][contSizes[cont]++] = code;
+        }
+
+        // one card per country with the symbols dealt out in turn, plus two wildcards
+        deck = new ArrayList<Card>();
+        for (int code=0; code<size; code++) {
+            deck.add(new Card(code, code % 3));
+        }
+        deck.add(new Card(-1, Card.WILDCARD));
+        deck.add(new Card(-1, Card.WILDCARD));
+        Collections.shuffle(deck, random);
+        discards = new ArrayList<Card>();
+        hands = new ArrayList<ArrayList<Card>>();
+        for (int player=0; player<agents.length; player++) {
+            hands.add(new ArrayList<Card>());
+        }
+        cardSetsCashed = 0;
+
+        turnCount = 0;
+        currentPlayer = -1;
+        phase = PHASE_SETUP;
+        incomeCache = new int[agents.length];
+        incomeValid = false;
+    }
+
+    // ==================================================================== //
+    //   the read-only queries the Lux app offers agents
+    // ==================================================================== //
+
+    // the live country array; the same array is returned every time, so agents can hold on to it
+    public Country[] getCountries()
+    {
+        return countries;
+    }
+
+    public int getNumberOfCountries()
+    {
+        return countries.length;
+    }
+
+    public int getNumberOfContinents()
+    {
+        return map.getNumberOfContinents();
+    }
+
+    public int getContinentBonus(int continent)
+    {
+        return map.getContinentBonus(continent);
+    }
+
+    public String getContinentName(int continent)
+    {
+        return map.getContinentName(continent);
+    }
+
+    public String getMapTitle()
+    {
+        return map.getTitle();
+    }
+
+    // the number of players that started the game
+    public int getNumberOfPlayers()
+    {
+        return agents.length;
+    }
+
+    public int getNumberOfPlayersLeft()
+    {
+        int left = 0;
+        for (int player=0; player<agents.length; player++) {
+            if (countCountries(player) > 0) {
+                left++;
+            }
+        }
+        return left;
+    }
+
+    public String getPlayerName(int player)
+    {
+        if (player < 0 || player >= playerNames.length) {
+            return "Nobody";
+        }
+        return playerNames[player];
+    }
+
+    // the name() of the agent playing <player>, e.g. "Viking"
+    public String getAgentName(int player)
+    {
+        if (player < 0 || player >= agents.length) {
+            return null;
+        }
+        return agents[player].name();
+    }
+
+    // the number of armies <player> would get at the start of a turn (not counting cards):
+    // a third of their countries (but at least 3) plus the bonus of every continent they own
+    public int getPlayerIncome(int player)
+    {
+        if (player < 0 || player >= agents.length) {
+            return 0;
+        }
+        if (!incomeValid) {
+            recalculateIncomes();
+        }
+        return incomeCache[player];
+    }
+
+    public int getPlayerCards(int player)
+    {
+        if (player < 0 || player >= agents.length) {
+            return 0;
+        }
+        return hands.get(player).size();
+    }
+
+    // the number of armies the next card set will be worth: 4, 6, 8, 10, 12, 15 and then 5 more each time
+    public int getNextCardSetValue()
+    {
+        if (cardSetsCashed < 5) {
+            return 4 + 2 * cardSetsCashed;
+        }
+        return 15 + 5 * (cardSetsCashed - 5);
+    }
+
+    // the number of rounds that have started (0 while countries are being picked and initial armies placed)
+    public int getTurnCount()
+    {
+        return turnCount;
+    }
+
+    public void sendChat(String message)
+    {
+        if (chatLog != null) {
+            chatLog.println("[" + getPlayerName(currentPlayer) + "] " + message);
+        }
+    }
+
+    // ==================================================================== //
+    //   the actions agents can take
+    // ==================================================================== //
+
+    // place armies on a country we own during the placement phase;
+    // returns the number of armies actually placed
+    public int placeArmies(int numberOfArmies, int countryCode)
+    {
+        if (phase != PHASE_PLACE || numberOfArmies <= 0 || !isCountry(countryCode) || countries[countryCode].getOwner() != currentPlayer) {
+            return 0;
+        }
+        int placed = Math.min(numberOfArmies, armiesToPlace);
+        countries[countryCode].addArmies(placed);
+        armiesToPlace -= placed;
+        return placed;
+    }
+
+    public int placeArmies(int numberOfArmies, Country country)
+    {
+        return placeArmies(numberOfArmies, country.getCode());
+    }
+
+    // attack <defenderCode> from <attackerCode>; if <attackTillDead> is true keep rolling until
+    // either the defender is conquered or the attacker is down to one army;
+    // returns 1 if the defender was conquered, 0 if it wasn't, and -1 if the attack wasn't legal
+    public int attack(int attackerCode, int defenderCode, boolean attackTillDead)
+    {
+        if (phase != PHASE_ATTACK || gameOver || !isCountry(attackerCode) || !isCountry(defenderCode)) {
+            return -1;
+        }
+        Country attacker = countries[attackerCode];
+        Country defender = countries[defenderCode];
+        if (attacker.getOwner() != currentPlayer || defender.getOwner() == currentPlayer || attacker.getArmies() < 2 || !attacker.canGoto(defenderCode)) {
+            return -1;
+        }
+
+        int attackDice = 0;
+        do {
+            attackDice = Math.min(3, attacker.getArmies() - 1);
+            int defendDice = Math.min(2, defender.getArmies());
+            rollBattle(attacker, defender, attackDice, defendDice);
+            if (defender.getArmies() == 0) {
+                conquer(attacker, defender, attackDice);
+                return 1;
+            }
+        } while (attackTillDead && attacker.getArmies() > 1);
+
+        return 0;
+    }
+
+    public int attack(Country attacker, Country defender, boolean attackTillDead)
+    {
+        return attack(attacker.getCode(), defender.getCode(), attackTillDead);
+    }
+
+    // move armies between two of our countries during the fortify phase;
+    // armies that were already fortified this turn can't move again, and one army always stays behind;
+    // returns 1 if the armies were moved, 0 if the move wasn't legal
+    public int fortifyArmies(int numberOfArmies, int originCode, int destinationCode)
+    {
+        if (phase != PHASE_FORTIFY || numberOfArmies <= 0 || !isCountry(originCode) || !isCountry(destinationCode)) {
+            return 0;
+        }
+        Country origin = countries[originCode];
+        Country destination = countries[destinationCode];
+        if (origin.getOwner() != currentPlayer || destination.getOwner() != currentPlayer || !origin.canGoto(destinationCode)) {
+            return 0;
+        }
+        int moveable = Math.min(origin.getMoveableArmies(), origin.getArmies() - 1);
+        if (numberOfArmies > moveable) {
+            return 0;
+        }
+        origin.addArmies(-numberOfArmies);
+        destination.addArmies(numberOfArmies);
+        destination.setFortifiedIn(destination.getFortifiedIn() + numberOfArmies);
+        return 1;
+    }
+
+    public int fortifyArmies(int numberOfArmies, Country origin, Country destination)
+    {
+        return fortifyArmies(numberOfArmies, origin.getCode(), destination.getCode());
+    }
+
+    // cash in a set of cards during the cards phase;
+    // the armies are added to the ones we get to place this turn
+    public boolean useCards(Card card1, Card card2, Card card3)
+    {
+        if (phase != PHASE_CARDS && phase != PHASE_PLACE) {
+            return false;
+        }
+        ArrayList<Card> hand = hands.get(currentPlayer);
+        if (card1 == card2 || card1 == card3 || card2 == card3 || !hand.contains(card1) || !hand.contains(card2) || !hand.contains(card3)) {
+            return false;
+        }
+        if (!isSet(card1, card2, card3)) {
+            return false;
+        }
+        armiesToPlace += cashSet(hand, card1, card2, card3);
+        return true;
+    }
+
+    // returns a copy of <player>'s hand
+    public Card[] getPlayerCardsArray(int player)
+    {
+        return hands.get(player).toArray(new Card[0]);
+    }
+
+    // ==================================================================== //
+    //   game control, used by HeadlessGame
+    // ==================================================================== //
+
+    void setChatLog(PrintStream chatLog)
+    {
+        this.chatLog = chatLog;
+    }
+
+    LuxAgent getAgent(int player)
+    {
+        return agents[player];
+    }
+
+    Random getRandom()
+    {
+        return random;
+    }
+
+    void setTurnCount(int turnCount)
+    {
+        this.turnCount = turnCount;
+    }
+
+    void setCardSetsCashed(int cardSetsCashed)
+    {
+        this.cardSetsCashed = cardSetsCashed;
+    }
+
+    int getCardSetsCashed()
+    {
+        return cardSetsCashed;
+    }
+
+    boolean isGameOver()
+    {
+        return gameOver;
+    }
+
+    boolean conqueredThisTurn()
+    {
+        return conqueredThisTurn;
+    }
+
+    int getArmiesToPlace()
+    {
+        return armiesToPlace;
+    }
+
+    void setCountry(int code, int owner, int armies)
+    {
+        countries[code].setOwner(owner);
+        countries[code].setArmies(armies);
+        incomeValid = false;
+    }
+
+    void beginTurn(int player)
+    {
+        currentPlayer = player;
+        conqueredThisTurn = false;
+    }
+
+    void beginCards()
+    {
+        phase = PHASE_CARDS;
+        armiesToPlace = 0;
+    }
+
+    // start a placement phase; any armies already cashed from cards are added to <armies>
+    void beginPlacement(int armies)
+    {
+        phase = PHASE_PLACE;
+        armiesToPlace += armies;
+    }
+
+    void beginAttack()
+    {
+        phase = PHASE_ATTACK;
+    }
+
+    void beginFortify()
+    {
+        phase = PHASE_FORTIFY;
+        for (Country country : countries) {
+            country.setFortifiedIn(0);
+        }
+    }
+
+    void endTurn()
+    {
+        if (conqueredThisTurn) {
+            drawCard(currentPlayer);
+        }
+        phase = PHASE_SETUP;
+        currentPlayer = -1;
+    }
+
+    // set up the board for the initial placement rounds and the pick-countries phase
+    void beginSetup(int player)
+    {
+        currentPlayer = player;
+        phase = PHASE_SETUP;
+    }
+
+    // called during the pick-countries phase
+    void claimCountry(int code, int player)
+    {
+        setCountry(code, player, 1);
+    }
+
+    // any armies an agent didn't place are dropped on random countries it owns
+    void placeLeftoverArmies()
+    {
+        if (armiesToPlace <= 0) {
+            armiesToPlace = 0;
+            return;
+        }
+        int[] owned = ownedCountries(currentPlayer);
+        if (owned.length == 0) {
+            armiesToPlace = 0;
+            return;
+        }
+        while (armiesToPlace > 0) {
+            countries[owned[random.nextInt(owned.length)]].addArmies(1);
+            armiesToPlace--;
+        }
+    }
+
+    // cash in sets for <player> until they hold fewer than <limit> cards;
+    // returns the armies the sets were worth
+    int forceCash(int player, int limit)
+    {
+        ArrayList<Card> hand = hands.get(player);
+        int armies = 0;
+        while (hand.size() >= limit) {
+            Card[] set = findSet(hand);
+            if (set == null) {
+                break;
+            }
+            armies += cashSet(hand, set[0], set[1], set[2]);
+        }
+        return armies;
+    }
+
+    void giveCard(int player, Card card)
+    {
+        hands.get(player).add(card);
+    }
+
+    void clearHands()
+    {
+        for (ArrayList<Card> hand : hands) {
+            discards.addAll(hand);
+            hand.clear();
+        }
+    }
+
+    // take a card of the draw pile and return it (or null if every card is in someone's hand)
+    Card takeCard()
+    {
+        if (deck.isEmpty()) {
+            deck.addAll(discards);
+            discards.clear();
+            Collections.shuffle(deck, random);
+        }
+        if (deck.isEmpty()) {
+            return null;
+        }
+        return deck.remove(deck.size() - 1);
+    }
+
+    int countCountries(int player)
+    {
+        int count = 0;
+        for (Country country : countries) {
+            if (country.getOwner() == player) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int[] ownedCountries(int player)
+    {
+        int[] owned = new int[countCountries(player)];
+        int i = 0;
+        for (Country country : countries) {
+            if (country.getOwner() == player) {
+                owned[i++] = country.getCode();
+            }
+        }
+        return owned;
+    }
+
+    // ==================================================================== //
+    //   rules
+    // ==================================================================== //
+
+    private boolean isCountry(int code)
+    {
+        return code >= 0 && code < countries.length;
+    }
+
+    // roll one round of dice and take the losses off both countries
+    private void rollBattle(Country attacker, Country defender, int attackDice, int defendDice)
+    {
+        // roll and sort the dice (highest first) without allocating anything
+        int a1 = 1 + random.nextInt(6);
+        int a2 = attackDice > 1 ? 1 + random.nextInt(6) : 0;
+        int a3 = attackDice > 2 ? 1 + random.nextInt(6) : 0;
+        int swap;
+        if (a2 > a1) { swap = a1; a1 = a2; a2 = swap; }
+        if (a3 > a2) { swap = a2; a2 = a3; a3 = swap; }
+        if (a2 > a1) { swap = a1; a1 = a2; a2 = swap; }
+        int d1 = 1 + random.nextInt(6);
+        int d2 = defendDice > 1 ? 1 + random.nextInt(6) : 0;
+        if (d2 > d1) { swap = d1; d1 = d2; d2 = swap; }
+
+        if (a1 > d1) {
+            defender.addArmies(-1);
+        } else {
+            attacker.addArmies(-1);
+        }
+        if (attackDice > 1 && defendDice > 1) {
+            if (a2 > d2) {
+                defender.addArmies(-1);
+            } else {
+                attacker.addArmies(-1);
+            }
+        }
+    }
+
+    // the defender has run out of armies: hand the country over and ask the attacker's agent how many to move in
+    private void conquer(Country attacker, Country defender, int attackDice)
+    {
+        int loser = defender.getOwner();
+        defender.setOwner(currentPlayer);
+        incomeValid = false;
+        conqueredThisTurn = true;
+
+        int available = attacker.getArmies() - 1;
+        int move = agents[currentPlayer].moveArmiesIn(attacker.getCode(), defender.getCode());
+        move = Math.max(Math.min(attackDice, available), Math.min(move, available));
+        attacker.addArmies(-move);
+        defender.setArmies(move);
+
+        if (loser >= 0 && countCountries(loser) == 0) {
+            eliminate(loser);
+        }
+    }
+
+    // <loser> has lost their last country: the current player takes their cards
+    // and has to cash in right away if that leaves them with 6 or more
+    private void eliminate(int loser)
+    {
+        hands.get(currentPlayer).addAll(hands.get(loser));
+        hands.get(loser).clear();
+        agents[loser].message("youLose", null);
+
+        if (getNumberOfPlayersLeft() == 1) {
+            gameOver = true;
+            return;
+        }
+
+        if (hands.get(currentPlayer).size() >= 6) {
+            int savedPhase = phase;
+            int savedArmies = armiesToPlace;
+            phase = PHASE_CARDS;
+            armiesToPlace = 0;
+            agents[currentPlayer].cardsPhase(getPlayerCardsArray(currentPlayer));
+            armiesToPlace += forceCash(currentPlayer, 5);
+            if (armiesToPlace > 0) {
+                phase = PHASE_PLACE;
+                agents[currentPlayer].placeArmies(armiesToPlace);
+                placeLeftoverArmies();
+            }
+            phase = savedPhase;
+            armiesToPlace = savedArmies;
+        }
+    }
+
+    private void drawCard(int player)
+    {
+        Card card = takeCard();
+        if (card != null) {
+            hands.get(player).add(card);
+        }
+    }
+
+    // three of a kind, one of each, or anything with a wildcard
+    private static boolean isSet(Card card1, Card card2, Card card3)
+    {
+        int s1 = card1.getSymbol();
+        int s2 = card2.getSymbol();
+        int s3 = card3.getSymbol();
+        if (s1 == Card.WILDCARD || s2 == Card.WILDCARD || s3 == Card.WILDCARD) {
+            return true;
+        }
+        return (s1 == s2 && s2 == s3) || (s1 != s2 && s2 != s3 && s1 != s3);
+    }
+
+    private static Card[] findSet(ArrayList<Card> hand)
+    {
+        int size = hand.size();
+        for (int i=0; i<size; i++) {
+            for (int j=i+1; j<size; j++) {
+                for (int k=j+1; k<size; k++) {
+                    if (isSet(hand.get(i), hand.get(j), hand.get(k))) {
+                        return new Card[]{hand.get(i), hand.get(j), hand.get(k)};
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private int cashSet(ArrayList<Card> hand, Card card1, Card card2, Card card3)
+    {
+        int value = getNextCardSetValue();
+        hand.remove(card1);
+        hand.remove(card2);
+        hand.remove(card3);
+        discards.add(card1);
+        discards.add(card2);
+        discards.add(card3);
+        cardSetsCashed++;
+        return value;
+    }
+
+    private void recalculateIncomes()
+    {
+        int[] owned = new int[agents.length];
+        for (Country country : countries) {
+            int owner = country.getOwner();
+            if (owner >= 0 && owner < owned.length) {
+                owned[owner]++;
+            }
+        }
+        for (int player=0; player<agents.length; player++) {
+            incomeCache[player] = owned[player] == 0 ? 0 : Math.max(3, owned[player] / 3);
+        }
+        for (int cont=0; cont<continentMembers.length; cont++) {
+            int[] members = continentMembers[cont];
+            if (members.length == 0) {
+                continue;
+            }
+            int owner = countries[members[0]].getOwner();
+            if (owner < 0 || owner >= agents.length) {
+                continue;
+            }
+            boolean ownsAll = true;
+            for (int i=1; i<members.length; i++) {
+                if (countries[members[i]].getOwner() != owner) {
+                    ownsAll = false;
+                    break;
+                }
+            }
+            if (ownsAll) {
+                incomeCache[owner] += map.getContinentBonus(cont);
+            }
+        }
+        incomeValid = true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sillysoft.lux;
+
+//
+//  Card.java
+//
+//  Headless stand-in for the Lux SDK's Card class.
+//  A card is tied to a country code and carries one of three symbols;
+//  wildcards have a code of -1 and the symbol WILDCARD.
+//
+
+public class Card
+{
+    public static final int WILDCARD = 3;
+
+    private int code;
+    private int symbol;
+
+    public Card(int code, int symbol)
+    {
+        this.code = code;
+        this.symbol = symbol;
+    }
+
+    // the country code this card is tied to (-1 for wildcards)
+    public int getCode()
+    {
+        return code;
+    }
+
+    // 0, 1 or 2 for normal cards, WILDCARD (3) for wildcards
+    public int getSymbol()
+    {
+        return symbol;
+    }
+
+    public String toString()
+    {
+        return "Card(" + code + "," + symbol + ")";
+    }
+}
@@ -0,0 +1,174 @@
+package com.sillysoft.lux;
+
+//
+//  Country.java
+//
+//  Headless stand-in for the Lux SDK's Country class.
+//  Agents only get read access; owners and armies are changed by the Board
+//  as it resolves placements, attacks and fortifications.
+//
+
+public class Country
+{
+    private int code;
+    private String name;
+    private int continent;
+
+    private int owner;
+    private int armies;
+
+    // armies that were fortified into this country during the current fortify phase;
+    // they can't be moved again until next turn
+    private int fortifiedIn;
+
+    // <gotoCodes> are the countries this country can attack/fortify into;
+    // <adjoiningCodes> are all the countries connected to this one in either direction
+    // (so on maps with one-way connections it can contain countries we can't goto)
+    private int[] gotoCodes;
+    private int[] adjoiningCodes;
+    private Country[] adjoining;
+
+    Country(int code, String name, int continent)
+    {
+        this.code = code;
+        this.name = name;
+        this.continent = continent;
+        this.owner = -1;
+        this.armies = 0;
+        this.fortifiedIn = 0;
+        this.gotoCodes = new int[0];
+        this.adjoiningCodes = new int[0];
+        this.adjoining = new Country[0];
+    }
+
+    // called once by the Board after all the countries have been created
+    void setConnections(int[] gotoCodes, int[] adjoiningCodes, Country[] allCountries)
+    {
+        this.gotoCodes = gotoCodes;
+        this.adjoiningCodes = adjoiningCodes;
+        this.adjoining = new Country[adjoiningCodes.length];
+        for (int i=0; i<adjoiningCodes.length; i++) {
+            this.adjoining[i] = allCountries[adjoiningCodes[i]];
+        }
+    }
+
+    public int getCode()
+    {
+        return code;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getContinent()
+    {
+        return continent;
+    }
+
+    public int getOwner()
+    {
+        return owner;
+    }
+
+    public int getArmies()
+    {
+        return armies;
+    }
+
+    // the number of armies that haven't been fortified into this country this turn;
+    // like the real Lux method this still counts the army that has to stay behind
+    public int getMoveableArmies()
+    {
+        return armies - fortifiedIn;
+    }
+
+    // returns the codes of every country connected to this one (in either direction)
+    // the array is shared, so callers must not modify it
+    public int[] getAdjoiningCodeList()
+    {
+        return adjoiningCodes;
+    }
+
+    public Country[] getAdjoiningList()
+    {
+        return adjoining;
+    }
+
+    // true if this country can attack or fortify into the given country
+    public boolean canGoto(int countryCode)
+    {
+        for (int i=0; i<gotoCodes.length; i++) {
+            if (gotoCodes[i] == countryCode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean canGoto(Country country)
+    {
+        return canGoto(country.getCode());
+    }
+
+    public int getNumberNeighbors()
+    {
+        return adjoiningCodes.length;
+    }
+
+    // the number of connected countries owned by <player>
+    public int getNumberPlayerNeighbors(int player)
+    {
+        int count = 0;
+        for (Country neighbor : adjoining) {
+            if (neighbor.owner == player) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // the number of connected countries not owned by this country's owner
+    public int getNumberEnemyNeighbors()
+    {
+        return adjoiningCodes.length - getNumberPlayerNeighbors(owner);
+    }
+
+    public String toString()
+    {
+        return name;
+    }
+
+    // ---- mutators used by the Board ---- //
+
+    void setOwner(int owner)
+    {
+        this.owner = owner;
+    }
+
+    void setArmies(int armies)
+    {
+        this.armies = armies;
+    }
+
+    void addArmies(int armies)
+    {
+        this.armies += armies;
+    }
+
+    void setFortifiedIn(int fortifiedIn)
+    {
+        this.fortifiedIn = fortifiedIn;
+    }
+
+    int getFortifiedIn()
+    {
+        return fortifiedIn;
+    }
+
+    int[] getGotoCodes()
+    {
+        return gotoCodes;
+    }
+}
@@ -0,0 +1,443 @@
+package com.sillysoft.lux;
+
+import com.sillysoft.lux.agent.LuxAgent;
+import com.sillysoft.lux.agent.TournamentRunner;
+import com.sillysoft.lux.agent.VikingPathBudget;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+
+//
+//  HeadlessGame.java
+//
+//  Runs a game of Lux on a Board without the Lux app, as fast as the agents can play.
+//  The game goes through the same callbacks the Lux app makes:
+//    setPrefs() -> pickCountry() (or a random deal) -> placeInitialArmies() rounds ->
+//    each turn: cardsPhase() -> placeArmies() -> attackPhase() (-> moveArmiesIn()) -> fortifyPhase()
+//  until only one player is left or the turn limit is hit.
+//
+//  play() runs a whole game; setup() and playTurn() (or the single-phase drivers below them)
+//  let a caller step through a game and time or inspect individual callbacks.
+//
+//  Usage: java com.sillysoft.lux.HeadlessGame <map.luxb> <games> <seed> <agent> <agent> [<agent>...]
+//  where each <agent> is a class name in com.sillysoft.lux.agent (e.g. Viking) or a fully qualified one.
+//  Game g is played with seed <seed>+g, which seeds the agents' <rand> too (the same way TournamentRunner does),
+//  so the same seed always gives the same games (Viking's search time limit is off unless -Dviking.searchmillis is given).
+//  An agent that throws only ends its own game.
+//
+
+public class HeadlessGame
+{
+    // the starting armies per player for 2 to 6 players on a 42-country map; bigger or smaller maps are scaled from this
+    private static final int[] CLASSIC_INITIAL_ARMIES = {0, 0, 40, 35, 30, 25, 20};
+    private static final int CLASSIC_MAP_SIZE = 42;
+
+    // the initial armies are handed out over this many placeInitialArmies() calls, like the Lux app does
+    private static final int INITIAL_PLACEMENT_ROUNDS = 4;
+
+    public static final int DEFAULT_MAX_TURNS = 500;
+
+    private LuxMap map;
+    private LuxAgent[] agents;
+    private Board board;
+    private Random random;
+
+    private int maxTurns = DEFAULT_MAX_TURNS;
+    private boolean pickCountries = true;
+
+    private int firstPlayer;
+    private int nextPlayer;
+    private boolean setupDone;
+    // true when the game was started from a position in the middle of a round (see setupPosition())
+    private boolean resumingRound;
+    private int winner = -1;
+
+    public HeadlessGame(LuxMap map, LuxAgent[] agents, long seed)
+    {
+        if (agents.length < 2) {
+            throw new IllegalArgumentException("HeadlessGame: need at least 2 players");
+        }
+        if (agents.length > map.getNumberOfCountries()) {
+            throw new IllegalArgumentException("HeadlessGame: more players than countries");
+        }
+        this.map = map;
+        this.agents = agents;
+        this.random = new Random(seed);
+
+        String[] names = new String[agents.length];
+        for (int player=0; player<agents.length; player++) {
+            names[player] = agents[player].name() + " " + (player + 1);
+        }
+        board = new Board(map, agents, names, random);
+    }
+
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    public LuxMap getMap()
+    {
+        return map;
+    }
+
+    public LuxAgent getAgent(int player)
+    {
+        return agents[player];
+    }
+
+    // the game stops (with no winner) once this many rounds have been played
+    public void setMaxTurns(int maxTurns)
+    {
+        this.maxTurns = maxTurns;
+    }
+
+    // if false, countries are dealt out at random instead of asking the agents to pick
+    public void setPickCountries(boolean pickCountries)
+    {
+        this.pickCountries = pickCountries;
+    }
+
+    // agents' sendChat() messages are printed here (they're dropped by default)
+    public void setChatLog(PrintStream chatLog)
+    {
+        board.setChatLog(chatLog);
+    }
+
+    // the winning player, or -1 if nobody has won (yet)
+    public int getWinner()
+    {
+        return winner;
+    }
+
+    public boolean isOver()
+    {
+        return board.isGameOver() || (setupDone && board.getTurnCount() > maxTurns);
+    }
+
+    // the number of rounds that have been played so far
+    public int getTurnCount()
+    {
+        return board.getTurnCount();
+    }
+
+    // the player whose turn playTurn() will play next
+    public int getNextPlayer()
+    {
+        return nextPlayer;
+    }
+
+    // the round the next playTurn() will be played in
+    public int getNextTurnCount()
+    {
+        if (setupDone && nextPlayer == firstPlayer && !resumingRound) {
+            return board.getTurnCount() + 1;
+        }
+        return board.getTurnCount();
+    }
+
+    // play a whole game; returns the winner, or -1 if the turn limit was hit first
+    public int play()
+    {
+        if (!setupDone) {
+            setup();
+        }
+        while (!isOver()) {
+            playTurn();
+        }
+        return winner;
+    }
+
+    // tell the agents about the board, hand out the countries and place the initial armies
+    public void setup()
+    {
+        for (int player=0; player<agents.length; player++) {
+            agents[player].setPrefs(player, board);
+        }
+
+        firstPlayer = random.nextInt(agents.length);
+
+        if (pickCountries) {
+            pickPhase();
+        } else {
+            dealCountries();
+        }
+
+        int initialArmies = getInitialArmies();
+        int[] remaining = new int[agents.length];
+        for (int player=0; player<agents.length; player++) {
+            remaining[player] = Math.max(0, initialArmies - board.countCountries(player));
+        }
+        for (int round=0; round<INITIAL_PLACEMENT_ROUNDS; round++) {
+            int roundsLeft = INITIAL_PLACEMENT_ROUNDS - round;
+            for (int i=0; i<agents.length; i++) {
+                int player = (firstPlayer + i) % agents.length;
+                int armies = (remaining[player] + roundsLeft - 1) / roundsLeft;
+                if (armies == 0) {
+                    continue;
+                }
+                remaining[player] -= armies;
+                runInitialPlacement(player, armies);
+            }
+        }
+
+        nextPlayer = firstPlayer;
+        setupDone = true;
+    }
+
+    // skip the pick and initial placement phases and start from a given position instead;
+    // <owners> and <armies> are indexed by country code, and the next turn played is <firstPlayer>'s turn in round <turn>
+    // (the turn count is already <turn> when this returns, so the phase drivers can be called straight away)
+    public void setupPosition(int[] owners, int[] armies, int turn, int firstPlayer)
+    {
+        if (owners.length != map.getNumberOfCountries() || armies.length != owners.length) {
+            throw new IllegalArgumentException("HeadlessGame: position has " + owners.length + " countries, map has " + map.getNumberOfCountries());
+        }
+        for (int player=0; player<agents.length; player++) {
+            agents[player].setPrefs(player, board);
+        }
+        for (int code=0; code<owners.length; code++) {
+            board.setCountry(code, owners[code], armies[code]);
+        }
+        board.setTurnCount(turn);
+        this.firstPlayer = firstPlayer;
+        this.nextPlayer = firstPlayer;
+        resumingRound = true;
+        setupDone = true;
+    }
+
+    // give <player> <numberOfCards> cards off the top of the deck (used when setting up a position)
+    public void dealCards(int player, int numberOfCards)
+    {
+        for (int i=0; i<numberOfCards; i++) {
+            Card card = board.takeCard();
+            if (card != null) {
+                board.giveCard(player, card);
+            }
+        }
+    }
+
+    // how many card sets have been cashed so far, which sets the value of the next one
+    public int getCardSetsCashed()
+    {
+        return board.getCardSetsCashed();
+    }
+
+    public void setCardSetsCashed(int cardSetsCashed)
+    {
+        board.setCardSetsCashed(cardSetsCashed);
+    }
+
+    // play the next player's turn (players who have been eliminated are skipped)
+    public void playTurn()
+    {
+        if (!setupDone) {
+            setup();
+        }
+        int player = nextPlayer;
+        nextPlayer = (nextPlayer + 1) % agents.length;
+        boolean newRound = player == firstPlayer && !resumingRound;
+        resumingRound = false;
+        if (newRound) {
+            board.setTurnCount(board.getTurnCount() + 1);
+            if (board.getTurnCount() > maxTurns) {
+                return;
+            }
+        }
+        if (board.countCountries(player) == 0) {
+            return;
+        }
+
+        beginTurn(player);
+        runCardsPhase(player);
+        runPlacePhase(player);
+        runAttackPhase(player);
+        if (!board.isGameOver()) {
+            runFortifyPhase(player);
+        }
+        endTurn(player);
+    }
+
+    // ---- single-phase drivers; call them in order for one player's turn ---- //
+
+    public void beginTurn(int player)
+    {
+        board.beginTurn(player);
+    }
+
+    // gives the agent its chance to cash cards, and forces a cash if it's holding 5 or more
+    public void runCardsPhase(int player)
+    {
+        board.beginCards();
+        agents[player].cardsPhase(board.getPlayerCardsArray(player));
+        int forced = board.forceCash(player, 5);
+        if (forced > 0) {
+            board.beginPlacement(forced);
+        }
+    }
+
+    // the agent places its income plus whatever it got from cards
+    public void runPlacePhase(int player)
+    {
+        board.beginPlacement(board.getPlayerIncome(player));
+        agents[player].placeArmies(board.getArmiesToPlace());
+        board.placeLeftoverArmies();
+    }
+
+    // the agent places exactly <numberOfArmies>, whatever its income is (for replaying a recorded placement)
+    public void runPlacePhase(int player, int numberOfArmies)
+    {
+        board.beginCards();
+        board.beginPlacement(numberOfArmies);
+        agents[player].placeArmies(board.getArmiesToPlace());
+        board.placeLeftoverArmies();
+    }
+
+    // one of the rounds of initial placement before the first turn
+    public void runInitialPlacement(int player, int numberOfArmies)
+    {
+        board.beginSetup(player);
+        board.beginPlacement(numberOfArmies);
+        agents[player].placeInitialArmies(numberOfArmies);
+        board.placeLeftoverArmies();
+    }
+
+    public void runAttackPhase(int player)
+    {
+        board.beginAttack();
+        agents[player].attackPhase();
+        if (board.isGameOver()) {
+            winner = player;
+            agents[player].youWon();
+        }
+    }
+
+    public void runFortifyPhase(int player)
+    {
+        board.beginFortify();
+        agents[player].fortifyPhase();
+    }
+
+    // draws a card if the player conquered a country this turn
+    public void endTurn(int player)
+    {
+        board.endTurn();
+    }
+
+    // ---- setup ---- //
+
+    private int getInitialArmies()
+    {
+        int players = agents.length;
+        int classic = players < CLASSIC_INITIAL_ARMIES.length ? CLASSIC_INITIAL_ARMIES[players] : CLASSIC_INITIAL_ARMIES[CLASSIC_INITIAL_ARMIES.length - 1];
+        int scaled = (int) Math.round((double) classic * map.getNumberOfCountries() / CLASSIC_MAP_SIZE);
+        int countriesPerPlayer = (map.getNumberOfCountries() + players - 1) / players;
+        return Math.max(scaled, countriesPerPlayer + 3);
+    }
+
+    // the players take turns picking countries; an agent that picks something it can't have gets a random country instead
+    private void pickPhase()
+    {
+        int size = map.getNumberOfCountries();
+        Country[] countries = board.getCountries();
+        for (int i=0; i<size; i++) {
+            int player = (firstPlayer + i) % agents.length;
+            board.beginSetup(player);
+            int pick = agents[player].pickCountry();
+            if (pick < 0 || pick >= size || countries[pick].getOwner() != -1) {
+                pick = randomUnowned();
+            }
+            board.claimCountry(pick, player);
+        }
+    }
+
+    private void dealCountries()
+    {
+        int size = map.getNumberOfCountries();
+        ArrayList<Integer> codes = new ArrayList<Integer>();
+        for (int code=0; code<size; code++) {
+            codes.add(code);
+        }
+        Collections.shuffle(codes, random);
+        for (int i=0; i<size; i++) {
+            board.claimCountry(codes.get(i), (firstPlayer + i) % agents.length);
+        }
+    }
+
+    private int randomUnowned()
+    {
+        Country[] countries = board.getCountries();
+        int unowned = 0;
+        for (Country country : countries) {
+            if (country.getOwner() == -1) {
+                unowned++;
+            }
+        }
+        int pick = random.nextInt(unowned);
+        for (Country country : countries) {
+            if (country.getOwner() == -1 && pick-- == 0) {
+                return country.getCode();
+            }
+        }
+        return -1;
+    }
+
+    // ---- command line ---- //
+
+    // creates an agent from a class name; bare names are looked up in com.sillysoft.lux.agent
+    public static LuxAgent createAgent(String name)
+    {
+        String className = name.indexOf('.') == -1 ? "com.sillysoft.lux.agent." + name : name;
+        try {
+            return (LuxAgent) Class.forName(className).newInstance();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("HeadlessGame: can't create agent " + name + " (" + e + ")");
+        }
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 5) {
+            System.err.println("usage: HeadlessGame <map.luxb> <games> <seed> <agent> <agent> [<agent>...]");
+            System.exit(1);
+        }
+        VikingPathBudget.offlineDefaults();
+        LuxMap map = LuxMap.load(new File(args[0]));
+        int games = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+        String[] agentNames = Arrays.copyOfRange(args, 3, args.length);
+
+        int[] wins = new int[agentNames.length];
+        int draws = 0;
+        int errors = 0;
+        long start = System.currentTimeMillis();
+        for (int game=0; game<games; game++) {
+            LuxAgent[] agents = TournamentRunner.createAgents(agentNames, seed + game);
+            HeadlessGame headless = new HeadlessGame(map, agents, seed + game);
+            int winner;
+            try {
+                winner = headless.play();
+            } catch (Throwable e) {
+                errors++;
+                System.out.println("game " + game + ": failed after " + headless.getTurnCount() + " turns (" + e + ")");
+                continue;
+            }
+            if (winner == -1) {
+                draws++;
+            } else {
+                wins[winner]++;
+            }
+            System.out.println("game " + game + ": winner " + (winner == -1 ? "none" : headless.getBoard().getPlayerName(winner)) + " after " + headless.getTurnCount() + " turns");
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        System.out.println();
+        System.out.println(games + " games on " + map.getTitle() + " in " + elapsed + " ms");
+        for (int player=0; player<agentNames.length; player++) {
+            System.out.println("  player " + (player + 1) + " (" + agentNames[player] + "): " + wins[player] + " wins");
+        }
+        System.out.println("  no winner: " + draws);
+        System.out.println("  failed: " + errors);
+    }
+}
@@ -0,0 +1,273 @@
+package com.sillysoft.lux;
+
+import java.io.*;
+import java.util.*;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+//
+//  LuxMap.java
+//
+//  The static description of a map: continents (names and bonuses), countries (names and continents)
+//  and which countries each country can attack into. A Board is built from one of these.
+//
+//  Maps can be read from and written to the XML layout Lux uses for its .luxb files;
+//  only the elements the headless board needs are read (title, continents, countries and their
+//  adjoining lists), everything else (polygons, lines, colors...) is ignored.
+//  Each country's <adjoining> list is the set of countries it can attack, so a one-way connection
+//  is simply a country listed by one side but not the other.
+//
+
+public class LuxMap
+{
+    private String title;
+    private String[] continentNames;
+    private int[] continentBonuses;
+    private String[] countryNames;
+    private int[] countryContinents;
+    private int[][] gotoLists;
+
+    public LuxMap(String title, String[] continentNames, int[] continentBonuses, String[] countryNames, int[] countryContinents, int[][] gotoLists)
+    {
+        if (continentNames.length != continentBonuses.length) {
+            throw new IllegalArgumentException("LuxMap: " + continentNames.length + " continent names but " + continentBonuses.length + " bonuses");
+        }
+        if (countryNames.length != countryContinents.length || countryNames.length != gotoLists.length) {
+            throw new IllegalArgumentException("LuxMap: country names, continents and connections must all have the same length");
+        }
+        for (int country=0; country<countryNames.length; country++) {
+            if (countryContinents[country] < 0 || countryContinents[country] >= continentNames.length) {
+                throw new IllegalArgumentException("LuxMap: country " + country + " is in unknown continent " + countryContinents[country]);
+            }
+            for (int target : gotoLists[country]) {
+                if (target < 0 || target >= countryNames.length || target == country) {
+                    throw new IllegalArgumentException("LuxMap: country " + country + " has a bad connection to " + target);
+                }
+            }
+        }
+
+        this.title = title;
+        this.continentNames = continentNames;
+        this.continentBonuses = continentBonuses;
+        this.countryNames = countryNames;
+        this.countryContinents = countryContinents;
+        this.gotoLists = gotoLists;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    public int getNumberOfContinents()
+    {
+        return continentNames.length;
+    }
+
+    public String getContinentName(int continent)
+    {
+        return continentNames[continent];
+    }
+
+    public int getContinentBonus(int continent)
+    {
+        return continentBonuses[continent];
+    }
+
+    public int getNumberOfCountries()
+    {
+        return countryNames.length;
+    }
+
+    public String getCountryName(int country)
+    {
+        return countryNames[country];
+    }
+
+    public int getCountryContinent(int country)
+    {
+        return countryContinents[country];
+    }
+
+    // the codes of the countries <country> can attack into (shared array, don't modify)
+    public int[] getGotoList(int country)
+    {
+        return gotoLists[country];
+    }
+
+    // builds the adjoining list of every country: the countries it can goto (in map order)
+    // followed by any countries that can only attack it over a one-way connection
+    int[][] buildAdjoiningLists()
+    {
+        int size = countryNames.length;
+        ArrayList<ArrayList<Integer>> incoming = new ArrayList<ArrayList<Integer>>();
+        for (int country=0; country<size; country++) {
+            incoming.add(new ArrayList<Integer>());
+        }
+        for (int country=0; country<size; country++) {
+            for (int target : gotoLists[country]) {
+                incoming.get(target).add(country);
+            }
+        }
+
+        int[][] adjoining = new int[size][];
+        for (int country=0; country<size; country++) {
+            ArrayList<Integer> list = new ArrayList<Integer>();
+            for (int target : gotoLists[country]) {
+                if (!list.contains(target)) {
+                    list.add(target);
+                }
+            }
+            for (int source : incoming.get(country)) {
+                if (!list.contains(source)) {
+                    list.add(source);
+                }
+            }
+            adjoining[country] = new int[list.size()];
+            for (int i=0; i<adjoining[country].length; i++) {
+                adjoining[country][i] = list.get(i);
+            }
+        }
+        return adjoining;
+    }
+
+    // read a map from Lux's XML map layout
+    public static LuxMap load(File file) throws IOException
+    {
+        Document document;
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            document = builder.parse(file);
+        } catch (org.xml.sax.SAXException e) {
+            throw new IOException("LuxMap: could not parse " + file + ": " + e.getMessage());
+        } catch (javax.xml.parsers.ParserConfigurationException e) {
+            throw new IOException("LuxMap: no XML parser available: " + e.getMessage());
+        }
+
+        Element root = document.getDocumentElement();
+        String title = childText(root, "title");
+        if (title == null) {
+            title = file.getName();
+        }
+
+        ArrayList<String> continentNames = new ArrayList<String>();
+        ArrayList<Integer> continentBonuses = new ArrayList<Integer>();
+        TreeMap<Integer, String> countryNames = new TreeMap<Integer, String>();
+        TreeMap<Integer, Integer> countryContinents = new TreeMap<Integer, Integer>();
+        TreeMap<Integer, int[]> gotoLists = new TreeMap<Integer, int[]>();
+
+        NodeList continents = root.getElementsByTagName("continent");
+        for (int i=0; i<continents.getLength(); i++) {
+            Element continent = (Element) continents.item(i);
+            String name = childText(continent, "continentname");
+            String bonus = childText(continent, "bonus");
+            continentNames.add(name == null ? "Continent " + i : name);
+            continentBonuses.add(bonus == null ? 0 : Integer.parseInt(bonus.trim()));
+
+            NodeList countries = continent.getElementsByTagName("country");
+            for (int j=0; j<countries.getLength(); j++) {
+                Element country = (Element) countries.item(j);
+                int id = Integer.parseInt(childText(country, "id").trim());
+                String countryName = childText(country, "name");
+                countryNames.put(id, countryName == null ? "Country " + id : countryName);
+                countryContinents.put(id, i);
+                gotoLists.put(id, parseCodeList(childText(country, "adjoining")));
+            }
+        }
+
+        // country codes have to run from 0 to (number of countries - 1)
+        int size = countryNames.size();
+        if (size == 0 || countryNames.firstKey() != 0 || countryNames.lastKey() != size - 1) {
+            throw new IOException("LuxMap: country ids in " + file + " must run from 0 to " + (size - 1));
+        }
+
+        String[] names = new String[size];
+        int[] conts = new int[size];
+        int[][] gotos = new int[size][];
+        for (int id=0; id<size; id++) {
+            names[id] = countryNames.get(id);
+            conts[id] = countryContinents.get(id);
+            gotos[id] = gotoLists.get(id);
+        }
+        int[] bonuses = new int[continentBonuses.size()];
+        for (int i=0; i<bonuses.length; i++) {
+            bonuses[i] = continentBonuses.get(i);
+        }
+
+        return new LuxMap(title, continentNames.toArray(new String[0]), bonuses, names, conts, gotos);
+    }
+
+    // write this map in Lux's XML map layout (without any of the drawing information)
+    public void save(File file) throws IOException
+    {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")));
+        try {
+            out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            out.println("<luxboard>");
+            out.println("<version>1.1</version>");
+            out.println("<title>" + escape(title) + "</title>");
+            for (int continent=0; continent<continentNames.length; continent++) {
+                out.println("<continent>");
+                out.println("  <continentname>" + escape(continentNames[continent]) + "</continentname>");
+                out.println("  <bonus>" + continentBonuses[continent] + "</bonus>");
+                for (int country=0; country<countryNames.length; country++) {
+                    if (countryContinents[country] != continent) {
+                        continue;
+                    }
+                    StringBuilder adjoining = new StringBuilder();
+                    for (int i=0; i<gotoLists[country].length; i++) {
+                        if (i > 0) {
+                            adjoining.append(',');
+                        }
+                        adjoining.append(gotoLists[country][i]);
+                    }
+                    out.println("  <country>");
+                    out.println("    <id>" + country + "</id>");
+                    out.println("    <name>" + escape(countryNames[country]) + "</name>");
+                    out.println("    <adjoining>" + adjoining + "</adjoining>");
+                    out.println("  </country>");
+                }
+                out.println("</continent>");
+            }
+            out.println("</luxboard>");
+        } finally {
+            out.close();
+        }
+        if (out.checkError()) {
+            throw new IOException("LuxMap: error writing " + file);
+        }
+    }
+
+    // returns the text of the first direct child of <parent> with the given tag, or null
+    private static String childText(Element parent, String tag)
+    {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && ((Element) child).getTagName().equals(tag)) {
+                return child.getTextContent();
+            }
+        }
+        return null;
+    }
+
+    private static int[] parseCodeList(String text)
+    {
+        if (text == null || text.trim().length() == 0) {
+            return new int[0];
+        }
+        String[] parts = text.trim().split("\\s*,\\s*");
+        int[] codes = new int[parts.length];
+        for (int i=0; i<parts.length; i++) {
+            codes[i] = Integer.parseInt(parts[i]);
+        }
+        return codes;
+    }
+
+    private static String escape(String text)
+    {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,48 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.Board;
+import com.sillysoft.lux.Card;
+
+//
+//  LuxAgent.java
+//
+//  Headless stand-in for the Lux SDK's LuxAgent interface.
+//  These are the callbacks the Board (or HeadlessGame) makes into an agent over the course of a game.
+//
+
+public interface LuxAgent
+{
+    // called once at the start of the game with our player ID and the board
+    public void setPrefs(int ID, Board board);
+
+    // return the code of an unowned country we'd like to pick
+    public int pickCountry();
+
+    // place <numberOfArmies> armies on countries we own during the setup rounds
+    public void placeInitialArmies(int numberOfArmies);
+
+    // the chance to cash in cards with board.useCards()
+    public void cardsPhase(Card[] cards);
+
+    // place <numberOfArmies> armies at the start of our turn
+    public void placeArmies(int numberOfArmies);
+
+    public void attackPhase();
+
+    // we just conquered <defenderCode> from <attackerCode>; return how many armies to move in
+    public int moveArmiesIn(int attackerCode, int defenderCode);
+
+    public void fortifyPhase();
+
+    public String name();
+
+    public float version();
+
+    public String description();
+
+    // return a message to show when we win
+    public String youWon();
+
+    // generic notifications, e.g. "youLose"
+    public String message(String message, Object data);
+}
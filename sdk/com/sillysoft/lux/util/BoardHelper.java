@@ -0,0 +1,208 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+import java.util.*;
+
+//
+//  BoardHelper.java
+//
+//  Headless stand-in for the static helpers in the Lux SDK's BoardHelper.
+//  Only the helpers agents in this repo use are provided; each one works off the live Country[].
+//
+
+public class BoardHelper
+{
+    // returns the codes of the countries that can attack into <country>
+    // (its neighbors, in adjoining order, that can goto it; on maps with one-way connections
+    // that's not necessarily the same as the countries <country> can attack)
+    public static int[] getAttackList(Country country, Country[] countries)
+    {
+        int[] adjoining = country.getAdjoiningCodeList();
+        int code = country.getCode();
+        int count = 0;
+        for (int neighbor : adjoining) {
+            if (countries[neighbor].canGoto(code)) {
+                count++;
+            }
+        }
+        int[] attackers = new int[count];
+        int i = 0;
+        for (int neighbor : adjoining) {
+            if (countries[neighbor].canGoto(code)) {
+                attackers[i++] = neighbor;
+            }
+        }
+        return attackers;
+    }
+
+    public static boolean playerIsStillInTheGame(int player, Country[] countries)
+    {
+        for (Country country : countries) {
+            if (country.getOwner() == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int getPlayerArmies(int player, Country[] countries)
+    {
+        int armies = 0;
+        for (Country country : countries) {
+            if (country.getOwner() == player) {
+                armies += country.getArmies();
+            }
+        }
+        return armies;
+    }
+
+    public static int getPlayerCountries(int player, Country[] countries)
+    {
+        int count = 0;
+        for (Country country : countries) {
+            if (country.getOwner() == player) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static int getContinentSize(int continent, Country[] countries)
+    {
+        int size = 0;
+        for (Country country : countries) {
+            if (country.getContinent() == continent) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    // returns the country code of some country in <continent> (-1 if there isn't one)
+    public static int getCountryInContinent(int continent, Country[] countries)
+    {
+        for (Country country : countries) {
+            if (country.getContinent() == continent) {
+                return country.getCode();
+            }
+        }
+        return -1;
+    }
+
+    // true if a single player owns every country in <continent>
+    public static boolean anyPlayerOwnsContinent(int continent, Country[] countries)
+    {
+        int owner = -2;
+        for (Country country : countries) {
+            if (country.getContinent() != continent) {
+                continue;
+            }
+            if (owner == -2) {
+                owner = country.getOwner();
+            } else if (country.getOwner() != owner) {
+                return false;
+            }
+        }
+        return owner >= 0;
+    }
+
+    public static boolean playerOwnsContinent(int player, int continent, Country[] countries)
+    {
+        boolean any = false;
+        for (Country country : countries) {
+            if (country.getContinent() == continent) {
+                if (country.getOwner() != player) {
+                    return false;
+                }
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    // the codes of the countries in <continent> that can be attacked from outside it
+    public static int[] getContinentBorders(int continent, Country[] countries)
+    {
+        ArrayList<Integer> borders = new ArrayList<Integer>();
+        for (Country country : countries) {
+            if (country.getContinent() != continent) {
+                continue;
+            }
+            for (int neighbor : country.getAdjoiningCodeList()) {
+                if (countries[neighbor].getContinent() != continent && countries[neighbor].canGoto(country.getCode())) {
+                    borders.add(country.getCode());
+                    break;
+                }
+            }
+        }
+        return toArray(borders);
+    }
+
+    // the codes of the countries outside <continent> that can attack into it
+    public static int[] getDefensibleBordersBeyond(int continent, Country[] countries)
+    {
+        ArrayList<Integer> beyond = new ArrayList<Integer>();
+        boolean[] added = new boolean[countries.length];
+        for (Country country : countries) {
+            if (country.getContinent() != continent) {
+                continue;
+            }
+            for (int neighbor : country.getAdjoiningCodeList()) {
+                if (!added[neighbor] && countries[neighbor].getContinent() != continent && countries[neighbor].canGoto(country.getCode())) {
+                    added[neighbor] = true;
+                    beyond.add(neighbor);
+                }
+            }
+        }
+        return toArray(beyond);
+    }
+
+    // the shortest path (as country codes, start and end included) from <startCode> to <endCode>
+    // that only goes through countries owned by the start country's owner; null if there isn't one
+    public static int[] friendlyPathBetweenCountries(int startCode, int endCode, Country[] countries)
+    {
+        Country start = countries[startCode];
+        Country end = countries[endCode];
+        int owner = start.getOwner();
+        if (end.getOwner() != owner) {
+            return null;
+        }
+        int[] previous = new int[countries.length];
+        Arrays.fill(previous, -2);
+        int[] queue = new int[countries.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start.getCode();
+        previous[start.getCode()] = -1;
+        while (head < tail) {
+            int code = queue[head++];
+            if (code == end.getCode()) {
+                int length = 0;
+                for (int c = code; c != -1; c = previous[c]) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int c = code; c != -1; c = previous[c]) {
+                    path[--length] = c;
+                }
+                return path;
+            }
+            for (int neighbor : countries[code].getAdjoiningCodeList()) {
+                if (previous[neighbor] == -2 && countries[neighbor].getOwner() == owner && countries[code].canGoto(neighbor)) {
+                    previous[neighbor] = code;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int[] toArray(ArrayList<Integer> list)
+    {
+        int[] array = new int[list.size()];
+        for (int i=0; i<array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
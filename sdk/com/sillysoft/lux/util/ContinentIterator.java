@@ -0,0 +1,31 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+
+//
+//  ContinentIterator.java
+//
+//  Headless stand-in for the Lux SDK's ContinentIterator: returns the countries in one continent.
+//
+
+public class ContinentIterator extends FilteredCountryIterator
+{
+    private int continent;
+
+    public ContinentIterator(int continent, Country[] countries)
+    {
+        super(countries);
+        this.continent = continent;
+    }
+
+    public ContinentIterator(int continent, CountryIterator countries)
+    {
+        super(countries);
+        this.continent = continent;
+    }
+
+    boolean accept(Country country)
+    {
+        return country.getContinent() == continent;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+
+//
+//  CountryIterator.java
+//
+//  Headless stand-in for the Lux SDK's CountryIterator.
+//  Walks over a filtered subset of the board's countries; the filters can be chained,
+//  e.g. new PlayerIterator(player, new ContinentIterator(cont, countries)).
+//
+
+public interface CountryIterator
+{
+    public boolean hasNext();
+
+    public Country next();
+}
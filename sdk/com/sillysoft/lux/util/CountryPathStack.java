@@ -0,0 +1,146 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+
+//
+//  CountryPathStack.java
+//
+//  Headless stand-in for the Lux SDK's CountryPathStack.
+//  Despite the name it's a priority queue: pop() always returns the country with the lowest value,
+//  along with the value and the history (path) it was pushed with.
+//  Entries with equal values come off in the order they were pushed.
+//
+
+public class CountryPathStack
+{
+    private Country[] countries;
+    private int[] values;
+    private int[][] histories;
+    private long[] order;
+    private int size;
+    private long pushCount;
+
+    public CountryPathStack()
+    {
+        countries = new Country[16];
+        values = new int[16];
+        histories = new int[16][];
+        order = new long[16];
+        size = 0;
+        pushCount = 0;
+    }
+
+    public void pushWithValueAndHistory(Country country, int value, int[] history)
+    {
+        if (size == values.length) {
+            int newLength = size * 2;
+            countries = java.util.Arrays.copyOf(countries, newLength);
+            values = java.util.Arrays.copyOf(values, newLength);
+            histories = java.util.Arrays.copyOf(histories, newLength);
+            order = java.util.Arrays.copyOf(order, newLength);
+        }
+        int i = size++;
+        set(i, country, value, history, pushCount++);
+        siftUp(i);
+    }
+
+    public void pushWithValue(Country country, int value)
+    {
+        pushWithValueAndHistory(country, value, null);
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    // the value of the entry pop() will return next
+    public int topValue()
+    {
+        return values[0];
+    }
+
+    // the history of the entry pop() will return next
+    public int[] topHistory()
+    {
+        return histories[0];
+    }
+
+    public Country topCountry()
+    {
+        return countries[0];
+    }
+
+    // removes the lowest-valued entry and returns its country code
+    public int pop()
+    {
+        int code = countries[0].getCode();
+        size--;
+        if (size > 0) {
+            set(0, countries[size], values[size], histories[size], order[size]);
+            siftDown(0);
+        }
+        countries[size] = null;
+        histories[size] = null;
+        return code;
+    }
+
+    private void set(int i, Country country, int value, int[] history, long pushOrder)
+    {
+        countries[i] = country;
+        values[i] = value;
+        histories[i] = history;
+        order[i] = pushOrder;
+    }
+
+    private boolean less(int a, int b)
+    {
+        return values[a] < values[b] || (values[a] == values[b] && order[a] < order[b]);
+    }
+
+    private void swap(int a, int b)
+    {
+        Country country = countries[a];
+        int value = values[a];
+        int[] history = histories[a];
+        long pushOrder = order[a];
+        set(a, countries[b], values[b], histories[b], order[b]);
+        set(b, country, value, history, pushOrder);
+    }
+
+    private void siftUp(int i)
+    {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!less(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i)
+    {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            if (left + 1 < size && less(left + 1, left)) {
+                smallest = left + 1;
+            }
+            if (!less(smallest, i)) {
+                break;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+}
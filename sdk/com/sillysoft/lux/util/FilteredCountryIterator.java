@@ -0,0 +1,63 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+import java.util.NoSuchElementException;
+
+//
+//  FilteredCountryIterator.java
+//
+//  Shared base for the country iterators: walks either a Country[] or another iterator
+//  and only returns the countries accept() lets through.
+//
+
+abstract class FilteredCountryIterator implements CountryIterator
+{
+    private Country[] countries;
+    private CountryIterator source;
+    private int index;
+    private Country nextCountry;
+
+    FilteredCountryIterator(Country[] countries)
+    {
+        this.countries = countries;
+    }
+
+    FilteredCountryIterator(CountryIterator source)
+    {
+        this.source = source;
+    }
+
+    abstract boolean accept(Country country);
+
+    public boolean hasNext()
+    {
+        while (nextCountry == null) {
+            Country candidate;
+            if (source != null) {
+                if (!source.hasNext()) {
+                    return false;
+                }
+                candidate = source.next();
+            } else {
+                if (index >= countries.length) {
+                    return false;
+                }
+                candidate = countries[index++];
+            }
+            if (accept(candidate)) {
+                nextCountry = candidate;
+            }
+        }
+        return true;
+    }
+
+    public Country next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Country country = nextCountry;
+        nextCountry = null;
+        return country;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sillysoft.lux.util;
+
+import com.sillysoft.lux.Country;
+
+//
+//  PlayerIterator.java
+//
+//  Headless stand-in for the Lux SDK's PlayerIterator: returns the countries owned by one player.
+//
+
+public class PlayerIterator extends FilteredCountryIterator
+{
+    private int player;
+
+    public PlayerIterator(int player, Country[] countries)
+    {
+        super(countries);
+        this.player = player;
+    }
+
+    public PlayerIterator(int player, CountryIterator countries)
+    {
+        super(countries);
+        this.player = player;
+    }
+
+    boolean accept(Country country)
+    {
+        return country.getOwner() == player;
+    }
+}
@@ -3,6 +3,8 @@ package com.sillysoft.lux.agent;
 import com.sillysoft.lux.*;
 import com.sillysoft.lux.util.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.regex.Pattern;
 
 //
@@ -17,9 +19,25 @@ public class Viking implements LuxAgent
     // This agent's ownerCode:
     protected int ID;
 
-    // Store some refs the board and to the country array
+    // Store a ref to the board (we only use it to place, attack, fortify and chat)
     protected Board board;
-    protected Country[] countries;
+    // and the board as the planning code sees it; everything else reads the board through this (see VikingBoardModel);
+    // during our callbacks it's a snapshot of the board, and the rest of the time it's the live board
+    protected VikingBoardModel model;
+    protected VikingLuxBoard luxBoard;
+    protected VikingBoardSnapshot snapshot;
+    // who owns what on the live board, by player, for when we ask while we're not reading a snapshot (see getPlayerIndex());
+    // the other players change the live board between our callbacks, so it's dropped whenever we take, update or release a snapshot
+    // and whenever a message comes in
+    protected VikingPlayerIndex liveIndex;
+    // which countries border which (the same whichever of those <model> is); the planning code loops over its neighbor lists directly
+    protected VikingTopology topology;
+    // what we know about this map that never changes (shared with any other Viking playing it; see VikingMapAnalysis)
+    protected VikingMapAnalysis mapAnalysis;
+    // each continent's countries, bonus and borders (from <mapAnalysis>)
+    protected VikingContinents continents;
+    // the borders of every area we've looked at (see getAreaBorders())
+    protected VikingBorderCache borderCache;
     protected int numConts;
 
     // It might be useful to have a random number generator
@@ -27,11 +45,12 @@ public class Viking implements LuxAgent
 
     // we'll need to calculate attack plans in the placeArmies phase and remember them during the attackPhase
     // so we'll store those plans in this variable
-    protected ArrayList<int[]> battlePlan;
+    // (a VikingBattlePlan keeps track of which countries are in it, so isInBattlePlan() doesn't have to search it)
+    protected VikingBattlePlan battlePlan;
 
     // masterObjectiveList is a list of all possible objectives (of all types) to choose from in a given turn
     // It will be emptied and repopulated (with newly calculated objectives) at the beginning of each turn in the place armies phase
-    protected ArrayList<HashMap> masterObjectiveList;
+    protected ArrayList<VikingObjective> masterObjectiveList;
 
     // tells moveArmiesIn() to leave some of its armies behind
     // after successfully attacking a country. attackPhase() will calculate this number
@@ -40,10 +59,9 @@ public class Viking implements LuxAgent
 
     // <borderArmies> will store the number of armies we want to put on a border country
     // <idealBorderArmies> will store the ideal number of armies a border country needs
-    // key: country code
-    // value: number of armies
-    protected Map<Integer, Integer> borderArmies;
-    protected Map<Integer, Integer> idealBorderArmies;
+    // (indexed by country code; a country without an entry isn't a border garrison)
+    protected VikingGarrisonTable borderArmies;
+    protected VikingGarrisonTable idealBorderArmies;
 
     // will contain int[] arrays of country codes, called "areas"
     // each area is based on a continent of the map, but may contain
@@ -51,10 +69,30 @@ public class Viking implements LuxAgent
     // borders to defend; therefore, some countries will be in
     // more than one area (but no area should have duplicates of any country)
     protected ArrayList<int[]> smartAreas;
-
-    // used in findAreaPaths() when we find paths recursively by brute force
-    // to keep track of how many we've found so far
-    protected int pathCount;
+    // the same areas as VikingCountrySets (smartAreaSets.get(i) holds the countries of smartAreas.get(i)),
+    // for when we just want to know whether a country is in an area; set both with setSmartAreas()
+    protected ArrayList<VikingCountrySet> smartAreaSets;
+
+    // the number of paths through an area can grow exponentially with the size of the groups of enemy countries in it,
+    // so when an area has a group of more than this many enemy countries next to each other, pickBestTakeoverPaths()
+    // doesn't look for paths at all, and builds its attack tree directly instead (see planTakeoverTree());
+    // unless Lux was started with -Dviking.treecountries, it's so big that every area gets searched
+    protected int maxTakeoverSearchCountries;
+    // the most paths findAreaPaths() will find for one area (the searches from each of our countries in it all share one VikingPathBudget);
+    // if there are more than that, the attack tree finishes the plan for that area (see pickBestTakeoverPaths())
+    protected int maxTakeoverPaths;
+    // how long (in milliseconds) all of one turn's path searches together may take (0 for no limit);
+    // each area gets a share of what's left of it (see startAreaSearchClock()), and if an area's share runs out, the attack tree finishes its plan too
+    protected int takeoverSearchMillis;
+    // the System.nanoTime() at which this turn's search time is up (see startTakeoverSearchClock())
+    protected long takeoverTurnDeadline;
+    // the System.nanoTime() at which the area we're planning is out of search time (see startAreaSearchClock())
+    protected long takeoverSearchDeadline;
+    // set by getAreaTakeoverPaths() when the search stopped at <maxTakeoverPaths> or ran out of time
+    protected boolean takeoverPathsCapped;
+    // whether getAreaTakeoverPaths() searches from each of our countries in an area at the same time, on the fork/join common pool
+    // (only worth it if the pool has more than one thread to run them on)
+    protected boolean parallelPathSearch;
 
     // the universal factor by which we multiply our gain from taking over countries
     // that we aren't protecting with a border; in other words, the expected likelihood
@@ -78,19 +116,28 @@ public class Viking implements LuxAgent
     // whether that's in pickCountries or placeInitialArmies or placeArmies, depending on game setup.
     protected boolean madeUserAnnouncement;
 
+    // when we're recording our decisions so they can be replayed later (see VikingRecorder), this is what writes them down;
+    // null when we aren't recording
+    protected VikingRecorder recorder;
+
+    // times each callback and each stage of placeArmies() (see VikingProfiler)
+    protected VikingProfiler profiler;
+
     public Viking()
     {
-        rand = new Random();
-        battlePlan = new ArrayList<int[]>();
-        masterObjectiveList = new ArrayList<HashMap>();
-        borderArmies = new HashMap<Integer, Integer>();
-        idealBorderArmies = new HashMap<Integer, Integer>();
+        rand = new VikingRandom(); // a Random we can save and restore the state of, for replays
+        battlePlan = new VikingBattlePlan();
+        masterObjectiveList = new ArrayList<VikingObjective>();
+        borderArmies = new VikingGarrisonTable();
+        idealBorderArmies = new VikingGarrisonTable();
         smartAreas = new ArrayList<int[]>();
+        smartAreaSets = new ArrayList<VikingCountrySet>();
         allies = new ArrayList<Integer>();
         firstPlacement = true;
         isTeamingOn = true;
         isTeamingWithHumans = false;
         madeUserAnnouncement = false;
+        profiler = new VikingProfiler();
     }
 
     // Save references
@@ -99,10 +146,30 @@ public class Viking implements LuxAgent
         ID = newID;		// this is how we distinguish what countries we own
 
         board = theboard;
-        countries = board.getCountries();
-        numConts = board.getNumberOfContinents();
-        pathCount = 0;
+        luxBoard = new VikingLuxBoard(board);
+        model = luxBoard;
+        snapshot = null;
+        liveIndex = null;
+        topology = luxBoard.getTopology();
+        mapAnalysis = VikingMapAnalysis.find(luxBoard);
+        continents = mapAnalysis.getContinents();
+        numConts = model.getNumberOfContinents();
+        borderCache = new VikingBorderCache(topology);
+        for (int continent=0; continent<numConts; continent++) {
+            borderCache.pin(newCountrySet(continents.countries[continent]));
+        }
+        maxTakeoverSearchCountries = VikingPathBudget.getTreeCountriesSetting();
+        maxTakeoverPaths = VikingPathBudget.getMaxPathsSetting();
+        takeoverSearchMillis = VikingPathBudget.getMillisSetting();
+        startTakeoverSearchClock();
+        parallelPathSearch = ForkJoinPool.getCommonPoolParallelism() > 1;
         unguardedKeepChance = 1.0f / 3.0f;
+        profiler.setBoard(board);
+
+        // start recording right away if Lux was started with -Dviking.record=<directory>
+        if (System.getProperty(VikingRecorder.PROPERTY) != null) {
+            startRecording();
+        }
     }
 
     public String name()
@@ -121,6 +188,16 @@ public class Viking implements LuxAgent
     }
 
     protected void testChat(String topic, String message) {
+        if (testChatIsOn(topic)) {
+            String name = "(" + model.getPlayerName(ID).toUpperCase() + ") ";
+            board.sendChat(name + message);
+            //System.out.println(name + message);
+        }
+    }
+
+    // true if testChat() will chat messages for <topic>;
+    // check this before putting together a message that's expensive to make
+    protected boolean testChatIsOn(String topic) {
         String[] topics = {
 //            "pickCountry",
 //            "pickCountryPhase1",
@@ -154,14 +231,12 @@ public class Viking implements LuxAgent
             ""
         };
 
-        String name = "(" + board.getPlayerName(ID).toUpperCase() + ") ";
-
         for (int i=0; i<topics.length; i++) {
             if (topic == topics[i]) {
-                board.sendChat(name + message);
-                //System.out.println(name + message);
+                return true;
             }
         }
+        return false;
     }
 
     // pick initial countries at the beginning of the game.
@@ -174,34 +249,43 @@ public class Viking implements LuxAgent
     //          by bonus / number of borders, and number of countries we own in it / total countries in it
     //          thereby we choose the most worthwhile continent that we are likely to be able to get and to keep
     public int pickCountry() {
-      // turn teaming on during every pick country turn,
-      // because doing so only on the first turn will fail to find potential allies
-      // who have not yet had a turn; passing 'false' tells it not to make an announcement to the user
-      // so we don't do that multiple times
-      // (the second parameter will turn on teaming with humans if that variable is true)
-      if (isTeamingOn) {
-        teamingOn(false,isTeamingWithHumans);
-      }
-
-      // make start-of-game announcement to user
-      // the function will do the appropriate tests to make sure this only happens once
-      // but we have to call the function in several different places for redundancy
-      // just like we do with turning teaming on (pickCountry, placeInitialArmies, and placeArmies)
-      makeUserAnnouncement();
-
+      recordCall("pickCountry", -1);
+      long started = profiler.start();
       // will be the country we pick; if -1 is passed to the game, it will pick a random country for us
       int pickedCountry = -1;
+      try {
+        takeSnapshot();
+
+        // turn teaming on during every pick country turn,
+        // because doing so only on the first turn will fail to find potential allies
+        // who have not yet had a turn; passing 'false' tells it not to make an announcement to the user
+        // so we don't do that multiple times
+        // (the second parameter will turn on teaming with humans if that variable is true)
+        if (isTeamingOn) {
+          teamingOn(false,isTeamingWithHumans);
+        }
 
-      // ---- PHASE 1 ---- //
-      pickedCountry = pickCountryPhase1();
-      // after each continent is either full, has multiple owners, or is solely occupied by an ally
-      // then phase 1 is over, and pickedCountry will remain -1 to this point, where phase 2 will take over
+        // make start-of-game announcement to user
+        // the function will do the appropriate tests to make sure this only happens once
+        // but we have to call the function in several different places for redundancy
+        // just like we do with turning teaming on (pickCountry, placeInitialArmies, and placeArmies)
+        makeUserAnnouncement();
 
-      // ---- PHASE 2 ---- //
-      if (pickedCountry == -1) { // if pickedCountry is anything besides -1 here, then phase 1 picked a country, so do nothing
-        pickedCountry = pickCountryPhase2();
-      }
+        // ---- PHASE 1 ---- //
+        pickedCountry = pickCountryPhase1();
+        // after each continent is either full, has multiple owners, or is solely occupied by an ally
+        // then phase 1 is over, and pickedCountry will remain -1 to this point, where phase 2 will take over
+
+        // ---- PHASE 2 ---- //
+        if (pickedCountry == -1) { // if pickedCountry is anything besides -1 here, then phase 1 picked a country, so do nothing
+          pickedCountry = pickCountryPhase2();
+        }
 
+        releaseSnapshot();
+      } finally {
+        profiler.stop(VikingProfiler.PICK_COUNTRY, started);
+      }
+      recordReturn();
       return pickedCountry;
     }
 
@@ -215,7 +299,7 @@ public class Viking implements LuxAgent
 
         // for phase 1, we only care about keeping enemies from owning continents with positive bonuses
         // so we simply skip any continent with a zero or negative bonus
-        if (board.getContinentBonus(continent) <= 0) {
+        if (model.getContinentBonus(continent) <= 0) {
           continue;
         }
 
@@ -225,7 +309,7 @@ public class Viking implements LuxAgent
         ArrayList<Integer> unownedCountries = new ArrayList<Integer>();
         // loop through all countries in that continent
         for (int country : contCountries) {
-          int owner = countries[country].getOwner();
+          int owner = model.getOwner(country);
           // if nobody owns it
           if (owner == -1) {
             numUnownedCountries++;
@@ -290,7 +374,7 @@ public class Viking implements LuxAgent
         double score = 0.0d;
         int[] unownedCountries = (int[]) continent.get("countries");
         int numCountries = unownedCountries.length;
-        int bonus = board.getContinentBonus((Integer) continent.get("id"));
+        int bonus = model.getContinentBonus((Integer) continent.get("id"));
         int owner = (Integer) continent.get("owner");
         // if the only owner of any countries in this continent is us, or else if no one yet owns any countries in this continent
         if (owner == ID || owner == -1) {
@@ -349,7 +433,7 @@ public class Viking implements LuxAgent
         ArrayList<Integer> unownedCountries = new ArrayList<Integer>();
         // loop through all countries in that continent
         for (int country : contCountries) {
-          int owner = countries[country].getOwner();
+          int owner = model.getOwner(country);
           // if nobody owns it
           if (owner == -1) {
             numUnownedCountries++;
@@ -375,9 +459,9 @@ public class Viking implements LuxAgent
         // so we just need to give it a score
         if (!(ownersList.size() == 1 && isAlly(ownersList.get(0))) && unownedCountries.size() > 0) {
           cont.put("countries", convertListToIntArray(unownedCountries));
-          int totalCountries = BoardHelper.getContinentSize((Integer) cont.get("id"), countries); // total number of countries in this continent
-          int numBorders = BoardHelper.getContinentBorders((Integer) cont.get("id"), countries).length; // number of borders this continent has, for scoring purposes; even though we're using smart Areas in the actual game, this is a good enough approximation for now
-          int bonus = board.getContinentBonus((Integer) cont.get("id")); // this continent's bonus
+          int totalCountries = continents.getSize((Integer) cont.get("id")); // total number of countries in this continent
+          int numBorders = continents.getNumberOfBorders((Integer) cont.get("id")); // number of borders this continent has, for scoring purposes; even though we're using smart Areas in the actual game, this is a good enough approximation for now
+          int bonus = model.getContinentBonus((Integer) cont.get("id")); // this continent's bonus
 
           // score weighs bonus vs number of total countries,
           // and also considers how many countries we already own as a percentage of total countries
@@ -415,32 +499,43 @@ public class Viking implements LuxAgent
 
     // place initial armies at the beginning of the game
     public void placeInitialArmies( int numberOfArmies ) {
-        testChat("placeInitialArmies", "*********** PLACE INITIAL ARMIES ***********");
-
-        // only on the first time we place initial armies, we want to turn teaming with other Vikings on
-        // (as long as the user hasn't previously turned it off, e.g. in the pick countries phase, hence the isTeamingOn check)
-        // we want teaming on by default, but we don't want to do it every time we place initial armies,
-        // because then it will announce it every time
-        // (and if we are teaming with humans, turn that on too)
-        if (firstPlacement && isTeamingOn) {
-          teamingOn(false,isTeamingWithHumans); // turn teaming on with other Vikings by default; passing false tells it not to make an announcement to the user
-          firstPlacement = false;
-        }
-
-        // make start-of-game announcement to user
-        // the function will do the appropriate tests to make sure this only happens once
-        // but we have to call the function in several different places for redundancy
-        // just like we do with turning teaming on (pickCountry, placeInitialArmies, and placeArmies)
-        makeUserAnnouncement();
+        recordCall("placeInitialArmies", numberOfArmies);
+        long started = profiler.start();
+        try {
+            takeSnapshot();
+            testChat("placeInitialArmies", "*********** PLACE INITIAL ARMIES ***********");
+
+            // only on the first time we place initial armies, we want to turn teaming with other Vikings on
+            // (as long as the user hasn't previously turned it off, e.g. in the pick countries phase, hence the isTeamingOn check)
+            // we want teaming on by default, but we don't want to do it every time we place initial armies,
+            // because then it will announce it every time
+            // (and if we are teaming with humans, turn that on too)
+            if (firstPlacement && isTeamingOn) {
+              teamingOn(false,isTeamingWithHumans); // turn teaming on with other Vikings by default; passing false tells it not to make an announcement to the user
+              firstPlacement = false;
+            }
 
-        // simply call placeArmies(), but we pass 'true' as the second parameter
-        // to tell it that we're calling it from placeInitialArmies(), because a few
-        // things need to be handled differently when we're placing armies at the
-        // beginning of the game
-        placeArmies(numberOfArmies, true);
+            // make start-of-game announcement to user
+            // the function will do the appropriate tests to make sure this only happens once
+            // but we have to call the function in several different places for redundancy
+            // just like we do with turning teaming on (pickCountry, placeInitialArmies, and placeArmies)
+            makeUserAnnouncement();
+
+            // simply call placeArmies(), but we pass 'true' as the second parameter
+            // to tell it that we're calling it from placeInitialArmies(), because a few
+            // things need to be handled differently when we're placing armies at the
+            // beginning of the game
+            placeArmies(numberOfArmies, true);
+            releaseSnapshot();
+        } finally {
+            profiler.stop(VikingProfiler.PLACE_INITIAL_ARMIES, started);
+        }
+        recordReturn();
     }
 
     public void cardsPhase( Card[] cards ) {
+        recordCall("cardsPhase", -1);
+        recordReturn();
     }
 
     // place armies at the beginning of each turn
@@ -449,13 +544,13 @@ public class Viking implements LuxAgent
     // this is useful because there are a few behaviors that need to be different in that case
     public void placeArmies(int numberOfArmies, boolean initial) {
         testChat("placeArmies",
-                 "\n============" + board.getPlayerName(ID).toUpperCase() + "============" +
+                 "\n============" + model.getPlayerName(ID).toUpperCase() + "============" +
                  "\n**********************************************" +
                  "\n**********************************************" +
                  "\n**************** PLACE ARMIES ****************" +
                  "\n**********************************************" +
                  "\n**********************************************" +
-                 "\n Turn: " + board.getTurnCount() + " - Our income: " + board.getPlayerIncome(ID) + " - Total enemy income: " + getTotalEnemyIncome());
+                 "\n Turn: " + model.getTurnCount() + " - Our income: " + model.getPlayerIncome(ID) + " - Total enemy income: " + getTotalEnemyIncome());
 
         // on the first turn, if the user hasn't previously turned teaming off
         // (in which case the isTeamingOn boolean will be false)
@@ -467,7 +562,7 @@ public class Viking implements LuxAgent
         // those functions will not have been executed
         // and the game will simply start here.
         // for that reason we need to turn teaming on here as well
-        if (board.getTurnCount() == 1 && isTeamingOn) {
+        if (model.getTurnCount() == 1 && isTeamingOn) {
           teamingOn(false,isTeamingWithHumans);
         }
 
@@ -479,10 +574,10 @@ public class Viking implements LuxAgent
 
         // check remaining players in the game to see if any enemies are left;
         // if the only players left are allies (and ourself, of course), we'll turn teaming off
-        int numPlayersTotal = board.getNumberOfPlayers();
+        int numPlayersTotal = model.getNumberOfPlayers();
         boolean anyEnemiesLeft = false;
         for (int player=0; player<numPlayersTotal; player++) {
-          if (BoardHelper.playerIsStillInTheGame(player, countries)) {
+          if (getPlayerIndex().isStillInTheGame(player)) {
             if (isEnemy(player)) {
               anyEnemiesLeft = true;
               break;
@@ -497,14 +592,14 @@ public class Viking implements LuxAgent
         }
 
         // output teaming information for testing purposes
-//        int numPlayersTotal = board.getNumberOfPlayers();
+//        int numPlayersTotal = model.getNumberOfPlayers();
         for (int i=0; i<numPlayersTotal; i++) {
-          if (BoardHelper.playerIsStillInTheGame(i, countries)) {
+          if (getPlayerIndex().isStillInTheGame(i)) {
             if (isAlly(i)) {
-              testChat("placeArmies", "Player " + board.getPlayerName(i) + " is in allies.");
+              testChat("placeArmies", "Player " + model.getPlayerName(i) + " is in allies.");
             }
             else {
-              testChat("placeArmies", "Player " + board.getPlayerName(i) + " is not in allies.");
+              testChat("placeArmies", "Player " + model.getPlayerName(i) + " is not in allies.");
             }
           }
         }
@@ -519,29 +614,37 @@ public class Viking implements LuxAgent
         // which happens when we wipeout an enemy and get to cash cards mid-turn;
         // in that case, we want to create a new <battlePlan> from scratch, erasing the old one
         // that attackPhase() is in the middle of, and letting it do the new one instead
-        if (initial == false) { //}) && board.getTurnCount() > 1) {
+        if (initial == false) { //}) && model.getTurnCount() > 1) {
             battlePlan.clear();
         }
 
+        // the time we give our takeover path searches is for the whole turn, starting now
+        startTakeoverSearchClock();
+
         // calculate smart areas for the whole board at the beginning of every turn;
         // smart areas are essentially continents with sometimes an extra country or two
         // only if that reduces the number of borders necessary to defend it;
         // (we recalculate at the beginning of each turn because we may not want to add
         // those extra countries if it interferes with an ally, so it may change during gameplay)
-        smartAreas = calculateSmartAreas();
+        long stageStarted = profiler.start();
+        try {
+            setSmartAreas(calculateSmartAreas());
+        } finally {
+            profiler.stop(VikingProfiler.SMART_AREAS, stageStarted);
+        }
 
-        // reset the global <borderArmies> HashMap, which stores the border garrison strength for each border country of each area we want to take over
+        // reset the global <borderArmies> table, which stores the border garrison strength for each border country of each area we want to take over
         // instead of completely clearing it from the previous turn, we want to set each entry to the number of armies
-        // that are actually on that country (and if we don't own the country anymore, remove it from the hashmap);
+        // that are actually on that country (and if we don't own the country anymore, remove it from the table);
         // the reason for doing this is so we can keep those armies reserved so they aren't used for anything else,
         // even if we don't pick the takeover objective that uses these borders this particular turn;
         // so why set them to the number of extant armies instead of just leaving the value set to the ideal border strength
         // for that country as they were last turn? because we don't want to have to sink more armies into this country
         // if we don't need to (which could otherwise happen if another objective had to interact with this country);
         // if a takeover objective IS picked this turn that uses any of these countries as a border, it will simply overwrite
-        // that value in the hashmap with whatever it wants to put there as a border;
+        // that value in the table with whatever it wants to put there as a border;
         // the values we're setting here only matter if we don't pick that objective this turn;
-        if (initial == false && board.getTurnCount() > 1) {
+        if (initial == false && model.getTurnCount() > 1) {
             resetBorderArmies();
         }
 
@@ -550,34 +653,51 @@ public class Viking implements LuxAgent
         masterObjectiveList.clear();
 
         // find and add list of objectives to knockout enemy bonuses
-        masterObjectiveList.addAll(findKnockoutObjectives(initial));
+        stageStarted = profiler.start();
+        try {
+            masterObjectiveList.addAll(findKnockoutObjectives(initial));
+        } finally {
+            profiler.stop(VikingProfiler.KNOCKOUTS, stageStarted);
+        }
 
         // find and add list of continent takeover objectives
-        masterObjectiveList.addAll(findTakeoverObjectives(initial));
+        stageStarted = profiler.start();
+        try {
+            masterObjectiveList.addAll(findTakeoverObjectives(initial));
+        } finally {
+            profiler.stop(VikingProfiler.TAKEOVERS, stageStarted);
+        }
 
         // create and add landgrab objective
-        masterObjectiveList.add(calculateLandgrabObjective(numberOfArmies));
+        stageStarted = profiler.start();
+        try {
+            masterObjectiveList.add(calculateLandgrabObjective(numberOfArmies));
+        } finally {
+            profiler.stop(VikingProfiler.LANDGRAB, stageStarted);
+        }
 
         // find and add wipeout objectives
-        ArrayList<HashMap> tempWipeouts = findWipeoutObjectives(numberOfArmies);
+        ArrayList<VikingWipeoutObjective> tempWipeouts;
+        stageStarted = profiler.start();
+        try {
+            tempWipeouts = findWipeoutObjectives(numberOfArmies);
+        } finally {
+            profiler.stop(VikingProfiler.WIPEOUTS, stageStarted);
+        }
         chatObjectives("placeArmies",tempWipeouts);
         masterObjectiveList.addAll(tempWipeouts);
 
         // sort all the objectives by score
-        sortObjectives(masterObjectiveList, "score");
+        sortObjectives(masterObjectiveList);
 
         // display a summary of each objective for debugging purposes
-        testChat("placeArmies", "--- " + masterObjectiveList.size() + " Possible Objectives: ---");
-        for (HashMap objective : masterObjectiveList) {
-            String summary = "";
-            if (objective != null) {
-                summary = (String) objective.get("summary");
-            } else {
-                summary = "[null objective]";
+        if (testChatIsOn("placeArmies")) {
+            testChat("placeArmies", "--- " + masterObjectiveList.size() + " Possible Objectives: ---");
+            for (VikingObjective objective : masterObjectiveList) {
+                testChat("placeArmies", objective != null ? objective.getSummary() : "[null objective]");
             }
-            testChat("placeArmies", summary);
+            testChat("placeArmies", "****** Objectives we're choosing: ******");
         }
-        testChat("placeArmies", "****** Objectives we're choosing: ******");
 
         // loop through all objectives in order of score
         // picking as many as we can until we're out of armies
@@ -594,25 +714,18 @@ public class Viking implements LuxAgent
             // the first objective in the sorted list is the objective with the highest score;
             // we'll pick this objective (except in the special case that it's a knockout objective
             // that costs more than we can afford in a single turn)
-            HashMap<String, Object> objective = masterObjectiveList.get(0);
+            VikingObjective objective = masterObjectiveList.get(0);
 
             if (objective != null) {
-                // store the type of the objective (whether it's a knockout or takeover, etc.)
-                String type = "";
-                if (objective.containsKey("type")) {
-                    type = (String) objective.get("type");
-                }
-
                 // if the objective is a knockout
-                if (type == "knockout") {
+                if (objective instanceof VikingKnockoutObjective) {
                     // pick this objective if we can afford it
                     // (or if we're in the placeInitialArmies() phase, we can pick it even if we can't afford it)
-                    if ((Integer) objective.get("cost") <= numberOfArmies || initial == true) {
+                    if (objective.cost <= numberOfArmies || initial == true) {
                         picked = true; // set <picked> flag to true
 
                         // add the knockout path to battlePlan
-                        ArrayList<int[]> objectivePlan = (ArrayList<int[]>) objective.get("plan");
-                        battlePlan.addAll(objectivePlan);
+                        battlePlan.addAll(((VikingKnockoutObjective) objective).plan);
                     } else {
                         // if the knockout is too expensive, put it in the back
                         // we will then run the loop again without reassessing the objectives.
@@ -621,13 +734,13 @@ public class Viking implements LuxAgent
                     }
                 }
                 // if the objective is a takeover
-                else if (type == "takeover") {
+                else if (objective instanceof VikingTakeoverObjective) {
                     picked = true;
 
                     // we need to pick the right countries to place our armies on in order to take over the area
                     // the pickBestTakeoverPaths function will simulate taking over the area
                     // from multiple countries and give us back the best set of paths to do so
-                    int[] takeoverArea = (int[]) objective.get("area");
+                    int[] takeoverArea = ((VikingTakeoverObjective) objective).area;
                     ArrayList<int[]> takeoverPlan = pickBestTakeoverPaths(takeoverArea); // get the best paths to take over the goalCont
 
                     // add the takeover plan paths to <battlePlan>
@@ -638,19 +751,18 @@ public class Viking implements LuxAgent
                     setBorderStrength(takeoverArea);
                 }
                 // if the objective is a landgrab
-                else if (type == "landgrab") {
+                else if (objective instanceof VikingLandgrabObjective) {
                     picked = true; // set <picked> flag to true
 
-                    // add the knockout path to battlePlan
-                    ArrayList<int[]> objectivePlan = (ArrayList<int[]>) objective.get("plan");
-                    battlePlan.addAll(objectivePlan);
+                    // add the landgrab path to battlePlan
+                    battlePlan.addAll(((VikingLandgrabObjective) objective).plan);
                 }
                 // if the objective is a wipeout
-                else if (type == "wipeout") {
+                else if (objective instanceof VikingWipeoutObjective) {
                     picked = true; // set <picked> flag to true
 
                     // find the best paths to takeover all of the player's countries
-                    int[] wipeoutArea = (int[]) objective.get("area");
+                    int[] wipeoutArea = ((VikingWipeoutObjective) objective).area;
                     ArrayList<int[]> wipeoutPlan = pickBestTakeoverPaths(wipeoutArea); // get the best paths to take over all the player's countries
 
                     // add those paths to battlePlan
@@ -669,47 +781,75 @@ public class Viking implements LuxAgent
                 if (picked) {
                     // place the number of armies needed to fulfull the objective on the starting countries of all the paths
                     // store any remaining armies available in numberOfArmies
-                    numberOfArmies = placeArmiesOnRoutes(battlePlan,numberOfArmies);
+                    stageStarted = profiler.start();
+                    try {
+                        numberOfArmies = placeArmiesOnRoutes(battlePlan,numberOfArmies);
+                    } finally {
+                        profiler.stop(VikingProfiler.PLACE_ON_ROUTES, stageStarted);
+                    }
 
                     testTemp = testTemp - numberOfArmies;
-                    testChat("placeArmies", (String) objective.get("summary") + ", placed " + testTemp + " armies");
+                    if (testChatIsOn("placeArmies")) {
+                        testChat("placeArmies", objective.getSummary() + ", placed " + testTemp + " armies");
+                    }
 
                     // since we've made plans for this objective, we don't need to look at it again
                     // except in the case of the landgrab objective, which we want to keep and recalculate each loop even if we picked it
-                    if (type != "landgrab") {
+                    if (!(objective instanceof VikingLandgrabObjective)) {
                         masterObjectiveList.remove(0);
                     }
 
                     // loop through the list of remaining objectives
                     // and recalculate them all
-                    for (int i=0; i<masterObjectiveList.size(); i++) {
-                        HashMap<String, Object> element = masterObjectiveList.get(i);
-                        HashMap<String, Object> newElement = new HashMap<String, Object>(); // instantiate HashMap for recalculated objective, regardless of type
-
-                        // each type uses its own creation function
-                        String elementType = "";
-                        if (element != null && element.containsKey("type")) {
-                            elementType = (String) element.get("type");
-                        }
-                        if (elementType == "knockout") {
-                            newElement = calculateKnockoutObjective((Integer) element.get("continentID"));  // knockouts are generated based off of continent IDs
-                        } else if (elementType == "takeover") {
-                            newElement = calculateTakeoverObjective((int[]) element.get("area"));  // takeovers are generated based on areas
-                        } else if (elementType == "landgrab") {
-                            newElement = calculateLandgrabObjective(numberOfArmies); // the landgrab is generated by a number of armies it's allowed to use; in this case, we give it all the remaining armies we have
-                        } else if (elementType == "wipeout") {
-                            newElement = calculateWipeoutObjective((Integer) element.get("playerID"), numberOfArmies); // recalculate wipeout objective by passing the player ID and the remaining available armies
-                        }
-                        if (newElement != null && !newElement.isEmpty()) { // if the recalculated objective isn't empty or null
-                            masterObjectiveList.set(i, newElement); // replace the old one with it
-                        } else { // otherwise the element is null (e.g. if the knockout continent is/will be no longer owned by an enemy; i.e. we picked a path through it)
-                            masterObjectiveList.remove(i); // remove it from the list
-                            i--; // decrement i, because all the elements moved to the left (I know, I know)
+                    stageStarted = profiler.start();
+                    try {
+                        for (int i=0; i<masterObjectiveList.size(); i++) {
+                            VikingObjective element = masterObjectiveList.get(i);
+                            VikingObjective newElement = null; // the recalculated objective, whatever its type
+
+                            // each type uses its own creation function
+                            if (element instanceof VikingKnockoutObjective) {
+                                long objectiveStarted = profiler.start();
+                                try {
+                                    newElement = calculateKnockoutObjective(((VikingKnockoutObjective) element).continent);  // knockouts are generated based off of continent IDs
+                                } finally {
+                                    profiler.stop(VikingProfiler.RECALCULATE_KNOCKOUT, objectiveStarted);
+                                }
+                            } else if (element instanceof VikingTakeoverObjective) {
+                                long objectiveStarted = profiler.start();
+                                try {
+                                    newElement = calculateTakeoverObjective(((VikingTakeoverObjective) element).area);  // takeovers are generated based on areas
+                                } finally {
+                                    profiler.stop(VikingProfiler.RECALCULATE_TAKEOVER, objectiveStarted);
+                                }
+                            } else if (element instanceof VikingLandgrabObjective) {
+                                long objectiveStarted = profiler.start();
+                                try {
+                                    newElement = calculateLandgrabObjective(numberOfArmies); // the landgrab is generated by a number of armies it's allowed to use; in this case, we give it all the remaining armies we have
+                                } finally {
+                                    profiler.stop(VikingProfiler.RECALCULATE_LANDGRAB, objectiveStarted);
+                                }
+                            } else if (element instanceof VikingWipeoutObjective) {
+                                long objectiveStarted = profiler.start();
+                                try {
+                                    newElement = calculateWipeoutObjective(((VikingWipeoutObjective) element).player, numberOfArmies); // recalculate wipeout objective by passing the player ID and the remaining available armies
+                                } finally {
+                                    profiler.stop(VikingProfiler.RECALCULATE_WIPEOUT, objectiveStarted);
+                                }
+                            }
+                            if (newElement != null) { // if the recalculated objective isn't null
+                                masterObjectiveList.set(i, newElement); // replace the old one with it
+                            } else { // otherwise the element is null (e.g. if the knockout continent is/will be no longer owned by an enemy; i.e. we picked a path through it)
+                                masterObjectiveList.remove(i); // remove it from the list
+                                i--; // decrement i, because all the elements moved to the left (I know, I know)
+                            }
                         }
-                    }
 
-                    // re-sort the list
-                    sortObjectives(masterObjectiveList, "score");
+                        // re-sort the list
+                        sortObjectives(masterObjectiveList);
+                    } finally {
+                        profiler.stop(VikingProfiler.RECALCULATION, stageStarted);
+                    }
                 }
             } else { // this objective doesn't exist
                 masterObjectiveList.remove(0); // so remove it and move on to the next one
@@ -732,7 +872,7 @@ public class Viking implements LuxAgent
             // (as opposed to a fork), and if the path has more than one country in it
             // then it's a meaningful path (i.e. one that will actually involve attacking something)
             // so it's one we'll add to the list of countries we're going to place armies on
-            if (countries[path[0]].getOwner() == ID && path.length > 1) {
+            if (model.getOwner(path[0]) == ID && path.length > 1) {
               theCountries.add(path[0]);
               testChat("placeArmies", "            battlePlan path " + i + ": " + Arrays.toString(getCountryNames(path)));
             }
@@ -750,6 +890,8 @@ public class Viking implements LuxAgent
             testChat("placeArmies", "            Placing " + armiesToPlace + " excess armies on " + getCountryName(country));
 
             board.placeArmies(armiesToPlace, country);
+            updateSnapshot(country); // we changed the board, so look at it again
+
             armiesLeft -= armiesToPlace;
           }
         }
@@ -758,129 +900,151 @@ public class Viking implements LuxAgent
 //        chatCountryNames("placeArmies",battlePlan);
     }
     public void placeArmies(int numberOfArmies) {
-        placeArmies(numberOfArmies, false);
+        recordCall("placeArmies", numberOfArmies);
+        long started = profiler.start();
+        try {
+            takeSnapshot();
+            placeArmies(numberOfArmies, false);
+            releaseSnapshot();
+        } finally {
+            profiler.stop(VikingProfiler.PLACE_ARMIES, started);
+        }
+        recordReturn();
     }
 
     // attack!
     public void attackPhase() {
-        // first some testing/debugging messages
-        testChat("attackPhase", "*********** ATTACK PHASE ***********");
-        testChat("attackPhase", "Attack Routes:");
-        ArrayList<int[]> displayPlan = new ArrayList<int[]>();
-        for (int[] route : battlePlan) {
-            if (route.length > 1) {
-                displayPlan.add(route);
+        recordCall("attackPhase", -1);
+        long started = profiler.start();
+        try {
+            takeSnapshot();
+
+            // first some testing/debugging messages
+            testChat("attackPhase", "*********** ATTACK PHASE ***********");
+            testChat("attackPhase", "Attack Routes:");
+            ArrayList<int[]> displayPlan = new ArrayList<int[]>();
+            for (int[] route : battlePlan) {
+                if (route.length > 1) {
+                    displayPlan.add(route);
+                }
             }
-        }
-        chatCountryNames("attackPhase",displayPlan);
+            chatCountryNames("attackPhase",displayPlan);
 
-        // loop through battlePlan (calculated in the placeArmies() phase),
-        // which contains multiple attack routes, and execute each one
-        //for (int i=0; i<battlePlan.size(); i++) {
-        while (battlePlan.size() > 0) {
-//            testChat("attackPhase", "------- Attack route: -------");
-//            chatCountryNames("attackPhase", battlePlan.get(i));
+            // loop through battlePlan (calculated in the placeArmies() phase),
+            // which contains multiple attack routes, and execute each one
+            //for (int i=0; i<battlePlan.size(); i++) {
+            while (battlePlan.size() > 0) {
+    //            testChat("attackPhase", "------- Attack route: -------");
+    //            chatCountryNames("attackPhase", battlePlan.get(i));
 
-            // store the first route in the plan
-            int[] attackRoute = battlePlan.get(0);
+                // store the first route in the plan
+                int[] attackRoute = battlePlan.get(0);
 
-            // remove that route from the plan
-            battlePlan.remove(0);
+                // remove that route from the plan
+                battlePlan.remove(0);
 
-            if (countries[attackRoute[0]].getOwner() == ID) { // if we own the first country in the path
+                if (model.getOwner(attackRoute[0]) == ID) { // if we own the first country in the path
 
-//                testChat("attackPhase", "First country on route has " + countries[attackRoute[0]].getArmies() + " armies.");
+    //                testChat("attackPhase", "First country on route has " + model.getArmies(attackRoute[0]) + " armies.");
 
-                // loop through the whole route, attacking as we go
-                for(int j=0; j<attackRoute.length-1; j++) {
+                    // loop through the whole route, attacking as we go
+                    for(int j=0; j<attackRoute.length-1; j++) {
 
-//                    testChat("attackPhase", "Calculating forks from this country...");
+    //                    testChat("attackPhase", "Calculating forks from this country...");
 
-                    // at each step of the path, before we actually attack
-                    // we test for forks. if we find a branch point from this country
-                    // then we have to tell moveArmiesIn() to leave some armies behind
-                    // in order to take over the fork later from this point
-                    int forkArmies = 0; // how many armies we want to leave behind to use for any forks from this country
-                    for (int k=0; k<battlePlan.size(); k++) { // loop through only the rest of the battlePlan paths (i.e. the ones we haven't attacked yet) to check for branch points
-                        if (attackRoute[j] == battlePlan.get(k)[0]) {
-                            forkArmies += calculateCladeCost(battlePlan, k); // calculate cost of any clades that fork from this point, and add them all to forkArmies
+                        // at each step of the path, before we actually attack
+                        // we test for forks. if we find a branch point from this country
+                        // then we have to tell moveArmiesIn() to leave some armies behind
+                        // in order to take over the fork later from this point
+                        int forkArmies = 0; // how many armies we want to leave behind to use for any forks from this country
+                        for (int k=0; k<battlePlan.size(); k++) { // loop through only the rest of the battlePlan paths (i.e. the ones we haven't attacked yet) to check for branch points
+                            if (attackRoute[j] == battlePlan.get(k)[0]) {
+                                forkArmies += calculateCladeCost(battlePlan, k); // calculate cost of any clades that fork from this point, and add them all to forkArmies
+                            }
                         }
-                    }
 
-                    // find out if we want to leave any armies on this country as a border garrison
-                    int garrisonArmies = checkBorderStrength(attackRoute[j]);
-
-                    // leaveArmies is a global variable
-                    // this is how many armies we want to leave on the attacking country
-                    // both for forking from that country and to leave there as a border garrison
-                    // moveArmiesIn() will use this variable to do that
-                    leaveArmies = forkArmies + garrisonArmies;
-
-                    // now we attack
-                    if (countries[attackRoute[j]].getOwner() == ID && countries[attackRoute[j]].getArmies() > 1 && countries[attackRoute[j+1]].getOwner() != ID) { // if we own the attacking country (and have > 1 army in it) and we don't own the defending country
-                        board.attack(attackRoute[j],attackRoute[j+1],true); // attack the next country in the route
-
-                        // if we happen to have successfully attacked the last country owned by an enemy here, so that that enemy is now eliminated
-                        // often we can cash cards mid-turn; when this happens, Lux will call placeArmies() again and then resume attackPhase() from this point;
-                        // placeArmies() will replace <battlePlan> with a new one;
-                        // in that case, the j-loop will continue executing our attack through <attackRoute>
-                        // but on the next iteration of the while loop, the new <battlePlan> will be executed from the beginning, as desired;
-                        // the only source of conflict is that we took over the rest of <attackRoute> in the j-loop before starting on the new <battlePlan>
-                        // but if any routes in the new <battlePlan> overlap those countries, it should harmlessly iterate over them
-                        // since we're checking for proper ownership of the attacking and defending countries here
-                    } else {
-                        testChat("attackPhase","Can't attack from " + countries[attackRoute[j]].getName() + " to " + countries[attackRoute[j+1]].getName());
+                        // find out if we want to leave any armies on this country as a border garrison
+                        int garrisonArmies = checkBorderStrength(attackRoute[j]);
+
+                        // leaveArmies is a global variable
+                        // this is how many armies we want to leave on the attacking country
+                        // both for forking from that country and to leave there as a border garrison
+                        // moveArmiesIn() will use this variable to do that
+                        leaveArmies = forkArmies + garrisonArmies;
+
+                        // now we attack
+                        if (model.getOwner(attackRoute[j]) == ID && model.getArmies(attackRoute[j]) > 1 && model.getOwner(attackRoute[j+1]) != ID) { // if we own the attacking country (and have > 1 army in it) and we don't own the defending country
+                            board.attack(attackRoute[j],attackRoute[j+1],true); // attack the next country in the route
+                            updateSnapshot(attackRoute[j], attackRoute[j+1]); // see how the attack went (if Lux had us do anything in the middle of it, like placing armies after cashing cards, that callback took a new snapshot)
+
+                            // if we happen to have successfully attacked the last country owned by an enemy here, so that that enemy is now eliminated
+                            // often we can cash cards mid-turn; when this happens, Lux will call placeArmies() again and then resume attackPhase() from this point;
+                            // placeArmies() will replace <battlePlan> with a new one;
+                            // in that case, the j-loop will continue executing our attack through <attackRoute>
+                            // but on the next iteration of the while loop, the new <battlePlan> will be executed from the beginning, as desired;
+                            // the only source of conflict is that we took over the rest of <attackRoute> in the j-loop before starting on the new <battlePlan>
+                            // but if any routes in the new <battlePlan> overlap those countries, it should harmlessly iterate over them
+                            // since we're checking for proper ownership of the attacking and defending countries here
+                        } else {
+                            testChat("attackPhase","Can't attack from " + model.getCountryName(attackRoute[j]) + " to " + model.getCountryName(attackRoute[j+1]));
+                        }
                     }
                 }
             }
-        }
 
-        // now we'll do army 'garbage collection'
-        // i.e. find any leftover armies that aren't being used as a border garrison
-        // and use them to attack any enemy neighbors they have
+            // now we'll do army 'garbage collection'
+            // i.e. find any leftover armies that aren't being used as a border garrison
+            // and use them to attack any enemy neighbors they have
 
-        // get all the countries we own
-        ArrayList<Integer> ourCountries = new ArrayList<Integer>();
-        for (Country country : countries) {
-            if (country.getOwner() == ID) {
-                ourCountries.add(country.getCode());
+            // get all the countries we own
+            ArrayList<Integer> ourCountries = new ArrayList<Integer>();
+            for (int country=0; country<model.getNumberOfCountries(); country++) {
+                if (model.getOwner(country) == ID) {
+                    ourCountries.add(country);
+                }
             }
-        }
 
-        // loop through all the countries we own
-        for (int country : ourCountries) {
-            // only perform garbage collection on countries that are not in the <borderArmies> HashMap at all;
-            // that way we leave any extra armies there might be on a border garrison
-            // even when placeArmies() thinks they're superfluous this turn; we might want them there later
-            if (!borderArmies.containsKey(country)) {
-                // the amount of extra armies on this country
-                int extraArmies = countries[country].getArmies() - 1;// - checkBorderStrength(country); // (don't need to check the border strength anymore since we're not garbage collecting on countries with border garrisons)
-                // if we have any extra armies to work with, we'll attack some enemies until we run out
-                if (extraArmies > 0) {
-
-                    testChat("attackPhase", "Performing garbage collection on " + getCountryName(country));
-
-                    int attackingCountry = country;
-                    while (extraArmies > 0) { // attack another country on each loop until we run out of armies
-                        int defendingCountry = findWeakestNeighborOwnedByStrongestEnemy(attackingCountry); // pick the best enemy neighbor to attack
-                        if (defendingCountry == -1) { // if the above function returned -1, it didn't find any enemy neighbors
-                            defendingCountry = findWeakestNeighborNotInAlliedAreaWithEnemyNeighbor(attackingCountry); // so attack an allied neighbor, so long as it has an enemy neighbor and isn't part of an area wholly owned by that ally
-                            if (defendingCountry == -1) {
-                                break; // so break the while loop, since we can't attack anyone
+            // loop through all the countries we own
+            for (int country : ourCountries) {
+                // only perform garbage collection on countries that are not in the <borderArmies> table at all;
+                // that way we leave any extra armies there might be on a border garrison
+                // even when placeArmies() thinks they're superfluous this turn; we might want them there later
+                if (!borderArmies.has(country)) {
+                    // the amount of extra armies on this country
+                    int extraArmies = model.getArmies(country) - 1;// - checkBorderStrength(country); // (don't need to check the border strength anymore since we're not garbage collecting on countries with border garrisons)
+                    // if we have any extra armies to work with, we'll attack some enemies until we run out
+                    if (extraArmies > 0) {
+
+                        testChat("attackPhase", "Performing garbage collection on " + getCountryName(country));
+
+                        int attackingCountry = country;
+                        while (extraArmies > 0) { // attack another country on each loop until we run out of armies
+                            int defendingCountry = findWeakestNeighborOwnedByStrongestEnemy(attackingCountry); // pick the best enemy neighbor to attack
+                            if (defendingCountry == -1) { // if the above function returned -1, it didn't find any enemy neighbors
+                                defendingCountry = findWeakestNeighborNotInAlliedAreaWithEnemyNeighbor(attackingCountry); // so attack an allied neighbor, so long as it has an enemy neighbor and isn't part of an area wholly owned by that ally
+                                if (defendingCountry == -1) {
+                                    break; // so break the while loop, since we can't attack anyone
+                                }
+                            }
+                            leaveArmies = checkBorderStrength(attackingCountry); // <leaveArmies> is a global variable that tells moveArmiesIn() how many armies to leave behind after an attack
+                            board.attack(attackingCountry,defendingCountry,true); // attack the country we picked
+                            updateSnapshot(attackingCountry, defendingCountry); // see how it went
+                            if (model.getOwner(defendingCountry) == ID) { // if we now own the country, then the attack was successful
+                                extraArmies = model.getArmies(defendingCountry) - 1;// - checkBorderStrength(defendingCountry); // reset <extraArmies> for new country (don't need to check the border strength anymore since we're not garbage collecting on countries with border garrisons)
+                                attackingCountry = defendingCountry; // set the country we just conquered as the new attacking country
+                            } else { // we ran out of armies before conquering the country
+                                extraArmies = 0; // so we have zero armies left, and we're done
                             }
-                        }
-                        leaveArmies = checkBorderStrength(attackingCountry); // <leaveArmies> is a global variable that tells moveArmiesIn() how many armies to leave behind after an attack
-                        board.attack(attackingCountry,defendingCountry,true); // attack the country we picked
-                        if (countries[defendingCountry].getOwner() == ID) { // if we now own the country, then the attack was successful
-                            extraArmies = countries[defendingCountry].getArmies() - 1;// - checkBorderStrength(defendingCountry); // reset <extraArmies> for new country (don't need to check the border strength anymore since we're not garbage collecting on countries with border garrisons)
-                            attackingCountry = defendingCountry; // set the country we just conquered as the new attacking country
-                        } else { // we ran out of armies before conquering the country
-                            extraArmies = 0; // so we have zero armies left, and we're done
                         }
                     }
                 }
             }
+
+            releaseSnapshot();
+        } finally {
+            profiler.stop(VikingProfiler.ATTACK_PHASE, started);
         }
+        recordReturn();
     }
 
     // decide how many armies to move upon a successful attack
@@ -892,49 +1056,69 @@ public class Viking implements LuxAgent
         // in which case we will leave behind as many as we have calculated are necessary for both those purposes
         // and move the rest
 
-        testChat("moveArmiesIn", "*********** MOVE ARMIES IN ***********");
+        long started = profiler.start();
+        int amountToMove;
+        try {
+            updateSnapshot(cca, ccd); // we're in the middle of our own attack, so those are the only countries that have changed
+            testChat("moveArmiesIn", "*********** MOVE ARMIES IN ***********");
 
-        int armiesOnFrom = countries[cca].getArmies() - 1; // number of armies on the country we just attacked from
-        int amountToMove = Math.max(0, armiesOnFrom - leaveArmies); // move number of armies on the country minus leaveArmies
+            int armiesOnFrom = model.getArmies(cca) - 1; // number of armies on the country we just attacked from
+            amountToMove = Math.max(0, armiesOnFrom - leaveArmies); // move number of armies on the country minus leaveArmies
 
-        testChat("moveArmiesIn", "Attacking country: " + countries[cca].getName() + "\nArmies on attacking country after attacking (minus one): " + armiesOnFrom + "\nCost of forks/garrison: " + leaveArmies + "\nCountry to move into: " + countries[ccd].getName() + "\nAmount to move: " + amountToMove);
+            testChat("moveArmiesIn", "Attacking country: " + model.getCountryName(cca) + "\nArmies on attacking country after attacking (minus one): " + armiesOnFrom + "\nCost of forks/garrison: " + leaveArmies + "\nCountry to move into: " + model.getCountryName(ccd) + "\nAmount to move: " + amountToMove);
 
+            releaseSnapshot();
+        } finally {
+            profiler.stop(VikingProfiler.MOVE_ARMIES_IN, started);
+        }
         return amountToMove;
     }
 
     public void fortifyPhase() {
-        testChat("fortifyPhase", "*********** FORTIFY PHASE ***********");
-
-        // first recalculate the border strengths of all the countries in <borderArmies>?
-
-        // we will fortify in 2 phases:
-        //
-        // (1) if any exterior borders are touching each other, do some proportionalization between them
-        //
-        // (2) we move any unused armies either toward an exterior area border
-        //     (but NOT toward any interior borders, i.e. borders that are boxed in by other areas we own)
-        //     or toward the nearest country that neighbors an enemy country,
-        //     whichever is better, as determined by distance vs. need
-
-        // so first find and store the fitness of each exterior border;
-        // an exterior border is a border of an area we (fully) own
-        // that is not boxed in by other areas we (fully) own;
-        // the fitness value stored for each exterior border in the hashmap
-        // is its ideal strength / actual strength
-        HashMap<Integer,Double> extBordersFitness = findAllExteriorBordersFitness();
-        int[] extBorders = convertListToIntArray(extBordersFitness.keySet());
-
-        // PHASE 1 - proportionalize between any groups of contiguous borders
-        fortifyBetweenExteriorBorders(extBorders);
+        recordCall("fortifyPhase", -1);
+        long started = profiler.start();
+        try {
+            takeSnapshot();
+            testChat("fortifyPhase", "*********** FORTIFY PHASE ***********");
 
-        // PHASE 2 - move any free armies on the board either to an exterior border or to the front
-        fortifyFreeArmies(extBordersFitness);
+            // first recalculate the border strengths of all the countries in <borderArmies>?
 
+            // we will fortify in 2 phases:
+            //
+            // (1) if any exterior borders are touching each other, do some proportionalization between them
+            //
+            // (2) we move any unused armies either toward an exterior area border
+            //     (but NOT toward any interior borders, i.e. borders that are boxed in by other areas we own)
+            //     or toward the nearest country that neighbors an enemy country,
+            //     whichever is better, as determined by distance vs. need
+
+            // so first find and store the fitness of each exterior border;
+            // an exterior border is a border of an area we (fully) own
+            // that is not boxed in by other areas we (fully) own;
+            // the fitness value stored for each exterior border in the hashmap
+            // is its ideal strength / actual strength
+            HashMap<Integer,Double> extBordersFitness = findAllExteriorBordersFitness();
+            int[] extBorders = convertListToIntArray(extBordersFitness.keySet());
+
+            // PHASE 1 - proportionalize between any groups of contiguous borders
+            fortifyBetweenExteriorBorders(extBorders);
+
+            // PHASE 2 - move any free armies on the board either to an exterior border or to the front
+            fortifyFreeArmies(extBordersFitness);
+
+            releaseSnapshot();
+        } finally {
+            profiler.stop(VikingProfiler.FORTIFY_PHASE, started);
+        }
+        recordReturn();
     }
 
     // called when we win the game
     public String youWon()
     {
+        stopRecording();
+        profiler.dump(model.getPlayerName(ID), ID);
+
         // For variety we store a bunch of answers and pick one at random to return.
         String[] answers = new String[] {
             "I won",
@@ -998,76 +1182,103 @@ public class Viking implements LuxAgent
 
     public String message( String message, Object data )
     {
-      // if somebody wrote something in the chat window
-      if (message == "chat") {
-        Vector chatData = (Vector) data;
-        // if it wasn't a Viking that chatted it
-        if (!chatData.get(0).toString().equals("Viking (AI)")) {
-          String text = (String) chatData.get(1);
-          text = text.toLowerCase(); // to make it not case sensitive
-
-          // for these commands, empty the list of allies to stop teaming with anyone
-          if (text.equals("viking alone") || text.equals("viking team off") || text.equals("viking teaming off")) {
-            teamingOff();
-          }
+      long started = profiler.start();
+      liveIndex = null; // the other players may have changed the board since we last looked
+      try {
+        // if somebody wrote something in the chat window
+        if (message == "chat") {
+          Vector chatData = (Vector) data;
+          // if it wasn't a Viking that chatted it
+          if (!chatData.get(0).toString().equals("Viking (AI)")) {
+            String text = (String) chatData.get(1);
+            text = text.toLowerCase(); // to make it not case sensitive
+
+            // for these commands, empty the list of allies to stop teaming with anyone
+            if (text.equals("viking alone") || text.equals("viking team off") || text.equals("viking teaming off")) {
+              teamingOff();
+            }
 
-          // turn teaming on (with other Vikings)
-          if (text.equals("viking together") || text.equals("viking team on") || text.equals("viking teaming on")) {
-            teamingOn();
-          }
+            // turn teaming on (with other Vikings)
+            if (text.equals("viking together") || text.equals("viking team on") || text.equals("viking teaming on")) {
+              teamingOn();
+            }
 
-          // turn teaming on with other Humans
-          if (text.equals("viking team with humans") || text.equals("viking teaming with humans")) {
-            teamingOn(true,true);
-          }
+            // turn teaming on with other Humans
+            if (text.equals("viking team with humans") || text.equals("viking teaming with humans")) {
+              teamingOn(true,true);
+            }
 
-          // report teaming status
-          if (text.equals("viking status") || text.equals("viking team status") || text.equals("viking teaming status")) {
-            if (isSpokesperson()) {
-              if (isTeamingOn) {
-                if (isTeamingWithHumans) {
-                    board.sendChat("Viking is teaming with other Vikings and Humans");
+            // report teaming status
+            if (text.equals("viking status") || text.equals("viking team status") || text.equals("viking teaming status")) {
+              if (isSpokesperson()) {
+                if (isTeamingOn) {
+                  if (isTeamingWithHumans) {
+                      board.sendChat("Viking is teaming with other Vikings and Humans");
+                  } else {
+                      board.sendChat("Viking is teaming with other Vikings");
+                  }
                 } else {
-                    board.sendChat("Viking is teaming with other Vikings");
+                  board.sendChat("Vikings are NOT teaming");
                 }
-              } else {
-                board.sendChat("Vikings are NOT teaming");
               }
             }
-          }
 
-          // help command
-          if (text.equals("viking help") || text.equals("viking about")) {
-            if (isSpokesperson()) {
-              String string = "By default, Viking teams with other Vikings. Viking accepts the following chat commands:\n" +
-           "                  \u2022  \"Viking status\" to determine its current teaming status\n" +
-           "                  \u2022  \"Viking team off\" to turn teaming off\n" +
-           "                  \u2022  \"Viking team on\" to turn teaming on\n" +
-           "                  \u2022  \"Viking team with humans\" to team with all human players (and other Vikings)\n" +
-           "                  \u2022  \"Viking help\" to bring up this message\n" +
-           "                  Version 1.0. Viking was created by Tor and Vor.\n" +
-           "                  Email TorVor.Viking@gmail.com to contact Viking's creators (feedback is welcome!) Sk\u00E5l!!\n";
-              board.sendChat(string);
+            // record our decisions so they can be replayed offline (for debugging and profiling; see VikingRecorder)
+            if (text.equals("viking record on")) {
+              startRecording();
+              if (recorder != null && isSpokesperson()) {
+                board.sendChat("Viking is recording its decisions in " + recorder.getFile().getParent());
+              }
+            }
+            if (text.equals("viking record off")) {
+              stopRecording();
+              if (isSpokesperson()) {
+                board.sendChat("Viking is no longer recording");
+              }
+            }
+
+            // help command
+            if (text.equals("viking help") || text.equals("viking about")) {
+              if (isSpokesperson()) {
+                String string = "By default, Viking teams with other Vikings. Viking accepts the following chat commands:\n" +
+             "                  \u2022  \"Viking status\" to determine its current teaming status\n" +
+             "                  \u2022  \"Viking team off\" to turn teaming off\n" +
+             "                  \u2022  \"Viking team on\" to turn teaming on\n" +
+             "                  \u2022  \"Viking team with humans\" to team with all human players (and other Vikings)\n" +
+             "                  \u2022  \"Viking help\" to bring up this message\n" +
+             "                  Version 1.0. Viking was created by Tor and Vor.\n" +
+             "                  Email TorVor.Viking@gmail.com to contact Viking's creators (feedback is welcome!) Sk\u00E5l!!\n";
+                board.sendChat(string);
+              }
             }
           }
         }
-      }
-      if (message == "youLose") {
-        // I think this is how we find out we lost; will have to test later
-        String[] answers = new String[] {
-            "\"Even for my kind, pain still hurts. If you move and act in the material world, then the material world acts on you. Pain hurts, just as greed intoxicates and lust burns. We may not die easy and we sure as hell don't die well, but we can die. If we're still loved and remembered, something else a whole lot like us comes along and takes our place and the whole damn thing starts all over again. And if we're forgotten, we're done.\"  -Odin",
-            "\"If a victory is told in detail, one can no longer distinguish it from a defeat.\" -Jean-Paul Sartre",
-            "\"No nation ever had an army large enough to guarantee it against attack in time of peace, or ensure it of victory in time of war.\" -Calvin Coolidge",
-            "\"Are we now deserving \nWhen our cyborg parts are burning? \nI know we're just diseased appliances \nWhere will you live? What will you die for? \nJust because we don't feel flesh \nDoesn't mean we don't fear death\" \n-Crystal Castles",
-            "\"When all the world is overcharged with inhabitants, then the last remedy of all is war, which provideth for every man, by victory or death.\" -Thomas Hobbes",
-            "\"On the plains of hesitation lie the blackened bones of countless millions who at the dawn of victory lay down to rest, and in resting died.\" -Adlai Stevenson I",
-            "\"I hate war as only a soldier who has lived it can, only as one who has seen its brutality, its futility, its stupidity.\" -Dwight D. Eisenhower",
-            "\"Victory has a thousand fathers, but defeat is an orphan.\" -John F. Kennedy",
-            "\"There are not enough Indians in the world to defeat the Seventh Cavalry.\" -George Armstrong Custer",
+        if (message == "youLose") {
+          stopRecording();
 
-        };
+          // I think this is how we find out we lost; will have to test later
+          String[] answers = new String[] {
+              "\"Even for my kind, pain still hurts. If you move and act in the material world, then the material world acts on you. Pain hurts, just as greed intoxicates and lust burns. We may not die easy and we sure as hell don't die well, but we can die. If we're still loved and remembered, something else a whole lot like us comes along and takes our place and the whole damn thing starts all over again. And if we're forgotten, we're done.\"  -Odin",
+              "\"If a victory is told in detail, one can no longer distinguish it from a defeat.\" -Jean-Paul Sartre",
+              "\"No nation ever had an army large enough to guarantee it against attack in time of peace, or ensure it of victory in time of war.\" -Calvin Coolidge",
+              "\"Are we now deserving \nWhen our cyborg parts are burning? \nI know we're just diseased appliances \nWhere will you live? What will you die for? \nJust because we don't feel flesh \nDoesn't mean we don't fear death\" \n-Crystal Castles",
+              "\"When all the world is overcharged with inhabitants, then the last remedy of all is war, which provideth for every man, by victory or death.\" -Thomas Hobbes",
+              "\"On the plains of hesitation lie the blackened bones of countless millions who at the dawn of victory lay down to rest, and in resting died.\" -Adlai Stevenson I",
+              "\"I hate war as only a soldier who has lived it can, only as one who has seen its brutality, its futility, its stupidity.\" -Dwight D. Eisenhower",
+              "\"Victory has a thousand fathers, but defeat is an orphan.\" -John F. Kennedy",
+              "\"There are not enough Indians in the world to defeat the Seventh Cavalry.\" -George Armstrong Custer",
+
+          };
+
+          board.sendChat(answers[ rand.nextInt(answers.length) ]);
+        }
+      } finally {
+        profiler.stop(VikingProfiler.MESSAGE, started);
+      }
 
-        board.sendChat(answers[ rand.nextInt(answers.length) ]);
+      // the game is over for us, so this is the time to write out our timings (if -Dviking.profile is set)
+      if (message == "youLose") {
+        profiler.dump(model.getPlayerName(ID), ID);
       }
       return null;
     }
@@ -1092,21 +1303,96 @@ public class Viking implements LuxAgent
        }
      }
 
+     // start writing down the state we're in at every callback (see VikingRecorder), if we aren't already;
+     // if the file can't be created we just carry on without recording
+     protected void startRecording() {
+       if (recorder == null) {
+         try {
+           recorder = new VikingRecorder(this, VikingRecorder.getDirectory());
+         } catch (Exception e) {
+           System.err.println("Viking: can't record decisions: " + e);
+         }
+       }
+     }
+
+     protected void stopRecording() {
+       if (recorder != null) {
+         recorder.close();
+         recorder = null;
+       }
+     }
+
+     // called at the start and end of each callback the game makes; they do nothing unless we're recording
+     protected void recordCall(String callback, int argument) {
+       if (recorder != null) {
+         recorder.begin(callback, argument);
+         if (recorder.hasFailed()) {
+           System.err.println("Viking: stopped recording decisions, couldn't write " + recorder.getFile());
+           stopRecording();
+         }
+       }
+     }
+
+     protected void recordReturn() {
+       if (recorder != null) {
+         recorder.end();
+       }
+     }
+
+    // plan against a copy of the board as it is right now (see VikingBoardSnapshot);
+    // we do this at the start of each callback
+    protected void takeSnapshot() {
+        snapshot = new VikingBoardSnapshot(luxBoard, snapshot);
+        model = snapshot;
+        liveIndex = null;
+    }
+
+    // every time we place, attack or fortify, we've only changed <countries>, so we just copy those into the snapshot
+    // (which keeps its player index up to date too); if there's no snapshot yet, we take one
+    protected void updateSnapshot(int... countries) {
+        if (snapshot == null) {
+            takeSnapshot();
+            return;
+        }
+        snapshot.update(luxBoard, countries);
+        model = snapshot;
+        liveIndex = null;
+    }
+
+    // and go back to reading the live board when the callback's done,
+    // since the other players will change it before we hear from Lux again
+    protected void releaseSnapshot() {
+        model = luxBoard;
+        liveIndex = null;
+    }
+
+    // who owns what in <model>, by player; the snapshot has one ready,
+    // but when we're reading the live board we have to go around it and make one (once, see <liveIndex>)
+    protected VikingPlayerIndex getPlayerIndex() {
+        if (snapshot != null && model == snapshot) {
+            return snapshot.getPlayerIndex();
+        }
+        if (liveIndex == null) {
+            liveIndex = new VikingPlayerIndex(model);
+        }
+        return liveIndex;
+    }
+
      // turn teaming on with other Vikings
     protected void teamingOn(boolean announce, boolean withHumans) {
       isTeamingOn = true; // set the global flag to true
       // populate <allies> with the names of all Viking players (except ourselves)
-      int numPlayersTotal = board.getNumberOfPlayers(); // the number of players who started the game
+      int numPlayersTotal = model.getNumberOfPlayers(); // the number of players who started the game
       // loop through all the players who started the game
       for (int player=0; player<numPlayersTotal; player++) {
         // if this player is a Viking and is not us and is still in the game
-        if (BoardHelper.playerIsStillInTheGame(player, countries)) {
-          if (board.getAgentName(player) == "Viking" && player != ID) {
+        if (getPlayerIndex().isStillInTheGame(player)) {
+          if (model.getAgentName(player) == "Viking" && player != ID) {
             if (!isInArray(player,allies)) { // also if this player isn't already in the list
               allies.add(player); // add this Viking to allies
             }
           }
-          else if (board.getAgentName(player) == "Human" && withHumans) {
+          else if (model.getAgentName(player) == "Human" && withHumans) {
             if (!isInArray(player,allies)) { // also if this player isn't already in the list
               allies.add(player); // add this Human to allies
             }
@@ -1143,9 +1429,9 @@ public class Viking implements LuxAgent
     // in cases where we want the Vikings to chat as a group; returns true if this Viking is the spokesperson
     protected boolean isSpokesperson() {
       // loop through all players (not just players left)
-      int numPlayers = board.getNumberOfPlayers();
+      int numPlayers = model.getNumberOfPlayers();
       for (int i=0; i<numPlayers; i++) {
-        if (board.getAgentName(i) == "Viking") {
+        if (model.getAgentName(i) == "Viking") {
           if (i<ID) {
             // then we aren't the Viking with the lowest ID, so we're not the spokesperson
             return false;
@@ -1180,8 +1466,8 @@ public class Viking implements LuxAgent
                 int totalClumpArmies = 0; // total number of armies actually on this clump
                 int totalDesiredArmies = 0; // total number of armies in <borderArmies> for every country in this clump
                 for (int country : clump) {
-                    totalClumpArmies += countries[country].getArmies() - 1;
-                    totalDesiredArmies += borderArmies.get(country);
+                    totalClumpArmies += model.getArmies(country) - 1;
+                    totalDesiredArmies += borderArmies.getArmies(country);
                 }
                 double plannedPercent = (double) totalClumpArmies / (double) totalDesiredArmies; // the percentage of <borderArmies> value we want to even each country out to
 
@@ -1193,10 +1479,10 @@ public class Viking implements LuxAgent
                 // do its best to move armies around to make every country's offset as close to 0 as possible
                 HashMap<Integer, Integer> armyOffset = new HashMap<Integer, Integer>();
                 for (int country : clump) {
-                    int plannedArmies = (int) Math.floor(plannedPercent * (double) borderArmies.get(country));
-                    armyOffset.put(country, countries[country].getArmies() - 1 - plannedArmies);
+                    int plannedArmies = (int) Math.floor(plannedPercent * (double) borderArmies.getArmies(country));
+                    armyOffset.put(country, model.getArmies(country) - 1 - plannedArmies);
 
-                    testChat("fortifyPhase",getCountryName(country) + " offset: " + armyOffset.get(country) + " - shooting for: " + plannedArmies + " - (actual armies: " + (countries[country].getArmies()-1) + ", borderArmies: " + borderArmies.get(country) + ")");
+                    testChat("fortifyPhase",getCountryName(country) + " offset: " + armyOffset.get(country) + " - shooting for: " + plannedArmies + " - (actual armies: " + (model.getArmies(country)-1) + ", borderArmies: " + borderArmies.getArmies(country) + ")");
                 }
 
                 testChat("fortifyPhase","--------------------------------------------");
@@ -1233,9 +1519,9 @@ public class Viking implements LuxAgent
                         testChat("fortifyPhase","Checking " + getCountryName(country) + "...");
 
                         // get list of <country>'s neighbors that are in the clump
-                        int[] allNeighbors = countries[country].getAdjoiningCodeList(); // all neighbors of <country>
                         ArrayList<Integer> neighbors = new ArrayList<Integer>();
-                        for (int neighbor : allNeighbors) { // loop through neighbors
+                        for (int i=topology.adjoiningStart[country]; i<topology.adjoiningStart[country+1]; i++) { // loop through neighbors
+                            int neighbor = topology.adjoining[i];
                             // if this neighbor is one of the exterior borders in this clump
                             if (armyOffset.containsKey(neighbor)) {
                                 neighbors.add(neighbor); // add it to the list
@@ -1269,9 +1555,10 @@ public class Viking implements LuxAgent
                                 int moveAmount = Math.min((armyOffset.get(fromCountry) - armyOffset.get(toCountry))/2, getRealMoveableArmies(fromCountry));
 
                                 // if there are any armies to move (and for safety, we check that we own both countries)
-                                if (moveAmount > 0 && countries[fromCountry].getOwner() == ID && countries[toCountry].getOwner() == ID) {
+                                if (moveAmount > 0 && model.getOwner(fromCountry) == ID && model.getOwner(toCountry) == ID) {
                                     // move the armies
                                     board.fortifyArmies(moveAmount, fromCountry, toCountry);
+                                    updateSnapshot(fromCountry, toCountry);
 
                                     testChat("fortifyPhase","     ...moving " + moveAmount + " from " + getCountryName(fromCountry) + " (offset: " + armyOffset.get(fromCountry) + ") to " + getCountryName(toCountry) + " (offset: " + armyOffset.get(toCountry) + ")");
 
@@ -1291,8 +1578,8 @@ public class Viking implements LuxAgent
 
                 testChat("fortifyPhase","-- Results for this clump: --");
                 for (int country : clump) {
-                    int plannedArmies = countries[country].getArmies() - 1 - armyOffset.get(country);
-                    testChat("fortifyPhase",getCountryName(country) + " offset: " + armyOffset.get(country) + " - shooting for: " + plannedArmies + " - (actual armies: " + (countries[country].getArmies()-1) + ", borderArmies: " + borderArmies.get(country) + ")");
+                    int plannedArmies = model.getArmies(country) - 1 - armyOffset.get(country);
+                    testChat("fortifyPhase",getCountryName(country) + " offset: " + armyOffset.get(country) + " - shooting for: " + plannedArmies + " - (actual armies: " + (model.getArmies(country)-1) + ", borderArmies: " + borderArmies.getArmies(country) + ")");
                 }
 
             } // end if clump is longer than 1 country
@@ -1311,18 +1598,19 @@ public class Viking implements LuxAgent
         // and move any free armies we find (that aren't on an exterior border)
         // either toward an exterior border or toward the closest country that neighbors an enemy
         testChat("fortifyPhase", "Countries we can move from: ");
-        CountryIterator ourCountries = new PlayerIterator(ID, countries);
-        while (ourCountries.hasNext()) {
-            int country = ourCountries.next().getCode();
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getOwner(country) != ID) {
+                continue;
+            }
 
             // see if this country has any free armies
-            int freeArmies = countries[country].getArmies() - 1 - checkIdealBorderStrength(country);
+            int freeArmies = model.getArmies(country) - 1 - checkIdealBorderStrength(country);
 
             // if this country has free armies and is not itself an exterior border
             // then we want to free move armies from this country to somewhere
             if (freeArmies > 0 && !extBordersFitness.containsKey(country)) {
 
-                testChat("fortifyPhase", "== possible paths to fortify from " + countries[country].getName() + " ==");
+                testChat("fortifyPhase", "== possible paths to fortify from " + model.getCountryName(country) + " ==");
 
                 // there are two possible places we might want to send this country's free armies;
                 // the first is one of the exterior border countries, and the second is the nearest
@@ -1356,7 +1644,7 @@ public class Viking implements LuxAgent
                 // and pick the highest overall score
                 for (int border : extBorders) {
                     // get a path to the next exterior border and calculate its score
-                    int[] candidatePath = BoardHelper.friendlyPathBetweenCountries(country, border, countries);
+                    int[] candidatePath = VikingBoardHelper.friendlyPathBetweenCountries(country, border, model);
                     if (candidatePath != null) {
                         score = (double) extBordersFitness.get(border) / Math.pow((double) candidatePath.length, 2);
 
@@ -1379,13 +1667,14 @@ public class Viking implements LuxAgent
 
                     // figure out how many armies to move from this country:
                     // excess armies (above ideal border strength) or moveable armies, whichever is smaller
-                    freeArmies = countries[fromCountry].getArmies() - 1 - checkIdealBorderStrength(fromCountry);
-                    int moveArmies = Math.min(freeArmies, countries[fromCountry].getMoveableArmies());
+                    freeArmies = model.getArmies(fromCountry) - 1 - checkIdealBorderStrength(fromCountry);
+                    int moveArmies = Math.min(freeArmies, model.getMoveableArmies(fromCountry));
 
                     // do the actual free move,
                     // as long as the amount we can move is greater than 0 and we own both countries
-                    if (moveArmies > 0 && countries[fromCountry].getOwner() == ID && countries[toCountry].getOwner() == ID) {
+                    if (moveArmies > 0 && model.getOwner(fromCountry) == ID && model.getOwner(toCountry) == ID) {
                         board.fortifyArmies(moveArmies, fromCountry, toCountry);
+                        updateSnapshot(fromCountry, toCountry);
                     } else {
                         // otherwise we can't move anything anymore, so stop looping through the path
                         break;
@@ -1400,7 +1689,7 @@ public class Viking implements LuxAgent
     // because it returns 1 for countries that only have 1 (bound) army on them,
     // which cannot actually be moved
     protected int getRealMoveableArmies(int country) {
-        return Math.min(countries[country].getMoveableArmies(),countries[country].getArmies()-1);
+        return Math.min(model.getMoveableArmies(country),model.getArmies(country)-1);
     }
 
     // given a country <startCountry>, find and return a path (int[]) to the nearest country
@@ -1408,12 +1697,12 @@ public class Viking implements LuxAgent
     // if <startCountry> itself has an enemy neighbor, will just return a path of length 1 containing only <startCountry>
     protected int[] pathToNearestCountryWithEnemyNeighbor(int startCountry) {
         // the owner of the starting country
-        int owner = countries[startCountry].getOwner();
+        int owner = model.getOwner(startCountry);
 
         // we'll store whether we've seen a country before in a boolean array
         // so we don't double count it
-        boolean[] alreadySeen = new boolean[countries.length];
-        for (int i=0; i<countries.length; i++) {
+        boolean[] alreadySeen = new boolean[model.getNumberOfCountries()];
+        for (int i=0; i<model.getNumberOfCountries(); i++) {
             alreadySeen[i] = false;
         }
 
@@ -1422,7 +1711,7 @@ public class Viking implements LuxAgent
         // of the last country in it, and adding them each to the end of their own new path,
         // which we'll add to the stack until we find one that's an enemy,
         // in which case we'll return the path leading up to it and we're done
-        CountryPathStack Q = new CountryPathStack();
+        VikingPathQueue Q = new VikingPathQueue();
         int country = startCountry;
         int[] path = new int[1];
         path[0] = country;
@@ -1434,11 +1723,11 @@ public class Viking implements LuxAgent
             // we'll test if any of them are an enemy country, and if they are, we're done;
             // if not, we'll add them each to the end of their own new path
             // and add all those paths to the stack
-            int[] neighbors = countries[country].getAdjoiningCodeList();
-            for (int neighbor : neighbors) {
+            for (int i=topology.adjoiningStart[country]; i<topology.adjoiningStart[country+1]; i++) {
+                int neighbor = topology.adjoining[i];
                 if (alreadySeen[neighbor] == false) { // if we haven't already seen this country
                     // if this neighbor is an enemy, then <country> is the last country in the path, so we're done
-                    if (countries[neighbor].getOwner() != owner) {
+                    if (model.getOwner(neighbor) != owner) {
                         return path;
                     }
 
@@ -1448,7 +1737,7 @@ public class Viking implements LuxAgent
                     int[] newPath = new int[path.length+1];
                     System.arraycopy(path,0,newPath,0,path.length);
                     newPath[newPath.length-1] = neighbor;
-                    Q.pushWithValueAndHistory(countries[neighbor], newPath.length, newPath);
+                    Q.pushWithValueAndHistory(neighbor, newPath.length, newPath);
                 }
             }
 
@@ -1471,19 +1760,17 @@ public class Viking implements LuxAgent
         HashMap<Integer,Double> extBordersFitness = new HashMap<Integer,Double>();
 
         // get list of all borders
-        ArrayList<Integer> candidates = new ArrayList<Integer>(borderArmies.keySet());
+        int[] candidates = borderArmies.countries();
 
         // loop through all borders and eliminate borders that are blocked in by an area that we completely own
-        Iterator<Integer> iter = candidates.iterator();
-        while (iter.hasNext()) {
-            int border = iter.next(); // the border country we're checking
+        for (int border : candidates) { // the border country we're checking
 
             // first check if the border itself is part of an area that we fully own;
             boolean validBorder = false;
             int areaIndex = -1;
             for (int i=0; i<smartAreas.size(); i++) { // loop through all areas on the board
                 int[] area = smartAreas.get(i);
-                if (isInArray(border, area) && playerOwnsArea(area)) { // if the border is in this area and we fully own this area
+                if (smartAreaSets.get(i).contains(border) && playerOwnsArea(area)) { // if the border is in this area and we fully own this area
                     validBorder = true; // then the border is valid
                     areaIndex = i; // save the area that this is part of (we'll need this later to calculate its ideal strength)
                     break; // and we don't need to check the rest of the areas
@@ -1492,12 +1779,12 @@ public class Viking implements LuxAgent
 
             // if the <validBorder> flag is true, then go ahead and check to see if it's exterior or not
             if (validBorder) {
-                int[] neighbors = countries[border].getAdjoiningCodeList(); // get this border's neighbors
                 boolean exteriorBorder = false;
-                for (int neighbor : neighbors) { // loop through all the neighbors
+                for (int i=topology.adjoiningStart[border]; i<topology.adjoiningStart[border+1]; i++) { // loop through all the neighbors
+                    int neighbor = topology.adjoining[i];
                     boolean externalNeighbor = true; // flag for whether this neighbor is part of at least one area that we completely own
-                    for (int[] area : smartAreas) { // loop through all areas (<smartAreas> is a global list of all the areas on the board)
-                        if (isInArray(neighbor, area) && playerOwnsArea(area)) { // if this neighbor is in this area and we fully own this area
+                    for (int j=0; j<smartAreas.size(); j++) { // loop through all areas (<smartAreas> is a global list of all the areas on the board)
+                        if (smartAreaSets.get(j).contains(neighbor) && playerOwnsArea(smartAreas.get(j))) { // if this neighbor is in this area and we fully own this area
                             // if we're here, we know this neighbor is part of at least one area that we completely own
                             externalNeighbor = false; // so set the flag to false
                             break; // and we don't need to loop through the rest of the areas
@@ -1515,8 +1802,8 @@ public class Viking implements LuxAgent
                 // and add it to the hashmap
                 if (exteriorBorder == true) {
 
-                    int ideal = calculateIdealBorderStrength(border, smartAreas.get(areaIndex));
-                    int actual = countries[border].getArmies();
+                    int ideal = calculateIdealBorderStrength(border, smartAreaSets.get(areaIndex));
+                    int actual = model.getArmies(border);
                     double fitness = ((double) ideal + 1d) / (double) actual;
 
                     // save the border and its fitness in the hashmap
@@ -1550,40 +1837,64 @@ public class Viking implements LuxAgent
         for(int continent = 0; continent < numConts; continent++) {
             //create a country blacklist of all countries in blacklisted continents
             //except for the one we're working on
-            ArrayList<Integer> countryBlacklist = new ArrayList<Integer>();
+            VikingCountrySet countryBlacklist = newCountrySet();
             for (int blacklistContinent : continentBlacklist) {
               if (blacklistContinent != continent) {
-                countryBlacklist.addAll(convertIntArrayToList(getCountriesInContinent(blacklistContinent)));
+                countryBlacklist.addAll(getCountriesInContinent(blacklistContinent));
               }
             }
             // get countries in this continent
             // plus possibly some extra countries outside the continent in order to
             // reduce the number of borders necessary to defend
-            int[] area = getSmartBordersArea(getCountriesInContinent(continent), convertListToIntArray(countryBlacklist));
+            int[] area;
+            if (countryBlacklist.isEmpty()) {
+                // with nothing blacklisted the smart area only depends on the map, so we only ever have to work it out once
+                // (and its borders stay the same all game, so the border cache keeps them for good)
+                area = mapAnalysis.getSmartArea(continent);
+                if (area == null) {
+                    area = getSmartBordersArea(getCountriesInContinent(continent), countryBlacklist);
+                    mapAnalysis.setSmartArea(continent, area);
+                } else {
+                    area = area.clone();
+                }
+                borderCache.pin(newCountrySet(area));
+            } else {
+                area = getSmartBordersArea(getCountriesInContinent(continent), countryBlacklist);
+            }
 
             areas.add(area);
         }
         return areas;
     }
 
+    // sets <smartAreas> to <areas>, and <smartAreaSets> to match
+    protected void setSmartAreas(ArrayList<int[]> areas) {
+        smartAreas = areas;
+        smartAreaSets = new ArrayList<VikingCountrySet>();
+        for (int[] area : areas) {
+            VikingCountrySet areaSet = newCountrySet(area);
+            smartAreaSets.add(areaSet);
+        }
+    }
+
     // returns a list of wipeout objectives, one for each player remaining in the game that isn't us
     // a wipeout objective is a list of attack paths to eliminate a player from the game entirely
     // along with an accompanying score;
     // the <armies> parameter is passed from placeArmies(), giving us the total number of armies
     // available to us this turn (i.e. income + cards); we need to know this because if we don't
     // have enough armies to wipeout an enemy, we won't bother creating the objective at all for that player
-    protected ArrayList<HashMap> findWipeoutObjectives(int armies) {
+    protected ArrayList<VikingWipeoutObjective> findWipeoutObjectives(int armies) {
         // the list of objectives we'll return
-        ArrayList<HashMap> objectiveList = new ArrayList<HashMap>();
+        ArrayList<VikingWipeoutObjective> objectiveList = new ArrayList<VikingWipeoutObjective>();
 
-        int totalPlayers = board.getNumberOfPlayers(); // the number of players that started the game
+        int totalPlayers = model.getNumberOfPlayers(); // the number of players that started the game
 
         // loop through all the players
         for (int player=0; player<totalPlayers; player++) {
             // if the player isn't us and the player is still in the game
-            if (player != ID && BoardHelper.playerIsStillInTheGame(player, countries)) {
+            if (player != ID && getPlayerIndex().isStillInTheGame(player)) {
                 // then calculate a wipeout objective for this player
-                HashMap<String,Object> objective = calculateWipeoutObjective(player, armies);
+                VikingWipeoutObjective objective = calculateWipeoutObjective(player, armies);
 
                 // if the objective was actually created for this player
                 if (objective != null) {
@@ -1599,27 +1910,18 @@ public class Viking implements LuxAgent
 
     // calculates a wipeout objective for the given player
     // the armies parameter is how many armies are available to us this turn (i.e. income + cards)
-    protected HashMap<String, Object> calculateWipeoutObjective(int player, int armies) {
-        // create the HashMap
-        HashMap<String, Object> objective = new HashMap<String, Object>();
-
+    protected VikingWipeoutObjective calculateWipeoutObjective(int player, int armies) {
         // only actually create the objective if the player doesn't have more armies than we'll probably be able to take over in a single turn
         // we also only want to wipeout enemies, not allies
-        if (BoardHelper.getPlayerArmies(player, countries) < armies && isEnemy(player)) {
+        if (getPlayerIndex().getArmies(player) < armies && isEnemy(player)) {
 
-            // set type
-            objective.put("type", "wipeout");
-
-            // set player ID
-            objective.put("playerID", player);
-
-            // set player name
-            String playerName = board.getPlayerName(player);
-            objective.put("playerName", playerName);
+            // create the objective for this player
+            VikingWipeoutObjective objective = new VikingWipeoutObjective(model, player);
+            String playerName = model.getPlayerName(player);
 
             // find and set area
             int[] playerCountries = getPlayerCountries(player); // all countries owned by <player>
-            objective.put("area", playerCountries);
+            objective.area = playerCountries;
 
             // estimate and set cost
             ArrayList<int[]> contiguousAreas = findContiguousAreas(playerCountries); // break up player's countries into contiguous areas to estimate their costs separately
@@ -1638,26 +1940,19 @@ public class Viking implements LuxAgent
             int[] totalCountriesToTakeArray = convertListToIntArray(totalCountriesToTake); // convert to array so we can use it in getGlobCost; this array now contains every country owned by <player> and every country we'll need to take over to get to them, with no duplicates
             int cost = getGlobCost(totalCountriesToTakeArray); // the total estimated cost of the objective
             testChat("calculateWipeoutObjective","Countries with entry paths: " + Arrays.toString(getCountryNames(totalCountriesToTakeArray)));
-            objective.put("cost", cost);
+            objective.cost = cost;
 
             // calculate and set score
-            float cardsValue = ((float) board.getPlayerCards(player) / 3.0f) * (float) board.getNextCardSetValue();  //(each card is treated as 1/3 the value of the next card set)
+            float cardsValue = ((float) model.getPlayerCards(player) / 3.0f) * (float) model.getNextCardSetValue();  //(each card is treated as 1/3 the value of the next card set)
             float gain = unguardedKeepChance * (float) totalCountriesToTake.size() / 3.0f + cardsValue; // <gain> is the expected increase in our income: mainly the value of the cards we'll get, but also the number of countries we'll take over divided by 3, and then multiplied by <unguardedKeepChance> (a global, arbitrary reduction to account for the probability that we won't keep these countries)
             float enemyLoss = 0.0f; // <enemyLoss> is how much we reduce the bonus of any enemies we travel through, weighted by their relative income
             for (int country : totalCountriesToTake) { // loop through each enemy country in the (path and) area
-                enemyLoss += board.getPlayerIncome(countries[country].getOwner()); // add the income of the owner of each country
+                enemyLoss += model.getPlayerIncome(model.getOwner(country)); // add the income of the owner of each country
             }
             enemyLoss /= (3 * getTotalEnemyIncome() + 0.00001f); // divide the total by 3, because every 3 countries is worth 1 income point, and divide by total enemy income and add a tiny fudge just in case <totalEnemyIncome> is 0
             enemyLoss += cardsValue;
             float score = 10f * ((float) gain + enemyLoss) / ((float) cost + 0.00001f); // the score is our gain + the enemies' loss divided by cost and the square root of the number of turns it will take (to discourage large projects)
-            objective.put("score", score);
-
-            // create and set summary string (this is just useful for debugging)
-            String summary = "wipeout   - score: ";
-            String scoreStr = "" + score;
-            summary += scoreStr.length() >= 6 ? scoreStr.substring(0, 6) : scoreStr;
-            summary += " - " + playerName + ", cost: " + cost;
-            objective.put("summary", summary);
+            objective.score = score;
 
             return objective;
         } else {
@@ -1672,8 +1967,7 @@ public class Viking implements LuxAgent
     // countries as possible with those armies, balanced by doing as much damage as
     // possible to the strongest enemies (so it might take a shorter path if that one
     // does more damage to a very strong enemy than a longer one)
-    protected HashMap<String, Object> calculateLandgrabObjective(int armies) {
-        HashMap<String, Object> objective = new HashMap<String, Object>();
+    protected VikingLandgrabObjective calculateLandgrabObjective(int armies) {
         int[] ourCountries = getPlayerCountries(); // get list of countries we own
 
         testChat("calculateLandgrabObjective", "----- Calculate Landgrab Objective -----");
@@ -1684,13 +1978,16 @@ public class Viking implements LuxAgent
 //            testChat("calculateLandgrabObjective", "--- Picking neighbor of " + getCountryName(ourCountry) + ":");
 
             ArrayList<Integer> path = new ArrayList<Integer>(); // will contain the current path
+            VikingCountrySet pathCountries = newCountrySet(); // the same countries, for the blacklist
             path.add(ourCountry); // initially add the start country to the path
+            pathCountries.add(ourCountry);
             float armiesLeft = (float) armies;
             while (armiesLeft >= 0) { // keep finding countries for the path as long as we have at least 1 army
-                int nextCountry = findWeakestNeighborWithMostEnemyNeighbors(path.get(path.size()-1), path); // find the next country in the path
+                int nextCountry = findWeakestNeighborWithMostEnemyNeighbors(path.get(path.size()-1), pathCountries); // find the next country in the path
                 if (nextCountry != -1) { // if the function returned an actual enemy neighbor
                     path.add(nextCountry); // add it to the path
-                    armiesLeft -= (float) countries[nextCountry].getArmies() * 0.5f + 1f; // subtract the cost of taking over that neighbor from <armiesLeft>
+                    pathCountries.add(nextCountry);
+                    armiesLeft -= (float) model.getArmies(nextCountry) * 0.5f + 1f; // subtract the cost of taking over that neighbor from <armiesLeft>
                 } else { // otherwise there were no enemy neighbors,
                     break; //  so we're done with this path, even if we have armies left
                 }
@@ -1723,12 +2020,12 @@ public class Viking implements LuxAgent
             int[] foreignCountries = getForeignCountriesInContinent(ID, cont); // all the foreign countries in this continent
             int freeArmies = 0;
             for (int foreignCountry : foreignCountries) { // loop through the foreign countries
-                freeArmies += countries[foreignCountry].getArmies() - 1; // add up all the free armies
+                freeArmies += model.getArmies(foreignCountry) - 1; // add up all the free armies
             }
-            int numCountries = BoardHelper.getContinentSize(cont, countries); // the number of countries in this continent
+            int numCountries = continents.getSize(cont); // the number of countries in this continent
             float freeArmyDensity = (float) freeArmies / (float) numCountries; // this continent's density is the number of free foreign armies / the total number of countries
             continentDensity[cont] = freeArmyDensity; // store the density in the array of all continents' densities
-//            testChat("calculateLandgrabObjective", board.getContinentName(cont) + ": " + freeArmyDensity);
+//            testChat("calculateLandgrabObjective", model.getContinentName(cont) + ": " + freeArmyDensity);
         }
         // next, we'll adjust that density by adding the average density of all its neighboring continents divided by 2
         float[] adjustedContDensity = new float[numConts]; // this array will hold the adjusted densities for all the continents
@@ -1743,8 +2040,8 @@ public class Viking implements LuxAgent
             if (adjustedDensity > highestAdjustedDensity) { // if this is the highest adjusted density we've seen so far
                 highestAdjustedDensity = adjustedDensity; // save it in <highestAdjustedDensity>
             }
-//            testChat("calculateLandgrabObjective", "Neighbors of " + board.getContinentName(cont) + ": " + Arrays.toString(getContinentNames(neighbors)));
-            testChat("calculateLandgrabObjective", "Adjusted density of " + board.getContinentName(cont) + ": " + adjustedDensity);
+//            testChat("calculateLandgrabObjective", "Neighbors of " + model.getContinentName(cont) + ": " + Arrays.toString(getContinentNames(neighbors)));
+            testChat("calculateLandgrabObjective", "Adjusted density of " + model.getContinentName(cont) + ": " + adjustedDensity);
         }
         testChat("calculateLandgrabObjective", "highest adjusted density: " + highestAdjustedDensity + "\n");
         // now we'll calculate a score for each path, and pick the one with the best score
@@ -1761,7 +2058,7 @@ public class Viking implements LuxAgent
             float gain = 0.0f; // the value of the countries we gain
             for (int i=1; i<length; i++) { // loop through all the countries in this path except the first one (which we own)
                 if (highestAdjustedDensity > 0) {
-                    gain += 1.0f - adjustedContDensity[countries[path.get(i)].getContinent()] / highestAdjustedDensity; // this is the calculated value of each country designed to favor continents with fewer enemy armies around (value should be between 0.0 and 1.0)
+                    gain += 1.0f - adjustedContDensity[model.getContinent(path.get(i))] / highestAdjustedDensity; // this is the calculated value of each country designed to favor continents with fewer enemy armies around (value should be between 0.0 and 1.0)
                 } else { // if the highestAdjustedDensity is 0, then we just add 1 to gain (to avoid dividing by zero)
                     gain += 1.0f;
                 }
@@ -1792,32 +2089,19 @@ public class Viking implements LuxAgent
         chatCountryNames("calculateLandgrabObjective", pickedPath);
 
         // now we've picked the best path,
-        // so we'll package it into an objective HashMap;
+        // so we'll package it into an objective;
         // if there was no path with a score greater than 0 (or no path at all)
         // then we'll just return null;
         if (pickedPath.size() > 0) { // if we picked a path
-            // set type
-            objective.put("type","landgrab");
-
             // set plan
             int[] route = convertListToIntArray(pickedPath); // convert the path we picked into an int array
-            ArrayList<int[]> plan = new ArrayList<int[]>();
-            plan.add(route); // package the path into an array list
-            objective.put("plan",plan); // add to objective
+            VikingLandgrabObjective objective = new VikingLandgrabObjective(model, route); // (which packages it into a plan)
 
             // set cost
-            objective.put("cost", pickedPathCost);
+            objective.cost = pickedPathCost;
 
             // set score
-            objective.put("score", highestScore);
-
-            // set summary string (this is just useful info for debugging)
-            String summary = "landgrab  - score: ";
-            String scoreStr = "" + highestScore;
-            summary += scoreStr.length() >= 6 ? scoreStr.substring(0, 6) : scoreStr;
-            summary += " - " + getCountryName(route[0]) + "..." + getCountryName(route[route.length - 1]) + ", ";
-            summary += "cost: " + pickedPathCost;
-            objective.put("summary", summary);
+            objective.score = highestScore;
 
             return objective;
         } else {
@@ -1825,7 +2109,7 @@ public class Viking implements LuxAgent
         }
     }
 
-    // findTakeoverObjectives() creates an "objective" hashmap for each continent on the board
+    // findTakeoverObjectives() creates an objective for each continent on the board
     // and packages all the objectives in an array list, which it returns to the placeArmies() function
     // which will use the information to decide which ones to take over each turn, if any
     //
@@ -1838,27 +2122,27 @@ public class Viking implements LuxAgent
     // this information should be enough for placeArmies() to prioritize takeover objectives
     // each turn based on the number of armies available and balanced against other types of objectives (such as knockout objectives)
     // <initial> tells us if we're in the placeInitialArmies phase
-    protected ArrayList<HashMap> findTakeoverObjectives(boolean initial) {
-        ArrayList<HashMap> objectiveList = new ArrayList<HashMap>();
+    protected ArrayList<VikingTakeoverObjective> findTakeoverObjectives(boolean initial) {
+        ArrayList<VikingTakeoverObjective> objectiveList = new ArrayList<VikingTakeoverObjective>();
 
-        // loop through all the areas to create an "objective" hashmap for each one and add it to objectiveList
+        // loop through all the areas to create an objective for each one and add it to objectiveList
         for (int[] area : smartAreas) {
 
             // hack to skip Greenland on the Global map for placeInitialArmies
-            if (initial && area.length == 1 && Pattern.matches("Global\\sRisk",board.getMapTitle())) {// && getCountryName(area[0]) == "Greenland") {
+            if (initial && area.length == 1 && Pattern.matches("Global\\sRisk",model.getMapTitle())) {// && getCountryName(area[0]) == "Greenland") {
                 testChat("findTakeoverObjectives","Skipping " + getCountryName(area[0]) + " for place initial armies takeover obj");
                 continue;
             }
 
             // create takeover objective of this area
-            HashMap<String, Object> objective = calculateTakeoverObjective(area);
+            VikingTakeoverObjective objective = calculateTakeoverObjective(area);
 
             // FORCE THE BOT TO ALWAYS CHOOSE TO TAKEOVER A PARTICULAR CONTINENT FOR TESTING PURPOSES
-/*            int[] continents = (int[]) objective.get("continentIDs");
+/*            int[] continents = objective.continentIDs;
             for (int continent : continents) {
-                String name = board.getContinentName(continent);
+                String name = model.getContinentName(continent);
                 if (name.equals("Eastern Africa")) {
-                    objective.put("score", Float.MAX_VALUE);
+                    objective.score = Float.MAX_VALUE;
                     board.sendChat("SETTING SCORE FOR " + name + " TO MAX FLOAT VALUE");
                 }
             }
@@ -1870,40 +2154,39 @@ public class Viking implements LuxAgent
 
         return objectiveList;
     }
-    protected ArrayList<HashMap> findTakeoverObjectives() {
+    protected ArrayList<VikingTakeoverObjective> findTakeoverObjectives() {
         return findTakeoverObjectives(false);
     }
 
-    protected HashMap<String, Object> calculateTakeoverObjective(int[] area) {
-        HashMap<String, Object> objective = new HashMap<String, Object>(); // the Objective hashmap for this continent
-
-        // set objective type
-        objective.put("type", "takeover");
+    protected VikingTakeoverObjective calculateTakeoverObjective(int[] area) {
+        // set area
+        //if buddyhasContinent {area = traditionalArea}
+        VikingTakeoverObjective objective = new VikingTakeoverObjective(model, area); // the objective for this area
 
         // set continent code
         int[] continents = getAreaContinentIDs(area);
-        objective.put("continentIDs", continents);
+        objective.continentIDs = continents;
 
-        String[] names = getContinentNames(continents);
-        testChat("calculateTakeoverObjective", "\n--------------\n" + Arrays.toString(names) + ":");
-        testChat("calculateTakeoverObjective", "Area: " + Arrays.toString(area));
-
-        // set area
-        //if buddyhasContinent {area = traditionalArea}
-        objective.put("area", area);
+        if (testChatIsOn("calculateTakeoverObjective")) {
+            String[] names = getContinentNames(continents);
+            testChat("calculateTakeoverObjective", "\n--------------\n" + Arrays.toString(names) + ":");
+            testChat("calculateTakeoverObjective", "Area: " + Arrays.toString(area));
+        }
 
         // set continent bonus
         int bonus = getAreaBonuses(area);
-        objective.put("bonus", bonus);
+        objective.bonus = bonus;
 
         // find and set number of borders
+        VikingCountrySet areaSet = newCountrySet(area);
+        VikingCountrySet borderSet = borderCache.getBorders(areaSet);
         int numBorders = 0;
         for (int country : area) {
-            if (isAreaBorder(country, area)) {
+            if (borderSet.contains(country)) {
                 numBorders += 1;
             }
         }
-        objective.put("numBorders", numBorders);
+        objective.numBorders = numBorders;
 
         // find and set cost
         //
@@ -1935,36 +2218,31 @@ public class Viking implements LuxAgent
         int totalIdealBorders = 0;
         int totalActualBorders = 0;
         for (int country : area) { // now loop through every country in the area to add border garrisons to the cost
-            int idealBorderStrength = calculateIdealBorderStrength(country, area);
-            int borderStrength = calculateBorderStrength(country, area, idealBorderStrength, bonus); // what the border garrison should be for this country; if it is not a border, this will be 0
+            int idealBorderStrength = calculateIdealBorderStrength(country, areaSet);
+            int borderStrength = calculateBorderStrength(country, areaSet, idealBorderStrength, bonus); // what the border garrison should be for this country; if it is not a border, this will be 0
             totalIdealBorders += idealBorderStrength;
             totalActualBorders += borderStrength;
             //borderStrength += (int) Math.round((idealBorderStrength - borderStrength) / 3.0f); // just an idea too make areas with high ideal borders less attractive
             int extantBorderArmies = getProjectedCountryOwner(country) == ID ? getProjectedArmies(country) - 1 : 0; // how many (extra) armies are on this country if we own it; if we don't own it, 0
             cost += Math.max(0,borderStrength - extantBorderArmies); // add the border strength we want to the cost minus any armies we already have on that border (or 0 if there are more than enough armies already there)
         }
-        objective.put("cost", cost);
+        objective.cost = cost;
 
         // calculate and set score
         float guardedKeepChance = 1.0f;//(float) Math.pow((float) totalActualBorders / (float) totalIdealBorders, 0.5f);
         float gain = guardedKeepChance * (bonus + (float) area.length / 3.0f) + unguardedKeepChance * (float) Math.max(0,entryPath.length-2) / 3.0f; // <gain> is the expected increase in our income: the area bonus + the number of countries divided by 3 + any countries we'll take over on the way there divided by 3, and then multiplied by <unguardedKeepChance> (a global, arbitrary reduction to account for the probability that we won't keep these countries)
 		    float alliedLoss = findAlliedLoss(pathAndArea); // any income loss we will cause our allies (countries we'll take over / 3 and/or any bonuses we'll knock out)
         float enemyLoss = findEnemyLoss(pathAndArea); // <enemyLoss> is how much we reduce the bonus of any enemies we travel through, weighted by their relative income
-        float turns = Math.max(1, (float) cost / ((float) board.getPlayerIncome(ID) + .00001f));
+        float turns = Math.max(1, (float) cost / ((float) model.getPlayerIncome(ID) + .00001f));
         float score = 10f * ((float) gain + enemyLoss - alliedLoss) / (((float) cost + 0.00001f) * (float) Math.pow(turns, .5)); // the score is our gain + the enemies' loss divided by cost and the square root of the number of turns it will take (to discourage large projects)
-        objective.put("score", score);
+        objective.score = score;
 
-        testChat("calculateTakeoverObjective", "NEW enemyLoss: " + enemyLoss);
+        // (these are just for the summary)
+        objective.guardedKeepChance = guardedKeepChance;
+        objective.enemyLoss = enemyLoss;
+        objective.alliedLoss = alliedLoss;
 
-        // set summary string (this is just useful info for debugging)
-        String summary = "takeover  - score: ";
-        String scoreStr = "" + score;
-        summary += scoreStr.length() >= 6 ? scoreStr.substring(0, 6) : scoreStr;
-        summary += " - " + Arrays.toString(getContinentNames(continents)) + ", ";
-        summary += "bonus: " + bonus + ", cost: " + cost;
-        summary += ", keepChance: " + guardedKeepChance;
-        summary += ", eLoss: " + enemyLoss + ", aLoss: " + alliedLoss;
-        objective.put("summary", summary);
+        testChat("calculateTakeoverObjective", "NEW enemyLoss: " + enemyLoss);
 
         return objective;
     }
@@ -1978,24 +2256,24 @@ protected float findEnemyLoss(int[] countryList) {
     // and divide by 3 (because each country is worth a 3rd of an income point)
     // at the end, we will divide the total enemyLoss by the total enemy income to get a weighted sum
     // that favors taking over countries/continents owned by stronger enemies
-    if (isEnemy(countries[country].getOwner())) {
-      enemyLoss += board.getPlayerIncome(countries[country].getOwner()) / 3.0f; // add the income of the owner of each country / 3
+    if (isEnemy(model.getOwner(country))) {
+      enemyLoss += model.getPlayerIncome(model.getOwner(country)) / 3.0f; // add the income of the owner of each country / 3
     }
     // if an enemy fully owns the continent this country is in
     // add that continent to a set, which will later be used to
     // calculate the enemy bonus loss if we take over this country
-    int continent = countries[country].getContinent();
-    if (BoardHelper.anyPlayerOwnsContinent(continent, countries)) { // if any player owns this whole continent
-      if (isEnemy(countries[BoardHelper.getCountryInContinent(continent, countries)].getOwner())) // if an enemy owns a country (and therefore all countries) in this continent
+    int continent = model.getContinent(country);
+    if (VikingBoardHelper.anyPlayerOwnsContinent(continent, model)) { // if any player owns this whole continent
+      if (isEnemy(model.getOwner(VikingBoardHelper.getCountryInContinent(continent, model)))) // if an enemy owns a country (and therefore all countries) in this continent
         enemyContinents.add(continent); // add to set of enemy continents; a set does not admit duplicate members, so each continent will only occur once
     }
   }
   // <enemyLoss> is the total enemy countries divided by three,
   // plus the sum of the owned continent bonuses.
   for (int enemyContinent : enemyContinents) {
-    int owner = countries[BoardHelper.getCountryInContinent(enemyContinent, countries)].getOwner();
-    int ownerIncome = board.getPlayerIncome(owner);
-    enemyLoss += board.getContinentBonus(enemyContinent) * ownerIncome;
+    int owner = model.getOwner(VikingBoardHelper.getCountryInContinent(enemyContinent, model));
+    int ownerIncome = model.getPlayerIncome(owner);
+    enemyLoss += model.getContinentBonus(enemyContinent) * ownerIncome;
   }
 
   enemyLoss /= getTotalEnemyIncome() + 0.00001f; // divide enemyLoss by total enemy income to get weighted sum
@@ -2017,15 +2295,15 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 		for (int country : countryList) { // loop through all the countries in our list
 			// add all the countries in the list owned by an ally
 			// the total number of which will be divided by 3 later
-			if (isAlly(countries[country].getOwner())) {
+			if (isAlly(model.getOwner(country))) {
 				alliedCountries += 1;
 			}
 			// if an ally fully owns the continent this country is in
 			// add that continent to a set, which will later be used to
 			// calculate the allied bonus loss if we take over this country
-			int continent = countries[country].getContinent();
-			if (BoardHelper.anyPlayerOwnsContinent(continent, countries)) {
-        if (isAlly(countries[BoardHelper.getCountryInContinent(continent, countries)].getOwner()))
+			int continent = model.getContinent(country);
+			if (VikingBoardHelper.anyPlayerOwnsContinent(continent, model)) {
+        if (isAlly(model.getOwner(VikingBoardHelper.getCountryInContinent(continent, model))))
 				    alliedContinents.add(continent);
 			}
 		}
@@ -2034,7 +2312,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 		float alliedLoss = 0.0f;
 		alliedLoss = alliedCountries/3.0f;
 		for (int alliedContinent : alliedContinents) {
-			alliedLoss += board.getContinentBonus(alliedContinent);
+			alliedLoss += model.getContinentBonus(alliedContinent);
 		}
 
 		return alliedLoss;
@@ -2044,7 +2322,37 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         return findAlliedLoss(convertListToIntArray(countryList));
     }
 
-    // sort in place an arraylist of objectives
+    // sort in place an arraylist of objectives by score, highest first
+    // (a null goes to the end; objectives with the same score stay in the order they were in)
+    protected void sortObjectives(ArrayList<VikingObjective> list) {
+        // if there's nothing in the list (or we can't tell what's in it), leave it as it is
+        if (list.size() == 0 || list.get(0) == null) {
+            return;
+        }
+
+        // bubble-sort the arraylist by score
+        boolean flag = true;
+        float v1, v2;
+        int size = list.size();
+        while(flag) {
+            flag = false;
+            for (int i=0; i<size-1; i++) {
+                VikingObjective thisObj = list.get(i); // the element we're on
+                VikingObjective nextObj = list.get(i+1); // the next element, to compare it to
+
+                v1 = thisObj != null ? thisObj.score : -Float.MAX_VALUE; // a null gets the lowest possible value, so it will be moved to the end
+                v2 = nextObj != null ? nextObj.score : -Float.MAX_VALUE;
+
+                if (v1 < v2) {
+                    list.set(i, nextObj); // swap them
+                    list.set(i+1, thisObj);
+                    flag = true;
+                }
+            }
+        }
+    }
+
+    // sort in place an arraylist of hashmaps (e.g. the continents in pickCountry())
     // by the value of sortKey (only if that value is a number)
     protected void sortObjectives(ArrayList<HashMap> list, String sortKey) {
         // if there's nothing in the list
@@ -2165,21 +2473,20 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     // finds all continents that are completely owned and returns an arraylist containing an Objective (hashmap) for each of them
     // Objective hashmaps for knocking out bonuses contain the cost to knock out the continent bonus, the continent bonus, the enemy's current income, an attack path to get to the continent, and where to place armies to execute the attack path
-    protected ArrayList<HashMap> findKnockoutObjectives(boolean initial) {
-        ArrayList<HashMap> objectiveList = new ArrayList<HashMap>();
+    protected ArrayList<VikingKnockoutObjective> findKnockoutObjectives(boolean initial) {
+        ArrayList<VikingKnockoutObjective> objectiveList = new ArrayList<VikingKnockoutObjective>();
 
         // loop through all the continents on the board
         // if the continent is fully owned, find all the values we want and put them in a hashmap
         // add the hashmap to objectiveList
         for(int continent=0; continent<numConts; continent++) { // loop through all the continents
             // // skip Greenland knockouts on Global map during initial placement
-            // if (initial && continent == 5 && Pattern.matches("Global\\sRisk",board.getMapTitle())) {
+            // if (initial && continent == 5 && Pattern.matches("Global\\sRisk",model.getMapTitle())) {
             //     testChat("findKnockoutObjectives","Skipping Greenland knockout objective on Global Risk map");
             //     continue;
             // }
 
-            HashMap<String, Object> objective = new HashMap<String, Object>(); // the Objective hashmap for this continent
-            objective = calculateKnockoutObjective(continent);
+            VikingKnockoutObjective objective = calculateKnockoutObjective(continent); // the objective for this continent
             if (objective != null) {
                 objectiveList.add(objective);
             }
@@ -2187,31 +2494,25 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         }
         return objectiveList;
     }
-    protected ArrayList<HashMap> findKnockoutObjectives() {
+    protected ArrayList<VikingKnockoutObjective> findKnockoutObjectives() {
         return findKnockoutObjectives(false);
     }
 
     // creates/calculates knockout objective for the given continent
     // if the continent is not fully owned by an enemy, returns null
-    protected HashMap<String, Object> calculateKnockoutObjective(int continent) {
+    protected VikingKnockoutObjective calculateKnockoutObjective(int continent) {
         int[] area = getCountriesInContinent(continent);
-        int owner = countries[BoardHelper.getCountryInContinent(continent, countries)].getOwner(); // the owner of some country in this continent
-        if (BoardHelper.anyPlayerOwnsContinent(continent, countries) && isEnemy(owner) && !battlePlanHasCountryIn(area)) { // if an enemy fully owns this continent
-            HashMap<String, Object> objective = new HashMap<String, Object>(); // the Objective hashmap for this continent
-
-            // set objective type
-            objective.put("type", "knockout");
-
-            // set continent code
-            objective.put("continentID", continent);
+        int owner = model.getOwner(VikingBoardHelper.getCountryInContinent(continent, model)); // the owner of some country in this continent
+        if (VikingBoardHelper.anyPlayerOwnsContinent(continent, model) && isEnemy(owner) && !battlePlanHasCountryIn(area)) { // if an enemy fully owns this continent
+            VikingKnockoutObjective objective = new VikingKnockoutObjective(model, continent); // the objective for this continent
 
             // set continent bonus
-            int bonus = board.getContinentBonus(continent);
-            objective.put("bonus", bonus);
+            int bonus = model.getContinentBonus(continent);
+            objective.bonus = bonus;
 
             // set enemy income
-            int enemyIncome = board.getPlayerIncome(owner);
-            objective.put("enemyIncome", enemyIncome);
+            int enemyIncome = model.getPlayerIncome(owner);
+            objective.enemyIncome = enemyIncome;
 
             // find and set route
             //
@@ -2221,35 +2522,27 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             int[] route = getCheapestRouteToCont(continent, true);
             ArrayList<int[]> plan = new ArrayList<int[]>();
             plan.add(route); // package the path into an array list
-            objective.put("plan",plan);
+            objective.plan = plan;
 
             // find and set cost
             int cost = getPathCost(route);
-            objective.put("cost", cost);
+            objective.cost = cost;
 
             // calculate and set score
             int totalEnemyIncome = getTotalEnemyIncome();
-            int income = board.getPlayerIncome(ID); // our income
+            int income = model.getPlayerIncome(ID); // our income
             float score = 10f * ((float) bonus * enemyIncome) / ( (cost + 0.00001f) * (totalEnemyIncome + 0.00001f));
-            objective.put("oldScore", score);
+            objective.oldScore = score;
 
             // calculate and set score
             float countriesGain = 0.0f; // countriesGain is how much we reduce the bonus of any enemies we travel through, weighted by their relative income
             for (int i=1; i<route.length; i++) { // loop through each country in the route, except for the first one, which we own
-                countriesGain += board.getPlayerIncome(countries[route[i]].getOwner()); // add the income of the owner of each country
+                countriesGain += model.getPlayerIncome(model.getOwner(route[i])); // add the income of the owner of each country
             }
             countriesGain /= 3 * totalEnemyIncome + 0.00001f; // divide the total by 3, because every 3 countries is worth 1 income point, and divide by total enemy income
             float continentGain = ((float) bonus * enemyIncome) / (totalEnemyIncome + 0.00001f); // continentGain is how much we reduce the bonus of the enemy that owns the continent by taking away the continent, weighted by its relative income
             score = 10f * (countriesGain + continentGain) / (cost + 0.00001f); // score is the total gain divided by the cost
-            objective.put("score", score);
-
-            // set summary string (just some useful info for debugging)
-            String summary = "knockout - score: ";
-            String scoreStr = "" + score;
-            summary += scoreStr.length() >= 6 ? scoreStr.substring(0, 6) : scoreStr;
-            summary += " - " + board.getContinentName(continent);
-            summary += ", bonus: " + bonus + ", cost: " + cost;
-            objective.put("summary", summary);
+            objective.score = score;
 
             return objective;
         } else {
@@ -2257,70 +2550,59 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         }
     }
 
-    // operates on the global HashMap <borderArmies>, which contains the border garrison strength calculated
+    // operates on the global table <borderArmies>, which contains the border garrison strength calculated
     // for all the border countries of all the areas we've decided to take over;
-    // this function resets those values to equal the number of armies actually on each country in the hashmap
-    // (or removes the country from the hashmap if we no longer own it);
+    // this function resets those values to equal the number of armies actually on each country in the table
+    // (or removes the country from the table if we no longer own it);
     // we do this at the beginning of each turn; see placeArmies(), where the function is called, for why;
     // also removes any countries from <idealBorderArmies> that we no longer own, but does not adjust the values
     // of the ones we still do own
     protected void resetBorderArmies() {
-        Iterator iter = borderArmies.keySet().iterator();
-        while (iter.hasNext()) { // iterate through the hashmap
-            int key = (Integer) iter.next();
-            Country country = countries[key];
-            if (country.getOwner() == ID) { // if we own this country
-                borderArmies.put(key, country.getArmies() - 1); // set the value to the number of armies on that country (minus 1)
+        for (int country = borderArmies.nextCountry(0); country != -1; country = borderArmies.nextCountry(country + 1)) { // iterate through the table
+            if (model.getOwner(country) == ID) { // if we own this country
+                borderArmies.setArmies(country, model.getArmies(country) - 1); // set the value to the number of armies on that country (minus 1)
             } else { // otherwise we don't own this country
-                iter.remove(); // so remove this entry from the hashmap altogether
+                borderArmies.removeCountry(country); // so remove this entry from the table altogether
             }
         }
-        Iterator iter1 = idealBorderArmies.keySet().iterator();
-        while (iter1.hasNext()) { // iterate through the hashmap
-            int key = (Integer) iter1.next();
-            Country country = countries[key];
-            if (country.getOwner() != ID) { // if we don't own this country
-                iter1.remove(); // remove this entry from the hashmap altogether
+        for (int country = idealBorderArmies.nextCountry(0); country != -1; country = idealBorderArmies.nextCountry(country + 1)) { // iterate through the table
+            if (model.getOwner(country) != ID) { // if we don't own this country
+                idealBorderArmies.removeCountry(country); // remove this entry from the table altogether
             }
         }
     }
 
-    // checks if country is in borderArmies hashmap, and if it is, returns the value, if not, returns 0
+    // checks if country is in the borderArmies table, and if it is, returns the value, if not, returns 0
     // i.e. if the country is a border, this function will return the number of armies we intend to put/leave on it as a garrison
     protected int checkBorderStrength(int country) {
-        if (borderArmies.get(country) != null) {
-            return borderArmies.get(country);
-        }
-        return 0;
+        return borderArmies.getArmies(country);
     }
 
-    // checks if country is in idealBorderArmies hashmap, and if it is, returns the value, if not, returns 0
+    // checks if country is in the idealBorderArmies table, and if it is, returns the value, if not, returns 0
     // i.e. if the country is a border, this function will return the number of armies that would make up a garrison of ideal strength
     protected int checkIdealBorderStrength(int country) {
-        if (idealBorderArmies.get(country) != null) {
-            return idealBorderArmies.get(country);
-        }
-        return 0;
+        return idealBorderArmies.getArmies(country);
     }
 
     // figures out how many armies to put on each border country of the given area
-    // stores the number of armies it calculates for each country in the global hashmap borderArmies
+    // stores the number of armies it calculates for each country in the global table borderArmies
     // does NOT actually place those armies on the countries
     protected void setBorderStrength(int[] area) {
-        int[] borders = getAreaBorders(area);
+        VikingCountrySet areaSet = newCountrySet(area);
+        int[] borders = borderCache.getBorders(area, areaSet);
         int numBorders = borders.length; // the number of borders <area> has
         int areaBonus = getAreaBonuses(area); // any continent bonuses contained within <area>
         for (int country : borders) {
-            int idealStrength = calculateIdealBorderStrength(country, area);
-            int strength = calculateBorderStrength(country, area, idealStrength, areaBonus);
-            borderArmies.put(country, strength); // borderArmies is a global hashmap
-            idealBorderArmies.put(country, idealStrength); // idealBorderArmies is a global hashmap
+            int idealStrength = calculateIdealBorderStrength(country, areaSet);
+            int strength = calculateBorderStrength(country, areaSet, idealStrength, areaBonus);
+            borderArmies.setArmies(country, strength); // borderArmies is a global table
+            idealBorderArmies.setArmies(country, idealStrength); // idealBorderArmies is a global table
         }
     }
 
     // calculate how many armies to leave on the given country as a border garrison
     // if the country is not a border, will return 0;
-    protected int calculateBorderStrength(int country, int[] area, int idealStrength, int areaBonus) {
+    protected int calculateBorderStrength(int country, VikingCountrySet area, int idealStrength, int areaBonus) {
         int strength = 0;
         if (isAreaBorder(country, area)) { // if <country> is a border of <area>
 
@@ -2332,11 +2614,11 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             // find any armies we may already have on this country
             // and decide the maximum number of armies we want to add to that each turn (as a portion of our income)
             // (up to the ideal value, which we'll calculate later)
-            double income = (double) board.getPlayerIncome(ID);
+            double income = (double) model.getPlayerIncome(ID);
             double incomePortion = income / 4.0d; // our income divided by 4
             int extantArmies = 0; // the number of (our) armies on this country, if any
-            if (countries[country].getOwner() == ID) { // if we (actually) own the country
-                extantArmies = countries[country].getArmies(); // get the extant armies
+            if (model.getOwner(country) == ID) { // if we (actually) own the country
+                extantArmies = model.getArmies(country); // get the extant armies
             }
             // here we cheat a little, and just make sure that <extantArmies> is never reported as less than <incomePortion> (rounded up);
             // that just gives us a boost when we're first putting garrisons on this country,
@@ -2357,7 +2639,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             strength = (int) Math.ceil(Math.min(idealStrength, 2.0d * (double) income / 3.0d));
 //            strength = (int) Math.ceil(Math.min(idealStrength * areaValue,  (double) income / 2));//extantArmies + incomePortion)); <-- commenting out the incremental limit for now because it doesn't work very well; we'll come back to it
 
-            testChat("calculateBorderStrength", "Border strength of " + countries[country].getName() + " is " + strength);
+            testChat("calculateBorderStrength", "Border strength of " + model.getCountryName(country) + " is " + strength);
         }
 
         return strength;
@@ -2365,7 +2647,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // overloaded version without the <areaBonus> parameter
     protected int calculateBorderStrength(int country, int[] area, int idealStrength) {
         int areaBonus = getAreaBonuses(area); // set this to the bonus of all continents completely contained by <area>
-        return calculateBorderStrength(country, area, idealStrength, areaBonus);
+        return calculateBorderStrength(country, newCountrySet(area), idealStrength, areaBonus);
     }
     // overloaded version without the <idealStrength> or <areaBonus> parameters
     protected int calculateBorderStrength(int country, int[] area) {
@@ -2377,7 +2659,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // returns the ideal strength for this border, which is
     // the magnitude of the greatest nearby enemy threat to the given border country
     // plus a certain amount of padding
-    protected int calculateIdealBorderStrength(int borderCountry, int[] area) {
+    protected int calculateIdealBorderStrength(int borderCountry, VikingCountrySet area) {
         int maxDepth = 5; // the depth we want to search out to
         int currentDepth = 0; // begin with a depth of 0
         int armiesThusFar = 0; // the armies on a given path so far
@@ -2392,11 +2674,15 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         return idealStrength;
     }
+    // overloaded version to take the area as an int[]
+    protected int calculateIdealBorderStrength(int borderCountry, int[] area) {
+        return calculateIdealBorderStrength(borderCountry, newCountrySet(area));
+    }
 
     // called by calculateIdealBorderStrength()
     // recursively finds neighbors of given country, and finds the threat level of those neighbors,
     // then compares all the threats it finds to each other and returns the highest one
-    protected int findNeighborsThreat(int country, int[] area, int currentDepth, int maxDepth, int armiesThusFar, ArrayList<Integer> oldBlacklist) {
+    protected int findNeighborsThreat(int country, VikingCountrySet area, int currentDepth, int maxDepth, int armiesThusFar, ArrayList<Integer> oldBlacklist) {
         // make deep copy of oldBlacklist, so we don't mess with other branches
         ArrayList<Integer> blacklist = new ArrayList<Integer>();
         blacklist.addAll(oldBlacklist);
@@ -2431,13 +2717,11 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         // if we haven't exceeded <maxDepth> yet, go on to check neighbors
         if (currentDepth <= maxDepth) {
-            // find neighbors of <country>
-            int[] neighbors = BoardHelper.getAttackList(countries[country], countries);
-
             // loop over the neighbors of <country> and recurse on them
-            for(int neighbor : neighbors) {
+            for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) {
+                int neighbor = topology.attackIn[i];
                 // only recurse on neighbors that aren't in the area
-                if (!isInArray(neighbor, area)) {
+                if (!area.contains(neighbor)) {
                     int neighborThreat = findNeighborsThreat(neighbor, area, currentDepth, maxDepth, armiesThusFar, blacklist);
                     if (neighborThreat > threat) {
                         threat = neighborThreat;
@@ -2462,7 +2746,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         for (int i=0; i<plan.size(); i++) { // loop through the entire plan
             int startCountry = plan.get(i)[0]; // the first country on the path we're on
-            if (countries[startCountry].getOwner() == ID) { // if we own the starting country, it is an original path, so test it; otherwise, it is a fork-branch, so ignore it at this stage
+            if (model.getOwner(startCountry) == ID) { // if we own the starting country, it is an original path, so test it; otherwise, it is a fork-branch, so ignore it at this stage
                 // calculateCladeCost() returns the number of armies it will take to conquer this path and all of its forks
                 // not accounting for how many armies we have on the starting country
                 int cost = calculateCladeCost(plan, i);
@@ -2479,7 +2763,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                 // subtract the number of armies already on the starting country (minus 1) from cost
                 // not including any armies we may have placed or reserved there on previous iterations of the loop
                 // unless that number would be < 0, in which case, make it 0, because we don't want to try to place negative armies
-                int extantArmies = countries[startCountry].getArmies() - 1; // armies actually on the country - 1
+                int extantArmies = model.getArmies(startCountry) - 1; // armies actually on the country - 1
                 int reservedArmies = 0;
                 if (previousCosts.get(startCountry) != null) {
                     reservedArmies = previousCosts.get(startCountry); // total costs we calculated we needed for that country on previous iterations (including any armies that were already there at the beginning)
@@ -2497,6 +2781,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                 // and subtract armiesToPlace from numberOfArmies
                 // if it is <= 0, we already have enough armies there, so we don't need to place any
                 board.placeArmies(armiesToPlace, startCountry);
+                updateSnapshot(startCountry); // we changed the board, so look at it again
                 numberOfArmies -= armiesToPlace;
 
                 // if numberOfArmies is <= 0, we've used up all the armies, so break the loop, we're done
@@ -2577,12 +2862,12 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         double cost = 0;
         for (int i=1; i<path.length-1; i++) { // loop through the path, beginning on the SECOND country and ending on the SECOND TO LAST country (we'll do the last country separately after the loop)
             // this is the (approximated) formula to calculate the number of armies needed to win an intermediate battle (one not at the end of a path, so the attacker always gets to roll 3 dice) with 78% certainty (the choice to use 78% was just a judgment call)
-            int defenders = countries[path[i]].getArmies(); // enemy armies on this country
+            int defenders = model.getArmies(path[i]); // enemy armies on this country
             cost += (7161d / 8391d) * (double) defenders + (1.3316d * Math.pow((double) defenders,.4665d));
         }
         // now get the cost for the last battle in the path at 78% certainty (the formula is different because this is a terminal battle (at the end of a path) so the attacker may have to roll 2 dice or 1 die near the end of the battle)
         if (path.length > 1) {
-            int defenders = countries[path[path.length-1]].getArmies(); // the enemy armies on the last country
+            int defenders = model.getArmies(path[path.length-1]); // the enemy armies on the last country
             cost += (7161d / 8391d) * (double) defenders + (1.7273d * Math.pow((double) defenders,.4301d));
         }
 
@@ -2645,16 +2930,20 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         testChat("getAreaTakeoverPaths", "-- GET AREA TAKEOVER PATHS --");
         testChat("getAreaTakeoverPaths", "startCountry not given");
 
-        // we'll store all candidate paths here (individual paths are integer arrays)
-        ArrayList<int[]> paths = new ArrayList<int[]>();
-
-        // a global variable we need in order to keep track of how many paths
-        // have been found so far
-        pathCount = 0;
+        // keeps track of how many paths have been found so far, by all of the searches below together
+        // (and of how much of this area's time is left for them)
+        VikingPathBudget budget = newTakeoverPathBudget();
 
         // we'll test every path from every country we own in the countryList
         // if we don't own any countries in countryList, we'll find a country close-by to start from
 
+        VikingCountrySet areaSet = newCountrySet(countryList); // the same countries, for findAreaPaths() to check against
+
+        // as findAreaPaths() finds each path, <found> notes which countries it went through, and keeps a copy of it
+        // only if it's the first of the longest paths ending at its last country (the only ones pickBestTakeoverPaths() can pick; see VikingPathsByEnd),
+        // so however many paths there are, we never hold more than one per country
+        VikingPathsByEnd found = new VikingPathsByEnd(model.getNumberOfCountries());
+
         int[] candidates = getPlayerCountriesInArea(countryList); // get countries in countryList that we own
 
         if (candidates.length > 0) { // if we own any countries in countryList
@@ -2663,11 +2952,20 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             String[] countryNames = getCountryNames(candidates);
             testChat("getAreaTakeoverPaths", "countries we own in area: " + Arrays.toString(countryNames));
 
-            // loop through candidates array, finding paths for each of them
-            int[] initialPath = new int[1];
-            for (int i=0; i<candidates.length; i++) {
-                initialPath[0] = candidates[i];
-                paths.addAll(findAreaPaths(initialPath, countryList)); // concatenate results from all of them together in the paths ArrayList
+            // (the profiler counts allocations per thread, so while it's counting them, we keep the search on this thread;
+            // and the other threads may only read a snapshot of the board, never the live one)
+            if (parallelPathSearch && candidates.length > 1 && !profiler.isCountingAllocations() && model instanceof VikingBoardSnapshot) {
+                // search from all of them at once, then collect the results in the same order the loop below would have
+                for (VikingPathsByEnd candidatePaths : findAreaPathsInParallel(candidates, areaSet, budget)) {
+                    found.addAll(candidatePaths);
+                }
+            } else {
+                // loop through candidates array, finding paths for each of them
+                int[] initialPath = new int[1];
+                for (int i=0; i<candidates.length; i++) {
+                    initialPath[0] = candidates[i];
+                    findAreaPaths(initialPath, areaSet, found, budget); // collecting the results from all of them together in <found>
+                }
             }
         }
         else { // we don't own any countries in countryList
@@ -2684,48 +2982,40 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                 testChat("getAreaTakeoverPaths", "Path to continent: " + Arrays.toString(countryNames));
 
                 // use that as starting country
-                paths = findAreaPaths(initialPath, countryList);
+                findAreaPaths(initialPath, areaSet, found, budget);
             } else {
                 // if we're here, we couldn't find a country we own that can reach countryList for some reason
                 // so all we can do is return empty-handed
                 System.out.println("ERROR in getAreaTakeoverPaths() - could not get initial path to area");
-                return paths;
+                return found.getPaths();
             }
         }
 
-        testChat("getAreaTakeoverPaths", "pathCount: " + pathCount);
+        testChat("getAreaTakeoverPaths", "pathCount: " + budget.getPathCount() + (budget.isOutOfTime() ? " (out of time)" : ""));
+
+        // if there were too many paths to find them all, we hand back just the ones we found;
+        // pickBestTakeoverPaths() picks what it can from them, and plans the rest of the area another way
+        if (budget.isExhausted()) {
+            takeoverPathsCapped = true;
+            return found.getPaths();
+        }
 
         // now we have a complete list of terminal paths from every country we own in the area (countryList)
         // (or from a nearby country in the case that we don't own any in the area itself)
         // but we still need to go over all of the countries we have paths to, and see if any are left out.
-        // this will happen in the case of non-contigious areas, i.e. "you can't get there from here"
-        // or it may also happen if we hit the <pathCount> limit in findAreaPaths() before we got to everything;
-        // so we'll check if any of the countries in countryList are not in any of the paths we found
+        // this will happen in the case of non-contigious areas, i.e. "you can't get there from here";
+        // so we'll check if any of the countries in countryList are not in any of the paths we found (<found> knows)
         // and repackage just them as a new area, call getAreaTakeoverPaths() recursively on that area,
-        // and add the results to the paths ArrayList
+        // and add the results to <found>
         ArrayList<Integer> countriesLeft = new ArrayList<Integer>(); // (note that countriesLeft is an ArrayList, which is atypical (usually integer arrays are used))
-        for (int i=0; i<countryList.length; i++) { // create ArrayList of whole area
-            countriesLeft.add(countryList[i]);
-        }
-        int pathsSize = paths.size();
-        iLoop: for (int i=0; i<pathsSize; i++) { // loop through all paths
-            int[] path = paths.get(i);
-            for (int j=0; j<path.length; j++) { // loop through all countries in path
-                for (int k=0; k<countriesLeft.size(); k++) { // loop through all countries in area that we haven't seen yet (that's what countriesLeft represents)
-                    if (path[j] == countriesLeft.get(k)) { // if this country is in a path
-                        countriesLeft.remove(k); // remove it from countriesLeft
-                        break; // and continue checking the rest of them
-                    }
-                }
-                if (countriesLeft.size() == 0) { // if this is empty, every country in area is accounted for in paths
-                    break iLoop; // so stop looking, we're done
-                }
+        for (int country : countryList) { // keep them in the area's order
+            if (!found.hasSeen(country)) {
+                countriesLeft.add(country);
             }
         }
 
         // now anything left in countriesLeft was not accounted for in any path we found
-        // (which could happen if the original area we searched was not contiguous and we didn't own a country in at least one of the discrete parts,
-        // or if we had to stop when we hit the <pathCount> limit before we got to all the countries)
+        // (which could happen if the original area we searched was not contiguous and we didn't own a country in at least one of the discrete parts)
         // so convert it into an integer array and pass it into getAreaTakeoverPaths() recursively as a new area to search
         // then we'll add the results of that function call to the paths we already found
         if (countriesLeft.size() > 0) {
@@ -2739,7 +3029,10 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             //testChat("getAreaTakeoverPaths", "countriesLeft: " + Arrays.toString(countryNames));
 
             testChat("getAreaTakeoverPaths", "===========>> RECURSE on countriesLeft");
-            paths.addAll(getAreaTakeoverPaths(countriesLeftArray));
+            ArrayList<int[]> pathsLeft = getAreaTakeoverPaths(countriesLeftArray);
+            for (int[] path : pathsLeft) {
+                found.acceptPath(path, path.length);
+            }
             testChat("getAreaTakeoverPaths", "<<=========== END RECURSE");
 
         } else {
@@ -2752,11 +3045,12 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // by treating the border countries as paths, we harness a lot of existing logic for placing armies
         for (int country : countryList) {
             if (getProjectedCountryOwner(country) == ID) {
-                paths.add(new int[]{country});
+                found.acceptPath(new int[]{country}, 1);
             }
         }
 
-        testChat("getAreaTakeoverPaths", "There are " + paths.size() + " terminal paths");
+        ArrayList<int[]> paths = found.getPaths();
+        testChat("getAreaTakeoverPaths", "There are " + found.getPathCount() + " terminal paths (keeping " + paths.size() + ")");
         //chatCountryNames("getAreaTakeoverPaths", paths);
 
         // return the paths
@@ -2776,7 +3070,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         initialPath[0] = startCountry;
 
         // find paths
-        paths = findAreaPaths(initialPath, countryList);
+        paths = findAreaPaths(initialPath, newCountrySet(countryList));
 
         // return the paths
         return paths;
@@ -2824,15 +3118,15 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // We keep track of which countries we have already seen (so we don't
         // consider the same country twice). We do it with a boolean array, with
         // a true/false value for each of the countries:
-        boolean[] haveSeenAlready = new boolean[countries.length];
-        for (int i = 0; i < countries.length; i++)
+        boolean[] haveSeenAlready = new boolean[model.getNumberOfCountries()];
+        for (int i = 0; i < model.getNumberOfCountries(); i++)
         {
             haveSeenAlready[i] = false;
         }
 
         // Create a Q (with a history) to store the country-codes and their cost
         // so far:
-        CountryPathStack Q = new CountryPathStack();
+        VikingPathQueue Q = new VikingPathQueue();
 
         // We explore from all the borders of <area>
         int testCode, armiesSoFar;
@@ -2841,7 +3135,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         for (int i = 0; i < borderCodes.length; i++) {
             testCode = borderCodes[i];
             if (into == true) { // if we care about finding the weakest border
-                armiesSoFar = countries[borderCodes[i]].getArmies(); // add the armies of the starting country to the cost
+                armiesSoFar = model.getArmies(borderCodes[i]); // add the armies of the starting country to the cost
             } else { // if we don't
                 armiesSoFar = 0; // start with a cost of 0
             }
@@ -2849,7 +3143,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             testCodeHistory[0] = testCode;
             haveSeenAlready[testCode] = true;
 
-            Q.pushWithValueAndHistory(countries[borderCodes[i]], armiesSoFar, testCodeHistory );
+            Q.pushWithValueAndHistory(borderCodes[i], armiesSoFar, testCodeHistory );
         }
 
         // So now we have all the area borders in the Q
@@ -2868,25 +3162,24 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                 return testCodeHistory;
             }
 
-            int[] canAttackInto = BoardHelper.getAttackList(countries[testCode], countries);
-
-            for (int i=0; i<canAttackInto.length; i++) {
-                if (!haveSeenAlready[canAttackInto[i]]) {
+            for (int n=topology.attackInStart[testCode]; n<topology.attackInStart[testCode+1]; n++) {
+                int attacker = topology.attackIn[n]; // a country that can attack into <testCode>
+                if (!haveSeenAlready[attacker]) {
                     // Create the new node's history array. (It is just
                     // testCode's history with its CC added at the beginning):
                     int[] newHistory = new int[ testCodeHistory.length + 1 ];
-                    newHistory[0] = canAttackInto[i];
+                    newHistory[0] = attacker;
                     for (int j = 1; j < newHistory.length; j++) {
                         newHistory[j] = testCodeHistory[j-1];
                     }
                     Q.pushWithValueAndHistory(
-                                              countries[canAttackInto[i]],
+                                              attacker,
                                               // If the neighbor is owned by the proper person then subtract
                                               // its armies from the value so it gets pulled off the Q next.
                                               // Without this there is a bug
-                                              armiesSoFar + (getProjectedCountryOwner(canAttackInto[i]) == owner ? -getProjectedArmies(canAttackInto[i]) : getProjectedArmies(canAttackInto[i])),
+                                              armiesSoFar + (getProjectedCountryOwner(attacker) == owner ? -getProjectedArmies(attacker) : getProjectedArmies(attacker)),
                                               newHistory );
-                    haveSeenAlready[ countries[canAttackInto[i]].getCode() ] = true;
+                    haveSeenAlready[ attacker ] = true;
                 }
             }
 
@@ -2912,9 +3205,26 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // ideally, it will find as few as possible that contain every enemy country in the area (as well as every country we own, even if that means a dummy path of only 1 country)
     // getAreaTakeoverPaths() adds 1-element-long single-country paths for each country we own in the area, and this function will pick all of those whose country isn't in one of the other paths it picks
     // this is useful in the place armies phase, because those paths are used to arm the border countries
-    protected ArrayList pickBestTakeoverPaths(int[] area) {
+    // if the area is too big to look at every path through it (it has a group of more than <maxTakeoverSearchCountries>
+    // enemy countries next to each other), we use planTakeoverTree() instead without searching at all;
+    // and if the search turns up too many paths after all (more than <maxTakeoverPaths>), or we run out of this area's share
+    // of the turn's search time before we've found them all, we pick what we can from the paths we did find, and planTakeoverTree() plans the rest,
+    // so there's always a whole plan
+    protected ArrayList<int[]> pickBestTakeoverPaths(int[] area) {
 
-        ArrayList<int[]> checkPaths = getAreaTakeoverPaths(area); // first, get comprehensive list of paths; this could be thousands of elements long in large cases
+        int largestGroup = getLargestTakeoverGroup(area);
+        if (largestGroup > maxTakeoverSearchCountries) {
+            testChat("pickBestTakeoverPaths", "-- " + largestGroup + " enemy countries next to each other, building the takeover tree --");
+            return planTakeoverTree(area);
+        }
+
+        startAreaSearchClock();
+        takeoverPathsCapped = false;
+        ArrayList<int[]> checkPaths = getAreaTakeoverPaths(area); // first, get the candidate paths: all the paths we could pick (at most one per country they end at, see VikingPathsByEnd)
+        boolean capped = takeoverPathsCapped;
+        if (capped) {
+            testChat("pickBestTakeoverPaths", "-- too many paths (" + maxTakeoverPaths + "+) or out of time, picking from the " + checkPaths.size() + " we found, then building the takeover tree --");
+        }
 
         ArrayList<int[]> results = new ArrayList<int[]>(); // this will hold the results, which could be several paths, to include forks and islands
         ArrayList<Integer> countriesLeft = new ArrayList<Integer>(); // list of countries not in any paths we've chosen so far
@@ -2925,6 +3235,23 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         testChat("pickBestTakeoverPaths", "-- PICK BEST TAKEOVER PATHS --");
 
+        // so we don't have to check every path against every country of every result each time around the loop,
+        // we index the candidate paths by the country they end at: there's at most one path ending at each country (see VikingPathsByEnd),
+        // so pathEndingAt[c] is the position in <allPaths> of the path ending at country c (or -1 if there isn't one);
+        // when a country gets covered, we just mark the path ending there as dropped, instead of making a new list of the ones left,
+        // and findBestSingleTakeoverPath() skips the dropped ones; we keep the countries in any of the results paths in <covered>
+        ArrayList<int[]> allPaths = checkPaths;
+        int[] pathEndingAt = new int[model.getNumberOfCountries()];
+        Arrays.fill(pathEndingAt, -1);
+        for (int i=0; i<allPaths.size(); i++) {
+            int[] path = allPaths.get(i);
+            pathEndingAt[path[path.length-1]] = i;
+        }
+        boolean[] dropped = new boolean[allPaths.size()]; // dropped[i]: allPaths.get(i) ends at a country we've covered
+        int pathsLeft = allPaths.size(); // the number of paths that aren't dropped
+        VikingCountrySet covered = newCountrySet();
+        VikingCountrySet areaSet = newCountrySet(area); // for findBestSingleTakeoverPath() to check borders against
+
         // now the meat:
         // in each iteration of this loop, we'll pick a new path out of checkPaths to put in the results arraylist.
         // then, if we've already chosen other paths, we'll need to prune the one we just picked of any overlap with them.
@@ -2934,11 +3261,12 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // that way, next time around the loop, we're guaranteed to choose a path that ends in a country we haven't covered yet.
         // finally, we'll prune the countriesLeft arraylist of any countries covered in the path we just picked, so that it only contains countries that aren't in any of the paths we've chosen so far.
         // when countriesLeft is empty, we'll know that we've found a comprehensive set of paths to take over the area, so we'll be done with the loop.
-        while (countriesLeft.size() > 0) {
+        // (if the search didn't find every path, we can run out of paths first; then planTakeoverTree() covers whatever's left)
+        while (countriesLeft.size() > 0 && pathsLeft > 0) {
             testChat("pickBestTakeoverPaths", "-");
 
             // find the best single path from the pruned list of paths to check
-            int[] newPath = findBestSingleTakeoverPath(checkPaths, area); // see findBestSingleTakeoverPath() for the criteria we use to pick the best path
+            int[] newPath = findBestSingleTakeoverPath(allPaths, dropped, areaSet); // see findBestSingleTakeoverPath() for the criteria we use to pick the best path
 
             // check newPath against all the paths in results to see if it should be a fork of any of them
             // if it should, trim the beginning of the path so that its first element is the branch point
@@ -2950,45 +3278,36 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             testChat("pickBestTakeoverPaths", "-- Paths we're picking:");
             chatCountryNames("pickBestTakeoverPaths", results);
 
-            // prune checkPaths
-            // find all paths in checkPaths whose last element is not found anywhere in any chosen path
-            // keep those and throw away the rest
-            ArrayList<int[]> prunedPaths = new ArrayList<int[]>();
-            int checkPathsSize = checkPaths.size();
-            for (int i=0; i<checkPathsSize; i++) {
-                boolean isMatch = false;
-                int[] thisCheckPath = checkPaths.get(i); // the path in checkPaths we're testing this loop
-                jLoop: for (int j=0; j<results.size(); j++) { // loop through all the paths in results
-                    int[] resultsPath = results.get(j); // the path in results we're checking against this loop
-                    for (int k=0; k<resultsPath.length; k++) { // loop through this path in results
-                        if (thisCheckPath[thisCheckPath.length-1] == resultsPath[k]) { // if the last element in thisCheckPath is in resultsPath
-                            isMatch = true;
-                            break jLoop; // move on to next path in checkPaths
-                        }
+            // prune the candidate paths
+            // throw away all paths whose last element is found anywhere in any chosen path;
+            // the only new countries in the chosen paths are the ones in the path we just picked,
+            // so we just drop the paths ending at those (the ones we hadn't already covered)
+            for (int country : newPathCut) {
+                if (covered.add(country)) {
+                    int i = pathEndingAt[country];
+                    if (i != -1 && !dropped[i]) {
+                        dropped[i] = true;
+                        pathsLeft--;
                     }
                 }
-                if (!isMatch) {
-                    prunedPaths.add(thisCheckPath);
-                }
             }
 
-            checkPaths = prunedPaths;
-
-            testChat("pickBestTakeoverPaths", "-- Pruned list of paths:");
-            chatCountryNames("pickBestTakeoverPaths", checkPaths);
+            if (testChatIsOn("pickBestTakeoverPaths")) {
+                ArrayList<int[]> prunedPaths = new ArrayList<int[]>();
+                for (int i=0; i<allPaths.size(); i++) {
+                    if (!dropped[i]) {
+                        prunedPaths.add(allPaths.get(i));
+                    }
+                }
+                testChat("pickBestTakeoverPaths", "-- Pruned list of paths:");
+                chatCountryNames("pickBestTakeoverPaths", prunedPaths);
+            }
 
             // remove any countries in countriesLeft that are in any of the results paths
             Iterator<Integer> countriesLeftIterator = countriesLeft.iterator();
             while (countriesLeftIterator.hasNext()) { // loop through countriesLeft
-                int thisCountry = countriesLeftIterator.next();
-                iLoop2: for (int i=0; i<results.size(); i++) { // loop through results list
-                    int[] thisResult = results.get(i);
-                    for (int j=0; j<thisResult.length; j++) { // loop through this result path
-                        if (thisResult[j] == thisCountry) { // if this country in countriesLeft is in a results array
-                            countriesLeftIterator.remove(); // then remove it from countriesLeft
-                            break iLoop2; // and skip to the next country in countriesLeft
-                        }
-                    }
+                if (covered.contains(countriesLeftIterator.next())) {
+                    countriesLeftIterator.remove();
                 }
             }
 
@@ -3000,9 +3319,224 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             }
         }
 
+        // the paths we picked from an incomplete search don't include the single-country paths for our countries,
+        // and may not cover the whole area, so the tree finishes the plan from where they leave off
+        if (capped) {
+            return planTakeoverTree(area, results);
+        }
+        // a complete search should have covered everything, but if we ran out of paths anyway, the tree covers the rest too
+        if (countriesLeft.size() > 0) {
+            testChat("pickBestTakeoverPaths", "-- ran out of paths with " + countriesLeft.size() + " countries left, building the takeover tree for them --");
+            return planTakeoverTree(area, results);
+        }
+
         return results;
     }
 
+    // called by pickBestTakeoverPaths()
+    // the number of countries in the biggest group of enemy countries in <area> that are next to each other,
+    // i.e. the most countries one of findAreaPaths()'s paths could go through without leaving the group;
+    // it's a quick look at the area (each country once), so we can tell before searching whether there are too many paths to search
+    protected int getLargestTakeoverGroup(int[] area) {
+        VikingCountrySet areaSet = newCountrySet(area);
+        VikingCountrySet grouped = newCountrySet(); // every enemy country we've put in a group so far
+        int[] queue = new int[area.length];
+        int largest = 0;
+        for (int first : area) {
+            if (getProjectedCountryOwner(first) == ID || !grouped.add(first)) {
+                continue;
+            }
+            // a new group: everything we can get to from <first> through enemy countries in the area
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = first;
+            while (head < tail) {
+                int country = queue[head++];
+                for (int i=topology.adjoiningStart[country]; i<topology.adjoiningStart[country+1]; i++) {
+                    int neighbor = topology.adjoining[i];
+                    if (areaSet.contains(neighbor) && getProjectedCountryOwner(neighbor) != ID && grouped.add(neighbor)) {
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            largest = Math.max(largest, tail);
+        }
+        return largest;
+    }
+
+    // plans the takeover of <area> the way pickBestTakeoverPaths() does, but without looking at every possible path first,
+    // so it takes about as long as the area is big, however many paths there are through it;
+    // it returns the same kind of list: paths from countries we own through the enemy countries in the area (with forks starting
+    // at their branch point), paths that start with a route from outside for the parts of the area we can't reach from inside it,
+    // then a single-country path for each of our countries in the area that isn't in any of the other paths
+    //
+    // we grow a tree through the enemy countries from each country we own in the area, going as deep as we can first
+    // (like findAreaPaths() does, but only ever visiting each country once), and then cut each tree into paths:
+    // the longest way down from the root is the first path, and every branch off it is a fork, taken the longest way down too
+    protected ArrayList<int[]> planTakeoverTree(int[] area) {
+        return planTakeoverTree(area, new ArrayList<int[]>());
+    }
+    // the same, finishing a plan that already has some paths in it: <results> holds the paths pickBestTakeoverPaths() picked
+    // from an incomplete search; we grow trees from the countries in them first (in order), then from the rest of our countries in the area,
+    // and add the new paths after them, so every fork still starts at a country in an earlier path
+    protected ArrayList<int[]> planTakeoverTree(int[] area, ArrayList<int[]> results) {
+        int numCountries = model.getNumberOfCountries();
+        VikingCountrySet areaSet = newCountrySet(area);
+        VikingCountrySet inTree = newCountrySet(); // every country that's in a tree so far
+        VikingCountrySet covered = newCountrySet(); // every country that's in one of the results paths
+
+        // each country's children in its tree (in the order we found them), and the height of the tree below it
+        int[] firstChild = new int[numCountries];
+        int[] nextSibling = new int[numCountries];
+        int[] lastChild = new int[numCountries];
+        int[] height = new int[numCountries];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        Arrays.fill(lastChild, -1);
+
+        // the countries in the paths we already have, then the countries we own (or will) in the area
+        ArrayList<Integer> roots = new ArrayList<Integer>();
+        for (int[] path : results) {
+            for (int country : path) {
+                if (inTree.add(country)) {
+                    roots.add(country);
+                }
+                covered.add(country);
+            }
+        }
+        for (int country : getPlayerCountriesInArea(area)) {
+            if (inTree.add(country)) {
+                roots.add(country);
+            }
+        }
+        for (int root : roots) {
+            growTakeoverTree(root, areaSet, inTree, firstChild, nextSibling, lastChild, height);
+            cutTakeoverTree(new int[0], root, firstChild, nextSibling, height, results, covered);
+        }
+
+        // anything left over can't be reached from inside the area, so (like getAreaTakeoverPaths()) we find a way in from outside
+        while (true) {
+            ArrayList<Integer> left = new ArrayList<Integer>();
+            for (int country : area) {
+                if (!inTree.contains(country) && getProjectedCountryOwner(country) != ID) {
+                    left.add(country);
+                }
+            }
+            if (left.size() == 0) {
+                break;
+            }
+            int[] route = getCheapestRouteToArea(convertListToIntArray(left), false);
+            if (route == null || !left.contains(route[route.length-1]) || inTree.contains(route[route.length-1])) {
+                System.out.println("ERROR in planTakeoverTree() - could not get initial path to area");
+                break;
+            }
+            int entry = route[route.length-1];
+            for (int country : route) {
+                inTree.add(country);
+            }
+            growTakeoverTree(entry, areaSet, inTree, firstChild, nextSibling, lastChild, height);
+            cutTakeoverTree(Arrays.copyOf(route, route.length-1), entry, firstChild, nextSibling, height, results, covered);
+        }
+
+        // finally, single-country paths for our countries that aren't in any other path (see getAreaTakeoverPaths())
+        for (int country : area) {
+            if (getProjectedCountryOwner(country) == ID && !covered.contains(country)) {
+                results.add(new int[]{country});
+                covered.add(country);
+            }
+        }
+
+        testChat("pickBestTakeoverPaths", "-- Paths we're picking:");
+        chatCountryNames("pickBestTakeoverPaths", results);
+
+        return results;
+    }
+
+    // called by planTakeoverTree()
+    // grows a tree from <root> through the countries that would be valid in a path (see pathNeighborIsValid()) and aren't in any tree yet,
+    // depth first, and fills in each country's children and the height of the tree below it
+    protected void growTakeoverTree(int root, VikingCountrySet area, VikingCountrySet inTree, int[] firstChild, int[] nextSibling, int[] lastChild, int[] height) {
+        int[] stack = new int[area.size() + 1];
+        int[] next = new int[stack.length]; // where we're up to in the neighbor list of each country on the stack
+        int top = 0;
+        stack[0] = root;
+        next[0] = topology.adjoiningStart[root];
+        height[root] = 1;
+        while (top >= 0) {
+            int country = stack[top];
+            if (next[top] < topology.adjoiningStart[country+1]) {
+                int neighbor = topology.adjoining[next[top]++];
+                if (pathNeighborIsValid(neighbor, inTree, area)) {
+                    inTree.add(neighbor);
+                    if (lastChild[country] == -1) {
+                        firstChild[country] = neighbor;
+                    } else {
+                        nextSibling[lastChild[country]] = neighbor;
+                    }
+                    lastChild[country] = neighbor;
+                    height[neighbor] = 1;
+                    top++;
+                    stack[top] = neighbor;
+                    next[top] = topology.adjoiningStart[neighbor];
+                }
+            } else {
+                // done with this country, so its height is final; pass it up to its parent
+                top--;
+                if (top >= 0 && height[country] + 1 > height[stack[top]]) {
+                    height[stack[top]] = height[country] + 1;
+                }
+            }
+        }
+    }
+
+    // called by planTakeoverTree()
+    // cuts the tree below <root> into paths and adds them to <results>: the first one is <prefix> followed by the longest way down from <root>,
+    // and every branch off a path becomes a path of its own, starting at the country it branches off from (the way trimFork() leaves forks)
+    protected void cutTakeoverTree(int[] prefix, int root, int[] firstChild, int[] nextSibling, int[] height, ArrayList<int[]> results, VikingCountrySet covered) {
+        if (firstChild[root] == -1 && prefix.length == 0) {
+            return; // a country of ours with nowhere to go gets a single-country path at the end
+        }
+
+        // the paths still to cut, each as the country it branches off from (-1 for none) and the first country of its own
+        ArrayList<int[]> branches = new ArrayList<int[]>();
+        branches.add(new int[]{-1, root});
+        for (int b=0; b<branches.size(); b++) {
+            int from = branches.get(b)[0];
+            int country = branches.get(b)[1];
+
+            ArrayList<Integer> path = new ArrayList<Integer>();
+            if (from == -1) {
+                for (int prefixCountry : prefix) {
+                    path.add(prefixCountry);
+                }
+            } else {
+                path.add(from);
+            }
+            while (country != -1) {
+                path.add(country);
+                // go on to the child with the tallest tree below it; every other child starts a branch off this country
+                int tallest = -1;
+                for (int child = firstChild[country]; child != -1; child = nextSibling[child]) {
+                    if (tallest == -1 || height[child] > height[tallest]) {
+                        tallest = child;
+                    }
+                }
+                for (int child = firstChild[country]; child != -1; child = nextSibling[child]) {
+                    if (child != tallest) {
+                        branches.add(new int[]{country, child});
+                    }
+                }
+                country = tallest;
+            }
+
+            int[] pathArray = convertListToIntArray(path);
+            for (int pathCountry : pathArray) {
+                covered.add(pathCountry);
+            }
+            results.add(pathArray);
+        }
+    }
+
     protected int[] trimFork(ArrayList<int[]> checkPlan, int[] pathToTrim) {
 
         // now we search for a common element with any of the paths we've already chosen
@@ -3031,91 +3565,74 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // find one that ends on a border and return that one
     // in future versions, we may want to be more sophisticated about which one to choose
     protected int[] findBestSingleTakeoverPath(ArrayList<int[]> paths, int[] area) {
-        // find the length of the longest path
-        int maxPathLength = 0;
-        int size = paths.size();
-        for (int i=0; i<size; i++) {
-            if (paths.get(i).length > maxPathLength) {
-                maxPathLength = paths.get(i).length;
-            }
-        }
-
-        // populate a new arraylist with all the longest paths
-        ArrayList<int[]> longestPaths = new ArrayList<int[]>();
-        for (int i=0; i<size; i++) {
-            if (paths.get(i).length == maxPathLength) {
-                longestPaths.add(paths.get(i));
-            }
-        }
-
-        // pick a path that ends in a border, if there is one
-        size = longestPaths.size();
-        int pathLength;
-        boolean isBorder;
+        return findBestSingleTakeoverPath(paths, new boolean[paths.size()], newCountrySet(area));
+    }
+    // the same, skipping every path in <paths> whose entry in <dropped> is true (see pickBestTakeoverPaths()),
+    // in one pass over <paths>; <area> is the area's countries as a set
+    protected int[] findBestSingleTakeoverPath(ArrayList<int[]> paths, boolean[] dropped, VikingCountrySet area) {
+        boolean chatting = testChatIsOn("findBestSingleTakeoverPath");
         testChat("findBestSingleTakeoverPath", "--- Longest paths: ---");
-        for (int i=0; i<size; i++) {
-            pathLength = longestPaths.get(i).length;
-            isBorder = isAreaBorder(longestPaths.get(i)[pathLength-1],area);
-
-            String[] countryNames = getCountryNames(longestPaths.get(i));
-            testChat("findBestSingleTakeoverPath", Arrays.toString(countryNames) + " border? " + isBorder);
 
-            // for now, we'll just return the first one we find that ends in a border
-            if (isBorder) {
-                return longestPaths.get(i);
+        // go through the paths in order, keeping the first of the longest paths,
+        // and the first of the longest paths that ends in a border, if there is one
+        int[] longest = null;
+        int[] longestToBorder = null;
+        for (int i=0; i<paths.size(); i++) {
+            if (dropped[i]) {
+                continue;
+            }
+            int[] path = paths.get(i);
+            if (longest != null && path.length < longest.length) {
+                continue;
+            }
+            if (longest == null || path.length > longest.length) { // a new longest length, so start again
+                longest = path;
+                longestToBorder = null;
+            }
+            if (longestToBorder == null || chatting) {
+                boolean isBorder = isAreaBorder(path[path.length-1], area);
+                if (chatting) {
+                    testChat("findBestSingleTakeoverPath", Arrays.toString(getCountryNames(path)) + " border? " + isBorder);
+                }
+                // for now, we'll just take the first one we find that ends in a border
+                if (isBorder && longestToBorder == null) {
+                    longestToBorder = path;
+                }
             }
         }
 
-        // if we get here, none of the longest paths ended on a border, so just return the first one
-        return longestPaths.get(0);
+        // if none of the longest paths ended on a border, just return the first one
+        return longestToBorder != null ? longestToBorder : longest;
     }
 
     // checks to see if country is a border of area by seeing if any of its neighbors is outside of area
     // if the country itself is not in the area, returns false
-    protected boolean isAreaBorder (int country, int[] area) {
+    protected boolean isAreaBorder(int country, VikingCountrySet area) {
         // if <country> is not in the area, return false
-        if (!isInArray(country, area)) {
+        if (!area.contains(country)) {
             return false;
         }
 
-        int[] neighbors = BoardHelper.getAttackList(countries[country],countries); // countries[country].getAdjoiningCodeList(); // get neighbors
-        boolean inArea = false;
-
-        for (int i=0; i<neighbors.length; i++) { // loop through all the country's neighbors
-            inArea = false;
-            for (int j=0; j<area.length; j++) { // loop through every country in area
-                if (neighbors[i] == area[j]) { // if we found this neighbor in the area
-                    inArea = true;
-                    break;
-                }
-            }
-            if (!inArea) { // if inArea is false, then this neighbor is not in the area
-                return true; // which means country is a border, so return true
+        for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) { // loop through all the country's neighbors (the ones that can attack it)
+            if (!area.contains(topology.attackIn[i])) { // if this neighbor is not in the area
+                return true; // then country is a border, so return true
             }
         }
         return false; // if we got here, all of the neighbors were in area, so country is not a border; return false
     }
+    // overloaded version to handle int[] arrays
+    protected boolean isAreaBorder(int country, int[] area) {
+        return isAreaBorder(country, newCountrySet(area));
+    }
     // overloaded version to handle arraylists
     protected boolean isAreaBorder(int country, ArrayList<Integer> list) {
-        return isAreaBorder(country, convertListToIntArray(list));
+        return isAreaBorder(country, new VikingCountrySet(model.getNumberOfCountries(), list));
     }
 
-    // returns an int[] of all the borders of the given area
+    // returns an int[] of all the borders of the given area (in the area's order)
+    // (the borders of an area never change, so <borderCache> only works them out the first time we ask about a set of countries)
     protected int[] getAreaBorders(int[] area) {
-        ArrayList<Integer> borders = new ArrayList<Integer>();
-
-        for (int i=0; i<area.length; i++) {
-            if (isAreaBorder(area[i],area)) {
-                borders.add(area[i]);
-            }
-        }
-
-        int[] bordersArray = new int[borders.size()];
-        for (int i=0; i<bordersArray.length; i++) {
-            bordersArray[i] = borders.get(i);
-        }
-
-        return bordersArray;
+        return borderCache.getBorders(area, newCountrySet(area));
     }
     // overloaded version to handle arraylists
     protected int[] getAreaBorders(ArrayList<Integer> list) {
@@ -3125,61 +3642,149 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // find all possible paths through enemy countries within countryList
     // starting with the last country in the history array
     // history is an array of country codes containing the path history already searched
-    // countryList is an array of country codes in which the entire search takes place
+    // countryList is the set of countries in which the entire search takes place
     // this may typically be a continent, but doesn't have to be
-    // returns an ArrayList of paths (which are integer arrays)
-    // the function calls itself recursively
-    protected ArrayList findAreaPaths(int[] history, int[] countryList) {
-        ArrayList<int[]> terminalPaths = new ArrayList<int[]>(); // all possible terminal paths will end up in this array
-        int startCountry = history[history.length - 1]; // starting country is the last element in the history
-        int[] newHistory = new int[history.length + 1]; // new history array to add the next country(s) to
-        System.arraycopy(history, 0, newHistory, 0, history.length); // copy the old history into the beginning of new history, leaving one empty spot at the end
-        int[] neighbors = countries[startCountry].getAdjoiningCodeList(); // get list of startCountry's neighbors
-        boolean anyValidNeighbors = false; // if we find any valid neighbors, we'll switch this to true
-
-        // check the global variable <pathCount>, which stores the total number of paths we've already created;
-        // if we've already got a hundred thousand of them, we want to stop looking to save time (and memory);
-        // if we didn't find everything, it's okay, because getAreaTakeoverPaths() will take stock of
-        // what's missing, and call findAreaPaths() again on whatever's leftover
-        if (pathCount >= 100000) {
-            return terminalPaths;
-        }
-
-        // loop through all neighbors; if valid, add to history and recurse
-        for (int i=0; i<neighbors.length; i++) {
-            if (pathNeighborIsValid(neighbors[i], history, countryList)) { // if the country is valid
-                anyValidNeighbors = true;
-                newHistory[newHistory.length-1] = neighbors[i]; // add it to the end of the new history
-                terminalPaths.addAll(findAreaPaths(newHistory, countryList)); // recurse, adding whole chain to the terminalPaths array
-            }
-        }
-
-        // if there were no valid neighbors, we're at the end of the path
-        // the history as given includes the terminal country of the path
-        // so all we have to do is send back the history we were given, wrapped in an arrayList
-        // (we'll add it to terminalPaths, which should be empty in this case)
-        // and as it bubbles up, it will be concatenated with any other terminal paths that were found
-        // in other branches
-        if (anyValidNeighbors == false) {
-            // make a copy of history to add to terminalPaths to avoid reference/scope problem
-            int[] historyCopy = new int[history.length];
-            System.arraycopy(history, 0, historyCopy, 0, history.length);
-
-            // since we're adding a terminal path here, increment <pathCount>
-            // which keeps track of the total number of paths we have
-            pathCount++;
-
-            // add the path
-            terminalPaths.add(historyCopy);
-        }
-
-        // return the terminalPaths arrayList. if we're at the end of a path, this will contain
-        // a single terminal path. If we're not at the end of a path, it will contain all the terminal
-        // paths below us that were found recursively, which will then be concatenated with any other
-        // terminal paths that were found elsewhere (i.e. the branches that split above us) as they bubble up
+    // each terminal path is handed to <consumer> as soon as we find it (see VikingPathConsumer),
+    // in the same order the paths would come out of the list version below;
+    // every path counts against <budget>, and once it's used up (by this search or any other one sharing it), we stop;
+    // we look at the clock every so many countries we go on to (see VikingPathBudget.checkClock()), and stop if the time's up
+    //
+    // it's a depth-first search, but with our own stack instead of recursion, so it doesn't make anything per country it visits:
+    // <path> holds the path we're on (the history, then the countries we've added to it), <next> holds where we're up to
+    // in the neighbor list of each country on the path, and <extended> whether we've gone on from that country to any neighbor;
+    // when we run out of neighbors for the country at the end of the path without having gone on from it, the path is a terminal path
+    protected void findAreaPaths(int[] history, VikingCountrySet countryList, VikingPathConsumer consumer, VikingPathBudget budget) {
+        // if the paths we're allowed have already been found, we stop looking to save time (and memory);
+        // getAreaTakeoverPaths() checks the budget afterwards, so pickBestTakeoverPaths() knows to plan the area another way
+        if (budget.isExhausted()) {
+            return;
+        }
+
+        int[] path = new int[history.length + countryList.size()]; // (a path can't visit a country in <countryList> twice)
+        int[] next = new int[path.length];
+        boolean[] extended = new boolean[path.length];
+        VikingCountrySet onPath = newCountrySet(); // the countries in <path>, so we don't visit any of them again
+        System.arraycopy(history, 0, path, 0, history.length);
+        for (int country : history) {
+            onPath.add(country);
+        }
+
+        int first = history.length - 1; // starting country is the last element in the history
+        int end = first; // the index of the last country in <path>
+        int countriesTaken = 0; // how many countries we've gone on to, for looking at the clock
+        next[end] = topology.adjoiningStart[path[end]];
+        extended[end] = false;
+        while (end >= first) {
+            int country = path[end];
+            if (next[end] < topology.adjoiningStart[country+1]) {
+                // try the next neighbor of the country at the end of the path
+                int neighbor = topology.adjoining[next[end]++];
+                if (pathNeighborIsValid(neighbor, onPath, countryList)) { // if the country is valid
+                    extended[end] = true;
+                    // once the budget's used up, the search stops taking any new countries,
+                    // and every country on the path already has somewhere it went on to, so there's nothing more to find
+                    if (budget.isExhausted()) {
+                        return;
+                    }
+                    if ((++countriesTaken & (VikingPathBudget.CLOCK_INTERVAL-1)) == 0 && !budget.checkClock()) {
+                        return;
+                    }
+                    end++; // add it to the end of the path
+                    path[end] = neighbor;
+                    onPath.add(neighbor);
+                    next[end] = topology.adjoiningStart[neighbor];
+                    extended[end] = false;
+                }
+            } else {
+                // we've tried all of this country's neighbors;
+                // if none of them were valid, we're at the end of a path, so hand it over
+                if (!extended[end]) {
+                    // since we've found a terminal path here, count it against the budget
+                    // (if it's one too many, it doesn't get used, and we're done)
+                    if (!budget.takePath() || !consumer.acceptPath(path, end + 1)) {
+                        return;
+                    }
+                }
+                // then back up to the country before it
+                if (end > first) {
+                    onPath.remove(country);
+                }
+                end--;
+            }
+        }
+    }
+
+    // the same, collecting all the terminal paths into an ArrayList of paths (which are integer arrays)
+    // (with a budget of its own, of <maxTakeoverPaths> paths and no time limit, since the callers have nothing else to fall back on)
+    protected ArrayList findAreaPaths(int[] history, VikingCountrySet countryList) {
+        final ArrayList<int[]> terminalPaths = new ArrayList<int[]>(); // all possible terminal paths will end up in this array
+        findAreaPaths(history, countryList, new VikingPathConsumer() {
+            public boolean acceptPath(int[] path, int length) {
+                terminalPaths.add(Arrays.copyOf(path, length));
+                return true;
+            }
+        }, new VikingPathBudget(maxTakeoverPaths));
         return terminalPaths;
     }
 
+    // restart the clock on the time our path searches get this turn
+    protected void startTakeoverSearchClock() {
+        takeoverTurnDeadline = System.nanoTime() + takeoverSearchMillis * 1000000L;
+        takeoverSearchDeadline = takeoverTurnDeadline;
+    }
+
+    // the area we're about to plan can take up to half of what's left of this turn's search time,
+    // so one big area can't leave nothing for the areas after it, and the turn as a whole still stops at its deadline
+    // (once the turn's time is up, every area gets none, and the attack tree plans whatever its search didn't get to)
+    protected void startAreaSearchClock() {
+        long now = System.nanoTime();
+        takeoverSearchDeadline = now + Math.max(0, takeoverTurnDeadline - now) / 2;
+    }
+
+    // the budget for one area's path searches: <maxTakeoverPaths> paths, and whatever's left of the area's time
+    protected VikingPathBudget newTakeoverPathBudget() {
+        if (takeoverSearchMillis > 0) {
+            return new VikingPathBudget(maxTakeoverPaths, takeoverSearchDeadline);
+        }
+        return new VikingPathBudget(maxTakeoverPaths);
+    }
+
+    // findAreaPaths() from each of <startCountries> as a separate fork/join task, all drawing on the same <budget>;
+    // each task collects its paths in a VikingPathsByEnd of its own, and those come back in the same order as <startCountries>
+    // (nothing the searches read changes while they run: the board model is a snapshot, which won't let itself be update()d
+    // until they're all done, and the battle plan is only read)
+    protected ArrayList<VikingPathsByEnd> findAreaPathsInParallel(int[] startCountries, final VikingCountrySet countryList, final VikingPathBudget budget) {
+        final ArrayList<VikingPathsByEnd> results = new ArrayList<VikingPathsByEnd>();
+        final ArrayList<RecursiveAction> searches = new ArrayList<RecursiveAction>();
+        for (int start : startCountries) {
+            final int[] history = {start};
+            final VikingPathsByEnd found = new VikingPathsByEnd(model.getNumberOfCountries());
+            results.add(found);
+            searches.add(new RecursiveAction() {
+                protected void compute() {
+                    findAreaPaths(history, countryList, found, budget);
+                }
+            });
+        }
+        // the work-stealing pool spreads the tasks over its threads; invoke() waits for all of them
+        VikingBoardSnapshot shared = (VikingBoardSnapshot) model;
+        shared.beginSharedRead();
+        try {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                protected void compute() {
+                    invokeAll(searches);
+                }
+            });
+        } finally {
+            shared.endSharedRead();
+        }
+        return results;
+    }
+    // overloaded version to take countryList as an int[]
+    protected ArrayList findAreaPaths(int[] history, int[] countryList) {
+        return findAreaPaths(history, newCountrySet(countryList));
+    }
+
     //given a list of countries, clump the countries into all possible contiguous areas
     protected ArrayList findContiguousAreas(int[] countryArray) {
         ArrayList<int[]> contiguousAreaList = new ArrayList<int[]>();
@@ -3203,8 +3808,9 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             // and then we'll put it into our results list <contiguousAreaList>
             // and move on to the next country in the master list
             for(int country=0; country<thisClump.size(); country++) { // loop through the countries in this clump
-                int[] neighbors = countries[thisClump.get(country)].getAdjoiningCodeList(); // get neighbors of this country
-                for (int neighbor : neighbors) { // loop through neighbors
+                int clumpCountry = thisClump.get(country);
+                for (int i=topology.adjoiningStart[clumpCountry]; i<topology.adjoiningStart[clumpCountry+1]; i++) { // loop through neighbors of this country
+                    int neighbor = topology.adjoining[i];
                     if (isInArray(neighbor,countryList)) { // if neighbor is in countryList, we haven't seen it yet,
                         thisClump.add(neighbor); // so add neighbor to thisClump
                         countryList.remove((Integer) neighbor); // and remove it from countryList
@@ -3221,7 +3827,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     // called by the findAreaPaths function to determine whether a potential country in a path is valid
     // i.e. we don't own it, it hasn't been visited already, and it's in the specified list of countries (e.g. a certain continent)
-    protected boolean pathNeighborIsValid(int neighbor, int[] history, int[] countryList) {
+    protected boolean pathNeighborIsValid(int neighbor, VikingCountrySet history, VikingCountrySet countryList) {
 
         // first check if we own the country using getProjectedCountryOwner();
         // importantly, we're checking if we actually own the country right now,
@@ -3233,26 +3839,19 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             return false; // if we own it, it's invalid, so return false immediately
         }
 
-        // next, check if the neighbor has already been visited (i.e. it's in the history)
-        // it's probably faster to iterate backwards from the end of the array, since a neighbor
-        // we've already visited is more likely to be near the end of the array
-        for (int i=history.length-1; i>=0; i--) {
-            if (history[i] == neighbor) {
-                return false; // if in history, it's invalid, so return false immediately
-            }
+        // check if the neighbor is in the allowed list of countries
+        // (which also rules out anything that isn't a country at all)
+        if (!countryList.contains(neighbor)) {
+            return false;
         }
 
-        // check if the neighbor is in the allowed list of countries
-        for (int i=0; i<countryList.length; i++) {
-            if (countryList[i] == neighbor) {
-                return true; // if we've gotten this far, all the other checks have passed, so return true
-            }
+        // finally, check if the neighbor has already been visited (i.e. it's in the history)
+        if (history.contains(neighbor)) {
+            return false; // if in history, it's invalid, so return false immediately
         }
 
-        // return false by default. We'll get here in one of two cases I can think of:
-        // (1) it's an enemy country that's not in the history and is also not in the countryList, or
-        // (2) it's not a country. In case we get passed values that aren't countries, they should be deemed invalid
-        return false;
+        // if we've gotten this far, all the other checks have passed, so return true
+        return true;
     }
 
     // method to concatenate integer arrays
@@ -3272,7 +3871,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         int size = codes.length;
         String[] names = new String[size];
         for (int i=0; i<size; i++) {
-            names[i] = board.getContinentName((Integer) codes[i]).replace(",",""); // get rid of commas in country names because that's confusing when we output the whole array as a string
+            names[i] = model.getContinentName((Integer) codes[i]).replace(",",""); // get rid of commas in country names because that's confusing when we output the whole array as a string
         }
         return names;
     }
@@ -3290,7 +3889,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         }
         String[] names = new String[size];
         for (int i=0; i<size; i++) {
-            names[i] = countries[codes[i]].getName().replace(",",""); // get rid of commas in country names because that's confusing when we output the whole array as a string
+            names[i] = model.getCountryName(codes[i]).replace(",",""); // get rid of commas in country names because that's confusing when we output the whole array as a string
         }
         return names;
     }
@@ -3302,8 +3901,8 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // return the name of a country code
     protected String getCountryName(int code) {
         String name;
-        if (code >= 0 && code < countries.length) {
-            name = countries[code].getName().replace(",",""); // get rid of commas in country name
+        if (code >= 0 && code < model.getNumberOfCountries()) {
+            name = model.getCountryName(code).replace(",",""); // get rid of commas in country name
         } else {
             name = "" + code;
         }
@@ -3361,7 +3960,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             String stringValue = objectToString(value);
 
             if (key == "continentID" || key == "id") {
-                message += "continent: " + board.getContinentName((Integer) value) + "\n";
+                message += "continent: " + model.getContinentName((Integer) value) + "\n";
             } else if (key == "continentIDs") {
                 message += "continents: " + Arrays.toString(getContinentNames((int[]) value)) + "\n";
             } else {
@@ -3377,6 +3976,17 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             chatObjectives(callingFunc, objective);
         }
     }
+    // versions for VikingObjectives, which just chat their summaries
+    protected void chatObjectives(String callingFunc, VikingObjective objective) {
+        if (testChatIsOn(callingFunc)) {
+            testChat(callingFunc, objective != null ? objective.getSummary() : "[null objective]");
+        }
+    }
+    protected void chatObjectives(String callingFunc, List<? extends VikingObjective> list) {
+        for (VikingObjective objective : list) {
+            chatObjectives(callingFunc, objective);
+        }
+    }
 
     // convert a number of different types to String
     // if it can't convert that type, return null
@@ -3434,14 +4044,14 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // preferring the one owned by the strongest enemy in the event of a tie;
     // if a neighbor is in <blacklist>, it's ineligible; this function is used for pathfinding, so the blacklist functions as a history of countries already chosen
     // if there are no enemy neighbors, returns -1
-    protected int findWeakestNeighborOwnedByStrongestEnemy(int country, ArrayList<Integer> blacklist) {
-        int[] neighbors = countries[country].getAdjoiningCodeList(); // get array of neighbors
+    protected int findWeakestNeighborOwnedByStrongestEnemy(int country, VikingCountrySet blacklist) {
         ArrayList<Integer> enemyNeighbors = new ArrayList<Integer>();
 
-        // loop through all the neighbors, adding all enemy neighbors to the <enemyNeighbors> list
-        for (int neighbor : neighbors) { // loop through all neighbors
-            // if <country> can attack into <neighbor> and we don't own (or plan to own) <neighbor> and it isn't in the blacklist
-            if (countries[country].canGoto(neighbor) && isEnemy(getProjectedCountryOwner(neighbor)) && !isInArray(neighbor, blacklist)) {
+        // loop through all the neighbors <country> can attack into, adding all enemy neighbors to the <enemyNeighbors> list
+        for (int i=topology.attackOutStart[country]; i<topology.attackOutStart[country+1]; i++) {
+            int neighbor = topology.attackOut[i];
+            // if we don't own (or plan to own) <neighbor> and it isn't in the blacklist
+            if (isEnemy(getProjectedCountryOwner(neighbor)) && !blacklist.contains(neighbor)) {
                 enemyNeighbors.add(neighbor); // then add it to the list of enemy neighbors
             }
         }
@@ -3454,7 +4064,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // then loop again to remove any countries that have more armies than that
         int leastArmies = Integer.MAX_VALUE; // initially set <leastArmies> to the highest possible value
         for (int neighbor : enemyNeighbors) { // loop over neighbors
-            int armies = countries[neighbor].getArmies(); // the number of armies on this country
+            int armies = model.getArmies(neighbor); // the number of armies on this country
             if (armies < leastArmies) { // if there are fewer armies on this country than <leastArmies>
                 leastArmies = armies; // set <leastArmies> to this country's number of armies
             }
@@ -3462,7 +4072,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         ListIterator<Integer> iter = enemyNeighbors.listIterator(enemyNeighbors.size());
         while (iter.hasPrevious()) { // iterating backwards over the list should be faster when removing elements
             int neighbor = iter.previous(); // this country
-            int armies = countries[neighbor].getArmies(); // this country's number of armies
+            int armies = model.getArmies(neighbor); // this country's number of armies
             if (armies > leastArmies) { // if this country has more armies than the weakest neighbor
                 iter.remove(); // remove it
             }
@@ -3476,7 +4086,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         int chosenCountry = -1;
         int highestIncome = Integer.MIN_VALUE; // we don't want to use 0 here, because it might be (???) technically possible for everyone to have a negative income if there are negative continent bonuses; although the game probably keeps the minimum at 3, I'm not sure
         for (int neighbor : enemyNeighbors) { // loop through the list of weakest neighbors
-            int income = board.getPlayerIncome(countries[neighbor].getOwner()); // the income of the player that owns this country
+            int income = model.getPlayerIncome(model.getOwner(neighbor)); // the income of the player that owns this country
             if (income > highestIncome) { // if it's higher than the highest one we've seen so far
                 chosenCountry = neighbor; // choose this country
                 highestIncome = income; // this is the new highest income we've seen
@@ -3494,23 +4104,23 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         return chosenCountry;
     }
     // overloaded version to allow the function to be called without a blacklist;
-    // just passes a dummy arraylist as the blacklist parameter
+    // just passes an empty set as the blacklist parameter
     protected int findWeakestNeighborOwnedByStrongestEnemy(int country) {
-        return findWeakestNeighborOwnedByStrongestEnemy(country, new ArrayList<Integer>());
+        return findWeakestNeighborOwnedByStrongestEnemy(country, newCountrySet());
     }
 
     protected int findWeakestNeighborNotInAlliedAreaWithEnemyNeighbor(int country) {
-        int[] neighbors = BoardHelper.getAttackList(countries[country], countries);
+        int[] neighbors = topology.getAttackInList(country);
 
         int leastArmies = Integer.MAX_VALUE;
 
         // loop over the neighbors to find the least number of armies
         for(int neighbor : neighbors) {
-            if (countries[neighbor].getOwner() == ID) {
+            if (model.getOwner(neighbor) == ID) {
                 continue;
             }
 
-            int armies = countries[country].getArmies();
+            int armies = model.getArmies(country);
             if (armies < leastArmies) {
                 leastArmies = armies;
             }
@@ -3520,10 +4130,10 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         ListIterator<Integer> iter = neighborList.listIterator(neighborList.size());
         while (iter.hasPrevious()) { // iterating backwards over the list should be faster when removing elements
             int neighbor = iter.previous(); // this country
-            int armies = countries[neighbor].getArmies(); // this country's number of armies
+            int armies = model.getArmies(neighbor); // this country's number of armies
 
             // if this country is ours, has more armies than the weakest neighbor, is part of an allied area, or doesn't itself have any enemy neighbors
-            if (armies > leastArmies || countries[neighbor].getOwner() == ID || isInAlliedArea(neighbor) || !hasEnemyNeighbor(neighbor)) {
+            if (armies > leastArmies || model.getOwner(neighbor) == ID || isInAlliedArea(neighbor) || !hasEnemyNeighbor(neighbor)) {
                 iter.remove(); // remove it
             }
         }
@@ -3537,10 +4147,10 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     }
 
     protected boolean hasEnemyNeighbor(int country) {
-        int[] neighbors = countries[country].getAdjoiningCodeList();
-        for (int neighbor : neighbors) {
+        for (int i=topology.adjoiningStart[country]; i<topology.adjoiningStart[country+1]; i++) {
+            int neighbor = topology.adjoining[i];
             // if this neighbor is an enemy, we're done, return true
-            if (isEnemy(countries[neighbor].getOwner())) {
+            if (isEnemy(model.getOwner(neighbor))) {
                 return true;
             }
         }
@@ -3549,14 +4159,9 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     }
 
     protected boolean isInAlliedArea(int country) {
-        for (int[] area : smartAreas) {
-            for (int c : area) {
-                if (c == country) {
-                    if (anyAllyOwnsArea(area)) {
-                        return true;
-                    }
-                    break;
-                }
+        for (int i=0; i<smartAreas.size(); i++) {
+            if (smartAreaSets.get(i).contains(country) && anyAllyOwnsArea(smartAreas.get(i))) {
+                return true;
             }
         }
         return false;
@@ -3567,36 +4172,36 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // (in the event of a tie, it chooses the one owned by the strongest enemy);
     // if a neighbor is in <blacklist>, it's ineligible; this function is used for pathfinding, so the blacklist functions as a history of countries already chosen
     // if there are no enemy neighbors, returns -1
-    protected int findWeakestNeighborWithMostEnemyNeighbors(int country, ArrayList<Integer> blacklist) {
+    protected int findWeakestNeighborWithMostEnemyNeighbors(int country, VikingCountrySet blacklist) {
         String testMessage = "Neighbors of " + getCountryName(country) + ": ";
 
-        int[] neighbors = countries[country].getAdjoiningCodeList(); // get array of neighbors
         ArrayList<Integer> promisingNeighbors = new ArrayList<Integer>(); // will contain the best neighbors (the weakest neighbors with the most enemy neighbors)
 
         // find the best neighbor(s), as scored by the number of its neighbors, divided by its armies to the tenth power
         // and add them to the promisingNeighbors array list
         double maxScore = 0;
-        for (int neighbor : neighbors) { // loop through all neighbors
+        for (int i=topology.attackOutStart[country]; i<topology.attackOutStart[country+1]; i++) { // loop through all neighbors <country> can attack into
+            int neighbor = topology.attackOut[i];
 
-            // if <country> can attack into <neighbor> and we don't own (or plan to own) <neighbor> and it isn't in the blacklist
-            if (countries[country].canGoto(neighbor) && getProjectedCountryOwner(neighbor) != ID && !isInArray(neighbor, blacklist)) {
-                int[] adjoiningList = countries[neighbor].getAdjoiningCodeList(); // get the neighbors of this neighbor
+            // if we don't own (or plan to own) <neighbor> and it isn't in the blacklist
+            if (getProjectedCountryOwner(neighbor) != ID && !blacklist.contains(neighbor)) {
                 double numAdjoining = 0;
-                for (int adjoining : adjoiningList) { // loop through this neighbor's neighbors to count them
-                    // if this neighbor is valid (<neighbor> can attack it, we don't own it, and it's not in the blacklist)
-                    if (countries[neighbor].canGoto(adjoining) && getProjectedCountryOwner(adjoining) != ID && !isInArray(adjoining, blacklist)) {
+                for (int j=topology.attackOutStart[neighbor]; j<topology.attackOutStart[neighbor+1]; j++) { // loop through the countries this neighbor can attack into, to count them
+                    int adjoining = topology.attackOut[j];
+                    // if this neighbor is valid (we don't own it, and it's not in the blacklist)
+                    if (getProjectedCountryOwner(adjoining) != ID && !blacklist.contains(adjoining)) {
                         // then count the adjoining country
                         // if the adjoining country is owned by an ally, however,
                         // we want to count it less, to weakly discourage taking over allies
                         // so we only count it as a third, instead of a whole country
-                        numAdjoining += 1.0f / (isAlly(countries[adjoining].getOwner()) ? 3.0f : 1.0f);
+                        numAdjoining += 1.0f / (isAlly(model.getOwner(adjoining)) ? 3.0f : 1.0f);
                     }
                 }
 
                 testMessage += getCountryName(neighbor) + " (" + numAdjoining + "), ";
 
                 // now score this neighbor
-                double score = (double) numAdjoining/(double) Math.pow(countries[neighbor].getArmies(), 10);
+                double score = (double) numAdjoining/(double) Math.pow(model.getArmies(neighbor), 10);
 
                 // if this neighbor's score is the highest we've seen
                 if (score > maxScore) {
@@ -3624,7 +4229,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         int chosenCountry = -1; // if there were no neighbors, this will remain -1
         int highestIncome = Integer.MIN_VALUE; // we don't want to use 0 here, because it might be (???) technically possible for everyone to have a negative income if there are negative continent bonuses; although the game probably keeps the minimum at 3, I'm not sure
         for (int neighbor : promisingNeighbors) { // loop through the list of weakest neighbors
-            int income = board.getPlayerIncome(countries[neighbor].getOwner()); // the income of the player that owns this country
+            int income = model.getPlayerIncome(model.getOwner(neighbor)); // the income of the player that owns this country
             if (income > highestIncome) { // if it's higher than the highest one we've seen so far
                 chosenCountry = neighbor; // choose this country
                 highestIncome = income; // this is the new highest income we've seen
@@ -3635,20 +4240,37 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         return chosenCountry;
     }
     // overloaded version to allow the function to be called without a blacklist;
-    // just passes a dummy arraylist as the blacklist parameter
+    // just passes an empty set as the blacklist parameter
     protected int findWeakestNeighborWithMostEnemyNeighbors(int country) {
-        return findWeakestNeighborWithMostEnemyNeighbors(country, new ArrayList<Integer>());
+        return findWeakestNeighborWithMostEnemyNeighbors(country, newCountrySet());
     }
 
     // return array of countries (projected to be) owned by <player>
     protected int[] getPlayerCountries(int player) {
-        ArrayList<Integer> ownedCountries = new ArrayList<Integer>();
-        for (int i=0; i<countries.length; i++) {
-            if (getProjectedCountryOwner(i) == player) {
-                ownedCountries.add(i);
+        VikingPlayerIndex players = getPlayerIndex();
+
+        // the countries we're planning to take over are projected to be ours, so they add to our list
+        // (in among the ones we own already, since both are sets and come out in ascending order)
+        if (player == ID && !battlePlan.isEmpty()) {
+            VikingCountrySet projected = newCountrySet();
+            projected.addAll(players.getCountrySet(ID));
+            battlePlan.addPlannedCountriesTo(projected);
+            return projected.toArray();
+        }
+
+        // anyone else's projected countries are just the ones they own now that we're not planning to take
+        int[] owned = players.getCountries(player);
+        if (player == ID) {
+            return owned;
+        }
+        int[] results = new int[owned.length];
+        int numResults = 0;
+        for (int country : owned) {
+            if (!isInBattlePlan(country)) {
+                results[numResults++] = country;
             }
         }
-        return convertListToIntArray(ownedCountries);
+        return Arrays.copyOf(results, numResults);
     }
     // overloaded version: if no player is supplied, assume it should be us
     protected int[] getPlayerCountries() {
@@ -3658,79 +4280,81 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // helper function to return an array of the countries a player owns in a given list of countries (area)
     // player is the player ID to check; area is the list of countries to search in
     protected int[] getPlayerCountriesInArea(int[] area, int player) {
-        // loop through all the countries in area; if player owns them, add them to the results ArrayList
-        List<Integer> results = new ArrayList<Integer>();
+        // loop through all the countries in area; if player owns them, add them to the results
+        int[] results = new int[area.length];
+        int numResults = 0;
         for (int i=0; i<area.length; i++) {
             // if the player is us, we need to check for projected ownership (if we own it or if we plan to)
             // if it's not us, just check for ownership the regular way
-            if ((player == ID && getProjectedCountryOwner(area[i]) == ID) || countries[area[i]].getOwner() == player) {
-                results.add(area[i]);
+            if ((player == ID && getProjectedCountryOwner(area[i]) == ID) || model.getOwner(area[i]) == player) {
+                results[numResults++] = area[i];
             }
         }
-
-        // Put the country code of each of the countries into an integer array
-        int size = results.size();
-        int[] intArray = new int[size];
-        for(int i=0; i < size; i++) {
-            intArray[i] = results.get(i).intValue();
-        }
-
-        return intArray;
+        return Arrays.copyOf(results, numResults);
     }
     // overloaded version: if no player is provided, assume it should be us
     protected int[] getPlayerCountriesInArea(int[] area) {
         return getPlayerCountriesInArea(area, ID);
     }
+    // set version: returns the countries in <area> that <player> owns (by the same rules) as a new set
+    protected VikingCountrySet getPlayerCountriesInArea(VikingCountrySet area, int player) {
+        VikingCountrySet results = newCountrySet();
+        for (int country = area.nextCountry(0); country != -1; country = area.nextCountry(country + 1)) {
+            if ((player == ID && getProjectedCountryOwner(country) == ID) || model.getOwner(country) == player) {
+                results.add(country);
+            }
+        }
+        return results;
+    }
+    protected VikingCountrySet getPlayerCountriesInArea(VikingCountrySet area) {
+        return getPlayerCountriesInArea(area, ID);
+    }
 
     // helper function to return an array of the countries in a given continent
+    // (a copy of the list in <continents>, so the caller can do what it likes with it)
     protected int[] getCountriesInContinent(int cont) {
-        // continent iterator returns all countries in 'cont'
-        CountryIterator theCountries = new ContinentIterator(cont, countries);
-
-        // Put all the countries into an ArrayList
-        ArrayList countryArray = new ArrayList();
-        while (theCountries.hasNext()) {
-            countryArray.add(theCountries.next());
-        }
-
-        // Put the country code of each of the countries into an integer array
-        int size = countryArray.size();
-        int[] intArray = new int[size];
-        for(int i=0; i<size; i++) {
-            intArray[i] = ((Country)countryArray.get(i)).getCode();
-        }
-
-        return intArray;
+        return continents.getCountries(cont);
     }
 
     // helper function to return an array of the countries a player does not own in a given continent
     protected int[] getForeignCountriesInContinent(int owner, int cont) {
         // get all the countries in the continent
-        int[] theCountries = getCountriesInContinent(cont);
-        // return getForeignCountriesInArea on the list of countries
-        return getForeignCountriesInArea(theCountries, owner);
+        VikingCountrySet theCountries = newCountrySet(continents.countries[cont]);
+        // return getForeignCountriesInArea on the set of countries (a continent's countries are in code order anyway)
+        return getForeignCountriesInArea(theCountries, owner).toArray();
     }
 
     // helper function to return an array of the countries a player does not own in a given area
     protected int[] getForeignCountriesInArea(int[] area, int owner) {
-        // add all the countries not owned by owner to a new array list
-        ArrayList<Integer> countryList = new ArrayList<Integer>();
+        // add all the countries not owned by owner to the results
+        int[] results = new int[area.length];
+        int numResults = 0;
         for (int country : area) {
             if (getProjectedCountryOwner(country) != owner) {
-                countryList.add(country);
+                results[numResults++] = country;
             }
         }
 
-        // copy the array list of enemy countries to an integer array
-        int[] results = convertListToIntArray(countryList);
-
-        // return the integer array of enemy countries
-        return results;
+        // return the array of enemy countries
+        return Arrays.copyOf(results, numResults);
     }
     // overloaded version; if no owner ID is provided, assume it is us
     protected int[] getForeignCountriesInArea(int[] area) {
         return getForeignCountriesInArea(area, ID);
     }
+    // set version: returns the countries in <area> that <owner> doesn't (plan to) own as a new set
+    protected VikingCountrySet getForeignCountriesInArea(VikingCountrySet area, int owner) {
+        VikingCountrySet results = newCountrySet();
+        for (int country = area.nextCountry(0); country != -1; country = area.nextCountry(country + 1)) {
+            if (getProjectedCountryOwner(country) != owner) {
+                results.add(country);
+            }
+        }
+        return results;
+    }
+    protected VikingCountrySet getForeignCountriesInArea(VikingCountrySet area) {
+        return getForeignCountriesInArea(area, ID);
+    }
 
     //returns true if <player> is an enemy, i.e. not self and not an ally.
     protected boolean isEnemy(int player) {
@@ -3744,9 +4368,9 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     protected int[] getEnemies() {
       ArrayList<Integer> enemies = new ArrayList<Integer>();
-      int numberOfPlayers = board.getNumberOfPlayers(); // number of players that started the game
+      int numberOfPlayers = model.getNumberOfPlayers(); // number of players that started the game
       for (int player=0; player<numberOfPlayers; player++) { // loop through all players
-          if (BoardHelper.playerIsStillInTheGame(player, countries) && isEnemy(player)) { // if the player is still in the game, and is an enemy
+          if (getPlayerIndex().isStillInTheGame(player) && isEnemy(player)) { // if the player is still in the game, and is an enemy
               enemies.add(player);
           }
       }
@@ -3801,7 +4425,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             contPopulations[i] = 0; // initially populate the whole list with 0
         }
         for (int country : area) { // loop through area to populate <contPopulations>
-            int continent = countries[country].getContinent(); // the continent this country is in
+            int continent = model.getContinent(country); // the continent this country is in
             if (continent >= 0) { // if the country is part of a continent
                 contPopulations[continent] += 1; // add 1 to <contPopulations> for this continent
             }
@@ -3809,7 +4433,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         String message = "Countries in continents: \n";
         for (int i=0; i<contPopulations.length; i++) {
-            message += board.getContinentName(i) + ": ";
+            message += model.getContinentName(i) + ": ";
             message += contPopulations[i] + "\n";
         }
         testChat("getAreaBonuses", message);
@@ -3820,12 +4444,12 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // against the total number of countries that continent contains
         // and if <area> has every country in it, add its bonus to <totalBonus>
         for (int continent=0; continent<contPopulations.length; continent++) {
-            int size = BoardHelper.getContinentSize(continent, countries);
+            int size = continents.getSize(continent);
             if (contPopulations[continent] == size) { // if <area> has all the countries in this continent
 
-                testChat("getAreaBonuses", board.getContinentName(continent));
+                testChat("getAreaBonuses", model.getContinentName(continent));
 
-                totalBonus += board.getContinentBonus(continent); // add this continent's bonus to <totalBonus>
+                totalBonus += continents.getBonus(continent); // add this continent's bonus to <totalBonus>
             }
         }
 
@@ -3851,7 +4475,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             contPopulations[i] = 0; // initially populate the whole list with 0
         }
         for (int country : area) { // loop through area to populate <contPopulations>
-            int continent = countries[country].getContinent(); // the continent this country is in
+            int continent = model.getContinent(country); // the continent this country is in
             if (continent >= 0) { // if the country is part of a continent
                 contPopulations[continent] += 1; // add 1 to <contPopulations> for this continent
             }
@@ -3859,7 +4483,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         String message = "Countries in continents: \n";
         for (int i=0; i<contPopulations.length; i++) {
-            message += board.getContinentName(i) + ": ";
+            message += model.getContinentName(i) + ": ";
             message += contPopulations[i] + "\n";
         }
         testChat("getAreaContinentIDs", message);
@@ -3870,10 +4494,10 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // against the total number of countries that continent contains
         // and if <area> has every country in it, add it to <contCodes>
         for (int continent=0; continent<contPopulations.length; continent++) {
-            int size = BoardHelper.getContinentSize(continent, countries);
+            int size = continents.getSize(continent);
             if (contPopulations[continent] == size) { // if <area> has all the countries in this continent
 
-                testChat("getAreaContinentIDs", board.getContinentName(continent));
+                testChat("getAreaContinentIDs", model.getContinentName(continent));
 
                 contCodes.add(continent); // add this continent to <contCodes>
             }
@@ -3893,9 +4517,9 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // returns a new area with the added countries included
     // avoids expanding into blacklisted countries
     // (e.g., blacklisted countries may be countries that are important to an ally (i.e. in one of their continents))
-    protected int[] getSmartBordersArea(int[] originalArea, int[] blacklist) {
+    protected int[] getSmartBordersArea(int[] originalArea, VikingCountrySet blacklist) {
         // testing stuff
-        String areaName = board.getContinentName(getAreaContinentIDs(originalArea)[0]);
+        String areaName = model.getContinentName(getAreaContinentIDs(originalArea)[0]);
         testChat("getSmartBordersArea", "========== SMART BORDERS FOR " + areaName + " ==========");
 
         // we'll create a number of candidate areas by adding increasing numbers of layers
@@ -3918,6 +4542,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         // this list will grow with each loop so that the layers are cumulative
         // in other words, the pruning at depth 2, for example, will operate on both the first and second layer
         ArrayList<Integer> addedCountries = new ArrayList<Integer>();
+        VikingCountrySet inArea = newCountrySet(originalArea); // every country in the original area or <addedCountries>
 
         // loop from 1 to <depth>, creating a candidate area of depth <layer> on each loop and adding it to <candidateAreas>
         for (int layer=1; layer<=depth; layer++) {
@@ -3933,10 +4558,11 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             // add all the countries one layer out from each border country to <addedCountries>, ignoring duplicates
 
             for (int country : lastLayerBorders) { // loop through original borders
-                int[] neighbors = BoardHelper.getAttackList(countries[country], countries); // get neighbors of this border country
-                for (int neighbor : neighbors) { // loop through each neighbor
-                    if (!isInArray(neighbor, originalAreaList) && !isInArray(neighbor, addedCountries) && !isInArray(neighbor, blacklist)) { // if this neighbor is not in the original area or in any of the new layers (including the one we're creating now—we don't want duplicates) or the blacklist
+                for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) { // loop through each neighbor
+                    int neighbor = topology.attackIn[i];
+                    if (!inArea.contains(neighbor) && !blacklist.contains(neighbor)) { // if this neighbor is not in the original area or in any of the new layers (including the one we're creating now—we don't want duplicates) or the blacklist
                         addedCountries.add(neighbor); // add it to <addedCountries>
+                        inArea.add(neighbor);
                     }
                 }
             }
@@ -3946,12 +4572,14 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
             candidateAreas.add(pruneAreaAddedCountries(originalAreaList, addedCountries));
 
             // temporary crap for testing purposes
-            int oldNumBorders = getAreaBorders(originalArea).length;
-            ArrayList<Integer> prunedAdditions = (ArrayList<Integer>) candidateAreas.get(candidateAreas.size()-1).clone();
-            int newNumBorders = getAreaBorders(prunedAdditions).length;
-            prunedAdditions.removeAll(originalAreaList);
-            testChat("getSmartBordersArea", "    Pruned layer: " + (prunedAdditions.size() > 0 ? Arrays.toString(getCountryNames(prunedAdditions)) : "[none]"));
-            testChat("getSmartBordersArea","    New borders: " + newNumBorders + ", Original borders: " + oldNumBorders);
+            if (testChatIsOn("getSmartBordersArea")) {
+                int oldNumBorders = getAreaBorders(originalArea).length;
+                ArrayList<Integer> prunedAdditions = (ArrayList<Integer>) candidateAreas.get(candidateAreas.size()-1).clone();
+                int newNumBorders = getAreaBorders(prunedAdditions).length;
+                prunedAdditions.removeAll(originalAreaList);
+                testChat("getSmartBordersArea", "    Pruned layer: " + (prunedAdditions.size() > 0 ? Arrays.toString(getCountryNames(prunedAdditions)) : "[none]"));
+                testChat("getSmartBordersArea","    New borders: " + newNumBorders + ", Original borders: " + oldNumBorders);
+            }
         }
 
         // now pick the candidate area with the fewest borders (favoring the lower-layer areas in the case of ties)
@@ -3992,7 +4620,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     //overloaded version to make blacklist optional
     protected int[] getSmartBordersArea(int[] originalArea) {
-      return getSmartBordersArea(originalArea, new int[0]);
+      return getSmartBordersArea(originalArea, newCountrySet());
     }
 
     // called by getSmartBordersArea()
@@ -4008,6 +4636,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
         // add the new countries to the original area to create <newArea>, which we'll then prune down
         newArea.addAll(addedCountries);
+        VikingCountrySet newAreaSet = new VikingCountrySet(model.getNumberOfCountries(), newArea); // <newArea> as a set, kept in step with it
 
         // set some other variables we'll need in our loop
         boolean removed = true; // a flag that tells us if we removed any countries on a given iteration of the while loop
@@ -4025,11 +4654,11 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                 // now test the country we're on
                 // if the country itself is a border and if it touches 0 or 1 countries in the new area
                 // that aren't themselves borders, then we can remove it without increasing the total number of borders
-                if (isAreaBorder(newCountry, newArea)) { // if the country is itself a border
-                    int[] neighbors = countries[newCountry].getAdjoiningCodeList(); // get neighbors
+                if (isAreaBorder(newCountry, newAreaSet)) { // if the country is itself a border
                     int numInteriorNeighbors = 0; // the number of interior neighbors (countries that <country> can attack that are in the area but are not borders of the area)
-                    for (int neighbor : neighbors) { // loop through all neighbors
-                        if (countries[newCountry].canGoto(neighbor) && isInArray(neighbor,newArea) && !isAreaBorder(neighbor, newArea)) { // if <country> can attack <neighbor> and neighbor is in <newArea> and <neighbor> is not a border
+                    for (int i=topology.attackOutStart[newCountry]; i<topology.attackOutStart[newCountry+1]; i++) { // loop through all neighbors <country> can attack
+                        int neighbor = topology.attackOut[i];
+                        if (newAreaSet.contains(neighbor) && !isAreaBorder(neighbor, newAreaSet)) { // if neighbor is in <newArea> and <neighbor> is not a border
                             numInteriorNeighbors += 1;
                         }
                     }
@@ -4037,6 +4666,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
                         // then we don't want to use it as a smart border, so
                         addedCountriesIter.remove(); // remove it from <addedCountries>
                         newArea.remove((Integer) newCountry); // and also from <newArea>
+                        newAreaSet.remove(newCountry);
                         removed = true; // set <removed> flag to true so we will loop around the whole list again
                     }
                 }
@@ -4049,34 +4679,28 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     // given a continent, get an array of continents that neighbor it and can attack it
     protected int[] getNeighboringContinents(int cont) {
-        ArrayList<Integer> neighborConts = new ArrayList<Integer>();
-        int[] neighbors = BoardHelper.getDefensibleBordersBeyond(cont, countries);
-        for (int neighbor : neighbors) {
-            int contCode = countries[neighbor].getContinent();
-            if (!isInArray(contCode, neighborConts) && contCode != cont) {
-                neighborConts.add(contCode);
-            }
-        }
-        return convertListToIntArray(neighborConts);
+        return continents.getNeighbors(cont);
     }
 
     // chat out all continent codes and names
     protected void chatContinentNames() {
         for (int i=0; i<numConts; i++) {
-            board.sendChat(i + " - " + board.getContinentName(i));
+            board.sendChat(i + " - " + model.getContinentName(i));
         }
     }
 
     // return the largest continent bonus of all continents on the board
     protected int getBiggestContinentBonus() {
-        int biggestBonus = 0;
-        for (int i=0; i<numConts; i++) {
-            int bonus = board.getContinentBonus(i);
-            if (bonus > biggestBonus) {
-                biggestBonus = bonus;
-            }
-        }
-        return biggestBonus;
+        return continents.getBiggestBonus();
+    }
+
+    // a new (empty) country set sized for this map
+    protected VikingCountrySet newCountrySet() {
+        return new VikingCountrySet(model.getNumberOfCountries());
+    }
+    // a new country set holding the countries in <area>
+    protected VikingCountrySet newCountrySet(int[] area) {
+        return new VikingCountrySet(model.getNumberOfCountries(), area);
     }
 
     // checks if an integer is in an integer array
@@ -4102,7 +4726,7 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // returns <ID> if we actually own the country or if the country is in the battlPlan arraylist
     // because in that second case, that means we're planning on taking it over this turn
     protected int getProjectedCountryOwner(int country) {
-        int currentOwner = countries[country].getOwner();
+        int currentOwner = model.getOwner(country);
         if (isInBattlePlan(country)) {
             return ID;
         }
@@ -4117,21 +4741,14 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
         if (isInBattlePlan(country)) {
             armies = checkBorderStrength(country) + 1;
         } else {
-            armies = countries[country].getArmies();
+            armies = model.getArmies(country);
         }
         return armies;
     }
 
     // checks if a given country is in the battlePlan arraylist
     protected boolean isInBattlePlan(int country) {
-        for (int[] path : battlePlan) {
-            for (int checkCountry : path) {
-                if (checkCountry == country) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return battlePlan.isPlanned(country);
     }
 
     // returns true if any country in the given area is contained within <battlePlan>
@@ -4146,11 +4763,11 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
 
     // return the total income of all enemies remaining in the game
     protected int getTotalEnemyIncome() {
-        int numberOfPlayers = board.getNumberOfPlayers(); // number of players that started the game
+        int numberOfPlayers = model.getNumberOfPlayers(); // number of players that started the game
         int totalEnemyIncome = 0;
         for (int player=0; player<numberOfPlayers; player++) { // loop through all players
-            if (BoardHelper.playerIsStillInTheGame(player, countries) && isEnemy(player)) { // if the player is still in the game, and is an enemy
-                totalEnemyIncome += board.getPlayerIncome(player); // add its income to totalEnemyIncome
+            if (getPlayerIndex().isStillInTheGame(player) && isEnemy(player)) { // if the player is still in the game, and is an enemy
+                totalEnemyIncome += model.getPlayerIncome(player); // add its income to totalEnemyIncome
             }
         }
         return totalEnemyIncome;
@@ -4159,8 +4776,8 @@ protected float findEnemyLoss(ArrayList<Integer> countryList) {
     // returns the income of the given player including their potential income from cars
     // (the value of the next card set * 1/3 the number of cards they have)
     protected int getPlayerIncomeAndCards(int player) {
-        int income = board.getPlayerIncome(player); // the player's actual income
-        income += Math.ceil((double) board.getPlayerCards(player) / 3.0d * (double) board.getNextCardSetValue());  // add the value of their cards, rounded up (each card is treated as 1/3 the value of the next card set)
+        int income = model.getPlayerIncome(player); // the player's actual income
+        income += Math.ceil((double) model.getPlayerCards(player) / 3.0d * (double) model.getNextCardSetValue());  // add the value of their cards, rounded up (each card is treated as 1/3 the value of the next card set)
         return income;
     }
 
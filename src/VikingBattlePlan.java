@@ -0,0 +1,181 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+//
+//  VikingBattlePlan.java
+//
+//  Viking's <battlePlan>: the list of attack paths (int[] arrays of country codes) we're planning this turn.
+//  It's an ordinary ArrayList<int[]>, except it also keeps count of how many of its paths each country is in,
+//  so "are we planning to take this country?" (isInBattlePlan(), and so getProjectedCountryOwner() and
+//  getProjectedArmies()) is an array lookup instead of a walk through every path in the plan.
+//  Which countries are in the plan at all is kept as a bitset too, so it can be added to a VikingCountrySet a word at a time
+//  (see addPlannedCountriesTo()).
+//  The counts are updated by every method that adds or removes paths, so the plan can be changed the usual way;
+//  just don't change a path's array once it's in the plan (replace the path instead).
+//
+
+public class VikingBattlePlan extends ArrayList<int[]>
+{
+    private static final long serialVersionUID = 1L;
+
+    // planned[c] is the number of paths in the plan that go through country c (counting repeats within a path);
+    // it grows as needed, since we're made before we know how many countries the map has
+    protected int[] planned = new int[0];
+    // bit c is on if planned[c] > 0 (the same layout as VikingCountrySet's words)
+    protected long[] plannedWords = new long[0];
+
+    public VikingBattlePlan()
+    {
+        super();
+    }
+
+    // true if <country> is in any path in the plan
+    public boolean isPlanned(int country)
+    {
+        return country >= 0 && country < planned.length && planned[country] > 0;
+    }
+
+    // adds every country that's in the plan to <set>
+    public void addPlannedCountriesTo(VikingCountrySet set)
+    {
+        int numWords = Math.min(plannedWords.length, set.words.length);
+        for (int i=0; i<numWords; i++) {
+            set.words[i] |= plannedWords[i];
+        }
+    }
+
+    protected void count(int[] path, int change)
+    {
+        for (int country : path) {
+            if (country < 0) {
+                continue;
+            }
+            if (country >= planned.length) {
+                planned = Arrays.copyOf(planned, Math.max(country + 1, planned.length * 2));
+                plannedWords = Arrays.copyOf(plannedWords, (planned.length + 63) >>> 6);
+            }
+            planned[country] += change;
+            if (planned[country] > 0) {
+                plannedWords[country >>> 6] |= 1L << country;
+            } else {
+                plannedWords[country >>> 6] &= ~(1L << country);
+            }
+        }
+    }
+
+    protected void recount()
+    {
+        Arrays.fill(planned, 0);
+        Arrays.fill(plannedWords, 0L);
+        for (int[] path : this) {
+            count(path, 1);
+        }
+    }
+
+    public boolean add(int[] path)
+    {
+        count(path, 1);
+        return super.add(path);
+    }
+
+    public void add(int index, int[] path)
+    {
+        super.add(index, path);
+        count(path, 1);
+    }
+
+    public boolean addAll(Collection<? extends int[]> paths)
+    {
+        for (int[] path : paths) {
+            count(path, 1);
+        }
+        return super.addAll(paths);
+    }
+
+    public boolean addAll(int index, Collection<? extends int[]> paths)
+    {
+        for (int[] path : paths) {
+            count(path, 1);
+        }
+        return super.addAll(index, paths);
+    }
+
+    public int[] set(int index, int[] path)
+    {
+        int[] old = super.set(index, path);
+        count(old, -1);
+        count(path, 1);
+        return old;
+    }
+
+    public int[] remove(int index)
+    {
+        int[] old = super.remove(index);
+        count(old, -1);
+        return old;
+    }
+
+    public boolean remove(Object o)
+    {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        for (int i=fromIndex; i<toIndex; i++) {
+            count(get(i), -1);
+        }
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    public Object clone()
+    {
+        VikingBattlePlan copy = (VikingBattlePlan) super.clone();
+        copy.planned = planned.clone();
+        copy.plannedWords = plannedWords.clone();
+        return copy;
+    }
+
+    public void clear()
+    {
+        super.clear();
+        Arrays.fill(planned, 0);
+        Arrays.fill(plannedWords, 0L);
+    }
+
+    // the bulk changes are rare enough that we just count everything again afterwards
+    public boolean removeAll(Collection<?> c)
+    {
+        boolean changed = super.removeAll(c);
+        recount();
+        return changed;
+    }
+
+    public boolean retainAll(Collection<?> c)
+    {
+        boolean changed = super.retainAll(c);
+        recount();
+        return changed;
+    }
+
+    public boolean removeIf(Predicate<? super int[]> filter)
+    {
+        boolean changed = super.removeIf(filter);
+        recount();
+        return changed;
+    }
+
+    public void replaceAll(UnaryOperator<int[]> operator)
+    {
+        super.replaceAll(operator);
+        recount();
+    }
+}
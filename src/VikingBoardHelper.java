@@ -0,0 +1,163 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingBoardHelper.java
+//
+//  The handful of Lux BoardHelper functions Viking uses, working off a VikingBoardModel instead of a Country[]
+//  (so they work the same whatever the model is a view of). They give the same answers as BoardHelper,
+//  in the same order.
+//
+
+public class VikingBoardHelper
+{
+    public static boolean playerIsStillInTheGame(int player, VikingBoardModel model)
+    {
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getOwner(country) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int getPlayerArmies(int player, VikingBoardModel model)
+    {
+        int armies = 0;
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getOwner(country) == player) {
+                armies += model.getArmies(country);
+            }
+        }
+        return armies;
+    }
+
+    public static int getContinentSize(int continent, VikingBoardModel model)
+    {
+        int size = 0;
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getContinent(country) == continent) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    // the first country in <continent> (-1 if there isn't one)
+    public static int getCountryInContinent(int continent, VikingBoardModel model)
+    {
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getContinent(country) == continent) {
+                return country;
+            }
+        }
+        return -1;
+    }
+
+    // true if a single player owns every country in <continent>
+    public static boolean anyPlayerOwnsContinent(int continent, VikingBoardModel model)
+    {
+        int owner = -2;
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getContinent(country) != continent) {
+                continue;
+            }
+            if (owner == -2) {
+                owner = model.getOwner(country);
+            } else if (model.getOwner(country) != owner) {
+                return false;
+            }
+        }
+        return owner >= 0;
+    }
+
+    // the countries in <continent> that can be attacked from outside it
+    public static int[] getContinentBorders(int continent, VikingBoardModel model)
+    {
+        VikingTopology topology = model.getTopology();
+        ArrayList<Integer> borders = new ArrayList<Integer>();
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getContinent(country) != continent) {
+                continue;
+            }
+            for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) {
+                if (model.getContinent(topology.attackIn[i]) != continent) {
+                    borders.add(country);
+                    break;
+                }
+            }
+        }
+        return toArray(borders);
+    }
+
+    // the countries outside <continent> that can attack into it
+    public static int[] getDefensibleBordersBeyond(int continent, VikingBoardModel model)
+    {
+        VikingTopology topology = model.getTopology();
+        ArrayList<Integer> beyond = new ArrayList<Integer>();
+        boolean[] added = new boolean[model.getNumberOfCountries()];
+        for (int country=0; country<model.getNumberOfCountries(); country++) {
+            if (model.getContinent(country) != continent) {
+                continue;
+            }
+            for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) {
+                int neighbor = topology.attackIn[i];
+                if (!added[neighbor] && model.getContinent(neighbor) != continent) {
+                    added[neighbor] = true;
+                    beyond.add(neighbor);
+                }
+            }
+        }
+        return toArray(beyond);
+    }
+
+    // the shortest path (start and end included) from <start> to <end> that only goes through
+    // countries owned by <start>'s owner; null if there isn't one
+    public static int[] friendlyPathBetweenCountries(int start, int end, VikingBoardModel model)
+    {
+        VikingTopology topology = model.getTopology();
+        int owner = model.getOwner(start);
+        if (model.getOwner(end) != owner) {
+            return null;
+        }
+        int[] previous = new int[model.getNumberOfCountries()];
+        Arrays.fill(previous, -2);
+        int[] queue = new int[model.getNumberOfCountries()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        previous[start] = -1;
+        while (head < tail) {
+            int country = queue[head++];
+            if (country == end) {
+                int length = 0;
+                for (int c = country; c != -1; c = previous[c]) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int c = country; c != -1; c = previous[c]) {
+                    path[--length] = c;
+                }
+                return path;
+            }
+            for (int i=topology.attackOutStart[country]; i<topology.attackOutStart[country+1]; i++) {
+                int neighbor = topology.attackOut[i];
+                if (previous[neighbor] == -2 && model.getOwner(neighbor) == owner) {
+                    previous[neighbor] = country;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return null;
+    }
+
+    protected static int[] toArray(ArrayList<Integer> list)
+    {
+        int[] array = new int[list.size()];
+        for (int i=0; i<array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingBoardModel.java
+//
+//  The board as Viking's planning code sees it: the map, the players and who has what where,
+//  all by country, continent and player number, with no Lux objects involved.
+//  Viking reads the board only through this (it still places, attacks and fortifies through the Lux Board),
+//  so the planner can be pointed at anything that can answer these questions:
+//  the live Lux board (VikingLuxBoard), a copy of a position, a simulator or a benchmark fixture.
+//  The helpers Lux's BoardHelper would give us are in VikingBoardHelper.
+//
+
+public interface VikingBoardModel
+{
+    // the map
+    public int getNumberOfCountries();
+    public int getNumberOfContinents();
+    public String getMapTitle();
+    public String getCountryName(int country);
+    public int getContinent(int country);
+    public int getContinentBonus(int continent);
+    public String getContinentName(int continent);
+
+    // which countries border which, and which way they can attack (see VikingTopology)
+    public VikingTopology getTopology();
+
+    // the players
+    public int getNumberOfPlayers();
+    public String getPlayerName(int player);
+    public String getAgentName(int player);
+    public int getPlayerIncome(int player);
+    public int getPlayerCards(int player);
+
+    // the position
+    public int getOwner(int country);
+    public int getArmies(int country);
+    public int getMoveableArmies(int country);
+    public int getTurnCount();
+    public int getNextCardSetValue();
+}
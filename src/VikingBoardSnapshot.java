@@ -0,0 +1,247 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingBoardSnapshot.java
+//
+//  A copy of a VikingBoardModel (normally the live Lux board) at one moment, in plain arrays.
+//  Viking takes one at the start of each callback and plans against that instead of asking the Lux objects
+//  over and over, so every read is just an array load. When Viking changes the board itself (a placement, an attack
+//  or a fortify), it only touches a country or two, so instead of copying the whole board again it has the snapshot
+//  re-read just those countries (see update()), which keeps the player index up to date as it goes.
+//  So a snapshot isn't immutable: it changes between Viking's moves, but never while Viking is planning, and only from Viking's own thread.
+//  That's what lets Viking hand it to other threads during a plan (see Viking.findAreaPathsInParallel()): it calls beginSharedRead()
+//  before the searches start and endSharedRead() once they've all finished, and update() throws if it's called in between.
+//
+//  The map itself doesn't change during a game, so every snapshot shares the board's VikingTopology,
+//  and a snapshot made with the previous snapshot of the same board shares that one's names and continents too;
+//  only the position (owners, armies, incomes, cards, turn) is copied each time.
+//  Each snapshot also indexes its position by player (see VikingPlayerIndex), for the questions Viking asks about every player.
+//
+
+public class VikingBoardSnapshot implements VikingBoardModel
+{
+    // the map
+    protected final int numCountries;
+    protected final int numContinents;
+    protected final String mapTitle;
+    protected final String[] countryNames;
+    protected final int[] continents;
+    protected final int[] continentBonuses;
+    protected final String[] continentNames;
+    protected final VikingTopology topology;
+
+    // the players
+    protected final int numPlayers;
+    protected final String[] playerNames;
+    protected final String[] agentNames;
+    protected final int[] playerIncomes;
+    protected final int[] playerCards;
+
+    // the position
+    protected final int[] owners;
+    protected final int[] armies;
+    protected final int[] moveableArmies;
+    protected final int turnCount;
+    protected int nextCardSetValue;
+    protected final VikingPlayerIndex players;
+    // how many parallel searches are reading the snapshot right now (see beginSharedRead());
+    // it's only changed from the thread that plays Viking's turn, the same one that calls update()
+    protected int sharedReaders;
+
+    public VikingBoardSnapshot(VikingBoardModel board)
+    {
+        this(board, null);
+    }
+
+    // <previous> is an earlier snapshot of the same board (or null); we'll share its copy of the map
+    public VikingBoardSnapshot(VikingBoardModel board, VikingBoardSnapshot previous)
+    {
+        numCountries = board.getNumberOfCountries();
+        numContinents = board.getNumberOfContinents();
+        numPlayers = board.getNumberOfPlayers();
+        topology = board.getTopology(); // which never changes, so there's no need to copy it
+
+        if (previous != null && previous.numCountries == numCountries && previous.numContinents == numContinents && previous.numPlayers == numPlayers) {
+            mapTitle = previous.mapTitle;
+            countryNames = previous.countryNames;
+            continents = previous.continents;
+            continentBonuses = previous.continentBonuses;
+            continentNames = previous.continentNames;
+            playerNames = previous.playerNames;
+            agentNames = previous.agentNames;
+        } else {
+            mapTitle = board.getMapTitle();
+            countryNames = new String[numCountries];
+            continents = new int[numCountries];
+            for (int country=0; country<numCountries; country++) {
+                countryNames[country] = board.getCountryName(country);
+                continents[country] = board.getContinent(country);
+            }
+            continentBonuses = new int[numContinents];
+            continentNames = new String[numContinents];
+            for (int continent=0; continent<numContinents; continent++) {
+                continentBonuses[continent] = board.getContinentBonus(continent);
+                continentNames[continent] = board.getContinentName(continent);
+            }
+            playerNames = new String[numPlayers];
+            agentNames = new String[numPlayers];
+            for (int player=0; player<numPlayers; player++) {
+                playerNames[player] = board.getPlayerName(player);
+                agentNames[player] = board.getAgentName(player);
+            }
+        }
+
+        owners = new int[numCountries];
+        armies = new int[numCountries];
+        moveableArmies = new int[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            owners[country] = board.getOwner(country);
+            armies[country] = board.getArmies(country);
+            moveableArmies[country] = board.getMoveableArmies(country);
+        }
+        playerIncomes = new int[numPlayers];
+        playerCards = new int[numPlayers];
+        for (int player=0; player<numPlayers; player++) {
+            playerIncomes[player] = board.getPlayerIncome(player);
+            playerCards[player] = board.getPlayerCards(player);
+        }
+        turnCount = board.getTurnCount();
+        nextCardSetValue = board.getNextCardSetValue();
+        players = new VikingPlayerIndex(this); // (everything it reads has been copied by now)
+    }
+
+    // re-read <countries> from <board>, after something changed them and nothing else; the player index is updated to match
+    // (the cards can change hands after an attack too, when someone's wiped out, so we always re-read those,
+    // and if any of the countries changed hands, so can the players' incomes)
+    // (only between plans: never while other threads are reading the snapshot, see beginSharedRead())
+    public void update(VikingBoardModel board, int... countries)
+    {
+        if (sharedReaders > 0) {
+            throw new IllegalStateException("VikingBoardSnapshot.update() called while other threads are reading the snapshot");
+        }
+        boolean conquered = false;
+        for (int country : countries) {
+            int oldOwner = owners[country];
+            int oldArmies = armies[country];
+            owners[country] = board.getOwner(country);
+            armies[country] = board.getArmies(country);
+            moveableArmies[country] = board.getMoveableArmies(country);
+            players.update(country, oldOwner, oldArmies, owners[country], armies[country]);
+            conquered |= owners[country] != oldOwner;
+        }
+        for (int player=0; player<numPlayers; player++) {
+            if (conquered) {
+                playerIncomes[player] = board.getPlayerIncome(player);
+            }
+            playerCards[player] = board.getPlayerCards(player);
+        }
+        nextCardSetValue = board.getNextCardSetValue();
+    }
+
+    // other threads are about to read the snapshot; until endSharedRead(), it mustn't change
+    public void beginSharedRead()
+    {
+        sharedReaders++;
+    }
+
+    public void endSharedRead()
+    {
+        sharedReaders--;
+    }
+
+    // each player's countries and armies in this position
+    public VikingPlayerIndex getPlayerIndex()
+    {
+        return players;
+    }
+
+    public int getNumberOfCountries()
+    {
+        return numCountries;
+    }
+
+    public int getNumberOfContinents()
+    {
+        return numContinents;
+    }
+
+    public String getMapTitle()
+    {
+        return mapTitle;
+    }
+
+    public String getCountryName(int country)
+    {
+        return countryNames[country];
+    }
+
+    public int getContinent(int country)
+    {
+        return continents[country];
+    }
+
+    public int getContinentBonus(int continent)
+    {
+        return continentBonuses[continent];
+    }
+
+    public String getContinentName(int continent)
+    {
+        return continentNames[continent];
+    }
+
+    public VikingTopology getTopology()
+    {
+        return topology;
+    }
+
+    public int getNumberOfPlayers()
+    {
+        return numPlayers;
+    }
+
+    public String getPlayerName(int player)
+    {
+        return playerNames[player];
+    }
+
+    public String getAgentName(int player)
+    {
+        return agentNames[player];
+    }
+
+    public int getPlayerIncome(int player)
+    {
+        return playerIncomes[player];
+    }
+
+    public int getPlayerCards(int player)
+    {
+        return playerCards[player];
+    }
+
+    public int getOwner(int country)
+    {
+        return owners[country];
+    }
+
+    public int getArmies(int country)
+    {
+        return armies[country];
+    }
+
+    public int getMoveableArmies(int country)
+    {
+        return moveableArmies[country];
+    }
+
+    public int getTurnCount()
+    {
+        return turnCount;
+    }
+
+    public int getNextCardSetValue()
+    {
+        return nextCardSetValue;
+    }
+}
@@ -0,0 +1,96 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingBorderCache.java
+//
+//  Remembers the borders of the areas Viking has already looked at. Whether a country is a border of an area
+//  (whether anything outside the area can attack it) only depends on the map and on which countries are in the area,
+//  so the answer for a given set of countries never changes during a game; Viking asks for the same areas' borders
+//  over and over (getSmartBordersArea() alone asks several times per candidate), so we work each one out once.
+//
+//  The cache is keyed by the area's VikingCountrySet (so two areas with the same countries in a different order share an entry).
+//  Areas that are pinned stay for the whole game, so only areas that only depend on the map should be pinned
+//  (Viking pins the continents and each continent's smart area with nothing blacklisted, see VikingMapAnalysis);
+//  everything else is kept in a table of the most recently used <MAX_ENTRIES> areas, since the areas the planner
+//  makes up on the fly (takeover areas, candidate smart-border areas, smart areas that change with the blacklist)
+//  would otherwise pile up all game.
+//  It's only meant to be used from the thread that's playing Viking's turn.
+//
+
+public class VikingBorderCache
+{
+    protected static final int MAX_ENTRIES = 1024;
+
+    protected final VikingTopology topology;
+    protected final HashMap<VikingCountrySet, VikingCountrySet> pinned = new HashMap<VikingCountrySet, VikingCountrySet>();
+    protected final LinkedHashMap<VikingCountrySet, VikingCountrySet> recent = new LinkedHashMap<VikingCountrySet, VikingCountrySet>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<VikingCountrySet, VikingCountrySet> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public VikingBorderCache(VikingTopology topology)
+    {
+        this.topology = topology;
+    }
+
+    // the borders of <area>, as a set; don't change the set you get back, since it's the one in the cache
+    public VikingCountrySet getBorders(VikingCountrySet area)
+    {
+        VikingCountrySet borders = pinned.get(area);
+        if (borders == null) {
+            borders = recent.get(area);
+            if (borders == null) {
+                borders = findBorders(area);
+                recent.put(new VikingCountrySet(area), borders); // a copy, since the caller may go on changing <area>
+            }
+        }
+        return borders;
+    }
+
+    // the borders of <area> (whose countries are <areaSet>), in the area's order
+    public int[] getBorders(int[] area, VikingCountrySet areaSet)
+    {
+        VikingCountrySet borders = getBorders(areaSet);
+        int[] results = new int[area.length];
+        int numBorders = 0;
+        for (int country : area) {
+            if (borders.contains(country)) {
+                results[numBorders++] = country;
+            }
+        }
+        return Arrays.copyOf(results, numBorders);
+    }
+
+    // work out <area>'s borders now and keep them for the rest of the game
+    public void pin(VikingCountrySet area)
+    {
+        if (!pinned.containsKey(area)) {
+            VikingCountrySet borders = recent.remove(area);
+            pinned.put(new VikingCountrySet(area), borders != null ? borders : findBorders(area));
+        }
+    }
+
+    public int size()
+    {
+        return pinned.size() + recent.size();
+    }
+
+    // a country in the area is a border if any of the countries that can attack it are outside the area
+    protected VikingCountrySet findBorders(VikingCountrySet area)
+    {
+        VikingCountrySet borders = new VikingCountrySet(area.getNumberOfCountries());
+        for (int country = area.nextCountry(0); country != -1; country = area.nextCountry(country + 1)) {
+            for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) {
+                if (!area.contains(topology.attackIn[i])) {
+                    borders.add(country);
+                    break;
+                }
+            }
+        }
+        return borders;
+    }
+}
@@ -0,0 +1,142 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingContinents.java
+//
+//  The facts about the map's continents that Viking keeps asking for: which countries are in each one,
+//  how many, its bonus, its borders, the countries beyond it that can attack it, and which continents those are in.
+//  None of that changes during a game (the snapshots share the bonuses for the same reason), so Viking works it all
+//  out once in setPrefs and its helpers read it from here instead of going through every country each time.
+//
+//  Every list is in the same order the old per-call code made it in (ascending country code for the members and borders,
+//  the order VikingBoardHelper.getDefensibleBordersBeyond() finds them in for the rest), so nothing that loops over them changes.
+//  Nothing changes these arrays after the constructor, so don't write to them; use the get...() methods for a copy you can keep.
+//
+
+public class VikingContinents
+{
+    protected final int numContinents;
+    protected final int[][] countries;  // countries[c]: the countries in continent c
+    protected final int[] bonuses;
+    protected final int biggestBonus;   // the largest bonus of any continent (0 if they're all 0 or less)
+    protected final int[][] borders;    // borders[c]: the countries in c that can be attacked from outside it
+    protected final int[][] beyond;     // beyond[c]: the countries outside c that can attack into it
+    protected final int[][] neighbors;  // neighbors[c]: the continents (other than c) that <beyond[c]> are in
+
+    public VikingContinents(VikingBoardModel board)
+    {
+        numContinents = board.getNumberOfContinents();
+        int numCountries = board.getNumberOfCountries();
+
+        int[] sizes = new int[numContinents];
+        for (int country=0; country<numCountries; country++) {
+            int continent = board.getContinent(country);
+            if (continent >= 0 && continent < numContinents) {
+                sizes[continent]++;
+            }
+        }
+        countries = new int[numContinents][];
+        for (int continent=0; continent<numContinents; continent++) {
+            countries[continent] = new int[sizes[continent]];
+        }
+        int[] next = new int[numContinents];
+        for (int country=0; country<numCountries; country++) {
+            int continent = board.getContinent(country);
+            if (continent >= 0 && continent < numContinents) {
+                countries[continent][next[continent]++] = country;
+            }
+        }
+
+        bonuses = new int[numContinents];
+        int biggest = 0;
+        for (int continent=0; continent<numContinents; continent++) {
+            bonuses[continent] = board.getContinentBonus(continent);
+            if (bonuses[continent] > biggest) {
+                biggest = bonuses[continent];
+            }
+        }
+        biggestBonus = biggest;
+
+        borders = new int[numContinents][];
+        beyond = new int[numContinents][];
+        neighbors = new int[numContinents][];
+        for (int continent=0; continent<numContinents; continent++) {
+            borders[continent] = VikingBoardHelper.getContinentBorders(continent, board);
+            beyond[continent] = VikingBoardHelper.getDefensibleBordersBeyond(continent, board);
+            ArrayList<Integer> neighborConts = new ArrayList<Integer>();
+            for (int country : beyond[continent]) {
+                int neighbor = board.getContinent(country);
+                if (neighbor != continent && !neighborConts.contains(neighbor)) {
+                    neighborConts.add(neighbor);
+                }
+            }
+            neighbors[continent] = VikingBoardHelper.toArray(neighborConts);
+        }
+    }
+
+    // the tables as they are (e.g. read back from a VikingMapAnalysis file)
+    public VikingContinents(int[] bonuses, int[][] countries, int[][] borders, int[][] beyond, int[][] neighbors)
+    {
+        numContinents = bonuses.length;
+        this.bonuses = bonuses;
+        this.countries = countries;
+        this.borders = borders;
+        this.beyond = beyond;
+        this.neighbors = neighbors;
+        int biggest = 0;
+        for (int bonus : bonuses) {
+            if (bonus > biggest) {
+                biggest = bonus;
+            }
+        }
+        biggestBonus = biggest;
+    }
+
+    public int getNumberOfContinents()
+    {
+        return numContinents;
+    }
+
+    public int getSize(int continent)
+    {
+        return countries[continent].length;
+    }
+
+    public int getBonus(int continent)
+    {
+        return bonuses[continent];
+    }
+
+    public int getBiggestBonus()
+    {
+        return biggestBonus;
+    }
+
+    public int getNumberOfBorders(int continent)
+    {
+        return borders[continent].length;
+    }
+
+    // the lists as new arrays, for callers that want to keep or change one
+    public int[] getCountries(int continent)
+    {
+        return countries[continent].clone();
+    }
+
+    public int[] getBorders(int continent)
+    {
+        return borders[continent].clone();
+    }
+
+    public int[] getBordersBeyond(int continent)
+    {
+        return beyond[continent].clone();
+    }
+
+    public int[] getNeighbors(int continent)
+    {
+        return neighbors[continent].clone();
+    }
+}
@@ -0,0 +1,201 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingCountrySet.java
+//
+//  A set of country codes kept as a bitset: bit c of the long[] is on if country c is in the set.
+//  So contains/add/remove are a shift and a mask, and union, intersect and difference go 64 countries at a time.
+//  Viking uses these wherever it asks "is this country in that area/blacklist?", which used to mean
+//  scanning an int[] or an ArrayList every time.
+//
+//  Walking the set (nextCountry(), toArray()) goes in ascending country order, NOT the order the countries
+//  were added in; anything whose results depend on the order of an area still walks the area's int[].
+//  Sets are only meant to be combined with other sets made for the same map.
+//
+
+public class VikingCountrySet
+{
+    protected final int numCountries;
+    protected final long[] words;
+
+    public VikingCountrySet(int numCountries)
+    {
+        this.numCountries = numCountries;
+        words = new long[(numCountries + 63) >>> 6];
+    }
+
+    public VikingCountrySet(int numCountries, int[] countries)
+    {
+        this(numCountries);
+        addAll(countries);
+    }
+
+    public VikingCountrySet(int numCountries, Collection<Integer> countries)
+    {
+        this(numCountries);
+        for (int country : countries) {
+            add(country);
+        }
+    }
+
+    public VikingCountrySet(VikingCountrySet other)
+    {
+        numCountries = other.numCountries;
+        words = other.words.clone();
+    }
+
+    public int getNumberOfCountries()
+    {
+        return numCountries;
+    }
+
+    // anything off the map (e.g. the -1 we use for "no country") just isn't in the set
+    public boolean contains(int country)
+    {
+        if (country < 0 || country >= numCountries) {
+            return false;
+        }
+        return (words[country >>> 6] & (1L << country)) != 0;
+    }
+
+    // returns true if <country> wasn't already in the set
+    public boolean add(int country)
+    {
+        int word = country >>> 6;
+        long bit = 1L << country;
+        boolean added = (words[word] & bit) == 0;
+        words[word] |= bit;
+        return added;
+    }
+
+    // returns true if <country> was in the set
+    public boolean remove(int country)
+    {
+        if (!contains(country)) {
+            return false;
+        }
+        words[country >>> 6] &= ~(1L << country);
+        return true;
+    }
+
+    public void addAll(int[] countries)
+    {
+        for (int country : countries) {
+            add(country);
+        }
+    }
+
+    // union
+    public void addAll(VikingCountrySet other)
+    {
+        for (int i=0; i<words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    // intersection
+    public void retainAll(VikingCountrySet other)
+    {
+        for (int i=0; i<words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    // difference
+    public void removeAll(VikingCountrySet other)
+    {
+        for (int i=0; i<words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    // true if the two sets have any country in common
+    public boolean intersects(VikingCountrySet other)
+    {
+        for (int i=0; i<words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(words, 0L);
+    }
+
+    // the lowest country in the set that's >= <from>, or -1 if there isn't one, so a loop over the set goes:
+    //     for (int country = set.nextCountry(0); country != -1; country = set.nextCountry(country + 1)) { ... }
+    public int nextCountry(int from)
+    {
+        if (from >= numCountries) {
+            return -1;
+        }
+        int i = from >>> 6;
+        long word = words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == words.length) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+
+    // the countries in ascending order
+    public int[] toArray()
+    {
+        int[] array = new int[size()];
+        int next = 0;
+        for (int country = nextCountry(0); country != -1; country = nextCountry(country + 1)) {
+            array[next++] = country;
+        }
+        return array;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof VikingCountrySet)) {
+            return false;
+        }
+        VikingCountrySet other = (VikingCountrySet) o;
+        return numCountries == other.numCountries && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString()
+    {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,194 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingGarrisonTable.java
+//
+//  What Viking keeps in <borderArmies> and <idealBorderArmies>: a number of armies for some of the countries on the board
+//  (the border garrisons we want). It's a plain int[] indexed by country code plus a bitset of which countries have an entry,
+//  so Viking's own lookups (has(), getArmies(), setArmies()) don't box, hash or allocate anything.
+//
+//  It's also a Map<Integer, Integer>, so the tools can save, restore and compare it like they always have;
+//  going through the Map methods boxes as usual, which is fine for them.
+//  Iterating (either way) goes through the countries in ascending country code order.
+//  The arrays grow as needed, since Viking makes its tables before it knows how big the map is.
+//
+
+public class VikingGarrisonTable extends AbstractMap<Integer, Integer>
+{
+    protected int[] armies = new int[0];
+    protected long[] present = new long[0];
+    protected int size = 0;
+
+    public VikingGarrisonTable()
+    {
+        super();
+    }
+
+    // true if <country> has an entry
+    public boolean has(int country)
+    {
+        return country >= 0 && (country >>> 6) < present.length && (present[country >>> 6] & (1L << country)) != 0;
+    }
+
+    // the armies for <country>, or 0 if it doesn't have an entry
+    public int getArmies(int country)
+    {
+        return has(country) ? armies[country] : 0;
+    }
+
+    public void setArmies(int country, int armyCount)
+    {
+        if (country >= armies.length) {
+            int length = Math.max(country + 1, armies.length * 2);
+            armies = Arrays.copyOf(armies, length);
+            present = Arrays.copyOf(present, (length + 63) >>> 6);
+        }
+        if (!has(country)) {
+            present[country >>> 6] |= 1L << country;
+            size++;
+        }
+        armies[country] = armyCount;
+    }
+
+    // returns true if <country> had an entry
+    public boolean removeCountry(int country)
+    {
+        if (!has(country)) {
+            return false;
+        }
+        present[country >>> 6] &= ~(1L << country);
+        armies[country] = 0;
+        size--;
+        return true;
+    }
+
+    // the lowest country >= <from> with an entry, or -1 if there isn't one, so a loop over the table goes:
+    //     for (int country = table.nextCountry(0); country != -1; country = table.nextCountry(country + 1)) { ... }
+    public int nextCountry(int from)
+    {
+        if (from < 0) {
+            from = 0;
+        }
+        int i = from >>> 6;
+        if (i >= present.length) {
+            return -1;
+        }
+        long word = present[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == present.length) {
+                return -1;
+            }
+            word = present[i];
+        }
+    }
+
+    // the countries with entries, in ascending order
+    public int[] countries()
+    {
+        int[] countries = new int[size];
+        int next = 0;
+        for (int country = nextCountry(0); country != -1; country = nextCountry(country + 1)) {
+            countries[next++] = country;
+        }
+        return countries;
+    }
+
+    // the Map side, for the tools
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean containsKey(Object key)
+    {
+        return key instanceof Integer && has((Integer) key);
+    }
+
+    public Integer get(Object key)
+    {
+        if (!containsKey(key)) {
+            return null;
+        }
+        return armies[(Integer) key];
+    }
+
+    public Integer put(Integer country, Integer armyCount)
+    {
+        Integer old = get(country);
+        setArmies(country, armyCount);
+        return old;
+    }
+
+    public Integer remove(Object key)
+    {
+        Integer old = get(key);
+        if (old != null) {
+            removeCountry((Integer) key);
+        }
+        return old;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(present, 0L);
+        Arrays.fill(armies, 0);
+        size = 0;
+    }
+
+    public Set<Map.Entry<Integer, Integer>> entrySet()
+    {
+        return new AbstractSet<Map.Entry<Integer, Integer>>() {
+            public int size()
+            {
+                return size;
+            }
+
+            public Iterator<Map.Entry<Integer, Integer>> iterator()
+            {
+                return new Iterator<Map.Entry<Integer, Integer>>() {
+                    int next = nextCountry(0);
+                    int last = -1;
+
+                    public boolean hasNext()
+                    {
+                        return next != -1;
+                    }
+
+                    public Map.Entry<Integer, Integer> next()
+                    {
+                        if (next == -1) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = nextCountry(next + 1);
+                        final int country = last;
+                        return new AbstractMap.SimpleEntry<Integer, Integer>(country, armies[country]) {
+                            public Integer setValue(Integer armyCount)
+                            {
+                                super.setValue(armyCount);
+                                Integer old = armies[country];
+                                armies[country] = armyCount;
+                                return old;
+                            }
+                        };
+                    }
+
+                    public void remove()
+                    {
+                        if (last == -1) {
+                            throw new IllegalStateException();
+                        }
+                        removeCountry(last);
+                        last = -1;
+                    }
+                };
+            }
+        };
+    }
+}
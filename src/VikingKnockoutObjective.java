@@ -0,0 +1,43 @@
+package com.sillysoft.lux.agent;
+
+import java.util.ArrayList;
+
+//
+//  VikingKnockoutObjective.java
+//
+//  A VikingObjective to break an enemy's continent bonus by taking a country in the continent
+//  (see Viking.calculateKnockoutObjective()).
+//
+
+public class VikingKnockoutObjective extends VikingObjective
+{
+    // the continent an enemy fully owns
+    protected final int continent;
+
+    protected int bonus;
+    protected int enemyIncome;
+
+    // the attack path into the continent
+    protected ArrayList<int[]> plan;
+
+    // the score by the old formula (we don't use it any more)
+    protected float oldScore;
+
+    public VikingKnockoutObjective(VikingBoardModel model, int continent)
+    {
+        super(model);
+        this.continent = continent;
+    }
+
+    public int getContinent()
+    {
+        return continent;
+    }
+
+    protected String buildSummary()
+    {
+        return "knockout - score: " + formatScore(score)
+            + " - " + model.getContinentName(continent)
+            + ", bonus: " + bonus + ", cost: " + cost;
+    }
+}
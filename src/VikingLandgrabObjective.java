@@ -0,0 +1,34 @@
+package com.sillysoft.lux.agent;
+
+import java.util.ArrayList;
+
+//
+//  VikingLandgrabObjective.java
+//
+//  A VikingObjective to take over a string of weak enemy countries, just for the countries
+//  (see Viking.calculateLandgrabObjective()).
+//
+
+public class VikingLandgrabObjective extends VikingObjective
+{
+    // the path to attack along
+    protected final int[] route;
+
+    // <route>, packaged the way the battle plan wants it
+    protected ArrayList<int[]> plan;
+
+    public VikingLandgrabObjective(VikingBoardModel model, int[] route)
+    {
+        super(model);
+        this.route = route;
+        plan = new ArrayList<int[]>();
+        plan.add(route);
+    }
+
+    protected String buildSummary()
+    {
+        return "landgrab  - score: " + formatScore(score)
+            + " - " + countryName(route[0]) + "..." + countryName(route[route.length - 1]) + ", "
+            + "cost: " + cost;
+    }
+}
@@ -0,0 +1,138 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.util.*;
+
+//
+//  VikingLuxBoard.java
+//
+//  The VikingBoardModel for a live Lux game: every question about the position goes straight to the Board
+//  and its Countries, so it always answers with the board as it is right now.
+//  (The map's topology is read once, when we're made, since it never changes.)
+//
+
+public class VikingLuxBoard implements VikingBoardModel
+{
+    protected Board board;
+    protected Country[] countries;
+    protected VikingTopology topology;
+
+    public VikingLuxBoard(Board board)
+    {
+        this.board = board;
+        countries = board.getCountries();
+
+        // the map doesn't change, so work out who touches whom just once
+        int[][] adjoiningLists = new int[countries.length][];
+        int[][] gotoLists = new int[countries.length][];
+        for (int country=0; country<countries.length; country++) {
+            adjoiningLists[country] = countries[country].getAdjoiningCodeList();
+            ArrayList<Integer> gotos = new ArrayList<Integer>();
+            for (int neighbor : adjoiningLists[country]) {
+                if (countries[country].canGoto(neighbor)) {
+                    gotos.add(neighbor);
+                }
+            }
+            gotoLists[country] = new int[gotos.size()];
+            for (int i=0; i<gotos.size(); i++) {
+                gotoLists[country][i] = gotos.get(i);
+            }
+        }
+        topology = new VikingTopology(adjoiningLists, gotoLists);
+    }
+
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    public int getNumberOfCountries()
+    {
+        return countries.length;
+    }
+
+    public int getNumberOfContinents()
+    {
+        return board.getNumberOfContinents();
+    }
+
+    public String getMapTitle()
+    {
+        return board.getMapTitle();
+    }
+
+    public String getCountryName(int country)
+    {
+        return countries[country].getName();
+    }
+
+    public int getContinent(int country)
+    {
+        return countries[country].getContinent();
+    }
+
+    public int getContinentBonus(int continent)
+    {
+        return board.getContinentBonus(continent);
+    }
+
+    public String getContinentName(int continent)
+    {
+        return board.getContinentName(continent);
+    }
+
+    public VikingTopology getTopology()
+    {
+        return topology;
+    }
+
+    public int getNumberOfPlayers()
+    {
+        return board.getNumberOfPlayers();
+    }
+
+    public String getPlayerName(int player)
+    {
+        return board.getPlayerName(player);
+    }
+
+    public String getAgentName(int player)
+    {
+        return board.getAgentName(player);
+    }
+
+    public int getPlayerIncome(int player)
+    {
+        return board.getPlayerIncome(player);
+    }
+
+    public int getPlayerCards(int player)
+    {
+        return board.getPlayerCards(player);
+    }
+
+    public int getOwner(int country)
+    {
+        return countries[country].getOwner();
+    }
+
+    public int getArmies(int country)
+    {
+        return countries[country].getArmies();
+    }
+
+    public int getMoveableArmies(int country)
+    {
+        return countries[country].getMoveableArmies();
+    }
+
+    public int getTurnCount()
+    {
+        return board.getTurnCount();
+    }
+
+    public int getNextCardSetValue()
+    {
+        return board.getNextCardSetValue();
+    }
+}
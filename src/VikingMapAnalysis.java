@@ -0,0 +1,309 @@
+package com.sillysoft.lux.agent;
+
+import java.io.*;
+import java.util.*;
+
+//
+//  VikingMapAnalysis.java
+//
+//  Everything Viking works out about a map that only depends on the map: its continents (see VikingContinents)
+//  and the smart area of each continent when there's nothing blacklisted (what getSmartBordersArea() gives for the continent
+//  on its own, which is the smart area for that continent every turn we don't have allies to stay out of the way of).
+//
+//  Each map's analysis is found by a fingerprint (a hash of the topology, which continent each country is in, and the bonuses).
+//  Every Viking in this JVM playing the same map shares one (as long as it's one of the last few maps used), so only the first one does the work;
+//  and if Lux was started with -Dviking.mapcache=<directory>, finished analyses are also written there
+//  (one small binary file per map, named for its fingerprint) and read back by later games, so they start with
+//  the continent tables and smart areas done. The topology itself isn't saved: reading it from the board is quick,
+//  and we need it anyway to work out the fingerprint, so the analysis just keeps the live board's.
+//  The smart areas are filled in as Viking works them out (a continent an ally holds doesn't get one until it's free again),
+//  and the analysis is only written once all of them are there.
+//
+//  The file is all big-endian ints, apart from the fingerprint:
+//
+//    MAGIC VERSION <fingerprint (a long)> <numCountries> <numContinents>
+//    the continents: <bonuses>, countries, borders, beyond, neighbors (each as a list of starts and then all the lists, like VikingTopology)
+//    the smart areas                                                 (starts and a list)
+//
+//  where a plain list is <length> <value> ... <value>.
+//  (An all-pairs distance table was considered too, but nothing in the planner asks how many hops apart two countries are.)
+//
+
+public class VikingMapAnalysis
+{
+    public static final String PROPERTY = "viking.mapcache";
+    protected static final int MAGIC = 0x564b4d41; // "VKMA"
+    protected static final int VERSION = 2;
+
+    // the analyses of the maps this JVM has used most recently, by fingerprint; a tournament can go through thousands of
+    // generated maps, so we only keep the last <MAX_LOADED> (each Viking holds on to its own map's analysis anyway,
+    // so dropping one here only means the next game on that map works it out again, or reads it back from its file)
+    protected static final int MAX_LOADED = 32;
+    protected static final LinkedHashMap<Long, VikingMapAnalysis> loaded = new LinkedHashMap<Long, VikingMapAnalysis>(16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<Long, VikingMapAnalysis> eldest)
+        {
+            return size() > MAX_LOADED;
+        }
+    };
+
+    protected final long fingerprint;
+    protected final VikingTopology topology;
+    protected final VikingContinents continents;
+    protected final int[][] smartAreas; // smartAreas[c]: continent c's smart area with nothing blacklisted, or null if we haven't worked it out yet
+    protected boolean saved;
+
+    public VikingMapAnalysis(long fingerprint, VikingTopology topology, VikingContinents continents, int[][] smartAreas)
+    {
+        this.fingerprint = fingerprint;
+        this.topology = topology;
+        this.continents = continents;
+        this.smartAreas = smartAreas;
+    }
+
+    // the analysis of <board>'s map: one we've already got (in memory or on disk) if it's the same map, otherwise a new one
+    public static VikingMapAnalysis find(VikingBoardModel board)
+    {
+        VikingTopology topology = board.getTopology();
+        int[] continentOf = new int[board.getNumberOfCountries()];
+        for (int country=0; country<continentOf.length; country++) {
+            continentOf[country] = board.getContinent(country);
+        }
+        int[] bonuses = new int[board.getNumberOfContinents()];
+        for (int continent=0; continent<bonuses.length; continent++) {
+            bonuses[continent] = board.getContinentBonus(continent);
+        }
+        long fingerprint = getFingerprint(topology, continentOf, bonuses);
+
+        synchronized (loaded) {
+            VikingMapAnalysis analysis = loaded.get(fingerprint);
+            if (analysis == null || !analysis.matches(topology, continentOf, bonuses)) {
+                analysis = read(fingerprint, topology);
+                if (analysis == null || !analysis.matches(topology, continentOf, bonuses)) {
+                    analysis = new VikingMapAnalysis(fingerprint, topology, new VikingContinents(board), new int[bonuses.length][]);
+                }
+                loaded.put(fingerprint, analysis);
+            }
+            return analysis;
+        }
+    }
+
+    public long getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    public VikingContinents getContinents()
+    {
+        return continents;
+    }
+
+    // <continent>'s smart area with nothing blacklisted (don't change it), or null if nobody's worked it out yet
+    public synchronized int[] getSmartArea(int continent)
+    {
+        return smartAreas[continent];
+    }
+
+    // once every continent has its smart area, the analysis is written out (if there's somewhere to write it)
+    public synchronized void setSmartArea(int continent, int[] area)
+    {
+        if (smartAreas[continent] != null) {
+            return;
+        }
+        smartAreas[continent] = area.clone();
+        if (!saved && isComplete()) {
+            saved = true;
+            write();
+        }
+    }
+
+    public synchronized boolean isComplete()
+    {
+        for (int[] area : smartAreas) {
+            if (area == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // (in case two maps ever share a fingerprint)
+    protected boolean matches(VikingTopology otherTopology, int[] continentOf, int[] bonuses)
+    {
+        if (!topology.sameAs(otherTopology) || !Arrays.equals(continents.bonuses, bonuses)) {
+            return false;
+        }
+        int[] ours = new int[continentOf.length];
+        Arrays.fill(ours, -1);
+        for (int continent=0; continent<continents.numContinents; continent++) {
+            for (int country : continents.countries[continent]) {
+                ours[country] = continent;
+            }
+        }
+        for (int country=0; country<continentOf.length; country++) {
+            int continent = continentOf[country];
+            if (ours[country] != (continent >= 0 && continent < bonuses.length ? continent : -1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over everything the analysis depends on
+    protected static long getFingerprint(VikingTopology topology, int[] continentOf, int[] bonuses)
+    {
+        long hash = 0xcbf29ce484222325L;
+        int[][] parts = {continentOf, bonuses, topology.adjoiningStart, topology.adjoining, topology.attackOutStart, topology.attackOut};
+        for (int[] part : parts) {
+            hash = (hash ^ part.length) * 0x100000001b3L;
+            for (int value : part) {
+                hash = (hash ^ value) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    // ---- the file ---- //
+
+    // the directory the analyses go in, or null if Lux wasn't started with -Dviking.mapcache=<directory>
+    public static File getDirectory()
+    {
+        String directory = System.getProperty(PROPERTY);
+        if (directory == null || directory.length() == 0) {
+            return null;
+        }
+        return new File(directory);
+    }
+
+    protected static File getFile(File directory, long fingerprint)
+    {
+        return new File(directory, "viking-map-" + String.format("%016x", fingerprint) + ".vmap");
+    }
+
+    // the analysis in the file for <fingerprint> (with <topology>, the map's as we've read it from the board),
+    // or null if there isn't one (or we can't read it)
+    protected static VikingMapAnalysis read(long fingerprint, VikingTopology topology)
+    {
+        File directory = getDirectory();
+        if (directory == null) {
+            return null;
+        }
+        File file = getFile(directory, fingerprint);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != fingerprint) {
+                    return null;
+                }
+                int numCountries = in.readInt();
+                int numContinents = in.readInt();
+                int[] bonuses = readList(in);
+                int[][] countries = readLists(in);
+                int[][] borders = readLists(in);
+                int[][] beyond = readLists(in);
+                int[][] neighbors = readLists(in);
+                int[][] smartAreas = readLists(in);
+                if (numCountries != topology.numCountries || bonuses.length != numContinents || smartAreas.length != numContinents) {
+                    return null;
+                }
+                VikingContinents continents = new VikingContinents(bonuses, countries, borders, beyond, neighbors);
+                VikingMapAnalysis analysis = new VikingMapAnalysis(fingerprint, topology, continents, smartAreas);
+                analysis.saved = true;
+                return analysis;
+            } finally {
+                in.close();
+            }
+        } catch (Exception e) { // a file that's damaged (or from some other version) is no worse than not having one
+            System.err.println("Viking: couldn't read the map analysis in " + file + " (" + e + ")");
+            return null;
+        }
+    }
+
+    // write the analysis to a file of its own (going through a temporary file, so another game never reads half a file)
+    protected void write()
+    {
+        File directory = getDirectory();
+        if (directory == null) {
+            return;
+        }
+        File file = getFile(directory, fingerprint);
+        File temp = null;
+        try {
+            directory.mkdirs();
+            temp = File.createTempFile("viking-map-", ".tmp", directory);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fingerprint);
+                out.writeInt(topology.numCountries);
+                out.writeInt(continents.numContinents);
+                writeList(out, continents.bonuses);
+                writeLists(out, continents.countries);
+                writeLists(out, continents.borders);
+                writeLists(out, continents.beyond);
+                writeLists(out, continents.neighbors);
+                writeLists(out, smartAreas);
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)) {
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException("couldn't rename " + temp);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Viking: couldn't write the map analysis to " + file + " (" + e + ")");
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    protected static void writeList(DataOutputStream out, int[] list) throws IOException
+    {
+        out.writeInt(list.length);
+        for (int value : list) {
+            out.writeInt(value);
+        }
+    }
+
+    // a list of lists goes as the starts (like VikingTopology's) and then all the lists one after another
+    protected static void writeLists(DataOutputStream out, int[][] lists) throws IOException
+    {
+        int[] starts = new int[lists.length + 1];
+        for (int i=0; i<lists.length; i++) {
+            starts[i+1] = starts[i] + lists[i].length;
+        }
+        writeList(out, starts);
+        out.writeInt(starts[lists.length]);
+        for (int[] list : lists) {
+            for (int value : list) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    protected static int[] readList(DataInputStream in) throws IOException
+    {
+        int[] list = new int[in.readInt()];
+        for (int i=0; i<list.length; i++) {
+            list[i] = in.readInt();
+        }
+        return list;
+    }
+
+    protected static int[][] readLists(DataInputStream in) throws IOException
+    {
+        int[] starts = readList(in);
+        int[] all = readList(in);
+        int[][] lists = new int[starts.length - 1][];
+        for (int i=0; i<lists.length; i++) {
+            lists[i] = Arrays.copyOfRange(all, starts[i], starts[i+1]);
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingObjective.java
+//
+//  Something placeArmies() can choose to spend armies on this turn: knocking out an enemy's continent bonus
+//  (VikingKnockoutObjective), taking over an area (VikingTakeoverObjective), grabbing a string of countries
+//  (VikingLandgrabObjective) or wiping out a player (VikingWipeoutObjective).
+//  Every objective has a cost (the armies we expect it to take) and a score (how much it's worth per army),
+//  which is what the objectives are sorted by; the rest depends on the kind of objective.
+//
+//  The summary line we chat out when debugging is only put together if somebody asks for it,
+//  so it needs the board model to look up names.
+//
+
+public abstract class VikingObjective
+{
+    protected VikingBoardModel model;
+
+    // the number of armies we expect it to take
+    protected int cost;
+
+    // how worthwhile it is; the objectives with the highest scores get picked first
+    protected float score;
+
+    protected String summary;
+
+    protected VikingObjective(VikingBoardModel model)
+    {
+        this.model = model;
+    }
+
+    public int getCost()
+    {
+        return cost;
+    }
+
+    public float getScore()
+    {
+        return score;
+    }
+
+    // a one-line description (just useful info for debugging)
+    public String getSummary()
+    {
+        if (summary == null) {
+            summary = buildSummary();
+        }
+        return summary;
+    }
+
+    protected abstract String buildSummary();
+
+    public String toString()
+    {
+        return getSummary();
+    }
+
+    // the score cut down to 6 characters, for summaries
+    protected static String formatScore(float score)
+    {
+        String scoreStr = "" + score;
+        return scoreStr.length() >= 6 ? scoreStr.substring(0, 6) : scoreStr;
+    }
+
+    // names without commas (they're confusing when we output a list of names)
+    protected String continentName(int continent)
+    {
+        return model.getContinentName(continent).replace(",","");
+    }
+
+    protected String countryName(int country)
+    {
+        if (country >= 0 && country < model.getNumberOfCountries()) {
+            return model.getCountryName(country).replace(",","");
+        }
+        return "" + country;
+    }
+}
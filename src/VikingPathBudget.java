@@ -0,0 +1,131 @@
+package com.sillysoft.lux.agent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//
+//  VikingPathBudget.java
+//
+//  How much one takeover path search (see Viking.getAreaTakeoverPaths()) is allowed to do: a number of terminal paths,
+//  and (if it's timed) a System.nanoTime() it has to be done by. Viking gives each turn a deadline, and each area it plans
+//  takes a share of what's left of it (see Viking.startAreaSearchClock()), so however many areas it plans and whatever shape
+//  they are, the searching in one turn takes about as long as it's allowed to, and one big area can't use up the time of the areas after it;
+//  when a search runs out of either, pickBestTakeoverPaths() picks what it can from the paths found so far,
+//  and plans the rest of the area with the takeover tree.
+//  If Lux was started with -Dviking.treecountries, areas that are obviously too big to search (see Viking.getLargestTakeoverGroup())
+//  go straight to the tree without a search, or a budget; that's off unless it's asked for, since the tree doesn't plan as well as the search.
+//  The searches from each of our countries in the area can run at the same time on different threads,
+//  so they all draw on one budget: the count is atomic, and once it's used up, every search sharing it stops.
+//  Whether the path count runs out only depends on how many paths there are in the whole area, not on which search found them first
+//  (though when it does run out, which paths were found before it did depends on how the threads got on, the same as with the deadline).
+//  Each search looks at the clock itself, every <CLOCK_INTERVAL> countries it goes on to (see checkClock()), not every so many paths,
+//  since an area can have long stretches with hardly any paths at the end of them.
+//
+//  Both limits can be set when Lux is started: -Dviking.maxpaths=<paths per area> and -Dviking.searchmillis=<milliseconds per turn>
+//  (0 for no time limit), and so can how big an area has to be to skip the search: -Dviking.treecountries=<enemy countries next to each other>
+//  (20 is a reasonable size, see DEFAULT_TREE_COUNTRIES; 0 plans every area with an enemy country in it with the tree).
+//  The offline tools turn the time limit off unless it's set (see offlineDefaults()),
+//  since with it on, how busy the machine is decides how a turn is planned, and their games have to come out the same every time.
+//
+
+public class VikingPathBudget
+{
+    public static final String MAX_PATHS_PROPERTY = "viking.maxpaths";
+    public static final String MILLIS_PROPERTY = "viking.searchmillis";
+    public static final String TREE_COUNTRIES_PROPERTY = "viking.treecountries";
+    public static final int DEFAULT_MAX_PATHS = 100000;
+    public static final int DEFAULT_MILLIS = 1000;
+    // no area is too big to search unless -Dviking.treecountries says so
+    // (a group of 20 enemy countries on a grid map has a few thousand paths through it, 25 has about 40000 and 30 has about 400000)
+    public static final int DEFAULT_TREE_COUNTRIES = Integer.MAX_VALUE;
+
+    // we only look at the clock every this many countries (it has to be a power of 2)
+    protected static final int CLOCK_INTERVAL = 64;
+
+    protected final int maxPaths;
+    protected final boolean timed;
+    protected final long deadline;
+    protected final AtomicInteger paths = new AtomicInteger();
+    protected volatile boolean exhausted;
+    protected volatile boolean outOfTime;
+
+    // a budget of just <maxPaths> paths
+    public VikingPathBudget(int maxPaths)
+    {
+        this.maxPaths = maxPaths;
+        this.timed = false;
+        this.deadline = 0;
+    }
+
+    // <maxPaths> paths, found before System.nanoTime() gets to <deadline>
+    public VikingPathBudget(int maxPaths, long deadline)
+    {
+        this.maxPaths = maxPaths;
+        this.timed = true;
+        this.deadline = deadline;
+        checkClock();
+    }
+
+    // count one more path; returns false if that's one more than the budget allows, or the time's up
+    // (the path shouldn't be used, and the search should stop)
+    public boolean takePath()
+    {
+        if (paths.incrementAndGet() > maxPaths) {
+            exhausted = true;
+            return false;
+        }
+        return !exhausted;
+    }
+
+    // look at the clock; returns false if the time's up (and the search should stop)
+    // (a search calls this every <CLOCK_INTERVAL> countries it goes on to)
+    public boolean checkClock()
+    {
+        if (timed && System.nanoTime() - deadline >= 0) {
+            outOfTime = true;
+            exhausted = true;
+        }
+        return !exhausted;
+    }
+
+    // true once the searches sharing the budget have found more paths than the budget allows, or the time's up
+    public boolean isExhausted()
+    {
+        return exhausted;
+    }
+
+    // true if it was the deadline that ended the search
+    public boolean isOutOfTime()
+    {
+        return outOfTime;
+    }
+
+    // the number of paths found so far (counting the one that went over, if one did)
+    public int getPathCount()
+    {
+        return paths.get();
+    }
+
+    // the limits Lux was started with (or the defaults)
+    public static int getMaxPathsSetting()
+    {
+        return Integer.getInteger(MAX_PATHS_PROPERTY, DEFAULT_MAX_PATHS);
+    }
+
+    public static int getMillisSetting()
+    {
+        return Integer.getInteger(MILLIS_PROPERTY, DEFAULT_MILLIS);
+    }
+
+    public static int getTreeCountriesSetting()
+    {
+        return Integer.getInteger(TREE_COUNTRIES_PROPERTY, DEFAULT_TREE_COUNTRIES);
+    }
+
+    // for the offline tools' main()s: no time limit unless one was asked for, so a seed always gives the same game
+    public static void offlineDefaults()
+    {
+        if (System.getProperty(MILLIS_PROPERTY) == null) {
+            System.setProperty(MILLIS_PROPERTY, "0");
+        }
+    }
+}
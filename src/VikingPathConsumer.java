@@ -0,0 +1,17 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingPathConsumer.java
+//
+//  Something that takes the terminal attack paths Viking's path search finds (see Viking.findAreaPaths()),
+//  one at a time, as soon as each one is found.
+//  The search hands over its own working buffer rather than a new array per path, so the path is only
+//  good until acceptPath() returns; copy it (e.g. Arrays.copyOf(path, length)) if you want to keep it.
+//
+
+public interface VikingPathConsumer
+{
+    // <path>[0] through <path>[length-1] is the next terminal path;
+    // return false to stop the search there, or true to keep it going
+    public boolean acceptPath(int[] path, int length);
+}
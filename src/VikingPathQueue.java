@@ -0,0 +1,133 @@
+package com.sillysoft.lux.agent;
+
+import java.util.Arrays;
+
+//
+//  VikingPathQueue.java
+//
+//  Lux's CountryPathStack, but for country codes instead of Country objects (so it works with any VikingBoardModel).
+//  Like CountryPathStack it's really a priority queue: pop() always gives back the country with the lowest value,
+//  and topValue()/topHistory() give the value and path it was pushed with.
+//  Countries pushed with the same value come off in the order they were pushed.
+//
+
+public class VikingPathQueue
+{
+    protected int[] countries;
+    protected int[] values;
+    protected int[][] histories;
+    protected long[] order;
+    protected int size;
+    protected long pushCount;
+
+    public VikingPathQueue()
+    {
+        countries = new int[16];
+        values = new int[16];
+        histories = new int[16][];
+        order = new long[16];
+    }
+
+    public void pushWithValueAndHistory(int country, int value, int[] history)
+    {
+        if (size == values.length) {
+            int newLength = size * 2;
+            countries = Arrays.copyOf(countries, newLength);
+            values = Arrays.copyOf(values, newLength);
+            histories = Arrays.copyOf(histories, newLength);
+            order = Arrays.copyOf(order, newLength);
+        }
+        int i = size++;
+        set(i, country, value, history, pushCount++);
+        siftUp(i);
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    // the value of the country pop() will return next
+    public int topValue()
+    {
+        return values[0];
+    }
+
+    // the history of the country pop() will return next
+    public int[] topHistory()
+    {
+        return histories[0];
+    }
+
+    // removes the lowest-valued country and returns it
+    public int pop()
+    {
+        int country = countries[0];
+        size--;
+        if (size > 0) {
+            set(0, countries[size], values[size], histories[size], order[size]);
+            siftDown(0);
+        }
+        histories[size] = null;
+        return country;
+    }
+
+    protected void set(int i, int country, int value, int[] history, long pushOrder)
+    {
+        countries[i] = country;
+        values[i] = value;
+        histories[i] = history;
+        order[i] = pushOrder;
+    }
+
+    protected boolean less(int a, int b)
+    {
+        return values[a] < values[b] || (values[a] == values[b] && order[a] < order[b]);
+    }
+
+    protected void swap(int a, int b)
+    {
+        int country = countries[a];
+        int value = values[a];
+        int[] history = histories[a];
+        long pushOrder = order[a];
+        set(a, countries[b], values[b], histories[b], order[b]);
+        set(b, country, value, history, pushOrder);
+    }
+
+    protected void siftUp(int i)
+    {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!less(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    protected void siftDown(int i)
+    {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            if (left + 1 < size && less(left + 1, left)) {
+                smallest = left + 1;
+            }
+            if (!less(smallest, i)) {
+                break;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+}
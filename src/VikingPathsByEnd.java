@@ -0,0 +1,89 @@
+package com.sillysoft.lux.agent;
+
+import java.util.*;
+
+//
+//  VikingPathsByEnd.java
+//
+//  Takes the terminal paths Viking's path search streams out (see Viking.findAreaPaths()) and keeps, for each country
+//  a path ends at, only the first of the longest paths ending there, plus the set of every country any path went through.
+//  That's all pickBestTakeoverPaths() can use: it always picks the first of the longest paths left (preferring one
+//  that ends on a border, which only depends on the end country), and once it picks one, it throws away every other path
+//  ending at a country that's covered, so the paths ending at a country all go at once; out of each of those groups,
+//  the only one it could ever pick is the first longest one. So instead of a copy of every path (there can be
+//  tens of thousands), we only keep one per country, and getPaths() gives them back in the order they were found.
+//
+
+public class VikingPathsByEnd implements VikingPathConsumer
+{
+    protected final int[][] bestPath;    // bestPath[c]: the first of the longest paths ending at c so far (or null)
+    protected final int[] foundAt;       // foundAt[c]: the number of paths we'd seen before bestPath[c]
+    protected final VikingCountrySet seen;
+    protected int pathCount;
+
+    public VikingPathsByEnd(int numCountries)
+    {
+        bestPath = new int[numCountries][];
+        foundAt = new int[numCountries];
+        seen = new VikingCountrySet(numCountries);
+    }
+
+    public boolean acceptPath(int[] path, int length)
+    {
+        for (int i=0; i<length; i++) {
+            seen.add(path[i]);
+        }
+        int end = path[length-1];
+        if (bestPath[end] == null || length > bestPath[end].length) {
+            bestPath[end] = Arrays.copyOf(path, length);
+            foundAt[end] = pathCount;
+        }
+        pathCount++;
+        return true;
+    }
+
+    // take in everything <other> kept, as if its paths had been found after ours
+    public void addAll(VikingPathsByEnd other)
+    {
+        for (int[] path : other.getPaths()) {
+            acceptPath(path, path.length);
+        }
+        seen.addAll(other.seen);
+    }
+
+    // true if any path we were given went through <country>
+    public boolean hasSeen(int country)
+    {
+        return seen.contains(country);
+    }
+
+    // the number of paths we were given (not just the ones we kept)
+    public int getPathCount()
+    {
+        return pathCount;
+    }
+
+    // the paths we kept, in the order they were found
+    public ArrayList<int[]> getPaths()
+    {
+        int kept = 0;
+        for (int[] path : bestPath) {
+            if (path != null) {
+                kept++;
+            }
+        }
+        long[] order = new long[kept]; // (when we found it, which country it ends at), so sorting them sorts by when
+        kept = 0;
+        for (int country=0; country<bestPath.length; country++) {
+            if (bestPath[country] != null) {
+                order[kept++] = ((long) foundAt[country] << 32) | country;
+            }
+        }
+        Arrays.sort(order);
+        ArrayList<int[]> paths = new ArrayList<int[]>(order.length);
+        for (long entry : order) {
+            paths.add(bestPath[(int) entry]);
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,113 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingPlayerIndex.java
+//
+//  Who owns what, by player: each player's countries, how many there are and how many armies are on them.
+//  Every VikingBoardSnapshot makes one as it copies the position, and when Viking places, attacks or fortifies,
+//  the snapshot tells the index about each country that changed (see update()), so the index always matches
+//  the board it's planning against without going around the whole board again.
+//  So "is this player still in the game?" and "how many armies does this player have?" are an array lookup,
+//  and a player's countries come out of a bitset of just what they own, instead of a trip around the whole board.
+//
+//  Each player's countries are kept as a VikingCountrySet, so they come back in ascending country code order
+//  (the same order a loop over the board finds them in), and moving a country from one player to another is two bit flips.
+//  Countries without an owner (or with an owner we don't know about) aren't in anyone's set.
+//
+
+public class VikingPlayerIndex
+{
+    protected final int numPlayers;
+    protected final VikingCountrySet[] countries;
+    protected final int[] counts;
+    protected final int[] armies;
+
+    public VikingPlayerIndex(VikingBoardModel board)
+    {
+        numPlayers = board.getNumberOfPlayers();
+        int numCountries = board.getNumberOfCountries();
+
+        countries = new VikingCountrySet[numPlayers];
+        for (int player=0; player<numPlayers; player++) {
+            countries[player] = new VikingCountrySet(numCountries);
+        }
+        counts = new int[numPlayers];
+        armies = new int[numPlayers];
+        for (int country=0; country<numCountries; country++) {
+            add(country, board.getOwner(country), board.getArmies(country));
+        }
+    }
+
+    // <country> went from <oldOwner> with <oldArmies> armies on it to <newOwner> with <newArmies>
+    public void update(int country, int oldOwner, int oldArmies, int newOwner, int newArmies)
+    {
+        remove(country, oldOwner, oldArmies);
+        add(country, newOwner, newArmies);
+    }
+
+    protected void add(int country, int owner, int countryArmies)
+    {
+        if (owner >= 0 && owner < numPlayers) {
+            countries[owner].add(country);
+            counts[owner]++;
+            armies[owner] += countryArmies;
+        }
+    }
+
+    protected void remove(int country, int owner, int countryArmies)
+    {
+        if (owner >= 0 && owner < numPlayers) {
+            countries[owner].remove(country);
+            counts[owner]--;
+            armies[owner] -= countryArmies;
+        }
+    }
+
+    // a player is still in the game as long as they own at least one country
+    public boolean isStillInTheGame(int player)
+    {
+        return getNumberOfCountries(player) > 0;
+    }
+
+    public int getNumberOfCountries(int player)
+    {
+        if (player < 0 || player >= numPlayers) {
+            return 0;
+        }
+        return counts[player];
+    }
+
+    // the total armies on all of <player>'s countries
+    public int getArmies(int player)
+    {
+        if (player < 0 || player >= numPlayers) {
+            return 0;
+        }
+        return armies[player];
+    }
+
+    // <player>'s countries as a set (or null for a player we don't know about);
+    // don't change the set you get back, since it's the index's own
+    public VikingCountrySet getCountrySet(int player)
+    {
+        if (player < 0 || player >= numPlayers) {
+            return null;
+        }
+        return countries[player];
+    }
+
+    // <player>'s countries as a new array, in ascending order
+    public int[] getCountries(int player)
+    {
+        if (player < 0 || player >= numPlayers) {
+            return new int[0];
+        }
+        int[] owned = new int[counts[player]];
+        int next = 0;
+        VikingCountrySet set = countries[player];
+        for (int country = set.nextCountry(0); country != -1; country = set.nextCountry(country + 1)) {
+            owned[next++] = country;
+        }
+        return owned;
+    }
+}
@@ -0,0 +1,352 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+//
+//  VikingProfiler.java
+//
+//  Keeps a latency histogram for each of Viking's callbacks and for the big stages of placeArmies(),
+//  so we can see which stage a slow turn is spending its time in.
+//  Timing a stage costs two System.nanoTime() calls and a few array increments, so it's always on;
+//  the histograms are written out at the end of the game if Lux is started with -Dviking.profile=<directory>
+//  (and DecisionReplay and the benchmarks can ask for them directly).
+//
+//  Each histogram has four buckets per power of two (so percentiles are good to within about 20%),
+//  which covers everything from 1 ns to hours in a couple hundred longs.
+//
+//  It can also count the bytes each stage allocates, and the bytes allocated on each turn,
+//  using the JVM's per-thread allocation counter. That's opt-in (-Dviking.allocations, or setCountingAllocations()),
+//  since reading the counter costs more than reading the clock.
+//
+
+public class VikingProfiler
+{
+    public static final String PROPERTY = "viking.profile";
+    public static final String ALLOCATIONS_PROPERTY = "viking.allocations";
+
+    // the callbacks
+    public static final int PICK_COUNTRY = 0;
+    public static final int PLACE_INITIAL_ARMIES = 1;
+    public static final int PLACE_ARMIES = 2;
+    public static final int ATTACK_PHASE = 3;
+    public static final int MOVE_ARMIES_IN = 4;
+    public static final int FORTIFY_PHASE = 5;
+    public static final int MESSAGE = 6;
+    // the stages of placeArmies()
+    public static final int SMART_AREAS = 7;
+    public static final int KNOCKOUTS = 8;
+    public static final int TAKEOVERS = 9;
+    public static final int LANDGRAB = 10;
+    public static final int WIPEOUTS = 11;
+    public static final int RECALCULATION = 12;
+    public static final int PLACE_ON_ROUTES = 13;
+    // the recalculation loop, by the type of objective being recalculated
+    public static final int RECALCULATE_KNOCKOUT = 14;
+    public static final int RECALCULATE_TAKEOVER = 15;
+    public static final int RECALCULATE_LANDGRAB = 16;
+    public static final int RECALCULATE_WIPEOUT = 17;
+
+    protected static final String[] STAGE_NAMES = {
+        "pickCountry",
+        "placeInitialArmies",
+        "placeArmies",
+        "attackPhase",
+        "moveArmiesIn",
+        "fortifyPhase",
+        "message",
+        "  calculateSmartAreas",
+        "  knockout objectives",
+        "  takeover objectives",
+        "  landgrab objective",
+        "  wipeout objectives",
+        "  recalculation loop",
+        "  placeArmiesOnRoutes",
+        "    knockout",
+        "    takeover",
+        "    landgrab",
+        "    wipeout"
+    };
+
+    // stages below this are the callbacks; the per-turn allocations are counted from those
+    protected static final int FIRST_SUB_STAGE = SMART_AREAS;
+
+    // 0-3 ns get a bucket each, then four per power of two up to 2^63
+    protected static final int NUM_BUCKETS = 252;
+
+    protected long[][] buckets;
+    protected long[] counts;
+    protected long[] totals;
+    protected long[] maxes;
+
+    // bytes allocated in each stage, and on each turn (indexed by turn count), when we're counting allocations
+    protected boolean countingAllocations;
+    protected com.sun.management.ThreadMXBean threads;
+    protected long[] allocated;
+    protected long[] allocatedByTurn;
+
+    // the allocation counter at the start of each stage that's running right now (stages nest, e.g. placeArmies in attackPhase)
+    protected long[] openAllocations;
+    protected int depth;
+
+    // to find out what turn it is
+    protected Board board;
+
+    public VikingProfiler()
+    {
+        buckets = new long[STAGE_NAMES.length][NUM_BUCKETS];
+        counts = new long[STAGE_NAMES.length];
+        totals = new long[STAGE_NAMES.length];
+        maxes = new long[STAGE_NAMES.length];
+        allocated = new long[STAGE_NAMES.length];
+        allocatedByTurn = new long[16];
+        openAllocations = new long[8];
+        setCountingAllocations(System.getProperty(ALLOCATIONS_PROPERTY) != null);
+    }
+
+    public void setBoard(Board board)
+    {
+        this.board = board;
+    }
+
+    // turn allocation counting on or off; it stays off if this JVM can't count allocations per thread
+    public void setCountingAllocations(boolean counting)
+    {
+        countingAllocations = false;
+        if (counting) {
+            try {
+                java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    threads = (com.sun.management.ThreadMXBean) bean;
+                    if (threads.isThreadAllocatedMemorySupported()) {
+                        threads.setThreadAllocatedMemoryEnabled(true);
+                        countingAllocations = threads.isThreadAllocatedMemoryEnabled();
+                    }
+                }
+            } catch (Throwable e) {
+                // not a HotSpot-style JVM; we just won't count allocations
+            }
+        }
+    }
+
+    public boolean isCountingAllocations()
+    {
+        return countingAllocations;
+    }
+
+    // call start() when a stage begins and pass what it returned to stop() when it ends,
+    // in a finally block, so a stage that throws doesn't leave the ones around it counting its allocations
+    public long start()
+    {
+        if (countingAllocations) {
+            if (depth == openAllocations.length) {
+                openAllocations = Arrays.copyOf(openAllocations, depth * 2);
+            }
+            openAllocations[depth] = getAllocatedBytes();
+        }
+        depth++;
+        return System.nanoTime();
+    }
+
+    public void stop(int stage, long started)
+    {
+        add(stage, System.nanoTime() - started);
+        if (depth > 0) {
+            depth--;
+            if (countingAllocations) {
+                long bytes = getAllocatedBytes() - openAllocations[depth];
+                allocated[stage] += bytes;
+                // count each turn's allocations from the outermost callbacks only, so nothing is counted twice
+                if (depth == 0 && stage < FIRST_SUB_STAGE && board != null) {
+                    addTurnAllocation(board.getTurnCount(), bytes);
+                }
+            }
+        }
+    }
+
+    protected long getAllocatedBytes()
+    {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    protected void addTurnAllocation(int turn, long bytes)
+    {
+        if (turn >= allocatedByTurn.length) {
+            allocatedByTurn = Arrays.copyOf(allocatedByTurn, Math.max(turn + 1, allocatedByTurn.length * 2));
+        }
+        allocatedByTurn[turn] += bytes;
+    }
+
+    public void add(int stage, long nanos)
+    {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[stage][getBucket(nanos)]++;
+        counts[stage]++;
+        totals[stage] += nanos;
+        if (nanos > maxes[stage]) {
+            maxes[stage] = nanos;
+        }
+    }
+
+    public void reset()
+    {
+        for (int stage=0; stage<STAGE_NAMES.length; stage++) {
+            Arrays.fill(buckets[stage], 0);
+            counts[stage] = 0;
+            totals[stage] = 0;
+            maxes[stage] = 0;
+            allocated[stage] = 0;
+        }
+        Arrays.fill(allocatedByTurn, 0);
+        depth = 0;
+    }
+
+    public static int getNumberOfStages()
+    {
+        return STAGE_NAMES.length;
+    }
+
+    public static String getStageName(int stage)
+    {
+        return STAGE_NAMES[stage].trim();
+    }
+
+    public long getCount(int stage)
+    {
+        return counts[stage];
+    }
+
+    public long getTotal(int stage)
+    {
+        return totals[stage];
+    }
+
+    public long getMax(int stage)
+    {
+        return maxes[stage];
+    }
+
+    // bytes allocated in <stage> (0 unless we're counting allocations)
+    public long getAllocated(int stage)
+    {
+        return allocated[stage];
+    }
+
+    // bytes allocated in our callbacks on turn <turn> (turn 0 is the picks and initial placement)
+    public long getAllocatedOnTurn(int turn)
+    {
+        return turn < allocatedByTurn.length ? allocatedByTurn[turn] : 0;
+    }
+
+    // the last turn we've counted any allocations on
+    public int getLastAllocationTurn()
+    {
+        for (int turn=allocatedByTurn.length-1; turn>0; turn--) {
+            if (allocatedByTurn[turn] != 0) {
+                return turn;
+            }
+        }
+        return 0;
+    }
+
+    // the time (in ns) that <percent>% of the timings of <stage> were at or under;
+    // it's the top of the bucket that percentile falls in, so it can be a bit high (but never more than the max)
+    public long getPercentile(int stage, double percent)
+    {
+        if (counts[stage] == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * counts[stage]));
+        long seen = 0;
+        for (int bucket=0; bucket<NUM_BUCKETS; bucket++) {
+            seen += buckets[stage][bucket];
+            if (seen >= rank) {
+                return Math.min(getBucketTop(bucket), maxes[stage]);
+            }
+        }
+        return maxes[stage];
+    }
+
+    protected static int getBucket(long nanos)
+    {
+        if (nanos < 4) {
+            return (int) nanos;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(nanos);
+        int quarter = (int) (nanos >>> (power - 2)) & 3;
+        return (power - 1) * 4 + quarter;
+    }
+
+    protected static long getBucketTop(int bucket)
+    {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int power = bucket / 4 + 1;
+        int quarter = bucket % 4;
+        long bottom = (4L + quarter) << (power - 2);
+        return bottom + (1L << (power - 2)) - 1;
+    }
+
+    // one line per stage that was timed at least once (times in ms),
+    // and if we're counting allocations, how much each stage allocated and how much was allocated on each turn
+    public void write(PrintStream out)
+    {
+        out.println(String.format("%-22s %8s %12s %10s %10s %10s %10s %10s%s",
+                "stage", "calls", "total ms", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                countingAllocations ? String.format(" %12s %12s", "alloc MB", "KB/call") : ""));
+        for (int stage=0; stage<STAGE_NAMES.length; stage++) {
+            if (counts[stage] == 0) {
+                continue;
+            }
+            out.println(String.format("%-22s %8d %12.2f %10.3f %10.3f %10.3f %10.3f %10.3f%s",
+                    STAGE_NAMES[stage], counts[stage], millis(totals[stage]), millis(totals[stage] / counts[stage]),
+                    millis(getPercentile(stage, 50)), millis(getPercentile(stage, 90)),
+                    millis(getPercentile(stage, 99)), millis(maxes[stage]),
+                    countingAllocations ? String.format(" %12.2f %12.1f", allocated[stage] / 1048576.0, allocated[stage] / 1024.0 / counts[stage]) : ""));
+        }
+
+        if (countingAllocations) {
+            out.println();
+            out.println(String.format("%-6s %12s", "turn", "alloc MB"));
+            for (int turn=0; turn<=getLastAllocationTurn(); turn++) {
+                if (allocatedByTurn[turn] != 0) {
+                    out.println(String.format("%-6d %12.2f", turn, allocatedByTurn[turn] / 1048576.0));
+                }
+            }
+        }
+    }
+
+    // write the histograms to a new file in the -Dviking.profile directory, if there is one; returns the file (or null)
+    public File dump(String playerName, int ID)
+    {
+        String directory = System.getProperty(PROPERTY);
+        if (directory == null || directory.length() == 0) {
+            return null;
+        }
+        try {
+            File dir = new File(directory);
+            dir.mkdirs();
+            String time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            File file = File.createTempFile("viking-" + time + "-p" + ID + "-", ".txt", dir);
+            PrintStream out = new PrintStream(new FileOutputStream(file), false, "UTF-8");
+            out.println("# Viking callback timings for " + playerName);
+            write(out);
+            out.close();
+            return file;
+        } catch (Exception e) {
+            System.err.println("Viking: can't write timings: " + e);
+            return null;
+        }
+    }
+
+    protected static double millis(long nanos)
+    {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sillysoft.lux.agent;
+
+import java.util.Random;
+
+//
+//  VikingRandom.java
+//
+//  A java.util.Random whose state we can read and put back, so a recorded turn can be replayed
+//  with Viking making exactly the same random choices it made in the real game.
+//  It uses the same generator as java.util.Random, so for a given seed it gives the same numbers.
+//
+
+public class VikingRandom extends Random
+{
+    private static final long serialVersionUID = 1L;
+
+    protected static final long MULTIPLIER = 0x5DEECE66DL;
+    protected static final long ADDEND = 0xBL;
+    protected static final long MASK = (1L << 48) - 1;
+
+    // the 48-bit generator state
+    // (no initializer: Random's constructor calls setSeed() before our fields would be initialized)
+    protected long state;
+
+    public VikingRandom()
+    {
+        super();
+    }
+
+    public VikingRandom(long seed)
+    {
+        super(seed);
+    }
+
+    public synchronized void setSeed(long seed)
+    {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    protected synchronized int next(int bits)
+    {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    // the raw generator state (not a seed: pass it back to setState(), not setSeed())
+    public synchronized long getState()
+    {
+        return state;
+    }
+
+    public synchronized void setState(long state)
+    {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,202 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+//
+//  VikingRecorder.java
+//
+//  Writes down everything a Viking needs to make a decision, every time the game calls it,
+//  so that a turn from a real game (e.g. a slow one) can be replayed later with DecisionReplay.
+//
+//  Recording is off unless Lux is started with -Dviking.record=<directory>,
+//  or somebody types "viking record on" in the chat ("viking record off" stops it).
+//  Each Viking writes its own file per game; it starts with the map, so the replay doesn't need the map file:
+//
+//    viking <ID>
+//    map <title>
+//    continents <n>
+//    <bonus> <name>                                  (one line per continent)
+//    countries <n>
+//    <continent> <k> <goto 1> ... <goto k> <name>    (one line per country; the countries it can attack or fortify to)
+//    players <n>
+//    <agent name>                                    (one line per player)
+//
+//  and then one block per callback, written before the callback runs:
+//
+//    call <number> <callback> [<argument>]
+//    turn 9
+//    rand <state>                (the VikingRandom state, see VikingRandom.getState())
+//    cardvalue 10                (the board's next card set value)
+//    cards 2 0 4 1               (cards held by each player)
+//    board <n>
+//    <owner> <armies>            (one line per country)
+//    borderarmies <code>:<armies> ...
+//    idealborderarmies <code>:<armies> ...
+//    allies <player> ...
+//    flags <firstPlacement> <isTeamingOn> <isTeamingWithHumans> <madeUserAnnouncement>
+//    leavearmies <n>
+//    battleplan <n>
+//    <code> <code> ...           (one line per route)
+//
+//  followed by "took <number> <microseconds>" once the callback returns
+//  (a placeArmies() that happens in the middle of attackPhase() gets its own block inside the attackPhase() one).
+//  moveArmiesIn() isn't recorded: it's only ever called from inside attackPhase(), which is.
+//
+
+public class VikingRecorder
+{
+    public static final String PROPERTY = "viking.record";
+
+    protected Viking viking;
+    protected Board board;
+    protected Country[] countries;
+    protected PrintWriter out;
+    protected File file;
+
+    // the number of the next call, and the calls that have started but not returned yet
+    protected int callCount;
+    protected ArrayList<long[]> openCalls;
+
+    // start recording <viking>'s game into a new file in <directory>
+    public VikingRecorder(Viking viking, File directory) throws IOException
+    {
+        this.viking = viking;
+        board = viking.board;
+        countries = board.getCountries();
+        openCalls = new ArrayList<long[]>();
+
+        directory.mkdirs();
+        String time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        file = File.createTempFile("viking-" + time + "-p" + viking.ID + "-", ".vrec", directory);
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")));
+        writeHeader();
+    }
+
+    // where recordings go when nobody said (when recording is turned on from the chat)
+    public static File getDirectory()
+    {
+        String directory = System.getProperty(PROPERTY);
+        if (directory == null || directory.length() == 0) {
+            return new File(System.getProperty("user.home"), "VikingRecords");
+        }
+        return new File(directory);
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    protected void writeHeader()
+    {
+        out.println("# Viking decision record; replay with DecisionReplay");
+        out.println("viking " + viking.ID);
+        out.println("map " + board.getMapTitle());
+        int numConts = board.getNumberOfContinents();
+        out.println("continents " + numConts);
+        for (int cont=0; cont<numConts; cont++) {
+            out.println(board.getContinentBonus(cont) + " " + board.getContinentName(cont));
+        }
+        out.println("countries " + countries.length);
+        for (Country country : countries) {
+            StringBuilder line = new StringBuilder();
+            line.append(country.getContinent());
+            ArrayList<Integer> gotos = new ArrayList<Integer>();
+            for (int neighbor : country.getAdjoiningCodeList()) {
+                if (country.canGoto(neighbor)) {
+                    gotos.add(neighbor);
+                }
+            }
+            line.append(' ').append(gotos.size());
+            for (int neighbor : gotos) {
+                line.append(' ').append(neighbor);
+            }
+            line.append(' ').append(country.getName());
+            out.println(line);
+        }
+        int numPlayers = board.getNumberOfPlayers();
+        out.println("players " + numPlayers);
+        for (int player=0; player<numPlayers; player++) {
+            out.println(board.getAgentName(player));
+        }
+        out.flush();
+    }
+
+    // write down the state Viking is in right before <callback> runs
+    // (<argument> is the number of armies for the placement callbacks, and ignored if it's negative)
+    public void begin(String callback, int argument)
+    {
+        int call = callCount++;
+        out.println("call " + call + " " + callback + (argument >= 0 ? " " + argument : ""));
+        out.println("turn " + board.getTurnCount());
+        if (viking.rand instanceof VikingRandom) {
+            out.println("rand " + ((VikingRandom) viking.rand).getState());
+        }
+        out.println("cardvalue " + board.getNextCardSetValue());
+        StringBuilder cards = new StringBuilder("cards");
+        for (int player=0; player<board.getNumberOfPlayers(); player++) {
+            cards.append(' ').append(board.getPlayerCards(player));
+        }
+        out.println(cards);
+
+        out.println("board " + countries.length);
+        for (Country country : countries) {
+            out.println(country.getOwner() + " " + country.getArmies());
+        }
+
+        out.println("borderarmies" + formatArmies(viking.borderArmies));
+        out.println("idealborderarmies" + formatArmies(viking.idealBorderArmies));
+        StringBuilder allies = new StringBuilder("allies");
+        for (int ally : viking.allies) {
+            allies.append(' ').append(ally);
+        }
+        out.println(allies);
+        out.println("flags " + viking.firstPlacement + " " + viking.isTeamingOn + " " + viking.isTeamingWithHumans + " " + viking.madeUserAnnouncement);
+        out.println("leavearmies " + viking.leaveArmies);
+        out.println("battleplan " + viking.battlePlan.size());
+        for (int[] route : viking.battlePlan) {
+            StringBuilder line = new StringBuilder();
+            for (int i=0; i<route.length; i++) {
+                line.append(i == 0 ? "" : " ").append(route[i]);
+            }
+            out.println(line);
+        }
+        out.flush(); // so the block is on disk even if the callback never comes back
+
+        openCalls.add(new long[] {call, System.nanoTime()});
+    }
+
+    // the callback that was begun last has returned
+    public void end()
+    {
+        if (openCalls.isEmpty()) {
+            return;
+        }
+        long[] call = openCalls.remove(openCalls.size() - 1);
+        out.println("took " + call[0] + " " + (System.nanoTime() - call[1]) / 1000);
+        out.flush();
+    }
+
+    // true if something went wrong writing the file (a full disk, say), in which case we should stop recording
+    public boolean hasFailed()
+    {
+        return out.checkError();
+    }
+
+    public void close()
+    {
+        out.close();
+    }
+
+    protected static String formatArmies(Map<Integer, Integer> armies)
+    {
+        StringBuilder line = new StringBuilder();
+        for (Map.Entry<Integer, Integer> entry : armies.entrySet()) {
+            line.append(' ').append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.sillysoft.lux.agent;
+
+import java.util.Arrays;
+
+//
+//  VikingTakeoverObjective.java
+//
+//  A VikingObjective to take over (and garrison the borders of) one of our smart areas
+//  (see Viking.calculateTakeoverObjective()).
+//
+
+public class VikingTakeoverObjective extends VikingObjective
+{
+    // the countries to take over
+    protected final int[] area;
+
+    // the continents entirely inside <area>
+    protected int[] continentIDs;
+
+    protected int bonus;
+    protected int numBorders;
+
+    // the parts of the score, for the summary
+    protected float guardedKeepChance;
+    protected float enemyLoss;
+    protected float alliedLoss;
+
+    public VikingTakeoverObjective(VikingBoardModel model, int[] area)
+    {
+        super(model);
+        this.area = area;
+    }
+
+    public int[] getArea()
+    {
+        return area;
+    }
+
+    protected String buildSummary()
+    {
+        String[] names = new String[continentIDs.length];
+        for (int i=0; i<names.length; i++) {
+            names[i] = continentName(continentIDs[i]);
+        }
+        return "takeover  - score: " + formatScore(score)
+            + " - " + Arrays.toString(names) + ", "
+            + "bonus: " + bonus + ", cost: " + cost
+            + ", keepChance: " + guardedKeepChance
+            + ", eLoss: " + enemyLoss + ", aLoss: " + alliedLoss;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sillysoft.lux.agent;
+
+import java.util.Arrays;
+
+//
+//  VikingTopology.java
+//
+//  Which countries touch which, worked out once per game (VikingLuxBoard builds it in setPrefs) and shared
+//  by the live board and every snapshot of it. Each kind of neighbor list is stored compressed-sparse-row style:
+//  one big array with every country's list one after another, and a start array where country c's list
+//  runs from start[c] up to (but not including) start[c+1]. So the planner loops over neighbors like this,
+//  without getting (or allocating) an array per country:
+//
+//      for (int i=topology.attackInStart[country]; i<topology.attackInStart[country+1]; i++) {
+//          int neighbor = topology.attackIn[i];
+//          ...
+//      }
+//
+//  adjoining: every country that borders c, either way (Lux's getAdjoiningCodeList() order)
+//  attackOut: the neighbors c can attack (or fortify) into, i.e. the ones c canGoto()
+//  attackIn:  the neighbors that can attack into c (BoardHelper.getAttackList())
+//  On maps without one-way connections attackOut and attackIn are the same as adjoining.
+//  All three keep adjoining order, so code that loops through them finds countries in the same order it used to.
+//  Nothing changes these arrays after the constructor, so don't write to them.
+//
+
+public class VikingTopology
+{
+    protected final int numCountries;
+    protected final int[] adjoiningStart;
+    protected final int[] adjoining;
+    protected final int[] attackOutStart;
+    protected final int[] attackOut;
+    protected final int[] attackInStart;
+    protected final int[] attackIn;
+
+    // <adjoiningLists> has each country's adjoining codes; gotoLists[c] has the ones c can goto
+    public VikingTopology(int[][] adjoiningLists, int[][] gotoLists)
+    {
+        numCountries = adjoiningLists.length;
+
+        int total = 0;
+        for (int[] list : adjoiningLists) {
+            total += list.length;
+        }
+        adjoiningStart = new int[numCountries + 1];
+        adjoining = new int[total];
+        int next = 0;
+        for (int country=0; country<numCountries; country++) {
+            adjoiningStart[country] = next;
+            for (int neighbor : adjoiningLists[country]) {
+                adjoining[next++] = neighbor;
+            }
+        }
+        adjoiningStart[numCountries] = next;
+
+        // attack-out: the adjoining countries that are also in the goto list
+        attackOutStart = new int[numCountries + 1];
+        int[] out = new int[total];
+        next = 0;
+        for (int country=0; country<numCountries; country++) {
+            attackOutStart[country] = next;
+            for (int i=adjoiningStart[country]; i<adjoiningStart[country+1]; i++) {
+                if (contains(gotoLists[country], adjoining[i])) {
+                    out[next++] = adjoining[i];
+                }
+            }
+        }
+        attackOutStart[numCountries] = next;
+        attackOut = Arrays.copyOf(out, next);
+
+        // attack-in: the adjoining countries that can goto this one
+        attackInStart = new int[numCountries + 1];
+        int[] in = new int[total];
+        next = 0;
+        for (int country=0; country<numCountries; country++) {
+            attackInStart[country] = next;
+            for (int i=adjoiningStart[country]; i<adjoiningStart[country+1]; i++) {
+                if (contains(gotoLists[adjoining[i]], country)) {
+                    in[next++] = adjoining[i];
+                }
+            }
+        }
+        attackInStart[numCountries] = next;
+        attackIn = Arrays.copyOf(in, next);
+    }
+
+    // true if <other> describes exactly the same map
+    public boolean sameAs(VikingTopology other)
+    {
+        return Arrays.equals(adjoiningStart, other.adjoiningStart) && Arrays.equals(adjoining, other.adjoining)
+            && Arrays.equals(attackOutStart, other.attackOutStart) && Arrays.equals(attackOut, other.attackOut)
+            && Arrays.equals(attackInStart, other.attackInStart) && Arrays.equals(attackIn, other.attackIn);
+    }
+
+    protected static boolean contains(int[] list, int value)
+    {
+        for (int element : list) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getNumberOfCountries()
+    {
+        return numCountries;
+    }
+
+    // true if <from> can attack (and fortify) <to>
+    public boolean canGoto(int from, int to)
+    {
+        for (int i=attackOutStart[from]; i<attackOutStart[from+1]; i++) {
+            if (attackOut[i] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the lists as new arrays, for the (few) callers that want to keep or change one
+    public int[] getAdjoiningList(int country)
+    {
+        return Arrays.copyOfRange(adjoining, adjoiningStart[country], adjoiningStart[country+1]);
+    }
+
+    public int[] getAttackOutList(int country)
+    {
+        return Arrays.copyOfRange(attackOut, attackOutStart[country], attackOutStart[country+1]);
+    }
+
+    public int[] getAttackInList(int country)
+    {
+        return Arrays.copyOfRange(attackIn, attackInStart[country], attackInStart[country+1]);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sillysoft.lux.agent;
+
+//
+//  VikingWipeoutObjective.java
+//
+//  A VikingObjective to take every country a player has (and their cards)
+//  (see Viking.calculateWipeoutObjective()).
+//
+
+public class VikingWipeoutObjective extends VikingObjective
+{
+    protected final int player;
+
+    // every country <player> owns
+    protected int[] area;
+
+    public VikingWipeoutObjective(VikingBoardModel model, int player)
+    {
+        super(model);
+        this.player = player;
+    }
+
+    public int getPlayer()
+    {
+        return player;
+    }
+
+    protected String buildSummary()
+    {
+        return "wipeout   - score: " + formatScore(score)
+            + " - " + model.getPlayerName(player) + ", cost: " + cost;
+    }
+}
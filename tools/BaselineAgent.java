@@ -0,0 +1,196 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import com.sillysoft.lux.util.*;
+import java.util.*;
+
+//
+//  BaselineAgent.java
+//
+//  A deliberately simple opponent for tournaments, so we have something fixed to measure Viking against.
+//  It plays a straightforward greedy game:
+//    - picks and reinforces whichever of its countries has the most enemy neighbors
+//    - attacks any neighbor it outnumbers by more than <ATTACK_MARGIN>, strongest attacks first
+//    - fortifies interior armies towards the nearest border
+//  It makes no plans between phases and doesn't use any randomness except its own seeded <rand>,
+//  so its games are as reproducible as the board's dice.
+//
+
+public class BaselineAgent implements LuxAgent
+{
+    // we attack when we have at least this many more armies than the defender
+    protected static final int ATTACK_MARGIN = 2;
+
+    protected int ID;
+    protected Board board;
+    protected Country[] countries;
+    protected Random rand;
+
+    public BaselineAgent()
+    {
+        rand = new Random();
+    }
+
+    public void setPrefs(int newID, Board theboard) {
+        ID = newID;
+        board = theboard;
+        countries = board.getCountries();
+    }
+
+    public String name() {
+        return "Baseline";
+    }
+
+    public float version() {
+        return 1.0f;
+    }
+
+    public String description() {
+        return "Greedy reference opponent for headless tournaments";
+    }
+
+    // pick the unowned country with the most neighbors we already own, so our countries clump together
+    public int pickCountry() {
+        int best = -1;
+        int bestScore = -1;
+        for (Country country : countries) {
+            if (country.getOwner() != -1) {
+                continue;
+            }
+            int score = country.getNumberPlayerNeighbors(ID) * 10 + rand.nextInt(10);
+            if (score > bestScore) {
+                bestScore = score;
+                best = country.getCode();
+            }
+        }
+        return best;
+    }
+
+    public void placeInitialArmies(int numberOfArmies) {
+        placeArmies(numberOfArmies);
+    }
+
+    public void cardsPhase(Card[] cards) {
+    }
+
+    // put everything on the border country that has the most enemy armies around it
+    public void placeArmies(int numberOfArmies) {
+        int best = -1;
+        int bestThreat = -1;
+        CountryIterator ours = new PlayerIterator(ID, countries);
+        while (ours.hasNext()) {
+            Country country = ours.next();
+            int threat = getEnemyArmiesAround(country);
+            if (threat > bestThreat) {
+                bestThreat = threat;
+                best = country.getCode();
+            }
+        }
+        if (best != -1) {
+            board.placeArmies(numberOfArmies, best);
+        }
+    }
+
+    // keep attacking the weakest neighbor of our strongest country until no attack looks good
+    public void attackPhase() {
+        boolean attacked = true;
+        while (attacked) {
+            attacked = false;
+            int bestAttacker = -1;
+            int bestDefender = -1;
+            int bestMargin = ATTACK_MARGIN - 1;
+            for (Country country : countries) {
+                if (country.getOwner() != ID || country.getArmies() < 2) {
+                    continue;
+                }
+                for (int neighbor : country.getAdjoiningCodeList()) {
+                    if (countries[neighbor].getOwner() != ID && country.canGoto(neighbor)) {
+                        int margin = country.getArmies() - countries[neighbor].getArmies();
+                        if (margin > bestMargin) {
+                            bestMargin = margin;
+                            bestAttacker = country.getCode();
+                            bestDefender = neighbor;
+                        }
+                    }
+                }
+            }
+            if (bestAttacker != -1) {
+                board.attack(bestAttacker, bestDefender, true);
+                attacked = true;
+            }
+        }
+    }
+
+    // move everything into the conquered country if it has more enemies around it than the attacker does
+    public int moveArmiesIn(int attackerCode, int defenderCode) {
+        if (getEnemyArmiesAround(countries[defenderCode]) >= getEnemyArmiesAround(countries[attackerCode])) {
+            return countries[attackerCode].getArmies() - 1;
+        }
+        return 0;
+    }
+
+    // move the armies of interior countries one step towards a country that has an enemy neighbor
+    public void fortifyPhase() {
+        for (Country country : countries) {
+            if (country.getOwner() != ID || country.getMoveableArmies() < 2 || getEnemyArmiesAround(country) > 0) {
+                continue;
+            }
+            int[] path = pathToBorder(country.getCode());
+            if (path != null && path.length > 1) {
+                int armies = Math.min(country.getMoveableArmies(), country.getArmies() - 1);
+                board.fortifyArmies(armies, path[0], path[1]);
+            }
+        }
+    }
+
+    public String youWon() {
+        return "Baseline wins.";
+    }
+
+    public String message(String message, Object data) {
+        return null;
+    }
+
+    // the total armies of enemy countries that can attack <country>
+    protected int getEnemyArmiesAround(Country country) {
+        int armies = 0;
+        int[] attackers = BoardHelper.getAttackList(country, countries);
+        for (int attacker : attackers) {
+            if (countries[attacker].getOwner() != ID) {
+                armies += countries[attacker].getArmies();
+            }
+        }
+        return armies;
+    }
+
+    // breadth-first search through our own countries for the closest one with an enemy neighbor;
+    // returns the path there (starting with <start>), or null if there isn't one
+    protected int[] pathToBorder(int start) {
+        int[] previous = new int[countries.length];
+        Arrays.fill(previous, -2);
+        previous[start] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int code = queue.poll();
+            if (code != start && getEnemyArmiesAround(countries[code]) > 0) {
+                ArrayList<Integer> path = new ArrayList<Integer>();
+                for (int c = code; c != -1; c = previous[c]) {
+                    path.add(0, c);
+                }
+                int[] result = new int[path.size()];
+                for (int i=0; i<result.length; i++) {
+                    result[i] = path.get(i);
+                }
+                return result;
+            }
+            for (int neighbor : countries[code].getAdjoiningCodeList()) {
+                if (previous[neighbor] == -2 && countries[neighbor].getOwner() == ID && countries[code].canGoto(neighbor)) {
+                    previous[neighbor] = code;
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return null;
+    }
+}
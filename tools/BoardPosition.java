@@ -0,0 +1,185 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+
+//
+//  BoardPosition.java
+//
+//  A snapshot of a game at the start of one player's turn, saved as a small text file:
+//
+//    # any comment
+//    map grid:1000:1            (a MapGenerator spec, or a .luxb path relative to the position file)
+//    players 4
+//    player 2                   (whose turn it is)
+//    turn 9
+//    seed 12345                 (seeds the dice and the agents when the position is replayed)
+//    cardsets 3                 (card sets cashed so far)
+//    cards 2 0 4 1              (cards held by each player)
+//    countries 1000
+//    <owner> <armies>           (one line per country, in country code order)
+//    ...
+//
+//  Positions are what the turn latency benchmark runs on; createGame() puts them back on a board.
+//
+
+public class BoardPosition
+{
+    public String mapSpec;
+    public int numPlayers;
+    public int player;
+    public int turn;
+    public long seed;
+    public int cardSets;
+    public int[] cards;
+    public int[] owners;
+    public int[] armies;
+
+    // the file this position was loaded from, so relative map paths can be resolved
+    protected File source;
+
+    // capture the board as it is right now, with <player> about to take their turn
+    public static BoardPosition capture(HeadlessGame game, String mapSpec, int player, long seed) {
+        Board board = game.getBoard();
+        Country[] countries = board.getCountries();
+        BoardPosition position = new BoardPosition();
+        position.mapSpec = mapSpec;
+        position.numPlayers = board.getNumberOfPlayers();
+        position.player = player;
+        position.turn = game.getNextTurnCount();
+        position.seed = seed;
+        position.cardSets = game.getCardSetsCashed();
+        position.cards = new int[position.numPlayers];
+        for (int p=0; p<position.numPlayers; p++) {
+            position.cards[p] = board.getPlayerCards(p);
+        }
+        position.owners = new int[countries.length];
+        position.armies = new int[countries.length];
+        for (int code=0; code<countries.length; code++) {
+            position.owners[code] = countries[code].getOwner();
+            position.armies[code] = countries[code].getArmies();
+        }
+        return position;
+    }
+
+    public LuxMap loadMap() throws IOException {
+        if (MapGenerator.isSpec(mapSpec)) {
+            return MapGenerator.generate(mapSpec);
+        }
+        File file = new File(mapSpec);
+        if (!file.isAbsolute() && source != null && !file.exists()) {
+            file = new File(source.getParentFile(), mapSpec);
+        }
+        return LuxMap.load(file);
+    }
+
+    // set up a game in this position with the given agents, ready for <player>'s turn
+    public HeadlessGame createGame(LuxMap map, LuxAgent[] agents) {
+        if (agents.length != numPlayers) {
+            throw new IllegalArgumentException("BoardPosition: position has " + numPlayers + " players, got " + agents.length + " agents");
+        }
+        HeadlessGame game = new HeadlessGame(map, agents, seed);
+        game.setupPosition(owners, armies, turn, player);
+        game.setCardSetsCashed(cardSets);
+        for (int p=0; p<numPlayers; p++) {
+            game.dealCards(p, cards[p]);
+        }
+        return game;
+    }
+
+    public int getNumberOfCountries() {
+        return owners.length;
+    }
+
+    public void save(File file) throws IOException {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)));
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+        if (out.checkError()) {
+            throw new IOException("BoardPosition: error writing " + file);
+        }
+    }
+
+    public void write(PrintWriter out) {
+        out.println("map " + mapSpec);
+        out.println("players " + numPlayers);
+        out.println("player " + player);
+        out.println("turn " + turn);
+        out.println("seed " + seed);
+        out.println("cardsets " + cardSets);
+        StringBuilder cardList = new StringBuilder("cards");
+        for (int count : cards) {
+            cardList.append(' ').append(count);
+        }
+        out.println(cardList);
+        out.println("countries " + owners.length);
+        for (int code=0; code<owners.length; code++) {
+            out.println(owners[code] + " " + armies[code]);
+        }
+    }
+
+    public static BoardPosition load(File file) throws IOException {
+        BufferedReader in = new BufferedReader(new FileReader(file));
+        try {
+            BoardPosition position = read(in);
+            position.source = file;
+            return position;
+        } finally {
+            in.close();
+        }
+    }
+
+    public static BoardPosition read(BufferedReader in) throws IOException {
+        BoardPosition position = new BoardPosition();
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            String key = fields[0];
+            if (key.equals("map")) {
+                position.mapSpec = line.substring(4).trim();
+            } else if (key.equals("players")) {
+                position.numPlayers = Integer.parseInt(fields[1]);
+            } else if (key.equals("player")) {
+                position.player = Integer.parseInt(fields[1]);
+            } else if (key.equals("turn")) {
+                position.turn = Integer.parseInt(fields[1]);
+            } else if (key.equals("seed")) {
+                position.seed = Long.parseLong(fields[1]);
+            } else if (key.equals("cardsets")) {
+                position.cardSets = Integer.parseInt(fields[1]);
+            } else if (key.equals("cards")) {
+                position.cards = new int[fields.length - 1];
+                for (int i=1; i<fields.length; i++) {
+                    position.cards[i-1] = Integer.parseInt(fields[i]);
+                }
+            } else if (key.equals("countries")) {
+                int size = Integer.parseInt(fields[1]);
+                position.owners = new int[size];
+                position.armies = new int[size];
+                for (int code=0; code<size; code++) {
+                    String[] country = in.readLine().trim().split("\\s+");
+                    position.owners[code] = Integer.parseInt(country[0]);
+                    position.armies[code] = Integer.parseInt(country[1]);
+                }
+                break; // the countries come last
+            } else {
+                throw new IOException("BoardPosition: unknown line: " + line);
+            }
+        }
+        if (position.mapSpec == null || position.owners == null) {
+            throw new IOException("BoardPosition: incomplete position");
+        }
+        if (position.cards == null) {
+            position.cards = new int[position.numPlayers];
+        }
+        return position;
+    }
+}
@@ -0,0 +1,259 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+
+//
+//  DecisionRecord.java
+//
+//  A file written by VikingRecorder, read back in: the map the game was played on,
+//  and the state Viking was in at each callback (see VikingRecorder for the format).
+//  DecisionReplay uses it to put a Viking back in one of those states and run the callback again.
+//
+
+public class DecisionRecord
+{
+    // one recorded callback
+    public static class Call
+    {
+        public int number;
+        public String callback;
+        public int argument = -1;
+        public int turn;
+        public boolean hasRand;
+        public long rand;
+        public int cardValue;
+        public int[] cards;
+        public int[] owners;
+        public int[] armies;
+        public LinkedHashMap<Integer, Integer> borderArmies = new LinkedHashMap<Integer, Integer>();
+        public LinkedHashMap<Integer, Integer> idealBorderArmies = new LinkedHashMap<Integer, Integer>();
+        public ArrayList<Integer> allies = new ArrayList<Integer>();
+        public boolean firstPlacement;
+        public boolean isTeamingOn;
+        public boolean isTeamingWithHumans;
+        public boolean madeUserAnnouncement;
+        public int leaveArmies;
+        public ArrayList<int[]> battlePlan = new ArrayList<int[]>();
+        // how long the callback took in the real game, or -1 if it never returned
+        public long micros = -1;
+        // false if the file ends partway through this call (the game was killed while it was being written, say)
+        public boolean complete;
+
+        public String toString() {
+            return "call " + number + " " + callback + (argument >= 0 ? "(" + argument + ")" : "()") + " on turn " + turn;
+        }
+    }
+
+    public int player;
+    public LuxMap map;
+    public String[] agentNames;
+    public ArrayList<Call> calls = new ArrayList<Call>();
+
+    public Call getCall(int number) {
+        for (Call call : calls) {
+            if (call.number == number) {
+                return call;
+            }
+        }
+        return null;
+    }
+
+    // the call that took longest in the real game (only counting calls that returned)
+    public Call getSlowestCall() {
+        Call slowest = null;
+        for (Call call : calls) {
+            if (call.micros >= 0 && (slowest == null || call.micros > slowest.micros)) {
+                slowest = call;
+            }
+        }
+        return slowest;
+    }
+
+    // the call that was recorded right after <call>, or null
+    public Call getNextCall(Call call) {
+        int index = calls.indexOf(call);
+        return index >= 0 && index + 1 < calls.size() ? calls.get(index + 1) : null;
+    }
+
+    public static DecisionRecord load(File file) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static DecisionRecord read(BufferedReader in) throws IOException {
+        DecisionRecord record = new DecisionRecord();
+        String title = null;
+        String[] continentNames = null;
+        int[] continentBonuses = null;
+        String[] countryNames = null;
+        int[] countryContinents = null;
+        int[][] gotoLists = null;
+        Call call = null;
+
+        String line;
+        try {
+            while ((line = in.readLine()) != null) {
+                if (line.trim().length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.trim().split("\\s+");
+                String key = fields[0];
+                if (key.equals("viking")) {
+                    record.player = Integer.parseInt(fields[1]);
+                } else if (key.equals("map")) {
+                    title = restOfLine(line, 1);
+                } else if (key.equals("continents")) {
+                    int size = Integer.parseInt(fields[1]);
+                    continentNames = new String[size];
+                    continentBonuses = new int[size];
+                    for (int cont=0; cont<size; cont++) {
+                        String contLine = nextLine(in);
+                        continentBonuses[cont] = Integer.parseInt(contLine.trim().split("\\s+")[0]);
+                        continentNames[cont] = restOfLine(contLine, 1);
+                    }
+                } else if (key.equals("countries")) {
+                    int size = Integer.parseInt(fields[1]);
+                    countryNames = new String[size];
+                    countryContinents = new int[size];
+                    gotoLists = new int[size][];
+                    for (int code=0; code<size; code++) {
+                        String countryLine = nextLine(in);
+                        String[] country = countryLine.trim().split("\\s+");
+                        countryContinents[code] = Integer.parseInt(country[0]);
+                        int numGotos = Integer.parseInt(country[1]);
+                        gotoLists[code] = new int[numGotos];
+                        for (int i=0; i<numGotos; i++) {
+                            gotoLists[code][i] = Integer.parseInt(country[2 + i]);
+                        }
+                        countryNames[code] = restOfLine(countryLine, 2 + numGotos);
+                    }
+                } else if (key.equals("players")) {
+                    int size = Integer.parseInt(fields[1]);
+                    record.agentNames = new String[size];
+                    for (int player=0; player<size; player++) {
+                        // interned, because Viking compares agent names with ==
+                        record.agentNames[player] = nextLine(in).trim().intern();
+                    }
+                } else if (key.equals("call")) {
+                    call = new Call();
+                    call.number = Integer.parseInt(fields[1]);
+                    call.callback = fields[2];
+                    if (fields.length > 3) {
+                        call.argument = Integer.parseInt(fields[3]);
+                    }
+                    record.calls.add(call);
+                } else if (key.equals("took")) {
+                    Call returned = record.getCall(Integer.parseInt(fields[1]));
+                    if (returned != null) {
+                        returned.micros = Long.parseLong(fields[2]);
+                    }
+                } else if (call == null) {
+                    throw new IOException("DecisionRecord: unknown line: " + line);
+                } else if (key.equals("turn")) {
+                    call.turn = Integer.parseInt(fields[1]);
+                } else if (key.equals("rand")) {
+                    call.hasRand = true;
+                    call.rand = Long.parseLong(fields[1]);
+                } else if (key.equals("cardvalue")) {
+                    call.cardValue = Integer.parseInt(fields[1]);
+                } else if (key.equals("cards")) {
+                    call.cards = parseInts(fields, 1);
+                } else if (key.equals("board")) {
+                    int size = Integer.parseInt(fields[1]);
+                    call.owners = new int[size];
+                    call.armies = new int[size];
+                    for (int code=0; code<size; code++) {
+                        String[] country = nextLine(in).trim().split("\\s+");
+                        call.owners[code] = Integer.parseInt(country[0]);
+                        call.armies[code] = Integer.parseInt(country[1]);
+                    }
+                } else if (key.equals("borderarmies")) {
+                    parseArmies(fields, call.borderArmies);
+                } else if (key.equals("idealborderarmies")) {
+                    parseArmies(fields, call.idealBorderArmies);
+                } else if (key.equals("allies")) {
+                    for (int ally : parseInts(fields, 1)) {
+                        call.allies.add(ally);
+                    }
+                } else if (key.equals("flags")) {
+                    call.firstPlacement = Boolean.parseBoolean(fields[1]);
+                    call.isTeamingOn = Boolean.parseBoolean(fields[2]);
+                    call.isTeamingWithHumans = Boolean.parseBoolean(fields[3]);
+                    call.madeUserAnnouncement = Boolean.parseBoolean(fields[4]);
+                } else if (key.equals("leavearmies")) {
+                    call.leaveArmies = Integer.parseInt(fields[1]);
+                } else if (key.equals("battleplan")) {
+                    int size = Integer.parseInt(fields[1]);
+                    for (int i=0; i<size; i++) {
+                        call.battlePlan.add(parseInts(nextLine(in).trim().split("\\s+"), 0));
+                    }
+                    call.complete = true; // the battle plan comes last
+                } else {
+                    throw new IOException("DecisionRecord: unknown line: " + line);
+                }
+            }
+        } catch (EOFException e) {
+            // the file was cut off; keep everything before that
+        }
+
+        if (title == null || countryNames == null || record.agentNames == null) {
+            throw new IOException("DecisionRecord: incomplete record (no map or players)");
+        }
+        record.map = new LuxMap(title, continentNames, continentBonuses, countryNames, countryContinents, gotoLists);
+        if (call != null && !call.complete) {
+            record.calls.remove(call);
+        }
+        return record;
+    }
+
+    protected static String nextLine(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException();
+        }
+        return line;
+    }
+
+    // everything on <line> after the first <skip> words
+    protected static String restOfLine(String line, int skip) {
+        String rest = line.trim();
+        for (int i=0; i<skip; i++) {
+            int space = rest.indexOf(' ');
+            if (space == -1) {
+                return "";
+            }
+            rest = rest.substring(space + 1).trim();
+        }
+        return rest;
+    }
+
+    protected static int[] parseInts(String[] fields, int start) {
+        int size = 0;
+        for (int i=start; i<fields.length; i++) {
+            if (fields[i].length() > 0) {
+                size++;
+            }
+        }
+        int[] values = new int[size];
+        int next = 0;
+        for (int i=start; i<fields.length; i++) {
+            if (fields[i].length() > 0) {
+                values[next++] = Integer.parseInt(fields[i]);
+            }
+        }
+        return values;
+    }
+
+    protected static void parseArmies(String[] fields, Map<Integer, Integer> armies) {
+        for (int i=1; i<fields.length; i++) {
+            int colon = fields[i].indexOf(':');
+            armies.put(Integer.parseInt(fields[i].substring(0, colon)), Integer.parseInt(fields[i].substring(colon + 1)));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+
+//
+//  DecisionReplay.java
+//
+//  Replays a callback from a game that a Viking recorded (see VikingRecorder),
+//  without the Lux app: it rebuilds the map from the record, sets up the board as it was,
+//  puts Viking's borders, allies, battle plan and random number generator back the way they were,
+//  and calls placeArmies(), attackPhase(), fortifyPhase() (or any other recorded callback) again.
+//  The idea is to reproduce a slow turn from a real game on a dev machine and profile exactly that turn.
+//
+//  Usage:
+//    DecisionReplay <record>                                      (list the recorded calls and how long they took)
+//    DecisionReplay <record> <call number | slowest> [-repeat N] [-seed S] [-allocations]
+//  -repeat runs the call N times (on a fresh board each time), to give a profiler something to look at;
+//  afterwards the time spent in each stage of the call is printed (see VikingProfiler),
+//  and with -allocations, how many bytes each stage allocated
+//  -seed seeds the headless board's dice (the real game's dice can't be recorded, so attacks are only
+//   reproduced up to the first roll that comes out differently; placements don't roll any dice at all)
+//
+//  A replayed placeArmies() is checked against the recording: the battle plan and the board
+//  recorded at the start of the next call should be exactly what the replay ended up with
+//  (and a replayed pickCountry() should have picked the country we owned by the next call).
+//
+
+public class DecisionReplay
+{
+    // plays the other seats; it's never asked to do anything, it's just there so the board
+    // reports the same agent names the real game did (Viking treats other Vikings, and Humans, differently)
+    protected static class StandInAgent extends BaselineAgent
+    {
+        protected String name;
+
+        public StandInAgent(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        VikingPathBudget.offlineDefaults();
+        if (args.length < 1) {
+            System.err.println("usage: DecisionReplay <record> [<call number> | slowest] [-repeat N] [-seed S] [-allocations]");
+            System.exit(1);
+        }
+        // don't record the replay
+        System.clearProperty(VikingRecorder.PROPERTY);
+
+        DecisionRecord record = DecisionRecord.load(new File(args[0]));
+        if (args.length == 1) {
+            listCalls(record, System.out);
+            return;
+        }
+
+        DecisionRecord.Call call = args[1].equals("slowest") ? record.getSlowestCall() : record.getCall(Integer.parseInt(args[1]));
+        if (call == null) {
+            System.err.println("DecisionReplay: no call " + args[1] + " in " + args[0]);
+            System.exit(1);
+        }
+        int repeat = 1;
+        long seed = call.number;
+        boolean allocations = false;
+        for (int i=2; i<args.length; i++) {
+            if (args[i].equals("-repeat")) {
+                repeat = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-allocations")) {
+                allocations = true;
+            }
+        }
+
+        DecisionReplay replay = new DecisionReplay(record);
+        replay.getProfiler().setCountingAllocations(allocations);
+        System.out.println("replaying " + call + " on " + record.map.getTitle() + " (" + record.map.getNumberOfCountries() + " countries)"
+                + (call.micros >= 0 ? ", took " + millis(call.micros * 1000) + " ms in the game" : ", never returned in the game"));
+        for (int rep=0; rep<repeat; rep++) {
+            long nanos = replay.replay(call, seed);
+            System.out.println("  replay " + (rep + 1) + ": " + millis(nanos) + " ms");
+        }
+        replay.report(call, System.out);
+        System.out.println();
+        replay.getProfiler().write(System.out);
+    }
+
+    protected static void listCalls(DecisionRecord record, PrintStream out) {
+        DecisionRecord.Call slowest = record.getSlowestCall();
+        out.println(record.calls.size() + " calls by player " + record.player + " on " + record.map.getTitle()
+                + " (" + record.map.getNumberOfCountries() + " countries)");
+        for (DecisionRecord.Call call : record.calls) {
+            out.println(String.format("%6d  turn %4d  %-20s %10s ms%s", call.number, call.turn,
+                    call.callback + (call.argument >= 0 ? "(" + call.argument + ")" : "()"),
+                    call.micros >= 0 ? String.format("%.2f", call.micros / 1000.0) : "-",
+                    call == slowest ? "  <- slowest" : ""));
+        }
+    }
+
+    protected DecisionRecord record;
+
+    // the game and the Viking from the last replay, so we can report what it did
+    protected HeadlessGame game;
+    protected Viking viking;
+    protected int pickedCountry = -1;
+
+    // the timings of every replay so far, by stage
+    protected VikingProfiler profiler = new VikingProfiler();
+
+    public DecisionReplay(DecisionRecord record) {
+        this.record = record;
+    }
+
+    public HeadlessGame getGame() {
+        return game;
+    }
+
+    public Viking getViking() {
+        return viking;
+    }
+
+    public VikingProfiler getProfiler() {
+        return profiler;
+    }
+
+    // set up the board and Viking as they were at the start of <call>, and make the call; returns how long it took
+    public long replay(DecisionRecord.Call call, long seed) {
+        int player = record.player;
+        viking = new Viking();
+        viking.profiler = profiler;
+        game = createGame(record, call, seed, viking);
+        restoreViking(viking, call);
+
+        long start = System.nanoTime();
+        game.beginTurn(player);
+        if (call.callback.equals("placeArmies")) {
+            game.runPlacePhase(player, call.argument);
+        } else if (call.callback.equals("placeInitialArmies")) {
+            game.runInitialPlacement(player, call.argument);
+        } else if (call.callback.equals("attackPhase")) {
+            game.runAttackPhase(player);
+        } else if (call.callback.equals("fortifyPhase")) {
+            game.runFortifyPhase(player);
+        } else if (call.callback.equals("cardsPhase")) {
+            game.runCardsPhase(player);
+        } else if (call.callback.equals("pickCountry")) {
+            pickedCountry = viking.pickCountry();
+        } else {
+            throw new IllegalArgumentException("DecisionReplay: can't replay " + call.callback);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // a game with the board as it was at the start of <call>, and <agent> in the recorded player's seat
+    // (the agent's own state isn't touched; see restoreViking())
+    public static HeadlessGame createGame(DecisionRecord record, DecisionRecord.Call call, long seed, LuxAgent agent) {
+        LuxAgent[] agents = new LuxAgent[record.agentNames.length];
+        for (int seat=0; seat<agents.length; seat++) {
+            if (seat == record.player) {
+                agents[seat] = agent;
+            } else if (record.agentNames[seat] == "Viking") {
+                agents[seat] = new Viking();
+            } else {
+                agents[seat] = new StandInAgent(record.agentNames[seat]);
+            }
+            TournamentRunner.seedAgent(agents[seat], seed * 31 + seat);
+        }
+
+        HeadlessGame game = new HeadlessGame(record.map, agents, seed);
+        game.setupPosition(call.owners, call.armies, call.turn, record.player);
+        game.setCardSetsCashed(getCardSetsCashed(call.cardValue));
+        for (int seat=0; seat<agents.length && seat<call.cards.length; seat++) {
+            game.dealCards(seat, call.cards[seat]);
+        }
+        return game;
+    }
+
+    // put back everything VikingRecorder writes down about Viking itself
+    public static void restoreViking(Viking viking, DecisionRecord.Call call) {
+        viking.borderArmies.clear();
+        viking.borderArmies.putAll(call.borderArmies);
+        viking.idealBorderArmies.clear();
+        viking.idealBorderArmies.putAll(call.idealBorderArmies);
+        viking.allies.clear();
+        viking.allies.addAll(call.allies);
+        viking.firstPlacement = call.firstPlacement;
+        viking.isTeamingOn = call.isTeamingOn;
+        viking.isTeamingWithHumans = call.isTeamingWithHumans;
+        viking.madeUserAnnouncement = call.madeUserAnnouncement;
+        viking.leaveArmies = call.leaveArmies;
+        viking.battlePlan.clear();
+        for (int[] route : call.battlePlan) {
+            viking.battlePlan.add(route.clone());
+        }
+        if (call.hasRand && viking.rand instanceof VikingRandom) {
+            ((VikingRandom) viking.rand).setState(call.rand);
+        }
+    }
+
+    // what the last replay did, and (for placements) whether it's what the real game did
+    public void report(DecisionRecord.Call call, PrintStream out) {
+        Country[] countries = game.getBoard().getCountries();
+        int changed = 0;
+        for (int code=0; code<countries.length; code++) {
+            if (countries[code].getOwner() != call.owners[code] || countries[code].getArmies() != call.armies[code]) {
+                changed++;
+            }
+        }
+        out.println("  " + changed + " countries changed; battle plan has " + viking.battlePlan.size() + " routes");
+
+        DecisionRecord.Call next = record.getNextCall(call);
+        if (call.callback.equals("pickCountry")) {
+            out.println("  picked " + pickedCountry + (pickedCountry >= 0 ? " (" + countries[pickedCountry].getName() + ")" : ""));
+            if (next != null && pickedCountry >= 0) {
+                out.println("  " + (next.owners[pickedCountry] == record.player ? "matches" : "DIFFERS from") + " the recording");
+            }
+            return;
+        }
+        if (!call.callback.equals("placeArmies") && !call.callback.equals("placeInitialArmies")) {
+            return;
+        }
+        if (next == null || next.turn != call.turn) {
+            out.println("  nothing recorded after this call to check it against");
+            return;
+        }
+        // (only our own countries: during the initial placement the other players place between our calls)
+        int differences = 0;
+        for (int code=0; code<countries.length; code++) {
+            if (call.owners[code] == record.player && countries[code].getArmies() != next.armies[code]) {
+                differences++;
+            }
+        }
+        boolean samePlan = viking.battlePlan.size() == next.battlePlan.size();
+        for (int i=0; samePlan && i<next.battlePlan.size(); i++) {
+            samePlan = Arrays.equals(viking.battlePlan.get(i), next.battlePlan.get(i));
+        }
+        if (differences == 0 && samePlan) {
+            out.println("  matches the recording (board and battle plan at the start of call " + next.number + ")");
+        } else {
+            out.println("  DIFFERS from the recording: " + differences + " countries differ, battle plan " + (samePlan ? "matches" : "differs"));
+        }
+    }
+
+    // the headless board works out card values from the number of sets cashed (4, 6, 8, 10, 12, 15, 20...), so go backwards
+    protected static int getCardSetsCashed(int nextCardSetValue) {
+        if (nextCardSetValue <= 12) {
+            return Math.max(0, (nextCardSetValue - 4) / 2);
+        }
+        return 5 + (nextCardSetValue - 15) / 5;
+    }
+
+    protected static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1000000.0);
+    }
+}
@@ -0,0 +1,585 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+
+//
+//  EquivalenceHarness.java
+//
+//  Checks that Viking still plays exactly like ReferenceViking (a frozen copy of Viking from before
+//  the planner was optimized), so speedups to findAreaPaths(), pickBestTakeoverPaths(), getCheapestRouteToArea(),
+//  findNeighborsThreat() and friends can't silently change play.
+//
+//  Both agents are put in the same positions with the same seeds, and for each position we compare:
+//    - the score and cost of every objective they come up with at the start of placeArmies()
+//    - the battle plan, <borderArmies> and <idealBorderArmies> after placeArmies()
+//    - the board after placeArmies(), after attackPhase() and after fortifyPhase() (same seed, so same dice)
+//  and report every position where anything differs (exit status 1 if any did).
+//  It also times both turns, so it doubles as a quick before/after speed check.
+//
+//  Usage:
+//    EquivalenceHarness [-maps <map or spec>,...] [-seeds N] [-rounds R,...] [-positions <dir>] [-record <file.vrec>]... [-tolerance T] [-tree]
+//  By default it plays out positions on the classic map and 200-country generated maps of each layout,
+//  after 4 and 10 rounds of BaselineAgent play with seeds 1-3 (see PlannerFixture.warmup()).
+//  -positions adds every .pos file in a directory (e.g. bench/positions),
+//  -record adds every placeArmies() call in a VikingRecorder file.
+//  -tolerance lets objective scores differ by that fraction (they're floats; an optimization might add them up in another order).
+//  -tree checks the takeover tree planner (Viking.planTakeoverTree(), which plans the areas that are too big to search,
+//  and finishes the plans for areas whose search stopped early, see Viking.pickBestTakeoverPaths()) instead of comparing with ReferenceViking:
+//  in every position it plans each continent, each smart area and each enemy's countries with the tree, and again with searches
+//  that stop after a few paths (so the tree finishes what pickBestTakeoverPaths() picked), and checks that every enemy country
+//  in the area is in a path, every path starts at a country of ours or one that's in an earlier path (so forks start at their branch point),
+//  each step is a move we can make, and every country of ours in the area has a path;
+//  then it plays the turn with the tree planning every area, which mustn't throw
+//  (-tree sets -Dviking.treecountries to 0 for that, whatever it was started with).
+//  Viking's per-turn path search time limit is off unless -Dviking.searchmillis is given, since ReferenceViking doesn't have one
+//  (with it on, how fast the machine is would decide which big positions differ).
+//  Viking only skips the search for big areas if -Dviking.treecountries is given (see VikingPathBudget); if it is, positions
+//  with such areas will differ from ReferenceViking, which always searches (the tree is checked on its own, with -tree).
+//
+
+public class EquivalenceHarness
+{
+    protected static final String[] DEFAULT_MAPS = {"maps/Classic.luxb", "grid:200:1", "chain:200:1", "hub:200:1", "random:200:1", "giant:200:1"};
+
+    // stop listing differences for a position after this many
+    protected static final int MAX_DIFFERENCES = 10;
+
+    // one position to check: either a BoardPosition, or a placeArmies() call from a recording
+    protected static class Case
+    {
+        String name;
+        LuxMap map;
+        BoardPosition position;
+        DecisionRecord record;
+        DecisionRecord.Call call;
+
+        int getPlayer() {
+            return position != null ? position.player : record.player;
+        }
+    }
+
+    // what one agent did with one position
+    protected static class Outcome
+    {
+        // objective key -> {score, cost}
+        TreeMap<String, double[]> objectives = new TreeMap<String, double[]>();
+        ArrayList<int[]> battlePlan = new ArrayList<int[]>();
+        TreeMap<Integer, Integer> borderArmies = new TreeMap<Integer, Integer>();
+        TreeMap<Integer, Integer> idealBorderArmies = new TreeMap<Integer, Integer>();
+        int[] placedOwners, placedArmies;
+        int[] attackedOwners, attackedArmies;
+        int[] fortifiedOwners, fortifiedArmies;
+        long nanos;
+    }
+
+    protected double tolerance = 0;
+    protected boolean checkTree = false;
+    protected ArrayList<Case> cases = new ArrayList<Case>();
+
+    public static void main(String[] args) throws IOException {
+        VikingPathBudget.offlineDefaults();
+        EquivalenceHarness harness = new EquivalenceHarness();
+        String[] maps = DEFAULT_MAPS;
+        int seeds = 3;
+        int[] rounds = {4, 10};
+        boolean generate = true;
+        for (int i=0; i<args.length; i++) {
+            if (args[i].equals("-maps")) {
+                maps = args[++i].split(",");
+            } else if (args[i].equals("-seeds")) {
+                seeds = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-rounds")) {
+                String[] list = args[++i].split(",");
+                rounds = new int[list.length];
+                for (int r=0; r<list.length; r++) {
+                    rounds[r] = Integer.parseInt(list[r]);
+                }
+            } else if (args[i].equals("-positions")) {
+                harness.addPositions(new File(args[++i]));
+                generate = false;
+            } else if (args[i].equals("-record")) {
+                harness.addRecord(new File(args[++i]));
+                generate = false;
+            } else if (args[i].equals("-tolerance")) {
+                harness.tolerance = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-tree")) {
+                harness.checkTree = true;
+                // every area with an enemy country in it is too big to search, so every area is planned with the tree
+                System.setProperty(VikingPathBudget.TREE_COUNTRIES_PROPERTY, "0");
+            } else {
+                System.err.println("usage: EquivalenceHarness [-maps <map or spec>,...] [-seeds N] [-rounds R,...] [-positions <dir>] [-record <file.vrec>]... [-tolerance T] [-tree]");
+                System.exit(1);
+            }
+        }
+        // positions and recordings replace the generated positions, unless maps were asked for as well
+        if (generate || Arrays.asList(args).contains("-maps")) {
+            for (String mapName : maps) {
+                harness.addGenerated(mapName, seeds, rounds);
+            }
+        }
+        int failed = harness.checkTree ? harness.runTreeCheck(System.out) : harness.run(System.out);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    public void addGenerated(String mapName, int seeds, int[] rounds) throws IOException {
+        LuxMap map = TournamentRunner.loadMap(mapName);
+        for (int seed=1; seed<=seeds; seed++) {
+            for (int round : rounds) {
+                Case position = new Case();
+                position.name = map.getTitle() + " seed " + seed + " round " + round;
+                position.map = map;
+                position.position = PlannerFixture.warmup(map, mapName, seed, round);
+                cases.add(position);
+            }
+        }
+    }
+
+    public void addPositions(File dir) throws IOException {
+        HashMap<String, LuxMap> maps = new HashMap<String, LuxMap>();
+        for (BoardPosition position : TurnLatencyBenchmark.loadCorpus(dir)) {
+            LuxMap map = maps.get(position.mapSpec);
+            if (map == null) {
+                map = position.loadMap();
+                maps.put(position.mapSpec, map);
+            }
+            Case positionCase = new Case();
+            positionCase.name = position.source.getName();
+            positionCase.map = map;
+            positionCase.position = position;
+            cases.add(positionCase);
+        }
+    }
+
+    public void addRecord(File file) throws IOException {
+        DecisionRecord record = DecisionRecord.load(file);
+        for (DecisionRecord.Call call : record.calls) {
+            if (call.callback.equals("placeArmies")) {
+                Case recorded = new Case();
+                recorded.name = file.getName() + " call " + call.number + " (turn " + call.turn + ")";
+                recorded.map = record.map;
+                recorded.record = record;
+                recorded.call = call;
+                cases.add(recorded);
+            }
+        }
+    }
+
+    // check every case; returns the number that differed
+    public int run(PrintStream out) {
+        int diverged = 0;
+        long referenceNanos = 0;
+        long vikingNanos = 0;
+        for (Case position : cases) {
+            Outcome reference = play(position, true);
+            Outcome viking = play(position, false);
+            referenceNanos += reference.nanos;
+            vikingNanos += viking.nanos;
+
+            ArrayList<String> differences = compare(reference, viking);
+            String timing = String.format("(reference %.1f ms, Viking %.1f ms)", reference.nanos / 1000000.0, viking.nanos / 1000000.0);
+            if (differences.isEmpty()) {
+                out.println("same     " + position.name + " " + timing);
+            } else {
+                diverged++;
+                out.println("DIFFERS  " + position.name + " " + timing);
+                for (String difference : differences) {
+                    out.println("           " + difference);
+                }
+            }
+            out.flush();
+        }
+        out.println();
+        out.println(cases.size() + " positions, " + diverged + " differed; "
+                + String.format("reference %.1f ms, Viking %.1f ms (%.2fx)", referenceNanos / 1000000.0, vikingNanos / 1000000.0,
+                        vikingNanos == 0 ? 0 : (double) referenceNanos / vikingNanos));
+        return diverged;
+    }
+
+    // ---- the takeover tree ---- //
+
+    // when checking plans that the tree finishes (see runTreeCheck()), the searches stop after this many paths
+    protected static final int PARTIAL_PATHS = 8;
+
+    // check planTakeoverTree() in every case (see -tree above); returns the number of cases with anything wrong
+    public int runTreeCheck(PrintStream out) {
+        int failed = 0;
+        int plans = 0;
+        for (Case position : cases) {
+            ArrayList<String> problems = new ArrayList<String>();
+
+            // first the plans themselves, for every area we might want to take over
+            Viking viking = new Viking();
+            setup(position, viking);
+            viking.takeSnapshot();
+            viking.setSmartAreas(viking.calculateSmartAreas());
+            ArrayList<int[]> areas = new ArrayList<int[]>();
+            for (int continent=0; continent<viking.continents.getNumberOfContinents(); continent++) {
+                areas.add(viking.continents.getCountries(continent));
+            }
+            areas.addAll(viking.smartAreas);
+            VikingPlayerIndex players = viking.getPlayerIndex();
+            for (int player=0; player<viking.model.getNumberOfPlayers(); player++) {
+                if (player != viking.ID && players.isStillInTheGame(player)) {
+                    areas.add(players.getCountries(player));
+                }
+            }
+            for (int[] area : areas) {
+                checkTakeoverPlan(viking, area, viking.planTakeoverTree(area), problems);
+            }
+            // and the plans the tree finishes, after pickBestTakeoverPaths() has picked what it could from a search that stopped early
+            viking.maxTakeoverSearchCountries = Integer.MAX_VALUE;
+            viking.maxTakeoverPaths = PARTIAL_PATHS;
+            for (int[] area : areas) {
+                checkTakeoverPlan(viking, area, viking.pickBestTakeoverPaths(area), problems);
+            }
+            viking.releaseSnapshot();
+            plans += 2 * areas.size();
+
+            // then the whole turn, with every area planned by the tree
+            try {
+                play(position, false);
+            } catch (Throwable e) {
+                problems.add("the turn threw " + e);
+            }
+
+            if (problems.isEmpty()) {
+                out.println("ok       " + position.name + " (" + areas.size() + " areas)");
+            } else {
+                failed++;
+                out.println("BAD      " + position.name);
+                for (int i=0; i<problems.size() && i<MAX_DIFFERENCES; i++) {
+                    out.println("           " + problems.get(i));
+                }
+                if (problems.size() > MAX_DIFFERENCES) {
+                    out.println("           (and " + (problems.size() - MAX_DIFFERENCES) + " more)");
+                }
+            }
+            out.flush();
+        }
+        out.println();
+        out.println(cases.size() + " positions, " + plans + " takeover trees, " + failed + " positions with bad plans");
+        return failed;
+    }
+
+    // add to <problems> everything that's wrong with <plan> as a plan to take over <area>
+    protected static void checkTakeoverPlan(Viking viking, int[] area, ArrayList<int[]> plan, ArrayList<String> problems) {
+        String name = "area of " + area.length + " countries starting at " + (area.length > 0 ? area[0] : -1);
+        VikingCountrySet inPlan = viking.newCountrySet(); // the countries in the paths before the one we're checking
+        for (int i=0; i<plan.size(); i++) {
+            int[] path = plan.get(i);
+            if (path.length == 0) {
+                problems.add(name + ": path " + i + " is empty");
+                continue;
+            }
+            if (!inPlan.contains(path[0]) && viking.getProjectedCountryOwner(path[0]) != viking.ID) {
+                problems.add(name + ": path " + i + " starts at " + path[0] + ", which isn't ours or in an earlier path");
+            }
+            for (int k=1; k<path.length; k++) {
+                if (!viking.topology.canGoto(path[k-1], path[k])) {
+                    problems.add(name + ": path " + i + " goes from " + path[k-1] + " to " + path[k] + ", which it can't attack");
+                }
+            }
+            inPlan.addAll(path);
+        }
+        for (int country : area) {
+            if (!inPlan.contains(country)) {
+                if (viking.getProjectedCountryOwner(country) == viking.ID) {
+                    problems.add(name + ": our country " + country + " has no path");
+                } else {
+                    problems.add(name + ": enemy country " + country + " isn't in any path");
+                }
+            }
+        }
+    }
+
+    // ---- playing a position ---- //
+
+    protected Outcome play(Case position, boolean useReference) {
+        Outcome outcome = new Outcome();
+        int player = position.getPlayer();
+
+        // first the objectives, on a board of their own (working them out changes the agent's state)
+        LuxAgent agent = useReference ? new ReferenceViking() : new Viking();
+        HeadlessGame game = setup(position, agent);
+        int armies = position.call != null ? position.call.argument : game.getBoard().getPlayerIncome(player);
+        if (useReference) {
+            for (Map<?, ?> objective : listObjectives((ReferenceViking) agent, armies)) {
+                addObjective(outcome.objectives, objective);
+            }
+        } else {
+            for (VikingObjective objective : listObjectives((Viking) agent, armies)) {
+                addObjective(outcome.objectives, objective);
+            }
+        }
+
+        // then the turn itself
+        agent = useReference ? new ReferenceViking() : new Viking();
+        game = setup(position, agent);
+        Country[] countries = game.getBoard().getCountries();
+        long start = System.nanoTime();
+        game.beginTurn(player);
+        if (position.call != null) {
+            game.runPlacePhase(player, position.call.argument);
+        } else {
+            game.runCardsPhase(player);
+            game.runPlacePhase(player);
+        }
+        outcome.nanos += System.nanoTime() - start;
+        outcome.placedOwners = getOwners(countries);
+        outcome.placedArmies = getArmies(countries);
+        if (useReference) {
+            ReferenceViking reference = (ReferenceViking) agent;
+            copyPlan(reference.battlePlan, reference.borderArmies, reference.idealBorderArmies, outcome);
+        } else {
+            Viking viking = (Viking) agent;
+            copyPlan(viking.battlePlan, viking.borderArmies, viking.idealBorderArmies, outcome);
+        }
+
+        start = System.nanoTime();
+        game.runAttackPhase(player);
+        outcome.nanos += System.nanoTime() - start;
+        outcome.attackedOwners = getOwners(countries);
+        outcome.attackedArmies = getArmies(countries);
+        if (game.getWinner() == -1) {
+            start = System.nanoTime();
+            game.runFortifyPhase(player);
+            outcome.nanos += System.nanoTime() - start;
+        }
+        outcome.fortifiedOwners = getOwners(countries);
+        outcome.fortifiedArmies = getArmies(countries);
+        return outcome;
+    }
+
+    // a game in <position> with <agent> in the seat whose turn it is
+    protected HeadlessGame setup(Case position, LuxAgent agent) {
+        if (position.record != null) {
+            HeadlessGame game = DecisionReplay.createGame(position.record, position.call, position.call.number, agent);
+            if (agent instanceof Viking) {
+                DecisionReplay.restoreViking((Viking) agent, position.call);
+            } else {
+                restoreReference((ReferenceViking) agent, position.call);
+            }
+            return game;
+        }
+        BoardPosition board = position.position;
+        LuxAgent[] agents = new LuxAgent[board.numPlayers];
+        for (int seat=0; seat<agents.length; seat++) {
+            agents[seat] = seat == board.player ? agent : new BaselineAgent();
+            TournamentRunner.seedAgent(agents[seat], board.seed * 31 + seat);
+        }
+        return board.createGame(position.map, agents);
+    }
+
+    // the same as DecisionReplay.restoreViking(), for the reference copy
+    protected static void restoreReference(ReferenceViking reference, DecisionRecord.Call call) {
+        reference.borderArmies.clear();
+        reference.borderArmies.putAll(call.borderArmies);
+        reference.idealBorderArmies.clear();
+        reference.idealBorderArmies.putAll(call.idealBorderArmies);
+        reference.allies.clear();
+        reference.allies.addAll(call.allies);
+        reference.firstPlacement = call.firstPlacement;
+        reference.isTeamingOn = call.isTeamingOn;
+        reference.isTeamingWithHumans = call.isTeamingWithHumans;
+        reference.madeUserAnnouncement = call.madeUserAnnouncement;
+        reference.leaveArmies = call.leaveArmies;
+        reference.battlePlan.clear();
+        for (int[] route : call.battlePlan) {
+            reference.battlePlan.add(route.clone());
+        }
+        if (call.hasRand && reference.rand instanceof VikingRandom) {
+            ((VikingRandom) reference.rand).setState(call.rand);
+        }
+    }
+
+    // every objective placeArmies() would start out choosing from
+    // (the same steps placeArmies() goes through before it picks any; the two versions are identical
+    // apart from the class, but ReferenceViking isn't a Viking, so they can't share code)
+    protected static List<VikingObjective> listObjectives(Viking viking, int armies) {
+        viking.takeSnapshot();
+        viking.setSmartAreas(viking.calculateSmartAreas());
+        if (viking.board.getTurnCount() > 1) {
+            viking.resetBorderArmies();
+        }
+        ArrayList<VikingObjective> objectives = new ArrayList<VikingObjective>();
+        objectives.addAll(viking.findKnockoutObjectives(false));
+        objectives.addAll(viking.findTakeoverObjectives(false));
+        objectives.add(viking.calculateLandgrabObjective(armies));
+        objectives.addAll(viking.findWipeoutObjectives(armies));
+        viking.releaseSnapshot();
+        return objectives;
+    }
+
+    protected static List<Map<?, ?>> listObjectives(ReferenceViking reference, int armies) {
+        reference.smartAreas = reference.calculateSmartAreas();
+        if (reference.board.getTurnCount() > 1) {
+            reference.resetBorderArmies();
+        }
+        ArrayList<Map<?, ?>> objectives = new ArrayList<Map<?, ?>>();
+        for (Map<?, ?> objective : reference.findKnockoutObjectives(false)) {
+            objectives.add(objective);
+        }
+        for (Map<?, ?> objective : reference.findTakeoverObjectives(false)) {
+            objectives.add(objective);
+        }
+        objectives.add(reference.calculateLandgrabObjective(armies));
+        for (Map<?, ?> objective : reference.findWipeoutObjectives(armies)) {
+            objectives.add(objective);
+        }
+        return objectives;
+    }
+
+    // objectives are identified by their type and what they're about (the continent, area or player)
+    protected static void addObjective(TreeMap<String, double[]> objectives, Map<?, ?> objective) {
+        if (objective == null || objective.isEmpty()) {
+            return;
+        }
+        String key = String.valueOf(objective.get("type"));
+        if (objective.containsKey("continentID")) {
+            key += " continent " + objective.get("continentID");
+        } else if (objective.containsKey("playerID")) {
+            key += " player " + objective.get("playerID");
+        } else if (objective.get("area") instanceof int[]) {
+            key += " area " + Arrays.toString((int[]) objective.get("area"));
+        }
+        putObjective(objectives, key, getNumber(objective, "score"), getNumber(objective, "cost"));
+    }
+
+    // Viking's typed objectives get the same keys the reference's hashmaps do
+    protected static void addObjective(TreeMap<String, double[]> objectives, VikingObjective objective) {
+        if (objective == null) {
+            return;
+        }
+        String key;
+        if (objective instanceof VikingKnockoutObjective) {
+            key = "knockout continent " + ((VikingKnockoutObjective) objective).continent;
+        } else if (objective instanceof VikingWipeoutObjective) {
+            key = "wipeout player " + ((VikingWipeoutObjective) objective).player;
+        } else if (objective instanceof VikingTakeoverObjective) {
+            key = "takeover area " + Arrays.toString(((VikingTakeoverObjective) objective).area);
+        } else {
+            key = "landgrab";
+        }
+        putObjective(objectives, key, objective.getScore(), objective.getCost());
+    }
+
+    protected static void putObjective(TreeMap<String, double[]> objectives, String key, double score, double cost) {
+        String unique = key;
+        for (int copy=2; objectives.containsKey(unique); copy++) {
+            unique = key + " #" + copy;
+        }
+        objectives.put(unique, new double[] {score, cost});
+    }
+
+    protected static double getNumber(Map<?, ?> objective, String key) {
+        Object value = objective.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    protected static void copyPlan(ArrayList<int[]> battlePlan, Map<Integer, Integer> borderArmies, Map<Integer, Integer> idealBorderArmies, Outcome outcome) {
+        for (int[] route : battlePlan) {
+            outcome.battlePlan.add(route.clone());
+        }
+        outcome.borderArmies.putAll(borderArmies);
+        outcome.idealBorderArmies.putAll(idealBorderArmies);
+    }
+
+    protected static int[] getOwners(Country[] countries) {
+        int[] owners = new int[countries.length];
+        for (int code=0; code<countries.length; code++) {
+            owners[code] = countries[code].getOwner();
+        }
+        return owners;
+    }
+
+    protected static int[] getArmies(Country[] countries) {
+        int[] armies = new int[countries.length];
+        for (int code=0; code<countries.length; code++) {
+            armies[code] = countries[code].getArmies();
+        }
+        return armies;
+    }
+
+    // ---- comparing ---- //
+
+    protected ArrayList<String> compare(Outcome reference, Outcome viking) {
+        ArrayList<String> differences = new ArrayList<String>();
+
+        TreeSet<String> keys = new TreeSet<String>(reference.objectives.keySet());
+        keys.addAll(viking.objectives.keySet());
+        for (String key : keys) {
+            double[] expected = reference.objectives.get(key);
+            double[] actual = viking.objectives.get(key);
+            if (expected == null) {
+                differences.add("objective " + key + " is new (score " + actual[0] + ")");
+            } else if (actual == null) {
+                differences.add("objective " + key + " is missing (score " + expected[0] + ")");
+            } else if (!isClose(expected[0], actual[0]) || !isClose(expected[1], actual[1])) {
+                differences.add("objective " + key + ": score " + expected[0] + " -> " + actual[0] + ", cost " + expected[1] + " -> " + actual[1]);
+            }
+        }
+
+        int routes = Math.max(reference.battlePlan.size(), viking.battlePlan.size());
+        for (int i=0; i<routes; i++) {
+            int[] expected = i < reference.battlePlan.size() ? reference.battlePlan.get(i) : null;
+            int[] actual = i < viking.battlePlan.size() ? viking.battlePlan.get(i) : null;
+            if (!Arrays.equals(expected, actual)) {
+                differences.add("battle plan route " + i + ": " + Arrays.toString(expected) + " -> " + Arrays.toString(actual)
+                        + " (" + reference.battlePlan.size() + " -> " + viking.battlePlan.size() + " routes)");
+                break; // everything after the first difference is usually shifted, so one is enough
+            }
+        }
+
+        compareArmies("borderArmies", reference.borderArmies, viking.borderArmies, differences);
+        compareArmies("idealBorderArmies", reference.idealBorderArmies, viking.idealBorderArmies, differences);
+        compareBoard("after placeArmies", reference.placedOwners, reference.placedArmies, viking.placedOwners, viking.placedArmies, differences);
+        compareBoard("after attackPhase", reference.attackedOwners, reference.attackedArmies, viking.attackedOwners, viking.attackedArmies, differences);
+        compareBoard("after fortifyPhase", reference.fortifiedOwners, reference.fortifiedArmies, viking.fortifiedOwners, viking.fortifiedArmies, differences);
+
+        if (differences.size() > MAX_DIFFERENCES) {
+            int more = differences.size() - MAX_DIFFERENCES;
+            differences.subList(MAX_DIFFERENCES, differences.size()).clear();
+            differences.add("... and " + more + " more");
+        }
+        return differences;
+    }
+
+    protected boolean isClose(double expected, double actual) {
+        if (Double.isNaN(expected) || Double.isNaN(actual)) {
+            return Double.isNaN(expected) == Double.isNaN(actual);
+        }
+        return Math.abs(expected - actual) <= tolerance * Math.max(1.0, Math.abs(expected));
+    }
+
+    protected static void compareArmies(String name, TreeMap<Integer, Integer> expected, TreeMap<Integer, Integer> actual, ArrayList<String> differences) {
+        TreeSet<Integer> codes = new TreeSet<Integer>(expected.keySet());
+        codes.addAll(actual.keySet());
+        for (int code : codes) {
+            Integer before = expected.get(code);
+            Integer after = actual.get(code);
+            if (before == null ? after != null : !before.equals(after)) {
+                differences.add(name + " of country " + code + ": " + before + " -> " + after);
+            }
+        }
+    }
+
+    // just the first country that differs; the rest of the turn usually follows from it
+    protected static void compareBoard(String when, int[] expectedOwners, int[] expectedArmies, int[] actualOwners, int[] actualArmies, ArrayList<String> differences) {
+        int differing = 0;
+        int first = -1;
+        for (int code=0; code<expectedOwners.length; code++) {
+            if (expectedOwners[code] != actualOwners[code] || expectedArmies[code] != actualArmies[code]) {
+                differing++;
+                if (first == -1) {
+                    first = code;
+                }
+            }
+        }
+        if (differing > 0) {
+            differences.add("board " + when + ": " + differing + " countries differ, first " + first + " (owner " + expectedOwners[first] + " -> " + actualOwners[first]
+                    + ", armies " + expectedArmies[first] + " -> " + actualArmies[first] + ")");
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+//
+//  MapGenerator.java
+//
+//  Builds reproducible synthetic maps of any size and shape for the headless board and the benchmarks.
+//  Viking's worst cases depend on the map's topology (findAreaPaths() blows up on big dense continents,
+//  getCheapestRouteToArea() gets lost on one-way maps, etc.), so there's a family of layouts:
+//
+//    grid     every country connects to its right and lower neighbors (and some diagonals);
+//             continents are rectangular blocks
+//    chain    a long line of countries with occasional short cuts, so paths get very long
+//    hub      a few hub countries in a ring, with the rest attached by preferential attachment,
+//             so the degree distribution is heavy-tailed (a handful of countries with huge neighbor lists)
+//    random   countries scattered on a plane, each connected to its nearest neighbors
+//    giant    like random, but denser and with very big continents
+//
+//  A map is described by a spec string, which is also how generated maps are referred to in position files:
+//    <layout>:<countries>:<seed>[:<option>=<value>,...]
+//  with the options
+//    cont=N      average number of countries per continent (default 6; giant defaults to countries/8)
+//    degree=N    average number of neighbors per country, for random/giant/hub/chain (default 4; giant 6)
+//    oneway=F    the fraction of connections that only go one way (default 0)
+//  e.g. "grid:1000:1", "hub:2000:3:degree=6", "random:500:7:cont=12,oneway=0.2", "giant:1000:1"
+//  The same spec always gives the same map.
+//
+//  Continent bonuses follow Lux's rough rule of thumb: the more borders and countries, the bigger the bonus.
+//
+//  Usage: MapGenerator <spec> <out.luxb>
+//
+
+public class MapGenerator
+{
+    // the fraction of grid countries that also connect diagonally
+    protected static final double DIAGONAL_CHANCE = 0.3;
+
+    public static final String[] LAYOUTS = {"grid", "chain", "hub", "random", "giant"};
+
+    // builds a map from a spec string like "grid:1000:7" or "random:500:7:cont=12,oneway=0.2"
+    public static LuxMap generate(String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length < 3 || !isLayout(parts[0])) {
+            throw new IllegalArgumentException("MapGenerator: unknown map spec " + spec);
+        }
+        String layout = parts[0];
+        int numCountries = Integer.parseInt(parts[1]);
+        long seed = Long.parseLong(parts[2]);
+
+        // defaults, then the options
+        boolean giant = layout.equals("giant");
+        int contSize = giant ? Math.max(20, numCountries / 8) : 6;
+        int degree = giant ? 6 : 4;
+        double oneWay = 0;
+        if (parts.length > 3) {
+            for (String option : parts[3].split(",")) {
+                String[] keyValue = option.split("=");
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("MapGenerator: bad option " + option + " in " + spec);
+                }
+                if (keyValue[0].equals("cont")) {
+                    contSize = Integer.parseInt(keyValue[1]);
+                } else if (keyValue[0].equals("degree")) {
+                    degree = Integer.parseInt(keyValue[1]);
+                } else if (keyValue[0].equals("oneway")) {
+                    oneWay = Double.parseDouble(keyValue[1]);
+                } else {
+                    throw new IllegalArgumentException("MapGenerator: unknown option " + keyValue[0] + " in " + spec);
+                }
+            }
+        }
+        if (numCountries < 2 || contSize < 1 || degree < 1) {
+            throw new IllegalArgumentException("MapGenerator: bad map spec " + spec);
+        }
+
+        Random random = new Random(seed);
+        ArrayList<TreeSet<Integer>> links;
+        int[] countryContinents;
+        if (layout.equals("grid")) {
+            int blockWidth = (int) Math.ceil(Math.sqrt(contSize));
+            int blockHeight = (contSize + blockWidth - 1) / blockWidth;
+            if (contSize == 6) {
+                blockWidth = 3; // the classic-looking 3x2 blocks
+                blockHeight = 2;
+            }
+            links = gridLinks(numCountries, random);
+            countryContinents = gridContinents(numCountries, blockWidth, blockHeight);
+        } else {
+            if (layout.equals("chain")) {
+                links = chainLinks(numCountries, degree, random);
+            } else if (layout.equals("hub")) {
+                links = hubLinks(numCountries, degree, random);
+            } else {
+                links = nearestNeighborLinks(numCountries, degree, random);
+            }
+            countryContinents = growContinents(links, contSize);
+        }
+
+        int[][] gotoLists = oneWay > 0 ? makeOneWay(links, oneWay, random) : toGotoLists(links);
+        return buildMap(spec, countryContinents, gotoLists);
+    }
+
+    public static boolean isSpec(String spec) {
+        int colon = spec.indexOf(':');
+        return colon > 0 && isLayout(spec.substring(0, colon));
+    }
+
+    protected static boolean isLayout(String layout) {
+        for (String known : LAYOUTS) {
+            if (known.equals(layout)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static LuxMap generateGrid(int numCountries, long seed) {
+        return generate("grid:" + numCountries + ":" + seed);
+    }
+
+    // ==================================================================== //
+    //   layouts: each returns the (two-way) connections of every country
+    // ==================================================================== //
+
+    protected static ArrayList<TreeSet<Integer>> gridLinks(int numCountries, Random random) {
+        int columns = (int) Math.ceil(Math.sqrt(numCountries));
+        ArrayList<TreeSet<Integer>> links = emptyLinks(numCountries);
+        for (int country=0; country<numCountries; country++) {
+            int x = country % columns;
+            int right = country + 1;
+            int down = country + columns;
+            int diagonal = country + columns + 1;
+            if (x + 1 < columns && right < numCountries) {
+                link(links, country, right);
+            }
+            if (down < numCountries) {
+                link(links, country, down);
+            }
+            if (x + 1 < columns && diagonal < numCountries && random.nextDouble() < DIAGONAL_CHANCE) {
+                link(links, country, diagonal);
+            }
+        }
+        // the last row may be short, leaving a country on its own; hook any loners up to their predecessor
+        for (int country=1; country<numCountries; country++) {
+            if (links.get(country).isEmpty()) {
+                link(links, country, country - 1);
+            }
+        }
+        return links;
+    }
+
+    protected static int[] gridContinents(int numCountries, int blockWidth, int blockHeight) {
+        int columns = (int) Math.ceil(Math.sqrt(numCountries));
+        int blocksPerRow = (columns + blockWidth - 1) / blockWidth;
+        int[] countryContinents = new int[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            int x = country % columns;
+            int y = country / columns;
+            countryContinents[country] = (y / blockHeight) * blocksPerRow + x / blockWidth;
+        }
+        return countryContinents;
+    }
+
+    // a line of countries; the extra links (up to an average of <degree> neighbors) are short jumps
+    // of a few countries, so the map stays long and thin
+    protected static ArrayList<TreeSet<Integer>> chainLinks(int numCountries, int degree, Random random) {
+        ArrayList<TreeSet<Integer>> links = emptyLinks(numCountries);
+        for (int country=0; country+1<numCountries; country++) {
+            link(links, country, country + 1);
+        }
+        int extra = Math.max(0, (degree - 2) * numCountries / 2);
+        for (int i=0; i<extra; i++) {
+            int a = random.nextInt(numCountries);
+            int b = a + 2 + random.nextInt(3);
+            if (b < numCountries) {
+                link(links, a, b);
+            }
+        }
+        return links;
+    }
+
+    // a ring of hubs, then every other country attaches to countries picked in proportion to
+    // how many neighbors they already have, which gives a few very well connected countries
+    protected static ArrayList<TreeSet<Integer>> hubLinks(int numCountries, int degree, Random random) {
+        ArrayList<TreeSet<Integer>> links = emptyLinks(numCountries);
+        int hubs = Math.max(2, Math.min(numCountries, (int) Math.round(Math.sqrt(numCountries) / 2)));
+        for (int hub=0; hub+1<hubs; hub++) {
+            link(links, hub, hub + 1);
+        }
+        if (hubs > 2) {
+            link(links, hubs - 1, 0);
+        }
+
+        // every endpoint of every link goes in here, so picking a random entry picks a country
+        // with probability proportional to its degree
+        ArrayList<Integer> endpoints = new ArrayList<Integer>();
+        for (int hub=0; hub<hubs; hub++) {
+            for (int i=0; i<links.get(hub).size(); i++) {
+                endpoints.add(hub);
+            }
+        }
+        int linksPerCountry = Math.max(1, degree / 2);
+        for (int country=hubs; country<numCountries; country++) {
+            int added = 0;
+            int tries = 0;
+            while (added < linksPerCountry && tries < linksPerCountry * 10) {
+                tries++;
+                int target = endpoints.get(random.nextInt(endpoints.size()));
+                if (target != country && links.get(country).add(target)) {
+                    links.get(target).add(country);
+                    endpoints.add(target);
+                    endpoints.add(country);
+                    added++;
+                }
+            }
+        }
+        return links;
+    }
+
+    // countries at random points in a square, each linked to its <degree> nearest neighbors
+    protected static ArrayList<TreeSet<Integer>> nearestNeighborLinks(int numCountries, int degree, Random random) {
+        double[] x = new double[numCountries];
+        double[] y = new double[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            x[country] = random.nextDouble();
+            y[country] = random.nextDouble();
+        }
+
+        // bucket the points into a grid of cells so we only look at nearby countries
+        int cells = Math.max(1, (int) Math.sqrt(numCountries / 2.0));
+        ArrayList<ArrayList<Integer>> buckets = new ArrayList<ArrayList<Integer>>();
+        for (int i=0; i<cells*cells; i++) {
+            buckets.add(new ArrayList<Integer>());
+        }
+        for (int country=0; country<numCountries; country++) {
+            buckets.get(cell(x[country], cells) * cells + cell(y[country], cells)).add(country);
+        }
+
+        ArrayList<TreeSet<Integer>> links = emptyLinks(numCountries);
+        int k = Math.min(degree, numCountries - 1);
+        for (int country=0; country<numCountries; country++) {
+            int cx = cell(x[country], cells);
+            int cy = cell(y[country], cells);
+            ArrayList<Integer> candidates = new ArrayList<Integer>();
+            for (int radius=1; candidates.size() <= k && radius <= cells; radius++) {
+                candidates.clear();
+                for (int i=Math.max(0, cx-radius); i<=Math.min(cells-1, cx+radius); i++) {
+                    for (int j=Math.max(0, cy-radius); j<=Math.min(cells-1, cy+radius); j++) {
+                        candidates.addAll(buckets.get(i * cells + j));
+                    }
+                }
+            }
+            final double px = x[country];
+            final double py = y[country];
+            final double[] fx = x;
+            final double[] fy = y;
+            Collections.sort(candidates, new Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    double da = (fx[a]-px)*(fx[a]-px) + (fy[a]-py)*(fy[a]-py);
+                    double db = (fx[b]-px)*(fx[b]-px) + (fy[b]-py)*(fy[b]-py);
+                    return da < db ? -1 : (da > db ? 1 : a - b);
+                }
+            });
+            int added = 0;
+            for (int candidate : candidates) {
+                if (added >= k) {
+                    break;
+                }
+                if (candidate != country) {
+                    link(links, country, candidate);
+                    added++;
+                }
+            }
+        }
+        connectComponents(links);
+        return links;
+    }
+
+    protected static int cell(double coordinate, int cells) {
+        return Math.min(cells - 1, (int) (coordinate * cells));
+    }
+
+    // link every island of countries to the country before its lowest-numbered member,
+    // so the whole map is reachable
+    protected static void connectComponents(ArrayList<TreeSet<Integer>> links) {
+        int numCountries = links.size();
+        int[] component = new int[numCountries];
+        Arrays.fill(component, -1);
+        for (int start=0; start<numCountries; start++) {
+            if (component[start] != -1) {
+                continue;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+            queue.add(start);
+            component[start] = start;
+            while (!queue.isEmpty()) {
+                int country = queue.poll();
+                for (int neighbor : links.get(country)) {
+                    if (component[neighbor] == -1) {
+                        component[neighbor] = start;
+                        queue.add(neighbor);
+                    }
+                }
+            }
+            if (start > 0) {
+                link(links, start, start - 1);
+            }
+        }
+    }
+
+    // ==================================================================== //
+    //   continents, one-way connections and the final map
+    // ==================================================================== //
+
+    // split the map into continents of about <contSize> countries by growing each continent
+    // breadth-first from the lowest-numbered country that doesn't have a continent yet
+    protected static int[] growContinents(ArrayList<TreeSet<Integer>> links, int contSize) {
+        int numCountries = links.size();
+        int[] countryContinents = new int[numCountries];
+        Arrays.fill(countryContinents, -1);
+        int continent = 0;
+        for (int start=0; start<numCountries; start++) {
+            if (countryContinents[start] != -1) {
+                continue;
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+            queue.add(start);
+            countryContinents[start] = continent;
+            int size = 1;
+            while (!queue.isEmpty() && size < contSize) {
+                int country = queue.poll();
+                for (int neighbor : links.get(country)) {
+                    if (countryContinents[neighbor] == -1 && size < contSize) {
+                        countryContinents[neighbor] = continent;
+                        queue.add(neighbor);
+                        size++;
+                    }
+                }
+            }
+            continent++;
+        }
+        return countryContinents;
+    }
+
+    // turn about <fraction> of the connections into one-way connections (in a random direction),
+    // without ever leaving a country that can't attack anything or can't be attacked
+    protected static int[][] makeOneWay(ArrayList<TreeSet<Integer>> links, double fraction, Random random) {
+        int numCountries = links.size();
+        ArrayList<TreeSet<Integer>> gotos = new ArrayList<TreeSet<Integer>>();
+        int[] incoming = new int[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            gotos.add(new TreeSet<Integer>(links.get(country)));
+            incoming[country] = links.get(country).size();
+        }
+        for (int a=0; a<numCountries; a++) {
+            for (int b : links.get(a)) {
+                if (b < a || random.nextDouble() >= fraction) {
+                    continue;
+                }
+                // drop either a->b or b->a
+                int from = random.nextBoolean() ? a : b;
+                int to = from == a ? b : a;
+                if (gotos.get(from).size() > 1 && incoming[to] > 1) {
+                    gotos.get(from).remove(to);
+                    incoming[to]--;
+                }
+            }
+        }
+        return toGotoLists(gotos);
+    }
+
+    // builds a map from its continent layout and connections, renumbering the continents so there
+    // are no empty ones and picking each continent's bonus from its size and number of borders
+    protected static LuxMap buildMap(String title, int[] countryContinents, int[][] gotoLists) {
+        int numCountries = countryContinents.length;
+
+        // renumber the continents in order of first appearance
+        HashMap<Integer, Integer> renumber = new HashMap<Integer, Integer>();
+        for (int country=0; country<numCountries; country++) {
+            Integer newID = renumber.get(countryContinents[country]);
+            if (newID == null) {
+                newID = renumber.size();
+                renumber.put(countryContinents[country], newID);
+            }
+            countryContinents[country] = newID;
+        }
+        int numConts = renumber.size();
+
+        int[] sizes = new int[numConts];
+        int[] borders = new int[numConts];
+        boolean[] isBorder = new boolean[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            sizes[countryContinents[country]]++;
+            for (int target : gotoLists[country]) {
+                if (countryContinents[target] != countryContinents[country] && !isBorder[target]) {
+                    isBorder[target] = true; // <target> can be attacked from outside its continent
+                    borders[countryContinents[target]]++;
+                }
+            }
+        }
+
+        String[] continentNames = new String[numConts];
+        int[] bonuses = new int[numConts];
+        for (int cont=0; cont<numConts; cont++) {
+            continentNames[cont] = "Continent " + cont;
+            bonuses[cont] = Math.max(1, (sizes[cont] + 2 * borders[cont]) / 4);
+        }
+        String[] countryNames = new String[numCountries];
+        for (int country=0; country<numCountries; country++) {
+            countryNames[country] = "Country " + country;
+        }
+
+        return new LuxMap(title, continentNames, bonuses, countryNames, countryContinents, gotoLists);
+    }
+
+    protected static ArrayList<TreeSet<Integer>> emptyLinks(int numCountries) {
+        ArrayList<TreeSet<Integer>> links = new ArrayList<TreeSet<Integer>>();
+        for (int country=0; country<numCountries; country++) {
+            links.add(new TreeSet<Integer>());
+        }
+        return links;
+    }
+
+    protected static void link(ArrayList<TreeSet<Integer>> links, int a, int b) {
+        links.get(a).add(b);
+        links.get(b).add(a);
+    }
+
+    protected static int[][] toGotoLists(ArrayList<TreeSet<Integer>> links) {
+        int[][] gotoLists = new int[links.size()][];
+        for (int country=0; country<gotoLists.length; country++) {
+            gotoLists[country] = new int[links.get(country).size()];
+            int i = 0;
+            for (int target : links.get(country)) {
+                gotoLists[country][i++] = target;
+            }
+        }
+        return gotoLists;
+    }
+
+    // a one-line summary of a map's shape, for checking what a spec produces
+    public static String describe(LuxMap map) {
+        int numCountries = map.getNumberOfCountries();
+        int[] contSizes = new int[map.getNumberOfContinents()];
+        int links = 0;
+        int maxDegree = 0;
+        int oneWay = 0;
+        for (int country=0; country<numCountries; country++) {
+            contSizes[map.getCountryContinent(country)]++;
+            int[] gotos = map.getGotoList(country);
+            links += gotos.length;
+            maxDegree = Math.max(maxDegree, gotos.length);
+            for (int target : gotos) {
+                boolean back = false;
+                for (int reverse : map.getGotoList(target)) {
+                    if (reverse == country) {
+                        back = true;
+                        break;
+                    }
+                }
+                if (!back) {
+                    oneWay++;
+                }
+            }
+        }
+        int biggest = 0;
+        for (int size : contSizes) {
+            biggest = Math.max(biggest, size);
+        }
+        return String.format("%s: %d countries, %d continents (biggest %d), average degree %.2f, max degree %d, %d one-way connections",
+                map.getTitle(), numCountries, contSizes.length, biggest, (double) links / numCountries, maxDegree, oneWay);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: MapGenerator <spec> <out.luxb>     e.g. MapGenerator hub:1000:1:oneway=0.1 hub.luxb");
+            System.exit(1);
+        }
+        LuxMap map = generate(args[0]);
+        map.save(new File(args[1]));
+        System.out.println("wrote " + describe(map));
+    }
+}
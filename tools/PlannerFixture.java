@@ -0,0 +1,138 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.util.*;
+
+//
+//  PlannerFixture.java
+//
+//  A reproducible mid-game position with a Viking plugged into it, for benchmarking the planner.
+//  The position comes from dealing out a map and letting four BaselineAgents play a few rounds,
+//  which leaves clumped territories and stacked borders like a real game;
+//  then a fresh game is set up from that position with a Viking in seat 0.
+//  Nothing here is random beyond the seed, so the same arguments always give the same position.
+//
+
+public class PlannerFixture
+{
+    public static final int PLAYERS = 4;
+
+    public LuxMap map;
+    public HeadlessGame game;
+    public Board board;
+    public Viking viking;
+
+    // a continent we partly own, and the smart area built around it
+    public int targetContinent;
+    public int[] targetArea;
+
+    // a continent we don't own anything in (or the target continent if there isn't one)
+    public int remoteContinent;
+    public int[] remoteArea;
+
+    public static PlannerFixture create(int numCountries, long seed, int rounds) {
+        return create(MapGenerator.generateGrid(numCountries, seed), seed, rounds);
+    }
+
+    // a position on a generated map, e.g. create("hub", 1000, 1, 3) plays on hub:1000:1
+    public static PlannerFixture create(String layout, int numCountries, long seed, int rounds) {
+        return create(MapGenerator.generate(layout + ":" + numCountries + ":" + seed), seed, rounds);
+    }
+
+    public static PlannerFixture create(LuxMap map, long seed, int rounds) {
+        BoardPosition position = warmup(map, map.getTitle(), seed, rounds);
+        return create(map, position.owners, position.armies, position.turn, seed);
+    }
+
+    // the position <rounds> rounds of play by four BaselineAgents leave on <map>, with player 0 to move
+    // (nobody holds any cards; <mapSpec> is only there so the position can be saved)
+    public static BoardPosition warmup(LuxMap map, String mapSpec, long seed, int rounds) {
+        LuxAgent[] baselines = new LuxAgent[PLAYERS];
+        for (int player=0; player<PLAYERS; player++) {
+            baselines[player] = new BaselineAgent();
+            TournamentRunner.seedAgent(baselines[player], seed * 31 + player);
+        }
+        HeadlessGame warmup = new HeadlessGame(map, baselines, seed);
+        warmup.setPickCountries(false);
+        warmup.setup();
+        while (warmup.getTurnCount() < rounds && !warmup.isOver()) {
+            warmup.playTurn();
+        }
+        Country[] warmupCountries = warmup.getBoard().getCountries();
+        BoardPosition position = new BoardPosition();
+        position.mapSpec = mapSpec;
+        position.numPlayers = PLAYERS;
+        position.player = 0;
+        position.turn = Math.max(2, warmup.getTurnCount());
+        position.seed = seed;
+        position.cards = new int[PLAYERS];
+        position.owners = new int[warmupCountries.length];
+        position.armies = new int[warmupCountries.length];
+        for (int code=0; code<warmupCountries.length; code++) {
+            position.owners[code] = warmupCountries[code].getOwner();
+            position.armies[code] = warmupCountries[code].getArmies();
+        }
+        return position;
+    }
+
+    // plug a Viking into seat 0 of the given position
+    public static PlannerFixture create(LuxMap map, int[] owners, int[] armies, int turn, long seed) {
+        PlannerFixture fixture = new PlannerFixture();
+        fixture.map = map;
+
+        LuxAgent[] agents = new LuxAgent[PLAYERS];
+        fixture.viking = new Viking();
+        agents[0] = fixture.viking;
+        for (int player=1; player<PLAYERS; player++) {
+            agents[player] = new BaselineAgent();
+        }
+        for (int player=0; player<PLAYERS; player++) {
+            TournamentRunner.seedAgent(agents[player], seed * 31 + player);
+        }
+        fixture.game = new HeadlessGame(map, agents, seed);
+        fixture.game.setupPosition(owners, armies, turn, 0);
+        fixture.board = fixture.game.getBoard();
+
+        // the same state placeArmies() sets up at the start of a turn
+        // (including the snapshot of the board it plans against; nothing here changes the board, so it stays good)
+        fixture.viking.takeSnapshot();
+        fixture.viking.startTakeoverSearchClock();
+        fixture.viking.setSmartAreas(fixture.viking.calculateSmartAreas());
+        fixture.pickTargets();
+        return fixture;
+    }
+
+    // the target is the continent where we own the biggest share without owning all of it;
+    // the remote continent is the biggest one we don't have a foothold in
+    protected void pickTargets() {
+        Country[] countries = board.getCountries();
+        int numConts = map.getNumberOfContinents();
+        int[] ours = new int[numConts];
+        int[] sizes = new int[numConts];
+        for (Country country : countries) {
+            sizes[country.getContinent()]++;
+            if (country.getOwner() == 0) {
+                ours[country.getContinent()]++;
+            }
+        }
+
+        targetContinent = 0;
+        double bestShare = -1;
+        remoteContinent = -1;
+        for (int cont=0; cont<numConts; cont++) {
+            double share = (double) ours[cont] / sizes[cont];
+            if (ours[cont] < sizes[cont] && share > bestShare) {
+                bestShare = share;
+                targetContinent = cont;
+            }
+            if (ours[cont] == 0 && (remoteContinent == -1 || sizes[cont] > sizes[remoteContinent])) {
+                remoteContinent = cont;
+            }
+        }
+        if (remoteContinent == -1) {
+            remoteContinent = targetContinent;
+        }
+        targetArea = viking.smartAreas.get(targetContinent);
+        remoteArea = viking.smartAreas.get(remoteContinent);
+    }
+}
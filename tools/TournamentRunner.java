@@ -0,0 +1,444 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+//
+//  TournamentRunner.java
+//
+//  Plays many headless games in parallel and aggregates the results.
+//
+//  Every game gets its own seed, derived from the tournament seed and the game's index, and that seed
+//  drives the board's dice and deal as well as every agent's <rand>; so any single game can be replayed
+//  exactly with -only <index>, and the whole tournament gives the same results however it's sharded.
+//  The lineup is rotated from game to game, so every agent gets every seat equally often.
+//
+//  Viking's search time limit is off unless -Dviking.searchmillis is given (see VikingPathBudget), so games are reproducible;
+//  any -Dviking.* settings are passed on to the worker processes.
+//
+//  Games can be spread over threads (-threads), worker processes (-procs) or both;
+//  each worker process plays every <procs>th game and streams one line per game back to the parent:
+//    GAME <index> seed=<seed> winner=<agent|none> seat=<seat|-1> turns=<turns> ms=<millis> [error=<message>]
+//  The same lines are written to -out if it's given, and -aggregate reads such files back
+//  (e.g. from shards run on several machines) and prints the combined report.
+//
+//  Usage:
+//    TournamentRunner -map <maps/Classic.luxb or a MapGenerator spec> -games 1000 -seed 1 -agents Viking,Viking,BaselineAgent,BaselineAgent
+//                     [-threads N] [-procs N] [-maxturns N] [-deal] [-out results.txt]
+//    TournamentRunner -aggregate results1.txt results2.txt ...
+//
+
+public class TournamentRunner
+{
+    protected String mapName;
+    protected LuxMap map;
+    protected int games = 100;
+    protected long seed = 1;
+    protected String[] agentNames = {"Viking", "Viking", "Viking", "Viking"};
+    protected int threads = Runtime.getRuntime().availableProcessors();
+    protected int procs = 1;
+    protected int shard = 0;
+    protected int shards = 1;
+    protected int only = -1;
+    protected int maxTurns = HeadlessGame.DEFAULT_MAX_TURNS;
+    protected boolean deal = false;
+    protected File outFile;
+
+    // where finished games are sent; synchronized on itself since games finish on several threads
+    protected PrintStream out;
+    protected PrintStream copy;
+    protected TournamentResults results;
+
+    public static void main(String[] args) throws Exception {
+        VikingPathBudget.offlineDefaults();
+        if (args.length > 0 && args[0].equals("-aggregate")) {
+            TournamentResults results = new TournamentResults();
+            for (int i=1; i<args.length; i++) {
+                results.readFile(new File(args[i]));
+            }
+            results.printReport(System.out);
+            return;
+        }
+
+        TournamentRunner runner = new TournamentRunner();
+        runner.parseArgs(args);
+        runner.run();
+    }
+
+    protected void parseArgs(String[] args) throws IOException {
+        for (int i=0; i<args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-map")) {
+                mapName = args[++i];
+            } else if (arg.equals("-games")) {
+                games = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (arg.equals("-agents")) {
+                agentNames = args[++i].split(",");
+            } else if (arg.equals("-threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-procs")) {
+                procs = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-shard")) { // k/n, used by the parent to start its workers
+                String[] parts = args[++i].split("/");
+                shard = Integer.parseInt(parts[0]);
+                shards = Integer.parseInt(parts[1]);
+            } else if (arg.equals("-only")) {
+                only = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-maxturns")) {
+                maxTurns = Integer.parseInt(args[++i]);
+            } else if (arg.equals("-deal")) {
+                deal = true;
+            } else if (arg.equals("-out")) {
+                outFile = new File(args[++i]);
+            } else {
+                throw new IllegalArgumentException("TournamentRunner: unknown option " + arg);
+            }
+        }
+        if (mapName == null) {
+            throw new IllegalArgumentException("TournamentRunner: -map is required");
+        }
+        if (agentNames.length < 2) {
+            throw new IllegalArgumentException("TournamentRunner: need at least 2 agents");
+        }
+        map = loadMap(mapName);
+    }
+
+    protected void run() throws Exception {
+        results = new TournamentResults();
+        out = System.out;
+        if (outFile != null) {
+            copy = new PrintStream(new BufferedOutputStream(new FileOutputStream(outFile)), true);
+        }
+
+        long start = System.currentTimeMillis();
+        if (procs > 1 && shards == 1) {
+            runWorkerProcesses();
+        } else {
+            runGamesHere();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        if (copy != null) {
+            copy.close();
+        }
+        // workers just stream their games; the parent prints the report
+        if (shards == 1) {
+            results.printReport(System.out);
+            System.out.println(String.format("wall clock: %.1f s (%.2f games/s)", elapsed / 1000.0, results.getGames() * 1000.0 / Math.max(1, elapsed)));
+        }
+    }
+
+    // play this process's share of the games on <threads> threads
+    protected void runGamesHere() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        for (int game=0; game<games; game++) {
+            if (game % shards != shard || (only != -1 && game != only)) {
+                continue;
+            }
+            final int index = game;
+            pool.execute(new Runnable() {
+                public void run() {
+                    record(playGame(index));
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+
+    // start <procs> copies of ourselves, each playing one shard, and collect the GAME lines they print
+    protected void runWorkerProcesses() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classpath = System.getProperty("java.class.path");
+        int threadsPerProc = Math.max(1, threads / procs);
+
+        ArrayList<Process> processes = new ArrayList<Process>();
+        ArrayList<Thread> readers = new ArrayList<Thread>();
+        for (int k=0; k<procs; k++) {
+            ArrayList<String> command = new ArrayList<String>();
+            command.add(java);
+            for (String name : System.getProperties().stringPropertyNames()) { // Viking's settings (see VikingPathBudget and friends)
+                if (name.startsWith("viking.")) {
+                    command.add("-D" + name + "=" + System.getProperty(name));
+                }
+            }
+            command.add("-cp");
+            command.add(classpath);
+            command.add(TournamentRunner.class.getName());
+            command.add("-map");
+            command.add(mapName);
+            command.add("-games");
+            command.add(String.valueOf(games));
+            command.add("-seed");
+            command.add(String.valueOf(seed));
+            command.add("-agents");
+            command.add(join(agentNames));
+            command.add("-threads");
+            command.add(String.valueOf(threadsPerProc));
+            command.add("-maxturns");
+            command.add(String.valueOf(maxTurns));
+            command.add("-shard");
+            command.add(k + "/" + procs);
+            if (deal) {
+                command.add("-deal");
+            }
+            if (only != -1) {
+                command.add("-only");
+                command.add(String.valueOf(only));
+            }
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            final Process process = builder.start();
+            processes.add(process);
+
+            Thread reader = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                        String line;
+                        while ((line = lines.readLine()) != null) {
+                            GameResult result = GameResult.parse(line);
+                            if (result != null) {
+                                record(result);
+                            } else {
+                                System.err.println(line); // anything else the agents printed
+                            }
+                        }
+                    } catch (IOException e) {
+                        System.err.println("TournamentRunner: lost a worker: " + e);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        for (Process process : processes) {
+            if (process.waitFor() != 0) {
+                System.err.println("TournamentRunner: a worker exited with status " + process.exitValue());
+            }
+        }
+    }
+
+    protected void record(GameResult result) {
+        String line = result.toString();
+        synchronized (this) {
+            results.add(result);
+            out.println(line);
+            if (copy != null) {
+                copy.println(line);
+            }
+        }
+    }
+
+    // <name> is either a .luxb file or a MapGenerator spec like hub:1000:1
+    public static LuxMap loadMap(String name) throws IOException {
+        if (MapGenerator.isSpec(name)) {
+            return MapGenerator.generate(name);
+        }
+        return LuxMap.load(new File(name));
+    }
+
+    // the lineup for game <index>: the agent list rotated by the game index
+    protected String[] getLineup(int index) {
+        String[] lineup = new String[agentNames.length];
+        for (int seat=0; seat<lineup.length; seat++) {
+            lineup[seat] = agentNames[(seat + index) % agentNames.length];
+        }
+        return lineup;
+    }
+
+    protected GameResult playGame(int index) {
+        long gameSeed = getGameSeed(seed, index);
+        String[] lineup = getLineup(index);
+        GameResult result = new GameResult();
+        result.index = index;
+        result.seed = gameSeed;
+
+        long start = System.nanoTime();
+        try {
+            LuxAgent[] agents = createAgents(lineup, gameSeed);
+            HeadlessGame game = new HeadlessGame(map, agents, gameSeed);
+            game.setMaxTurns(maxTurns);
+            game.setPickCountries(!deal);
+            int winner = game.play();
+            result.winnerSeat = winner;
+            result.winner = winner == -1 ? "none" : lineup[winner];
+            result.turns = game.getTurnCount();
+        } catch (Throwable e) {
+            result.winnerSeat = -1;
+            result.winner = "none";
+            result.error = e.toString();
+        }
+        result.millis = (System.nanoTime() - start) / 1000000;
+        return result;
+    }
+
+    // create the agents for a lineup and seed each one from the game seed
+    public static LuxAgent[] createAgents(String[] lineup, long gameSeed) {
+        LuxAgent[] agents = new LuxAgent[lineup.length];
+        for (int seat=0; seat<lineup.length; seat++) {
+            agents[seat] = HeadlessGame.createAgent(lineup[seat]);
+            seedAgent(agents[seat], gameSeed * 31 + seat);
+        }
+        return agents;
+    }
+
+    // agents that keep a Random in <rand> get it reseeded, so their games are reproducible
+    public static void seedAgent(LuxAgent agent, long agentSeed) {
+        if (agent instanceof Viking) {
+            ((Viking) agent).rand.setSeed(agentSeed);
+        } else if (agent instanceof BaselineAgent) {
+            ((BaselineAgent) agent).rand.setSeed(agentSeed);
+        } else if (agent instanceof ReferenceViking) {
+            ((ReferenceViking) agent).rand.setSeed(agentSeed);
+        }
+    }
+
+    // a well-mixed seed per game (splitmix64), so neighboring games don't get correlated dice
+    public static long getGameSeed(long tournamentSeed, int index) {
+        long z = tournamentSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    protected static String join(String[] parts) {
+        StringBuilder joined = new StringBuilder();
+        for (int i=0; i<parts.length; i++) {
+            if (i > 0) {
+                joined.append(',');
+            }
+            joined.append(parts[i]);
+        }
+        return joined.toString();
+    }
+}
+
+// the outcome of one tournament game; written and read as a single GAME line
+class GameResult
+{
+    int index;
+    long seed;
+    String winner;
+    int winnerSeat;
+    int turns;
+    long millis;
+    String error;
+
+    public String toString() {
+        String line = "GAME " + index + " seed=" + seed + " winner=" + winner + " seat=" + winnerSeat + " turns=" + turns + " ms=" + millis;
+        if (error != null) {
+            line += " error=" + error.replace('\n', ' ');
+        }
+        return line;
+    }
+
+    // returns null if <line> isn't a GAME line
+    static GameResult parse(String line) {
+        if (!line.startsWith("GAME ")) {
+            return null;
+        }
+        GameResult result = new GameResult();
+        String[] fields = line.split(" ");
+        result.index = Integer.parseInt(fields[1]);
+        for (int i=2; i<fields.length; i++) {
+            int eq = fields[i].indexOf('=');
+            if (eq == -1) {
+                continue;
+            }
+            String key = fields[i].substring(0, eq);
+            String value = fields[i].substring(eq + 1);
+            if (key.equals("seed")) {
+                result.seed = Long.parseLong(value);
+            } else if (key.equals("winner")) {
+                result.winner = value;
+            } else if (key.equals("seat")) {
+                result.winnerSeat = Integer.parseInt(value);
+            } else if (key.equals("turns")) {
+                result.turns = Integer.parseInt(value);
+            } else if (key.equals("ms")) {
+                result.millis = Long.parseLong(value);
+            } else if (key.equals("error")) {
+                result.error = line.substring(line.indexOf(" error=") + 7);
+                break;
+            }
+        }
+        return result;
+    }
+}
+
+// running totals over any number of GameResults
+class TournamentResults
+{
+    private int games;
+    private int draws;
+    private int errors;
+    private long totalTurns;
+    private long totalMillis;
+    private long maxMillis;
+    private TreeMap<String, Integer> wins = new TreeMap<String, Integer>();
+    private TreeMap<Integer, Integer> seatWins = new TreeMap<Integer, Integer>();
+
+    synchronized void add(GameResult result) {
+        games++;
+        totalTurns += result.turns;
+        totalMillis += result.millis;
+        maxMillis = Math.max(maxMillis, result.millis);
+        if (result.error != null) {
+            errors++;
+        }
+        if (result.winnerSeat == -1) {
+            draws++;
+        } else {
+            Integer agentWins = wins.get(result.winner);
+            wins.put(result.winner, agentWins == null ? 1 : agentWins + 1);
+            Integer seat = seatWins.get(result.winnerSeat);
+            seatWins.put(result.winnerSeat, seat == null ? 1 : seat + 1);
+        }
+    }
+
+    synchronized int getGames() {
+        return games;
+    }
+
+    void readFile(File file) throws IOException {
+        BufferedReader lines = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                GameResult result = GameResult.parse(line);
+                if (result != null) {
+                    add(result);
+                }
+            }
+        } finally {
+            lines.close();
+        }
+    }
+
+    synchronized void printReport(PrintStream report) {
+        report.println();
+        report.println("games: " + games + "  no winner: " + draws + "  errors: " + errors);
+        if (games == 0) {
+            return;
+        }
+        report.println("wins by agent (win rate, 95% interval):");
+        for (Map.Entry<String, Integer> entry : wins.entrySet()) {
+            double rate = (double) entry.getValue() / games;
+            double margin = 1.96 * Math.sqrt(rate * (1 - rate) / games);
+            report.println(String.format("  %-20s %7d  %5.1f%% +/- %.1f%%", entry.getKey(), entry.getValue(), rate * 100, margin * 100));
+        }
+        report.println("wins by seat:");
+        for (Map.Entry<Integer, Integer> entry : seatWins.entrySet()) {
+            report.println(String.format("  seat %-15d %7d  %5.1f%%", entry.getKey() + 1, entry.getValue(), 100.0 * entry.getValue() / games));
+        }
+        report.println(String.format("average turns: %.1f  average game: %.0f ms  slowest game: %d ms", (double) totalTurns / games, (double) totalMillis / games, maxMillis));
+    }
+}
@@ -0,0 +1,259 @@
+package com.sillysoft.lux.agent;
+
+import com.sillysoft.lux.*;
+import java.io.*;
+import java.util.*;
+
+//
+//  TurnLatencyBenchmark.java
+//
+//  Times complete Viking turns (cards, placeArmies() with all of its objective planning, attackPhase()
+//  and fortifyPhase()) on a fixed corpus of saved positions, and reports p50/p99 turn times per map size.
+//  Every repetition of a position replays the exact same turn (same seed, same dice),
+//  so the numbers are comparable from run to run and from build to build.
+//
+//  Usage:
+//    TurnLatencyBenchmark <corpus dir> [-reps N] [-warmup N] [-match <text>]
+//    TurnLatencyBenchmark -generate <corpus dir> [-seeds N]      (rebuild the corpus; run from the repo root)
+//  -match only runs the positions whose file names contain <text>, e.g. -match grid-1000
+//
+//  The corpus is built by playing Viking (seat 0) against three BaselineAgents on the classic map and
+//  on generated grid maps, saving the position at the start of Viking's turn in an early-middle round
+//  (MID_ROUND) and a late round (LATE_ROUND, or Viking's last turn if the game ends before then).
+//
+
+public class TurnLatencyBenchmark
+{
+    protected static final int MID_ROUND = 4;
+    protected static final int LATE_ROUND = 12;
+
+    // the maps the corpus is generated on
+    // (5000-country maps aren't in it yet: Viking's initial placement alone takes over 15 minutes on them)
+    protected static final String[] CORPUS_MAPS = {"Classic", "grid:200:1", "grid:1000:1"};
+
+    public static void main(String[] args) throws IOException {
+        VikingPathBudget.offlineDefaults();
+        if (args.length > 0 && args[0].equals("-generate")) {
+            int seeds = 2;
+            for (int i=2; i<args.length; i++) {
+                if (args[i].equals("-seeds")) {
+                    seeds = Integer.parseInt(args[++i]);
+                }
+            }
+            generateCorpus(new File(args[1]), seeds);
+            return;
+        }
+        if (args.length < 1) {
+            System.err.println("usage: TurnLatencyBenchmark <corpus dir> [-reps N] [-warmup N] [-match <text>]");
+            System.err.println("       TurnLatencyBenchmark -generate <corpus dir> [-seeds N]");
+            System.exit(1);
+        }
+
+        File corpus = new File(args[0]);
+        int reps = 5;
+        int warmup = 1;
+        String match = "";
+        for (int i=1; i<args.length; i++) {
+            if (args[i].equals("-reps")) {
+                reps = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-warmup")) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-match")) {
+                match = args[++i];
+            }
+        }
+        new TurnLatencyBenchmark().run(loadCorpus(corpus, match), reps, warmup, System.out);
+    }
+
+    public static ArrayList<BoardPosition> loadCorpus(File dir) throws IOException {
+        return loadCorpus(dir, "");
+    }
+
+    public static ArrayList<BoardPosition> loadCorpus(File dir, String match) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("TurnLatencyBenchmark: no corpus at " + dir);
+        }
+        Arrays.sort(files);
+        ArrayList<BoardPosition> positions = new ArrayList<BoardPosition>();
+        for (File file : files) {
+            if (file.getName().endsWith(".pos") && file.getName().contains(match)) {
+                positions.add(BoardPosition.load(file));
+            }
+        }
+        return positions;
+    }
+
+    // one timed turn, in nanoseconds
+    protected static class TurnTiming
+    {
+        long place;
+        long attack;
+        long fortify;
+
+        long total() {
+            return place + attack + fortify;
+        }
+    }
+
+    // maps are shared between positions (and generated maps are slow to build), so cache them by spec
+    protected HashMap<String, LuxMap> maps = new HashMap<String, LuxMap>();
+
+    public void run(ArrayList<BoardPosition> positions, int reps, int warmup, PrintStream report) throws IOException {
+        for (int pass=0; pass<warmup; pass++) {
+            for (BoardPosition position : positions) {
+                timeTurn(position);
+            }
+        }
+
+        // map size -> timings of every turn on maps that size
+        TreeMap<Integer, ArrayList<TurnTiming>> bySize = new TreeMap<Integer, ArrayList<TurnTiming>>();
+        for (BoardPosition position : positions) {
+            ArrayList<TurnTiming> timings = bySize.get(position.getNumberOfCountries());
+            if (timings == null) {
+                timings = new ArrayList<TurnTiming>();
+                bySize.put(position.getNumberOfCountries(), timings);
+            }
+            for (int rep=0; rep<reps; rep++) {
+                timings.add(timeTurn(position));
+            }
+        }
+
+        report.println(String.format("%9s %6s | %10s %10s %10s | %10s %10s | %10s %10s | %10s %10s",
+                "countries", "turns", "p50 ms", "p99 ms", "max ms", "place p50", "place p99", "attack p50", "attack p99", "fort p50", "fort p99"));
+        for (Map.Entry<Integer, ArrayList<TurnTiming>> entry : bySize.entrySet()) {
+            ArrayList<TurnTiming> timings = entry.getValue();
+            long[] total = new long[timings.size()];
+            long[] place = new long[timings.size()];
+            long[] attack = new long[timings.size()];
+            long[] fortify = new long[timings.size()];
+            for (int i=0; i<total.length; i++) {
+                total[i] = timings.get(i).total();
+                place[i] = timings.get(i).place;
+                attack[i] = timings.get(i).attack;
+                fortify[i] = timings.get(i).fortify;
+            }
+            report.println(String.format("%9d %6d | %10.2f %10.2f %10.2f | %10.2f %10.2f | %10.2f %10.2f | %10.2f %10.2f",
+                    entry.getKey(), total.length,
+                    millis(percentile(total, 50)), millis(percentile(total, 99)), millis(percentile(total, 100)),
+                    millis(percentile(place, 50)), millis(percentile(place, 99)),
+                    millis(percentile(attack, 50)), millis(percentile(attack, 99)),
+                    millis(percentile(fortify, 50)), millis(percentile(fortify, 99))));
+        }
+    }
+
+    // play Viking's turn in <position> once and time each phase
+    protected TurnTiming timeTurn(BoardPosition position) throws IOException {
+        LuxMap map = maps.get(position.mapSpec);
+        if (map == null) {
+            map = position.loadMap();
+            maps.put(position.mapSpec, map);
+        }
+        LuxAgent[] agents = new LuxAgent[position.numPlayers];
+        for (int seat=0; seat<agents.length; seat++) {
+            agents[seat] = seat == position.player ? new Viking() : new BaselineAgent();
+            TournamentRunner.seedAgent(agents[seat], position.seed * 31 + seat);
+        }
+        HeadlessGame game = position.createGame(map, agents);
+        int player = position.player;
+
+        TurnTiming timing = new TurnTiming();
+        long start = System.nanoTime();
+        game.beginTurn(player);
+        game.runCardsPhase(player);
+        game.runPlacePhase(player);
+        long placed = System.nanoTime();
+        game.runAttackPhase(player);
+        long attacked = System.nanoTime();
+        if (game.getWinner() == -1) {
+            game.runFortifyPhase(player);
+        }
+        long fortified = System.nanoTime();
+        game.endTurn(player);
+
+        timing.place = placed - start;
+        timing.attack = attacked - placed;
+        timing.fortify = fortified - attacked;
+        return timing;
+    }
+
+    // nearest-rank percentile of <values> (sorts the array)
+    protected static long percentile(long[] values, int percent) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int rank = (int) Math.ceil(percent / 100.0 * values.length);
+        return values[Math.max(0, Math.min(values.length - 1, rank - 1))];
+    }
+
+    protected static double millis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    // ---- corpus generation ---- //
+
+    public static void generateCorpus(File dir, int seeds) throws IOException {
+        dir.mkdirs();
+        for (String mapName : CORPUS_MAPS) {
+            String spec = mapName;
+            LuxMap map;
+            if (MapGenerator.isSpec(mapName)) {
+                map = MapGenerator.generate(mapName);
+            } else {
+                File mapFile = new File("maps", mapName + ".luxb");
+                map = LuxMap.load(mapFile);
+                spec = relativePath(dir, mapFile);
+            }
+            for (int seed=1; seed<=seeds; seed++) {
+                generatePositions(dir, mapName.replace(':', '-'), spec, map, seed);
+            }
+        }
+    }
+
+    protected static void generatePositions(File dir, String name, String spec, LuxMap map, long seed) throws IOException {
+        LuxAgent[] agents = new LuxAgent[4];
+        agents[0] = new Viking();
+        for (int seat=1; seat<agents.length; seat++) {
+            agents[seat] = new BaselineAgent();
+        }
+        for (int seat=0; seat<agents.length; seat++) {
+            TournamentRunner.seedAgent(agents[seat], seed * 31 + seat);
+        }
+        HeadlessGame game = new HeadlessGame(map, agents, seed);
+        game.setPickCountries(false);
+        game.setup();
+
+        BoardPosition lastVikingTurn = null;
+        boolean savedMid = false;
+        while (!game.isOver()) {
+            if (game.getNextPlayer() == 0) {
+                int round = game.getNextTurnCount();
+                BoardPosition position = BoardPosition.capture(game, spec, 0, seed * 1000 + round);
+                if (round == MID_ROUND) {
+                    save(position, new File(dir, name + "-" + seed + "-mid.pos"));
+                    savedMid = true;
+                }
+                if (round == LATE_ROUND) {
+                    save(position, new File(dir, name + "-" + seed + "-late.pos"));
+                    return;
+                }
+                lastVikingTurn = position;
+            }
+            game.playTurn();
+        }
+        // the game ended early; use Viking's last turn (if it got one) for whatever's missing
+        if (lastVikingTurn != null && lastVikingTurn.turn > 1) {
+            save(lastVikingTurn, new File(dir, name + "-" + seed + (savedMid ? "-late.pos" : "-mid.pos")));
+        }
+    }
+
+    protected static void save(BoardPosition position, File file) throws IOException {
+        position.save(file);
+        System.out.println("saved " + file + " (turn " + position.turn + ")");
+    }
+
+    protected static String relativePath(File dir, File file) {
+        return dir.getAbsoluteFile().toPath().relativize(file.getAbsoluteFile().toPath()).toString();
+    }
+}